@@ -0,0 +1,141 @@
+package org.example.klubfitness;
+
+import org.example.klubfitness.entity.User;
+import org.example.klubfitness.repository.ReservationRepository;
+import org.example.klubfitness.repository.UserRepository;
+import org.example.klubfitness.repository.WaitlistRepository;
+import org.example.klubfitness.security.CachingAuthenticationProvider;
+import org.example.klubfitness.security.Role;
+import org.example.klubfitness.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Cache uwierzytelnień HTTP Basic: koszt uwierzytelnienia jednego żądania z cache i bez
+ * (zapytanie o użytkownika + BCrypt) oraz unieważnienie po zmianie hasła.
+ */
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class AuthCacheIT {
+
+    private static final int ROUNDS = 200;
+
+    @Container
+    static PostgreSQLContainer<?> pg = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("test-db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", pg::getJdbcUrl);
+        registry.add("spring.datasource.username", pg::getUsername);
+        registry.add("spring.datasource.password", pg::getPassword);
+    }
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    TestRestTemplate rest;
+    @Autowired
+    CachingAuthenticationProvider cachingProvider;
+    @Autowired
+    UserDetailsService userDetailsService;
+    @Autowired
+    PasswordEncoder passwordEncoder;
+    @Autowired
+    UserService userService;
+    @Autowired
+    UserRepository userRepo;
+    @Autowired
+    ReservationRepository reservationRepo;
+    @Autowired
+    WaitlistRepository waitlistRepo;
+
+    private User member;
+
+    @BeforeEach
+    void setUp() {
+        waitlistRepo.deleteAll();
+        reservationRepo.deleteAll();
+        userRepo.deleteAll();
+
+        member = new User();
+        member.setUsername("member");
+        member.setPassword(passwordEncoder.encode("password"));
+        member.setRole(Role.USER);
+        member = userRepo.save(member);
+    }
+
+    @Test
+    void perRequestAuthCost_cachedVersusBcrypt() {
+        DaoAuthenticationProvider uncached = new DaoAuthenticationProvider(passwordEncoder);
+        uncached.setUserDetailsService(userDetailsService);
+
+        long t0 = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            uncached.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("member", "password"));
+        }
+        double uncachedMicros = (System.nanoTime() - t0) / 1e3 / ROUNDS;
+
+        cachingProvider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("member", "password"));
+        long t1 = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            cachingProvider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("member", "password"));
+        }
+        double cachedMicros = (System.nanoTime() - t1) / 1e3 / ROUNDS;
+
+        System.out.printf("basic auth per request: BCrypt + query %.0f us, cached %.1f us (x%.0f)%n",
+                uncachedMicros, cachedMicros, uncachedMicros / cachedMicros);
+        assertThat(cachedMicros * 100).isLessThan(uncachedMicros);
+    }
+
+    @Test
+    void passwordChange_invalidatesCachedCredentials() {
+        String url = "http://localhost:" + port + "/api/sessions";
+        assertThat(rest.withBasicAuth("member", "password").getForEntity(url, String.class).getStatusCode())
+                .isEqualTo(HttpStatus.OK);
+
+        User change = new User();
+        change.setUsername("member");
+        change.setPassword(passwordEncoder.encode("changed"));
+        change.setRole(Role.USER);
+        userService.updateUser(member.getId(), change);
+
+        assertThat(rest.withBasicAuth("member", "password").getForEntity(url, String.class).getStatusCode())
+                .isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(rest.withBasicAuth("member", "changed").getForEntity(url, String.class).getStatusCode())
+                .isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void deletedUser_isRejectedAtOnce() {
+        String url = "http://localhost:" + port + "/api/sessions";
+        assertThat(rest.withBasicAuth("member", "password").getForEntity(url, String.class).getStatusCode())
+                .isEqualTo(HttpStatus.OK);
+
+        userService.deleteUser(member.getId());
+
+        assertThat(rest.withBasicAuth("member", "password").getForEntity(url, String.class).getStatusCode())
+                .isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+}
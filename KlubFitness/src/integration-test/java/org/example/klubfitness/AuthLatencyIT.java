@@ -0,0 +1,184 @@
+package org.example.klubfitness;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.klubfitness.dto.TokenResponseDto;
+import org.example.klubfitness.repository.ReservationRepository;
+import org.example.klubfitness.repository.TrainerRepository;
+import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.example.klubfitness.repository.UserRepository;
+import org.example.klubfitness.repository.WaitlistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Test obciążeniowy {@code GET /api/sessions}: p50/p99 przy HTTP Basic (pierwsze żądanie użytkownika
+ * z BCryptem i kolejne z cache) oraz przy tokenie z {@code /api/auth/login}.
+ */
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class AuthLatencyIT {
+
+    private static final int USERS = 100;
+    private static final int REQUESTS = 2000;
+    private static final int CLIENTS = 16;
+
+    @Container
+    static PostgreSQLContainer<?> pg = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("test-db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", pg::getJdbcUrl);
+        registry.add("spring.datasource.username", pg::getUsername);
+        registry.add("spring.datasource.password", pg::getPassword);
+    }
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    PasswordEncoder passwordEncoder;
+    @Autowired
+    WaitlistRepository waitlistRepo;
+    @Autowired
+    ReservationRepository reservationRepo;
+    @Autowired
+    TrainingSessionRepository sessionRepo;
+    @Autowired
+    TrainerRepository trainerRepo;
+    @Autowired
+    UserRepository userRepo;
+    @Autowired
+    JdbcTemplate jdbc;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        waitlistRepo.deleteAll();
+        reservationRepo.deleteAll();
+        sessionRepo.deleteAll();
+        trainerRepo.deleteAll();
+        userRepo.deleteAll();
+
+        jdbc.update("INSERT INTO users (username, password, role) "
+                + "SELECT 'member' || g, ?, 'USER' FROM generate_series(1, ?) g", passwordEncoder.encode("password"), USERS);
+        jdbc.execute("INSERT INTO trainers (name, specialization) VALUES ('Coach', 'Spin')");
+        jdbc.execute("INSERT INTO training_sessions (title, start_time, end_time, trainer_id, capacity) "
+                + "SELECT 'Class ' || g, now() + g * INTERVAL '1 day', now() + g * INTERVAL '1 day' + INTERVAL '1 hour', "
+                + "(SELECT MIN(id) FROM trainers), 20 FROM generate_series(1, 50) g");
+    }
+
+    private String basic(int user) {
+        String raw = "member" + (user % USERS + 1) + ":password";
+        return "Basic " + Base64.getEncoder().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String login(int user) throws Exception {
+        String body = "{\"username\":\"member" + (user + 1) + "\",\"password\":\"password\"}";
+        HttpResponse<String> resp = http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(resp.statusCode()).isEqualTo(200);
+        return "Bearer " + mapper.readValue(resp.body(), TokenResponseDto.class).getAccessToken();
+    }
+
+    /** Wysyła {@code count} żądań z {@code CLIENTS} równoległych klientów; zwraca posortowane czasy w µs. */
+    private long[] run(int count, IntFunction<String> authorization) throws Exception {
+        URI uri = URI.create("http://localhost:" + port + "/api/sessions");
+        List<Future<Long>> futures = new ArrayList<>(count);
+        try (ExecutorService pool = Executors.newFixedThreadPool(CLIENTS)) {
+            for (int i = 0; i < count; i++) {
+                int n = i;
+                futures.add(pool.submit(() -> {
+                    HttpRequest req = HttpRequest.newBuilder(uri).header("Authorization", authorization.apply(n)).build();
+                    long t0 = System.nanoTime();
+                    HttpResponse<Void> resp = http.send(req, HttpResponse.BodyHandlers.discarding());
+                    long micros = (System.nanoTime() - t0) / 1000;
+                    assertThat(resp.statusCode()).isEqualTo(200);
+                    return micros;
+                }));
+            }
+            long[] latencies = new long[count];
+            for (int i = 0; i < count; i++) {
+                latencies[i] = futures.get(i).get();
+            }
+            Arrays.sort(latencies);
+            return latencies;
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static void report(String name, long[] sorted) {
+        System.out.printf("GET /api/sessions %-18s n=%d p50=%d us p99=%d us%n",
+                name, sorted.length, percentile(sorted, 0.50), percentile(sorted, 0.99));
+    }
+
+    @Test
+    void p99_basicVersusToken() throws Exception {
+        List<String> tokens = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            tokens.add(login(i));
+        }
+        // rozgrzanie JIT i puli połączeń na tokenach, żeby nie obciążać pomiaru Basic
+        run(200, n -> tokens.get(n % USERS));
+
+        long[] basicCold = run(USERS, this::basic);
+        long[] basicWarm = run(REQUESTS, this::basic);
+        long[] token = run(REQUESTS, n -> tokens.get(n % USERS));
+
+        report("basic (bcrypt)", basicCold);
+        report("basic (cached)", basicWarm);
+        report("bearer token", token);
+        assertThat(percentile(token, 0.99)).isLessThan(percentile(basicCold, 0.99));
+    }
+
+    @Test
+    void refreshTokenIsNotAcceptedAsAccessToken() throws Exception {
+        HttpResponse<String> resp = http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"member1\",\"password\":\"password\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        TokenResponseDto pair = mapper.readValue(resp.body(), TokenResponseDto.class);
+
+        HttpResponse<Void> denied = http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/sessions"))
+                .header("Authorization", "Bearer " + pair.getRefreshToken()).build(), HttpResponse.BodyHandlers.discarding());
+
+        assertThat(denied.statusCode()).isEqualTo(401);
+    }
+}
@@ -0,0 +1,192 @@
+package org.example.klubfitness;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.klubfitness.dto.ReservationBatchResultDto;
+import org.example.klubfitness.dto.ReservationBatchResultDto.Status;
+import org.example.klubfitness.dto.ReservationDto;
+import org.example.klubfitness.entity.User;
+import org.example.klubfitness.repository.ReservationRepository;
+import org.example.klubfitness.repository.TrainerRepository;
+import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.example.klubfitness.repository.UserRepository;
+import org.example.klubfitness.repository.WaitlistRepository;
+import org.example.klubfitness.security.Role;
+import org.example.klubfitness.service.ReservationService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Wsadowe rezerwacje: poprawność statusów, liczba zapytań i porównanie przepustowości
+ * (wiersze/s) z pojedynczym {@code POST /api/reservations}.
+ */
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class BulkReservationIT {
+
+    private static final int ROWS = 1000;
+
+    @Container
+    static PostgreSQLContainer<?> pg = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("test-db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", pg::getJdbcUrl);
+        registry.add("spring.datasource.username", pg::getUsername);
+        registry.add("spring.datasource.password", pg::getPassword);
+    }
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    TestRestTemplate rest;
+    @Autowired
+    ReservationService reservationService;
+    @Autowired
+    ReservationRepository reservationRepo;
+    @Autowired
+    WaitlistRepository waitlistRepo;
+    @Autowired
+    TrainingSessionRepository sessionRepo;
+    @Autowired
+    TrainerRepository trainerRepo;
+    @Autowired
+    UserRepository userRepo;
+    @Autowired
+    PasswordEncoder passwordEncoder;
+    @Autowired
+    JdbcTemplate jdbc;
+    @Autowired
+    EntityManagerFactory emf;
+
+    private TestRestTemplate adminRest;
+    private List<Long> userIds;
+    private List<Long> sessionIds;
+
+    @BeforeEach
+    void setUp() {
+        waitlistRepo.deleteAll();
+        reservationRepo.deleteAll();
+        sessionRepo.deleteAll();
+        trainerRepo.deleteAll();
+        userRepo.deleteAll();
+
+        User admin = new User();
+        admin.setUsername("admin");
+        admin.setPassword(passwordEncoder.encode("password"));
+        admin.setRole(Role.ADMIN);
+        userRepo.save(admin);
+        adminRest = rest.withBasicAuth("admin", "password");
+
+        jdbc.execute("INSERT INTO users (username, password, role) "
+                + "SELECT 'member' || g, 'pw', 'USER' FROM generate_series(1, 500) g");
+        userIds = jdbc.queryForList("SELECT id FROM users WHERE username LIKE 'member%' ORDER BY id", Long.class);
+        jdbc.execute("INSERT INTO trainers (name, specialization) VALUES ('Coach', 'Spin')");
+        // 2 x 4 sesje po 500 miejsc: osobne dla pomiaru pojedynczego i wsadowego endpointu
+        jdbc.execute("INSERT INTO training_sessions (title, start_time, end_time, trainer_id, capacity) "
+                + "SELECT 'Class ' || g, now() + g * INTERVAL '1 day', now() + g * INTERVAL '1 day' + INTERVAL '1 hour', "
+                + "(SELECT MIN(id) FROM trainers), 500 FROM generate_series(1, 8) g");
+        sessionIds = jdbc.queryForList("SELECT id FROM training_sessions ORDER BY id", Long.class);
+    }
+
+    private List<ReservationDto> items(List<Long> sessions, int count) {
+        List<ReservationDto> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new ReservationDto(null, userIds.get(i % userIds.size()),
+                    sessions.get(i / userIds.size()), null));
+        }
+        return items;
+    }
+
+    @Test
+    void batch_reportsPerItemStatusesAndKeepsCounters() {
+        Long session = sessionIds.get(0);
+        jdbc.update("UPDATE training_sessions SET capacity = 2 WHERE id = ?", session);
+        List<ReservationDto> items = List.of(
+                new ReservationDto(null, userIds.get(0), session, null),
+                new ReservationDto(null, userIds.get(0), session, null),
+                new ReservationDto(null, -1L, session, null),
+                new ReservationDto(null, userIds.get(1), -1L, null),
+                new ReservationDto(null, userIds.get(1), session, null),
+                new ReservationDto(null, userIds.get(2), session, null));
+
+        ResponseEntity<ReservationBatchResultDto[]> resp = adminRest.postForEntity(
+                "http://localhost:" + port + "/api/reservations/batch", items, ReservationBatchResultDto[].class);
+
+        assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(Arrays.stream(resp.getBody()).map(ReservationBatchResultDto::getStatus)).containsExactly(
+                Status.CREATED, Status.DUPLICATE_IN_BATCH, Status.USER_NOT_FOUND,
+                Status.SESSION_NOT_FOUND, Status.CREATED, Status.SESSION_FULL);
+        assertThat(resp.getBody()[0].getReservationId()).isNotNull();
+        assertThat(jdbc.queryForObject("SELECT seats_taken FROM training_sessions WHERE id = ?",
+                Integer.class, session)).isEqualTo(2);
+
+        // ponowienie tego samego wsadu nie tworzy duplikatów
+        List<ReservationBatchResultDto> again = reservationService.createReservations(items.subList(0, 1));
+        assertThat(again.get(0).getStatus()).isEqualTo(Status.ALREADY_BOOKED);
+    }
+
+    @Test
+    void batch_usesConstantNumberOfStatements() {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        List<ReservationBatchResultDto> results = reservationService.createReservations(items(sessionIds, ROWS));
+
+        assertThat(results).allMatch(r -> r.getStatus() == Status.CREATED);
+        // 3 SELECT-y + UPDATE per sesja + nextval co 50 wierszy + INSERT-y wysyłane po 50
+        assertThat(stats.getPrepareStatementCount()).isLessThan(60);
+        assertThat(reservationRepo.count()).isEqualTo(ROWS);
+    }
+
+    @Test
+    void throughput_batchVersusSingleEndpoint() {
+        String url = "http://localhost:" + port + "/api/reservations";
+        List<ReservationDto> single = items(sessionIds.subList(0, 4), ROWS);
+        List<ReservationDto> batch = items(sessionIds.subList(4, 8), ROWS);
+
+        long t0 = System.nanoTime();
+        for (ReservationDto dto : single) {
+            assertThat(adminRest.postForEntity(url, dto, ReservationDto.class).getStatusCode())
+                    .isEqualTo(HttpStatus.CREATED);
+        }
+        double singleRate = ROWS / ((System.nanoTime() - t0) / 1e9);
+
+        long t1 = System.nanoTime();
+        ResponseEntity<ReservationBatchResultDto[]> resp =
+                adminRest.postForEntity(url + "/batch", batch, ReservationBatchResultDto[].class);
+        double batchRate = ROWS / ((System.nanoTime() - t1) / 1e9);
+
+        assertThat(resp.getBody()).allMatch(r -> r.getStatus() == Status.CREATED);
+        System.out.printf("reservations: single endpoint %.0f rows/s, batch endpoint %.0f rows/s (x%.1f)%n",
+                singleRate, batchRate, batchRate / singleRate);
+        assertThat(batchRate).isGreaterThan(singleRate * 5);
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.klubfitness;
+
+import org.example.klubfitness.load.LatencyHistogram;
+import org.example.klubfitness.load.LoadDataSeeder;
+import org.example.klubfitness.load.LoadDriver;
+import org.example.klubfitness.load.LoadDriver.Operation;
+import org.example.klubfitness.load.LoadResult;
+import org.example.klubfitness.security.TokenService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Test obciążeniowy na danych o skali produkcyjnej (domyślnie 10k użytkowników, 50k zajęć, 5M rezerwacji –
+ * zob. {@link LoadDataSeeder}): najpierw mieszanka przeglądania, potem „rush” na {@value #HOT_SESSIONS}
+ * popularnych zajęć. Histogramy czasów trafiają na konsolę i do {@code target/load-test/*.csv}.
+ * Uruchomienie: {@code mvn -Pload-test verify -Dit.test=ClubLoadIT}; mniejsze dane np. {@code -Dload.reservations=500000}.
+ */
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ClubLoadIT {
+
+    static final int CLIENTS = 200;
+    static final int BROWSE_REQUESTS = 20_000;
+    static final int RUSH_CLIENTS = 500;
+    static final int HOT_SESSIONS = 50;
+    static final int RUSH_REQUESTS = 5_000;
+
+    @Container
+    static PostgreSQLContainer<?> pg = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("test-db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", pg::getJdbcUrl);
+        registry.add("spring.datasource.username", pg::getUsername);
+        registry.add("spring.datasource.password", pg::getPassword);
+    }
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    TokenService tokenService;
+    @Autowired
+    JdbcTemplate jdbc;
+
+    private List<Long> userIds;
+    private List<Long> sessionIds;
+    private List<Long> trainerIds;
+    private String token;
+
+    @BeforeAll
+    void seed() {
+        LoadDataSeeder seeder = new LoadDataSeeder(jdbc);
+        seeder.seed();
+        userIds = seeder.ids("users");
+        sessionIds = seeder.ids("training_sessions");
+        trainerIds = seeder.ids("trainers");
+        token = "Bearer " + tokenService.issue("loadtest", List.of("ADMIN")).getAccessToken();
+    }
+
+    private HttpRequest.Builder api(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api" + path))
+                .header("Authorization", token);
+    }
+
+    private <T> T any(List<T> ids, RandomGenerator rnd) {
+        return ids.get(rnd.nextInt(ids.size()));
+    }
+
+    @Test
+    @Order(1)
+    void browse() throws Exception {
+        List<Operation> mix = List.of(
+                Operation.of("GET /sessions/{id}", 40, (i, rnd) -> api("/sessions/" + any(sessionIds, rnd)).build(), 200),
+                Operation.of("GET /reservations?userId", 25, (i, rnd) -> api("/reservations?userId=" + any(userIds, rnd)).build(), 200),
+                Operation.of("GET /reservations?sessionId", 10, (i, rnd) -> api("/reservations?sessionId=" + any(sessionIds, rnd)).build(), 200),
+                Operation.of("GET /trainers/{id}", 15, (i, rnd) -> api("/trainers/" + any(trainerIds, rnd)).build(), 200),
+                Operation.of("GET /trainers/{id}/free-slots", 5, (i, rnd) -> api("/trainers/" + any(trainerIds, rnd) + "/free-slots").build(), 200),
+                Operation.of("GET /trainers", 4, (i, rnd) -> api("/trainers").build(), 200),
+                Operation.of("GET /sessions", 1, (i, rnd) -> api("/sessions").build(), 200));
+
+        LoadDriver driver = new LoadDriver(CLIENTS, 42);
+        driver.run("browse-warmup", 2_000, mix);
+        LoadResult result = driver.run("browse", BROWSE_REQUESTS, mix).print(System.out).writeCsv();
+
+        assertThat(result.unexpected()).isEmpty();
+        assertThat(result.requests()).isEqualTo(BROWSE_REQUESTS);
+    }
+
+    @Test
+    @Order(2)
+    void bookingRush() throws Exception {
+        List<Long> hot = sessionIds.subList(0, HOT_SESSIONS);
+        Long reservationsBefore = jdbc.queryForObject("SELECT COUNT(*) FROM reservations", Long.class);
+
+        // wolnych miejsc jest HOT_SESSIONS * FREE_SEATS, chętnych kilka razy więcej: reszta dostaje 409
+        List<Operation> mix = List.of(Operation.of("POST /reservations", 1, (i, rnd) -> api("/reservations")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"userId\":" + any(userIds, rnd)
+                        + ",\"sessionId\":" + hot.get(i % HOT_SESSIONS) + "}"))
+                .build(), 201, 409));
+
+        LoadResult result = new LoadDriver(RUSH_CLIENTS, 7).run("booking-rush", RUSH_REQUESTS, mix)
+                .print(System.out).writeCsv();
+        LatencyHistogram latencies = result.histogram("POST /reservations");
+
+        assertThat(result.unexpected()).isEmpty();
+        assertThat(latencies.count()).isEqualTo(RUSH_REQUESTS);
+        long booked = result.count("POST /reservations", 201);
+        assertThat(booked).isLessThanOrEqualTo((long) HOT_SESSIONS * LoadDataSeeder.FREE_SEATS);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM reservations", Long.class))
+                .isEqualTo(reservationsBefore + booked);
+
+        // licznik miejsc zgadza się z rezerwacjami i nigdzie nie przekracza pojemności
+        List<Map<String, Object>> mismatched = jdbc.queryForList(
+                "SELECT s.id, s.seats_taken, s.capacity, COUNT(r.id) AS reserved FROM training_sessions s "
+                        + "LEFT JOIN reservations r ON r.session_id = s.id WHERE s.id = ANY(?) "
+                        + "GROUP BY s.id HAVING s.seats_taken <> COUNT(r.id) OR s.seats_taken > s.capacity",
+                (Object) hot.toArray(Long[]::new));
+        assertThat(mismatched).isEmpty();
+    }
+}
@@ -0,0 +1,191 @@
+package org.example.klubfitness;
+
+import org.example.klubfitness.entity.Trainer;
+import org.example.klubfitness.entity.TrainingSession;
+import org.example.klubfitness.repository.ReservationRepository;
+import org.example.klubfitness.repository.TrainerRepository;
+import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.example.klubfitness.repository.UserRepository;
+import org.example.klubfitness.repository.WaitlistRepository;
+import org.example.klubfitness.security.TokenService;
+import org.example.klubfitness.service.ReservationService;
+import org.example.klubfitness.service.TrainerService;
+import org.example.klubfitness.service.TrainingSessionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * ETag / Last-Modified na sesjach i trenerach przez HTTP: 304 dla aktualnego klienta, nowy ETag po
+ * edycji (wersja), rezerwacji (licznik miejsc), zmianie serii zapytaniem zbiorczym i usunięciu sesji.
+ */
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ConditionalGetIT {
+
+    @Container
+    static PostgreSQLContainer<?> pg = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("test-db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", pg::getJdbcUrl);
+        registry.add("spring.datasource.username", pg::getUsername);
+        registry.add("spring.datasource.password", pg::getPassword);
+    }
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    TokenService tokenService;
+    @Autowired
+    ReservationService reservationService;
+    @Autowired
+    TrainingSessionService sessionService;
+    @Autowired
+    TrainerService trainerService;
+    @Autowired
+    TrainingSessionRepository sessionRepo;
+    @Autowired
+    WaitlistRepository waitlistRepo;
+    @Autowired
+    ReservationRepository reservationRepo;
+    @Autowired
+    TrainerRepository trainerRepo;
+    @Autowired
+    UserRepository userRepo;
+    @Autowired
+    JdbcTemplate jdbc;
+    @Autowired
+    TransactionTemplate tx;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private Long userId;
+    private Long trainerId;
+    private Long sessionId;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        waitlistRepo.deleteAll();
+        reservationRepo.deleteAll();
+        sessionRepo.deleteAll();
+        trainerRepo.deleteAll();
+        userRepo.deleteAll();
+
+        jdbc.execute("INSERT INTO users (username, password, role) VALUES ('member', 'pw', 'USER')");
+        userId = jdbc.queryForObject("SELECT id FROM users", Long.class);
+        jdbc.execute("INSERT INTO trainers (name, specialization) VALUES ('Coach', 'Spin')");
+        trainerId = jdbc.queryForObject("SELECT id FROM trainers", Long.class);
+        jdbc.update("INSERT INTO training_sessions (title, start_time, end_time, trainer_id, capacity, series_id) "
+                + "SELECT 'Spin ' || g, now() + g * INTERVAL '1 day', now() + g * INTERVAL '1 day' + INTERVAL '1 hour', "
+                + "?, 20, 77 FROM generate_series(1, 3) g", trainerId);
+        sessionId = jdbc.queryForObject("SELECT MIN(id) FROM training_sessions", Long.class);
+        token = "Bearer " + tokenService.issue("poller", List.of("ADMIN")).getAccessToken();
+    }
+
+    private HttpResponse<String> get(String path, String header, String value) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api" + path))
+                .header("Authorization", token);
+        if (header != null) {
+            request.header(header, value);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String etag(HttpResponse<?> response) {
+        return response.headers().firstValue("ETag").orElseThrow();
+    }
+
+    @Test
+    void session_etagChangesWithBookingAndEdit() throws Exception {
+        HttpResponse<String> first = get("/sessions/" + sessionId, null, null);
+        assertThat(first.statusCode()).isEqualTo(200);
+        assertThat(etag(first)).isEqualTo("\"0-0\"");
+        String lastModified = first.headers().firstValue("Last-Modified").orElseThrow();
+
+        HttpResponse<String> again = get("/sessions/" + sessionId, "If-None-Match", etag(first));
+        assertThat(again.statusCode()).isEqualTo(304);
+        assertThat(again.body()).isEmpty();
+        assertThat(get("/sessions/" + sessionId, "If-Modified-Since", lastModified).statusCode()).isEqualTo(304);
+
+        reservationService.createReservation(userId, sessionId);
+        HttpResponse<String> booked = get("/sessions/" + sessionId, "If-None-Match", etag(first));
+        assertThat(booked.statusCode()).isEqualTo(200);
+        assertThat(etag(booked)).isEqualTo("\"0-1\"");
+        assertThat(booked.body()).contains("\"seatsTaken\":1");
+
+        TrainingSession existing = sessionRepo.findById(sessionId).orElseThrow();
+        TrainingSession edit = new TrainingSession();
+        edit.setTitle("Spin XL");
+        edit.setStartTime(existing.getStartTime());
+        edit.setEndTime(existing.getEndTime());
+        edit.setTrainer(existing.getTrainer());
+        sessionService.updateSession(sessionId, edit);
+        HttpResponse<String> edited = get("/sessions/" + sessionId, "If-None-Match", etag(booked));
+        assertThat(edited.statusCode()).isEqualTo(200);
+        assertThat(etag(edited)).isEqualTo("\"1-1\"");
+        assertThat(edited.body()).contains("Spin XL");
+    }
+
+    @Test
+    void sessionList_etagChangesWithBookingSeriesUpdateAndDelete() throws Exception {
+        HttpResponse<String> first = get("/sessions", null, null);
+        assertThat(first.statusCode()).isEqualTo(200);
+        String etag = etag(first);
+        assertThat(get("/sessions", "If-None-Match", etag).statusCode()).isEqualTo(304);
+
+        reservationService.createReservation(userId, sessionId);
+        String afterBooking = etag(get("/sessions", "If-None-Match", etag));
+        assertThat(afterBooking).isNotEqualTo(etag);
+
+        assertThat(get("/sessions", "If-None-Match", afterBooking).statusCode()).isEqualTo(304);
+
+        Integer shifted = tx.execute(status -> sessionRepo.shiftSeriesFrom(77L, LocalDateTime.now(), 30));
+        assertThat(shifted).isEqualTo(3);
+        String afterShift = etag(get("/sessions", "If-None-Match", afterBooking));
+        assertThat(afterShift).isNotEqualTo(afterBooking);
+
+        jdbc.update("DELETE FROM training_sessions WHERE id = ?", sessionId);
+        HttpResponse<String> afterDelete = get("/sessions", "If-None-Match", afterShift);
+        assertThat(afterDelete.statusCode()).isEqualTo(200);
+        assertThat(etag(afterDelete)).startsWith("\"2-");
+    }
+
+    @Test
+    void trainer_etagFollowsVersion() throws Exception {
+        HttpResponse<String> first = get("/trainers/" + trainerId, null, null);
+        assertThat(etag(first)).isEqualTo("\"0\"");
+        assertThat(get("/trainers/" + trainerId, "If-None-Match", "\"0\"").statusCode()).isEqualTo(304);
+
+        trainerService.updateTrainer(trainerId, new Trainer(null, "Coach", "Yoga"));
+
+        HttpResponse<String> changed = get("/trainers/" + trainerId, "If-None-Match", "\"0\"");
+        assertThat(changed.statusCode()).isEqualTo(200);
+        assertThat(etag(changed)).isEqualTo("\"1\"");
+        assertThat(get("/trainers/999999", null, null).statusCode()).isEqualTo(404);
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.klubfitness;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Sprawdza przez EXPLAIN, że najczęstsze zapytania korzystają z indeksów z migracji V2 (strony keyset
+ * rezerwacji bez sortowania; sesje po czasie – z indeksu {@code (start_time, id)}, który w V12 zastąpił
+ * jednokolumnowy).
+ * Dane: 2 000 userów, 5 000 sesji, 100 000 rezerwacji (generate_series + ANALYZE).
+ */
+@Testcontainers
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class LookupIndexUsageIT {
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:15")
+                    .withDatabaseName("klub_fitness")
+                    .withUsername("fitnesiara")
+                    .withPassword("klubfitness");
+
+    @DynamicPropertySource
+    static void overrideProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url",    postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void seed() {
+        jdbc.execute("TRUNCATE reservations, training_sessions, trainers, users RESTART IDENTITY CASCADE");
+        jdbc.execute("INSERT INTO users (username, password, role) "
+                + "SELECT 'user' || g, 'pw', 'USER' FROM generate_series(1, 2000) g");
+        jdbc.execute("INSERT INTO trainers (name, specialization) "
+                + "SELECT 'trainer' || g, 'spec' FROM generate_series(1, 50) g");
+        jdbc.execute("INSERT INTO training_sessions (title, description, start_time, end_time, trainer_id) "
+                + "SELECT 'session' || g, NULL, "
+                + "TIMESTAMP '2025-01-01 06:00' + g * INTERVAL '2 hours', "
+                + "TIMESTAMP '2025-01-01 07:00' + g * INTERVAL '2 hours', "
+                + "1 + g % 50 FROM generate_series(1, 5000) g");
+        // para (user, session) unikalna: user = g % 2000, sesja = g / 2000
+        jdbc.execute("INSERT INTO reservations (reservation_time, user_id, session_id) "
+                + "SELECT TIMESTAMP '2025-01-01' + g * INTERVAL '1 minute', 1 + g % 2000, 1 + g / 2000 "
+                + "FROM generate_series(0, 99999) g");
+        jdbc.execute("ANALYZE");
+    }
+
+    @Test
+    void findByUserId_usesUserIndex() {
+        assertThat(plan("SELECT * FROM reservations WHERE user_id = 42"))
+                .containsAnyOf("uk_reservations_user_session", "idx_reservations_user_id");
+    }
+
+    @Test
+    void findBySessionId_usesSessionIndex() {
+        assertThat(plan("SELECT * FROM reservations WHERE session_id = 7"))
+                .contains("idx_reservations_session_id");
+    }
+
+    @Test
+    void keysetPages_areIndexOrderedRangeScans() {
+        // findDtoPageBySessionId / findDtoPageByUserId: zakres po id w obrębie klucza, bez sortowania
+        assertThat(plan("SELECT * FROM reservations WHERE session_id = 7 AND id > 14100 ORDER BY id LIMIT 100"))
+                .contains("idx_reservations_session_id")
+                .doesNotContain("Sort");
+        assertThat(plan("SELECT * FROM reservations WHERE user_id = 42 AND id > 20000 ORDER BY id LIMIT 100"))
+                .contains("idx_reservations_user_id")
+                .doesNotContain("Sort");
+    }
+
+    @Test
+    void findByStartTimeBetween_usesStartTimeIndex() {
+        assertThat(plan("SELECT * FROM training_sessions "
+                + "WHERE start_time BETWEEN TIMESTAMP '2025-03-01' AND TIMESTAMP '2025-03-08'"))
+                .contains("idx_training_sessions_start_id");
+    }
+
+    @Test
+    void duplicateUserSessionPair_isRejected() {
+        assertThatThrownBy(() -> jdbc.update(
+                "INSERT INTO reservations (reservation_time, user_id, session_id) VALUES (now(), 1, 1)"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private String plan(String sql) {
+        List<String> lines = jdbc.queryForList("EXPLAIN " + sql, String.class);
+        String plan = String.join("\n", lines);
+        assertThat(plan).containsAnyOf("Index Scan", "Index Only Scan", "Bitmap Index Scan");
+        assertThat(plan).doesNotContain("Seq Scan");
+        return plan;
+    }
+}
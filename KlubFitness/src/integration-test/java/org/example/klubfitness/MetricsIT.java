@@ -0,0 +1,128 @@
+package org.example.klubfitness;
+
+import org.example.klubfitness.repository.ReservationRepository;
+import org.example.klubfitness.repository.TrainerRepository;
+import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.example.klubfitness.repository.UserRepository;
+import org.example.klubfitness.repository.WaitlistRepository;
+import org.example.klubfitness.security.TokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * {@code /actuator/prometheus} po prawdziwych rezerwacjach: czasy serwisów i repozytoriów,
+ * liczba wierszy, pula Hikari oraz metryki przyjmowania i odrzucania rezerwacji.
+ */
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class MetricsIT {
+
+    @Container
+    static PostgreSQLContainer<?> pg = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("test-db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", pg::getJdbcUrl);
+        registry.add("spring.datasource.username", pg::getUsername);
+        registry.add("spring.datasource.password", pg::getPassword);
+    }
+
+    @Autowired
+    TestRestTemplate rest;
+    @Autowired
+    TokenService tokenService;
+    @Autowired
+    WaitlistRepository waitlistRepo;
+    @Autowired
+    ReservationRepository reservationRepo;
+    @Autowired
+    TrainingSessionRepository sessionRepo;
+    @Autowired
+    TrainerRepository trainerRepo;
+    @Autowired
+    UserRepository userRepo;
+    @Autowired
+    JdbcTemplate jdbc;
+
+    private HttpHeaders headers;
+    private List<Long> userIds;
+    private Long sessionId;
+
+    @BeforeEach
+    void setUp() {
+        waitlistRepo.deleteAll();
+        reservationRepo.deleteAll();
+        sessionRepo.deleteAll();
+        trainerRepo.deleteAll();
+        userRepo.deleteAll();
+
+        jdbc.execute("INSERT INTO users (username, password, role) "
+                + "SELECT 'member' || g, 'pw', 'USER' FROM generate_series(1, 2) g");
+        userIds = jdbc.queryForList("SELECT id FROM users ORDER BY id", Long.class);
+        jdbc.execute("INSERT INTO trainers (name, specialization) VALUES ('Coach', 'Spin')");
+        jdbc.execute("INSERT INTO training_sessions (title, start_time, end_time, trainer_id, capacity) "
+                + "SELECT 'Spin', now() + INTERVAL '1 day', now() + INTERVAL '1 day 1 hour', MIN(id), 1 FROM trainers");
+        sessionId = jdbc.queryForObject("SELECT MIN(id) FROM training_sessions", Long.class);
+
+        headers = new HttpHeaders();
+        headers.setBearerAuth(tokenService.issue("metrics", List.of("ADMIN")).getAccessToken());
+        headers.setContentType(MediaType.APPLICATION_JSON);
+    }
+
+    private ResponseEntity<String> book(Long userId) {
+        String body = "{\"userId\":" + userId + ",\"sessionId\":" + sessionId + "}";
+        return rest.exchange("/api/reservations", HttpMethod.POST, new HttpEntity<>(body, headers), String.class);
+    }
+
+    @Test
+    void prometheusEndpoint_exposesServiceRepositoryAndAdmissionMetrics() {
+        assertThat(book(userIds.get(0)).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(book(userIds.get(1)).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        rest.exchange("/api/reservations?userId=" + userIds.get(0), HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        ResponseEntity<String> scrape = rest.exchange("/actuator/prometheus", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+
+        assertThat(scrape.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(scrape.getBody())
+                .contains("klubfitness_service_seconds_count{")
+                .contains("method=\"createReservation\"")
+                .contains("spring_data_repository_invocations_seconds_count{")
+                .contains("klubfitness_repository_rows_count{")
+                .contains("hikaricp_connections_acquire_seconds_count{")
+                .containsPattern("klubfitness_reservation_admission_seconds_count\\{[^}]*outcome=\"admitted\"[^}]*} 1")
+                .containsPattern("klubfitness_reservation_admission_seconds_count\\{[^}]*outcome=\"rejected\"[^}]*} 1")
+                .contains("klubfitness_reservation_rejections_total{")
+                .contains("klubfitness_reservation_admission_seconds_bucket{");
+    }
+
+    @Test
+    void prometheusEndpoint_requiresAuthentication() {
+        assertThat(rest.getForEntity("/actuator/prometheus", String.class).getStatusCode())
+                .isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+}
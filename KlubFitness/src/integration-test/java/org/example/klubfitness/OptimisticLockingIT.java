@@ -0,0 +1,211 @@
+package org.example.klubfitness;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.klubfitness.dto.TrainingSessionDto;
+import org.example.klubfitness.entity.TrainingSession;
+import org.example.klubfitness.repository.ReservationRepository;
+import org.example.klubfitness.repository.TrainerRepository;
+import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.example.klubfitness.repository.UserRepository;
+import org.example.klubfitness.repository.WaitlistRepository;
+import org.example.klubfitness.security.TokenService;
+import org.example.klubfitness.service.OptimisticRetry;
+import org.example.klubfitness.service.ReservationService;
+import org.example.klubfitness.service.TrainingSessionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Równolegli edytujący tę samą sesję: z {@code If-Match} wygrywa dokładnie jeden, reszta dostaje 412/409
+ * zamiast nadpisać jego zmianę; bez warunku (i wewnętrznie przez {@link OptimisticRetry}) każda edycja
+ * przechodzi, a wersja rośnie o liczbę zapisów. Rezerwacja nie unieważnia {@code If-Match}.
+ */
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OptimisticLockingIT {
+
+    static final int WRITERS = 8;
+
+    @Container
+    static PostgreSQLContainer<?> pg = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("test-db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", pg::getJdbcUrl);
+        registry.add("spring.datasource.username", pg::getUsername);
+        registry.add("spring.datasource.password", pg::getPassword);
+    }
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    TokenService tokenService;
+    @Autowired
+    TrainingSessionService sessionService;
+    @Autowired
+    ReservationService reservationService;
+    @Autowired
+    WaitlistRepository waitlistRepo;
+    @Autowired
+    ReservationRepository reservationRepo;
+    @Autowired
+    TrainingSessionRepository sessionRepo;
+    @Autowired
+    TrainerRepository trainerRepo;
+    @Autowired
+    UserRepository userRepo;
+    @Autowired
+    JdbcTemplate jdbc;
+    @Autowired
+    ObjectMapper json;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private Long userId;
+    private Long trainerId;
+    private Long sessionId;
+    private LocalDateTime start;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        waitlistRepo.deleteAll();
+        reservationRepo.deleteAll();
+        sessionRepo.deleteAll();
+        trainerRepo.deleteAll();
+        userRepo.deleteAll();
+
+        jdbc.execute("INSERT INTO users (username, password, role) VALUES ('member', 'pw', 'USER')");
+        userId = jdbc.queryForObject("SELECT id FROM users", Long.class);
+        jdbc.execute("INSERT INTO trainers (name, specialization) VALUES ('Coach', 'Spin')");
+        trainerId = jdbc.queryForObject("SELECT id FROM trainers", Long.class);
+        jdbc.execute("INSERT INTO training_sessions (title, start_time, end_time, trainer_id, capacity) "
+                + "VALUES ('Spin', date_trunc('hour', now()) + INTERVAL '1 day', "
+                + "date_trunc('hour', now()) + INTERVAL '1 day 1 hour', (SELECT MIN(id) FROM trainers), 20)");
+        sessionId = jdbc.queryForObject("SELECT id FROM training_sessions", Long.class);
+        start = sessionRepo.findById(sessionId).orElseThrow().getStartTime();
+        token = "Bearer " + tokenService.issue("editor", List.of("ADMIN")).getAccessToken();
+    }
+
+    private HttpResponse<String> put(String title, String ifMatch) throws Exception {
+        TrainingSessionDto body = new TrainingSessionDto(null, title, null, start, start.plusHours(1), trainerId);
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/sessions/" + sessionId))
+                .header("Authorization", token)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(json.writeValueAsString(body)));
+        if (ifMatch != null) {
+            request.header("If-Match", ifMatch);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private Long version() {
+        return jdbc.queryForObject("SELECT version FROM training_sessions WHERE id = ?", Long.class, sessionId);
+    }
+
+    /** Wszyscy piszący startują naraz z tym samym stanem wyjściowym. */
+    private <T> List<T> concurrently(int writers, Callable<T> writer) throws Exception {
+        CountDownLatch go = new CountDownLatch(1);
+        try (ExecutorService pool = Executors.newFixedThreadPool(writers)) {
+            List<CompletableFuture<T>> results = new ArrayList<>();
+            for (int i = 0; i < writers; i++) {
+                int n = i;
+                results.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        go.await();
+                        return writer.call(n);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }, pool));
+            }
+            go.countDown();
+            return results.stream().map(CompletableFuture::join).toList();
+        }
+    }
+
+    interface Callable<T> {
+        T call(int writer) throws Exception;
+    }
+
+    @Test
+    void staleIfMatch_onlyOneWriterWins() throws Exception {
+        List<HttpResponse<String>> responses = concurrently(WRITERS, n -> put("Spin " + n, "\"0-0\""));
+
+        List<HttpResponse<String>> won = responses.stream().filter(r -> r.statusCode() == 200).toList();
+        assertThat(won).hasSize(1);
+        assertThat(responses).extracting(HttpResponse::statusCode).containsOnly(200, 409, 412);
+        assertThat(won.get(0).headers().firstValue("ETag")).hasValue("\"1-0\"");
+        assertThat(version()).isEqualTo(1);
+        // w bazie jest zmiana zwycięzcy, nie któregoś z odrzuconych
+        String title = jdbc.queryForObject("SELECT title FROM training_sessions WHERE id = ?", String.class, sessionId);
+        assertThat(won.get(0).body()).contains("\"title\":\"" + title + "\"");
+
+        assertThat(put("Spin again", "\"0-0\"").statusCode()).isEqualTo(412);
+        assertThat(put("Spin again", "\"1-0\"").statusCode()).isEqualTo(200);
+    }
+
+    @Test
+    void withoutIfMatch_everyWriteIsRetriedUntilApplied() throws Exception {
+        // każda nieudana próba to czyjś udany zapis, więc tylu piszącym wystarczy domyślna liczba prób
+        int writers = OptimisticRetry.DEFAULT_ATTEMPTS;
+        List<HttpResponse<String>> responses = concurrently(writers, n -> put("Spin " + n, null));
+
+        assertThat(responses).extracting(HttpResponse::statusCode).containsOnly(200);
+        assertThat(version()).isEqualTo(writers);
+    }
+
+    @Test
+    void internalCallers_retryConflictsThroughHelper() throws Exception {
+        List<TrainingSession> saved = concurrently(WRITERS, n -> OptimisticRetry.run(WRITERS, () -> {
+            TrainingSession edit = new TrainingSession();
+            edit.setTitle("Spin " + n);
+            edit.setStartTime(start);
+            edit.setEndTime(start.plusHours(1));
+            edit.setTrainer(trainerRepo.findById(trainerId).orElseThrow());
+            return sessionService.updateSession(sessionId, edit);
+        }));
+
+        assertThat(saved).extracting(TrainingSession::getVersion).doesNotHaveDuplicates();
+        assertThat(version()).isEqualTo(WRITERS);
+    }
+
+    @Test
+    void booking_doesNotInvalidateIfMatch() throws Exception {
+        reservationService.createReservation(userId, sessionId);
+
+        HttpResponse<String> response = put("Spin XL", "\"0-0\"");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("ETag")).hasValue("\"1-1\"");
+    }
+}
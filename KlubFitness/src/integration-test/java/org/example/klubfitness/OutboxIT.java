@@ -0,0 +1,229 @@
+package org.example.klubfitness;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.klubfitness.dto.ReservationDto;
+import org.example.klubfitness.exception.SessionFullException;
+import org.example.klubfitness.repository.OutboxRepository;
+import org.example.klubfitness.repository.ReservationRepository;
+import org.example.klubfitness.repository.TrainerRepository;
+import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.example.klubfitness.repository.UserRepository;
+import org.example.klubfitness.repository.WaitlistRepository;
+import org.example.klubfitness.service.OutboxMessage;
+import org.example.klubfitness.service.OutboxRelay;
+import org.example.klubfitness.service.OutboxSink;
+import org.example.klubfitness.service.ReservationService;
+import org.example.klubfitness.service.SessionSeriesService;
+import org.example.klubfitness.service.TrainerService;
+import org.example.klubfitness.service.TrainingSessionService;
+import org.example.klubfitness.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Outbox: wiersz powstaje w transakcji rezerwacji (i znika z jej rollbackiem), a kilka relayów
+ * naraz – jak kilka instancji aplikacji – dostarcza każde zdarzenie dokładnie raz. Rezerwacje
+ * usuwane razem z sesją albo serią też trafiają do outboxa jako anulowane.
+ */
+@Testcontainers
+@SpringBootTest(properties = {"klubfitness.outbox.poll-interval=1h", "klubfitness.outbox.batch-size=25"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OutboxIT {
+
+    @Container
+    static PostgreSQLContainer<?> pg = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("test-db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", pg::getJdbcUrl);
+        registry.add("spring.datasource.username", pg::getUsername);
+        registry.add("spring.datasource.password", pg::getPassword);
+    }
+
+    static final List<OutboxMessage> delivered = Collections.synchronizedList(new ArrayList<>());
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class InMemorySink {
+        @Bean
+        @Primary
+        OutboxSink inMemoryOutboxSink() {
+            return delivered::addAll;
+        }
+    }
+
+    @Autowired
+    ReservationService reservationService;
+    @Autowired
+    TrainingSessionService sessionService;
+    @Autowired
+    SessionSeriesService seriesService;
+    @Autowired
+    UserService userService;
+    @Autowired
+    TrainerService trainerService;
+    @Autowired
+    OutboxRelay relay;
+    @Autowired
+    OutboxRepository outboxRepo;
+    @Autowired
+    WaitlistRepository waitlistRepo;
+    @Autowired
+    ReservationRepository reservationRepo;
+    @Autowired
+    TrainingSessionRepository sessionRepo;
+    @Autowired
+    TrainerRepository trainerRepo;
+    @Autowired
+    UserRepository userRepo;
+    @Autowired
+    JdbcTemplate jdbc;
+    @Autowired
+    ObjectMapper json;
+
+    private List<Long> userIds;
+    private Long sessionId;
+
+    @BeforeEach
+    void setUp() {
+        waitlistRepo.deleteAll();
+        reservationRepo.deleteAll();
+        sessionRepo.deleteAll();
+        trainerRepo.deleteAll();
+        userRepo.deleteAll();
+        outboxRepo.deleteAllInBatch();
+        delivered.clear();
+
+        jdbc.execute("INSERT INTO users (username, password, role) "
+                + "SELECT 'member' || g, 'pw', 'USER' FROM generate_series(1, 201) g");
+        userIds = jdbc.queryForList("SELECT id FROM users ORDER BY id", Long.class);
+        jdbc.execute("INSERT INTO trainers (name, specialization) VALUES ('Coach', 'Spin')");
+        jdbc.execute("INSERT INTO training_sessions (title, start_time, end_time, trainer_id, capacity) "
+                + "VALUES ('Spin', now() + INTERVAL '1 day', now() + INTERVAL '1 day 1 hour', "
+                + "(SELECT MIN(id) FROM trainers), 200)");
+        sessionId = jdbc.queryForObject("SELECT id FROM training_sessions", Long.class);
+    }
+
+    @Test
+    void outboxRow_isWrittenWithReservationAndRolledBackWithIt() throws Exception {
+        Long reservationId = reservationService.createReservation(userIds.get(0), sessionId).getId();
+        reservationService.cancelReservation(reservationId);
+        jdbc.update("UPDATE training_sessions SET seats_taken = capacity");
+        assertThatThrownBy(() -> reservationService.createReservation(userIds.get(1), sessionId))
+                .isInstanceOf(SessionFullException.class);
+
+        assertThat(outboxRepo.count()).isEqualTo(2);
+        relay.relay();
+
+        assertThat(delivered).extracting(OutboxMessage::type)
+                .containsExactly("reservation.created", "reservation.cancelled");
+        JsonNode created = json.readTree(delivered.get(0).payload());
+        assertThat(created.get("reservationId").asLong()).isEqualTo(reservationId);
+        assertThat(created.get("userId").asLong()).isEqualTo(userIds.get(0));
+        assertThat(outboxRepo.count()).isZero();
+    }
+
+    @Test
+    void parallelRelays_deliverEachEventOnce() throws Exception {
+        reservationService.createReservations(userIds.subList(0, 200).stream()
+                .map(userId -> new ReservationDto(null, userId, sessionId, null))
+                .toList());
+        assertThat(outboxRepo.count()).isEqualTo(200);
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(4)) {
+            List<CompletableFuture<Integer>> relays = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                relays.add(CompletableFuture.supplyAsync(relay::relay, pool));
+            }
+            assertThat(relays.stream().mapToInt(CompletableFuture::join).sum()).isEqualTo(200);
+        }
+
+        assertThat(delivered).hasSize(200);
+        assertThat(delivered).extracting(OutboxMessage::id).doesNotHaveDuplicates();
+        assertThat(delivered).extracting(OutboxMessage::aggregateId)
+                .containsExactlyInAnyOrderElementsOf(jdbc.queryForList("SELECT id FROM reservations", Long.class));
+        assertThat(outboxRepo.count()).isZero();
+    }
+
+    @Test
+    void deletingSessionAndSeries_writesCancelledEventPerReservation() throws Exception {
+        jdbc.update("INSERT INTO session_series (title, days_of_week, first_date, until_date, start_time, "
+                + "duration_minutes) VALUES ('Spin', 'MONDAY', current_date, current_date + 30, '18:00', 60)");
+        Long seriesId = jdbc.queryForObject("SELECT id FROM session_series", Long.class);
+        jdbc.update("INSERT INTO training_sessions (title, start_time, end_time, trainer_id, capacity, series_id) "
+                + "SELECT 'Spin', now() + g * INTERVAL '1 day', now() + g * INTERVAL '1 day' + INTERVAL '1 hour', "
+                + "(SELECT MIN(id) FROM trainers), 20, ? FROM generate_series(2, 4) g", seriesId);
+        List<Long> series = jdbc.queryForList(
+                "SELECT id FROM training_sessions WHERE series_id = ? ORDER BY start_time", Long.class, seriesId);
+        List<ReservationDto> bookings = new ArrayList<>();
+        for (Long id : List.of(sessionId, series.get(0), series.get(1), series.get(2))) {
+            userIds.subList(0, 3).forEach(userId -> bookings.add(new ReservationDto(null, userId, id, null)));
+        }
+        reservationService.createReservations(bookings);
+        outboxRepo.deleteAllInBatch();
+        // usuwane: cała sesja pojedyncza i seria od drugiego wystąpienia
+        Map<Long, Long> removed = new HashMap<>();
+        jdbc.query("SELECT id, user_id FROM reservations WHERE session_id IN (?, ?, ?)",
+                rs -> { removed.put(rs.getLong("id"), rs.getLong("user_id")); },
+                sessionId, series.get(1), series.get(2));
+
+        assertThat(sessionService.deleteSession(sessionId)).isTrue();
+        assertThat(seriesService.deleteFollowing(series.get(1))).containsEntry("reservations", 6);
+        relay.relay();
+
+        assertThat(delivered).hasSize(9);
+        assertThat(delivered).extracting(OutboxMessage::type).containsOnly("reservation.cancelled");
+        assertThat(delivered).extracting(OutboxMessage::aggregateId).containsExactlyInAnyOrderElementsOf(removed.keySet());
+        for (OutboxMessage message : delivered) {
+            assertThat(json.readTree(message.payload()).get("userId").asLong())
+                    .isEqualTo(removed.get(message.aggregateId()));
+        }
+        assertThat(reservationRepo.findBySessionId(series.get(0))).hasSize(3);
+    }
+
+    @Test
+    void deletingUserAndTrainer_writesCancelledEventPerReservation() {
+        List<ReservationDto> bookings = new ArrayList<>();
+        userIds.subList(0, 3).forEach(userId -> bookings.add(new ReservationDto(null, userId, sessionId, null)));
+        reservationService.createReservations(bookings);
+        outboxRepo.deleteAllInBatch();
+
+        assertThat(userService.deleteUser(userIds.get(0))).isTrue();
+        assertThat(jdbc.queryForObject("SELECT seats_taken FROM training_sessions WHERE id = ?", Integer.class,
+                sessionId)).isEqualTo(2);
+        Long trainerId = jdbc.queryForObject("SELECT trainer_id FROM training_sessions WHERE id = ?", Long.class,
+                sessionId);
+        assertThat(trainerService.deleteTrainer(trainerId)).isTrue();
+        relay.relay();
+
+        assertThat(delivered).hasSize(3);
+        assertThat(delivered).extracting(OutboxMessage::type).containsOnly("reservation.cancelled");
+        assertThat(reservationRepo.count()).isZero();
+    }
+}
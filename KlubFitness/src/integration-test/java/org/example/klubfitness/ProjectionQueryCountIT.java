@@ -0,0 +1,163 @@
+package org.example.klubfitness;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.klubfitness.dto.ReservationDto;
+import org.example.klubfitness.dto.TrainingSessionDto;
+import org.example.klubfitness.entity.Reservation;
+import org.example.klubfitness.entity.Trainer;
+import org.example.klubfitness.entity.TrainingSession;
+import org.example.klubfitness.entity.User;
+import org.example.klubfitness.repository.ReservationRepository;
+import org.example.klubfitness.repository.TrainerRepository;
+import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.example.klubfitness.repository.UserRepository;
+import org.example.klubfitness.service.ReservationService;
+import org.example.klubfitness.service.TrainingSessionService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Liczy zapytania SQL (statystyki Hibernate) wykonywane przez listy rezerwacji i sesji.
+ * Dane: 20 użytkowników x 10 sesji (10 trenerów) – ładowanie encji dałoby N+1 selectów,
+ * projekcje DTO muszą zmieścić się w jednym.
+ */
+@Testcontainers
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ProjectionQueryCountIT {
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:15")
+                    .withDatabaseName("klub_fitness")
+                    .withUsername("fitnesiara")
+                    .withPassword("klubfitness");
+
+    @DynamicPropertySource
+    static void overrideProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url",    postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private TrainingSessionService sessionService;
+    @Autowired
+    private ReservationRepository reservationRepo;
+    @Autowired
+    private UserRepository userRepo;
+    @Autowired
+    private TrainerRepository trainerRepo;
+    @Autowired
+    private TrainingSessionRepository sessionRepo;
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private Statistics stats;
+    private Long firstUserId;
+    private Long firstSessionId;
+
+    @BeforeEach
+    void seed() {
+        reservationRepo.deleteAll();
+        sessionRepo.deleteAll();
+        trainerRepo.deleteAll();
+        userRepo.deleteAll();
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            User u = new User();
+            u.setUsername("u" + i);
+            u.setPassword("pw");
+            users.add(u);
+        }
+        users = userRepo.saveAll(users);
+
+        List<TrainingSession> sessions = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Trainer t = new Trainer();
+            t.setName("T" + i);
+            t = trainerRepo.save(t);
+
+            TrainingSession s = new TrainingSession();
+            s.setTitle("S" + i);
+            s.setStartTime(LocalDateTime.now().plusDays(i));
+            s.setEndTime(LocalDateTime.now().plusDays(i).plusHours(1));
+            s.setTrainer(t);
+            sessions.add(s);
+        }
+        sessions = sessionRepo.saveAll(sessions);
+
+        List<Reservation> reservations = new ArrayList<>();
+        for (User u : users) {
+            for (TrainingSession s : sessions) {
+                Reservation r = new Reservation();
+                r.setUser(u);
+                r.setSession(s);
+                r.setReservationTime(LocalDateTime.now());
+                reservations.add(r);
+            }
+        }
+        reservationRepo.saveAll(reservations);
+
+        firstUserId = users.get(0).getId();
+        firstSessionId = sessions.get(0).getId();
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+    }
+
+    @Test
+    void reservationPage_isSingleStatement() {
+        List<ReservationDto> page = reservationService.getReservationsPage(null, null, null, 200);
+
+        assertEquals(200, page.size());
+        assertEquals(1, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void reservationPageByUserAndBySession_isSingleStatementEach() {
+        assertEquals(10, reservationService.getReservationsPage(firstUserId, null, null, 100).size());
+        assertEquals(1, stats.getPrepareStatementCount());
+
+        stats.clear();
+        assertEquals(20, reservationService.getReservationsPage(null, firstSessionId, null, 100).size());
+        assertEquals(1, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void entityListing_forComparison_needsExtraSelects() {
+        List<Reservation> entities = reservationService.getAllReservations();
+
+        assertEquals(200, entities.size());
+        // 1 select rezerwacji + dociąganie użytkowników, sesji i trenerów
+        assertTrue(stats.getPrepareStatementCount() > 1,
+                () -> "expected N+1 for entity listing, got " + stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void sessionList_isSingleStatement() {
+        List<TrainingSessionDto> dtos = sessionService.getAllSessionDtos();
+
+        assertEquals(10, dtos.size());
+        assertNotNull(dtos.get(0).getTrainerId());
+        assertEquals(1, stats.getPrepareStatementCount());
+    }
+}
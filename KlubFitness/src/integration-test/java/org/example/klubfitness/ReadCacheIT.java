@@ -0,0 +1,155 @@
+package org.example.klubfitness;
+
+import org.example.klubfitness.entity.Trainer;
+import org.example.klubfitness.entity.TrainingSession;
+import org.example.klubfitness.repository.ReservationRepository;
+import org.example.klubfitness.repository.TrainerRepository;
+import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.example.klubfitness.repository.UserRepository;
+import org.example.klubfitness.repository.WaitlistRepository;
+import org.example.klubfitness.service.ReadCaches;
+import org.example.klubfitness.service.ReservationService;
+import org.example.klubfitness.service.TrainerService;
+import org.example.klubfitness.service.TrainingSessionService;
+import org.example.klubfitness.service.TrainingSessionService.SessionDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Cache odczytów na prawdziwej bazie: edycje nie zostawiają w cache nieaktualnych sesji ani trenerów,
+ * a rezerwacje i anulowania (atomowe UPDATE-y licznika) są widoczne od razu, choć niczego nie unieważniają.
+ */
+@Testcontainers
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ReadCacheIT {
+
+    @Container
+    static PostgreSQLContainer<?> pg = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("test-db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", pg::getJdbcUrl);
+        registry.add("spring.datasource.username", pg::getUsername);
+        registry.add("spring.datasource.password", pg::getPassword);
+    }
+
+    @Autowired
+    TrainingSessionService sessionService;
+    @Autowired
+    TrainerService trainerService;
+    @Autowired
+    ReservationService reservationService;
+    @Autowired
+    WaitlistRepository waitlistRepo;
+    @Autowired
+    ReservationRepository reservationRepo;
+    @Autowired
+    TrainingSessionRepository sessionRepo;
+    @Autowired
+    TrainerRepository trainerRepo;
+    @Autowired
+    UserRepository userRepo;
+    @Autowired
+    CacheManager cacheManager;
+    @Autowired
+    JdbcTemplate jdbc;
+
+    private Long trainerId;
+    private Long sessionId;
+    private List<Long> userIds;
+
+    @BeforeEach
+    void setUp() {
+        waitlistRepo.deleteAll();
+        reservationRepo.deleteAll();
+        sessionRepo.deleteAll();
+        trainerRepo.deleteAll();
+        userRepo.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        jdbc.execute("INSERT INTO users (username, password, role) "
+                + "SELECT 'member' || g, 'pw', 'USER' FROM generate_series(1, 3) g");
+        userIds = jdbc.queryForList("SELECT id FROM users ORDER BY id", Long.class);
+
+        Trainer trainer = new Trainer();
+        trainer.setName("Coach");
+        trainerId = trainerRepo.save(trainer).getId();
+
+        TrainingSession s = new TrainingSession();
+        s.setTitle("Spin");
+        s.setStartTime(LocalDateTime.now().plusDays(1));
+        s.setEndTime(LocalDateTime.now().plusDays(1).plusHours(1));
+        s.setCapacity(10);
+        s.setTrainer(trainerRepo.getReferenceById(trainerId));
+        sessionId = sessionService.createSession(s).getId();
+    }
+
+    @Test
+    void repeatedReadsAreServedFromCache() {
+        SessionDetails first = sessionService.getSessionDetails(sessionId);
+
+        assertThat(sessionService.getSessionDetails(sessionId)).isSameAs(first);
+        assertThat(cacheManager.getCache(ReadCaches.SESSIONS).get(sessionId)).isNotNull();
+    }
+
+    @Test
+    void bookingAndCancelling_areVisibleInNextReadWithoutEviction() {
+        SessionDetails cached = sessionService.getSessionDetails(sessionId);
+        assertThat(sessionService.getAllSessionDtos().get(0).getSeatsTaken()).isZero();
+
+        Long reservationId = reservationService.createReservation(userIds.get(0), sessionId).getId();
+        assertThat(sessionService.getAllSessionDtos().get(0).getSeatsTaken()).isEqualTo(1);
+        assertThat(sessionService.getSessionStamp(sessionId).orElseThrow().getSeatsTaken()).isEqualTo(1);
+
+        reservationService.cancelReservation(reservationId);
+        assertThat(sessionService.getAllSessionDtos().get(0).getSeatsTaken()).isZero();
+        // opis sesji przeżył rezerwację i anulowanie
+        assertThat(sessionService.getSessionDetails(sessionId)).isSameAs(cached);
+    }
+
+    @Test
+    void editsOfSessionAndTrainer_areVisibleInNextRead() {
+        sessionService.getSessionDetails(sessionId);
+        sessionService.getAllSessionDtos();
+        trainerService.getTrainerDetails(trainerId);
+
+        TrainingSession change = sessionRepo.findById(sessionId).orElseThrow();
+        change.setTitle("Spin (advanced)");
+        sessionService.updateSession(sessionId, change);
+        trainerService.updateTrainer(trainerId, new Trainer(null, "Head coach", "Spin"));
+
+        assertThat(sessionService.getSessionDetails(sessionId).title()).isEqualTo("Spin (advanced)");
+        assertThat(sessionService.getAllSessionDtos().get(0).getTitle()).isEqualTo("Spin (advanced)");
+        assertThat(trainerService.getTrainerDetails(trainerId).name()).isEqualTo("Head coach");
+    }
+
+    @Test
+    void deletedSession_isNotServedFromCache() {
+        sessionService.getSessionDetails(sessionId);
+        sessionService.getAllSessionDtos();
+
+        assertThat(sessionService.deleteSession(sessionId)).isTrue();
+
+        assertThat(sessionService.getSessionDetails(sessionId)).isNull();
+        assertThat(sessionService.getAllSessionDtos()).isEmpty();
+    }
+}
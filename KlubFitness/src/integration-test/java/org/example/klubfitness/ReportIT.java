@@ -0,0 +1,177 @@
+package org.example.klubfitness;
+
+import org.example.klubfitness.dto.RevenueReportDto;
+import org.example.klubfitness.dto.SessionFillDto;
+import org.example.klubfitness.dto.SlotFillDto;
+import org.example.klubfitness.dto.TrainerFillDto;
+import org.example.klubfitness.repository.ReservationRepository;
+import org.example.klubfitness.repository.TrainerRepository;
+import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.example.klubfitness.repository.UserRepository;
+import org.example.klubfitness.repository.WaitlistRepository;
+import org.example.klubfitness.security.TokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Raporty na widokach zmaterializowanych: dane pojawiają się dopiero po odświeżeniu,
+ * obłożenie per sesja/trener/slot i przychód zgadzają się z rezerwacjami w bazie.
+ */
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "klubfitness.reports.class-price=40.00")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ReportIT {
+
+    @Container
+    static PostgreSQLContainer<?> pg = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("test-db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", pg::getJdbcUrl);
+        registry.add("spring.datasource.username", pg::getUsername);
+        registry.add("spring.datasource.password", pg::getPassword);
+    }
+
+    private static final String RANGE = "?from=2025-03-01&to=2025-03-31";
+
+    @Autowired
+    TestRestTemplate rest;
+    @Autowired
+    TokenService tokenService;
+    @Autowired
+    WaitlistRepository waitlistRepo;
+    @Autowired
+    ReservationRepository reservationRepo;
+    @Autowired
+    TrainingSessionRepository sessionRepo;
+    @Autowired
+    TrainerRepository trainerRepo;
+    @Autowired
+    UserRepository userRepo;
+    @Autowired
+    JdbcTemplate jdbc;
+
+    private HttpHeaders admin;
+
+    @BeforeEach
+    void setUp() {
+        waitlistRepo.deleteAll();
+        reservationRepo.deleteAll();
+        sessionRepo.deleteAll();
+        trainerRepo.deleteAll();
+        userRepo.deleteAll();
+
+        // 2 trenerów; poniedziałki 3, 10, 17 marca o 18:00 (Anna) i wtorek 4 marca o 9:00 (Bartek), limit 10
+        jdbc.execute("INSERT INTO trainers (name, specialization) VALUES ('Anna', 'Spin'), ('Bartek', 'Yoga')");
+        jdbc.execute("INSERT INTO training_sessions (title, start_time, end_time, trainer_id, capacity) "
+                + "SELECT 'Spin', d + TIME '18:00', d + TIME '19:00', (SELECT id FROM trainers WHERE name = 'Anna'), 10 "
+                + "FROM unnest(ARRAY[DATE '2025-03-03', DATE '2025-03-10', DATE '2025-03-17']) d");
+        jdbc.execute("INSERT INTO training_sessions (title, start_time, end_time, trainer_id, capacity) "
+                + "VALUES ('Yoga', '2025-03-04 09:00', '2025-03-04 10:00', (SELECT id FROM trainers WHERE name = 'Bartek'), 10)");
+        // 5 członków zapisanych na pierwszy poniedziałek, 2 na wtorek
+        jdbc.execute("INSERT INTO users (username, password, role) "
+                + "SELECT 'member' || g, 'pw', 'USER' FROM generate_series(1, 5) g");
+        jdbc.execute("INSERT INTO reservations (reservation_time, user_id, session_id) "
+                + "SELECT now(), u.id, (SELECT id FROM training_sessions WHERE start_time = '2025-03-03 18:00') FROM users u");
+        jdbc.execute("INSERT INTO reservations (reservation_time, user_id, session_id) "
+                + "SELECT now(), u.id, (SELECT id FROM training_sessions WHERE title = 'Yoga') "
+                + "FROM users u ORDER BY u.id LIMIT 2");
+        jdbc.execute("UPDATE training_sessions s SET seats_taken = "
+                + "(SELECT COUNT(*) FROM reservations r WHERE r.session_id = s.id)");
+
+        admin = new HttpHeaders();
+        admin.setBearerAuth(tokenService.issue("manager", List.of("ADMIN")).getAccessToken());
+    }
+
+    private <T> ResponseEntity<T> get(String path, Class<T> type) {
+        return rest.exchange("/api/reports" + path, HttpMethod.GET, new HttpEntity<>(admin), type);
+    }
+
+    private void refresh() {
+        ResponseEntity<Map<String, Object>> response = rest.exchange("/api/reports/refresh", HttpMethod.POST,
+                new HttpEntity<>(admin), new ParameterizedTypeReference<>() { });
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).containsEntry("refreshed", true);
+    }
+
+    @Test
+    void reports_showDataAsOfLastRefresh() {
+        refresh();
+        jdbc.execute("UPDATE training_sessions SET seats_taken = capacity");
+
+        ResponseEntity<SessionFillDto[]> sessions = get("/sessions" + RANGE, SessionFillDto[].class);
+
+        assertThat(sessions.getHeaders().getLastModified()).isPositive();
+        assertThat(sessions.getBody()).extracting(SessionFillDto::getSeatsTaken).containsExactly(5, 2, 0, 0);
+
+        refresh();
+        assertThat(get("/sessions" + RANGE, SessionFillDto[].class).getBody())
+                .extracting(SessionFillDto::getFillRate).containsOnly(1.0);
+    }
+
+    @Test
+    void fillRate_perTrainerAndSlot() {
+        refresh();
+
+        TrainerFillDto[] trainers = get("/trainers" + RANGE, TrainerFillDto[].class).getBody();
+        SlotFillDto[] slots = get("/slots" + RANGE, SlotFillDto[].class).getBody();
+
+        assertThat(trainers).extracting(TrainerFillDto::getTrainerName, TrainerFillDto::getSessions,
+                        TrainerFillDto::getSeatsTaken, TrainerFillDto::getCapacity)
+                .containsExactly(tuple("Anna", 3L, 5L, 30L), tuple("Bartek", 1L, 2L, 10L));
+        assertThat(slots).extracting(SlotFillDto::getWeekday, SlotFillDto::getHour, SlotFillDto::getSessions)
+                .containsExactly(tuple(DayOfWeek.MONDAY, 18, 3L), tuple(DayOfWeek.TUESDAY, 9, 1L));
+    }
+
+    @Test
+    void revenue_countsEveryReservationInRange() {
+        refresh();
+
+        RevenueReportDto revenue = get("/revenue" + RANGE, RevenueReportDto.class).getBody();
+
+        assertThat(revenue.getReservations()).isEqualTo(7);
+        assertThat(revenue.getGross()).isEqualByComparingTo(new BigDecimal("280.00"));
+        assertThat(revenue.getNet()).isEqualByComparingTo(revenue.getGross().subtract(revenue.getDiscount()));
+        assertThat(revenue.getTrainers()).hasSize(2);
+        assertThat(get("/revenue?from=2025-04-01&to=2025-04-30", RevenueReportDto.class).getBody().getReservations())
+                .isZero();
+    }
+
+    @Test
+    void reports_requireAdmin() {
+        HttpHeaders member = new HttpHeaders();
+        member.setBearerAuth(tokenService.issue("member1", List.of("USER")).getAccessToken());
+
+        ResponseEntity<String> response = rest.exchange("/api/reports/trainers" + RANGE, HttpMethod.GET,
+                new HttpEntity<>(member), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+}
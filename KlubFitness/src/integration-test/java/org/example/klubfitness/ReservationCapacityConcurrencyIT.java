@@ -0,0 +1,190 @@
+package org.example.klubfitness;
+
+import org.example.klubfitness.dto.ReservationDto;
+import org.example.klubfitness.entity.Trainer;
+import org.example.klubfitness.entity.TrainingSession;
+import org.example.klubfitness.entity.User;
+import org.example.klubfitness.exception.SessionFullException;
+import org.example.klubfitness.repository.ReservationRepository;
+import org.example.klubfitness.repository.TrainerRepository;
+import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.example.klubfitness.repository.UserRepository;
+import org.example.klubfitness.security.Role;
+import org.example.klubfitness.service.ReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tysiące równoległych rezerwacji jednej sesji – nie może dojść do przepełnienia.
+ */
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ReservationCapacityConcurrencyIT {
+
+    @Container
+    static PostgreSQLContainer<?> pg = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("test-db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", pg::getJdbcUrl);
+        registry.add("spring.datasource.username", pg::getUsername);
+        registry.add("spring.datasource.password", pg::getPassword);
+    }
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    TestRestTemplate rest;
+    @Autowired
+    ReservationService reservationService;
+    @Autowired
+    ReservationRepository reservationRepo;
+    @Autowired
+    TrainingSessionRepository sessionRepo;
+    @Autowired
+    TrainerRepository trainerRepo;
+    @Autowired
+    UserRepository userRepo;
+    @Autowired
+    PasswordEncoder passwordEncoder;
+    @Autowired
+    JdbcTemplate jdbc;
+
+    private List<Long> userIds;
+    private Trainer trainer;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepo.deleteAll();
+        sessionRepo.deleteAll();
+        trainerRepo.deleteAll();
+        userRepo.deleteAll();
+
+        User admin = new User();
+        admin.setUsername("admin");
+        admin.setPassword(passwordEncoder.encode("password"));
+        admin.setRole(Role.ADMIN);
+        userRepo.save(admin);
+
+        jdbc.execute("INSERT INTO users (username, password, role) "
+                + "SELECT 'member' || g, 'pw', 'USER' FROM generate_series(1, 2000) g");
+        userIds = jdbc.queryForList("SELECT id FROM users WHERE username LIKE 'member%' ORDER BY id", Long.class);
+
+        trainer = new Trainer();
+        trainer.setName("Coach");
+        trainer = trainerRepo.save(trainer);
+    }
+
+    private TrainingSession session(int capacity) {
+        TrainingSession s = new TrainingSession();
+        s.setTitle("7:00 Spinning");
+        s.setStartTime(LocalDateTime.now().plusDays(1));
+        s.setEndTime(LocalDateTime.now().plusDays(1).plusHours(1));
+        s.setCapacity(capacity);
+        s.setTrainer(trainer);
+        return sessionRepo.save(s);
+    }
+
+    @Test
+    void serviceLevelRush_admitsExactlyCapacity() throws Exception {
+        Long sessionId = session(25).getId();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Long userId : userIds) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        reservationService.createReservation(userId, sessionId);
+                        return true;
+                    } catch (SessionFullException full) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+        }
+
+        long admitted = 0;
+        for (Future<Boolean> f : results) {
+            if (f.get()) admitted++;
+        }
+        assertThat(admitted).isEqualTo(25);
+        assertThat(reservationService.getReservationsPage(null, sessionId, null, 1000)).hasSize(25);
+        assertThat(sessionRepo.findById(sessionId).orElseThrow().getSeatsTaken()).isEqualTo(25);
+    }
+
+    @Test
+    void httpRush_returnsCreatedOnlyForCapacityAndConflictForTheRest() throws Exception {
+        Long sessionId = session(10).getId();
+        TestRestTemplate adminRest = rest.withBasicAuth("admin", "password");
+        String url = "http://localhost:" + port + "/api/reservations";
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<HttpStatusCode>> results = new ArrayList<>();
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(64)) {
+            for (Long userId : userIds.subList(0, 300)) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    ReservationDto body = new ReservationDto(null, userId, sessionId, null);
+                    return adminRest.postForEntity(url, body, String.class).getStatusCode();
+                }));
+            }
+            start.countDown();
+        }
+
+        long created = 0;
+        long conflicts = 0;
+        for (Future<HttpStatusCode> f : results) {
+            HttpStatusCode status = f.get();
+            if (status.equals(HttpStatus.CREATED)) created++;
+            if (status.equals(HttpStatus.CONFLICT)) conflicts++;
+        }
+        assertThat(created).isEqualTo(10);
+        assertThat(conflicts).isEqualTo(290);
+        assertThat(sessionRepo.findById(sessionId).orElseThrow().getSeatsTaken()).isEqualTo(10);
+    }
+
+    @Test
+    void cancellation_freesSeatForNextBooking() {
+        Long sessionId = session(1).getId();
+        Long firstId = reservationService.createReservation(userIds.get(0), sessionId).getId();
+
+        assertThatThrownBy(() -> reservationService.createReservation(userIds.get(1), sessionId))
+                .isInstanceOf(SessionFullException.class);
+
+        assertThat(reservationService.cancelReservation(firstId)).isTrue();
+        assertThat(reservationService.createReservation(userIds.get(1), sessionId).getId()).isNotNull();
+        assertThat(sessionRepo.findById(sessionId).orElseThrow().getSeatsTaken()).isEqualTo(1);
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.klubfitness;
 
+import org.example.klubfitness.controller.ReservationController;
 import org.example.klubfitness.dto.ReservationDto;
 import org.example.klubfitness.entity.Trainer;
 import org.example.klubfitness.entity.TrainingSession;
@@ -180,4 +181,61 @@ class ReservationControllerIntegrationIT {
         );
         assertThat(afterDel.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
     }
+
+    @Test
+    void listReservations_shouldWalkPagesWithKeysetCursor() {
+        for (int i = 0; i < 5; i++) {
+            ReservationDto toCreate = new ReservationDto();
+            toCreate.setUserId(createMember("member" + i));
+            toCreate.setSessionId(sessionId);
+            adminRest.postForEntity(baseUrl, toCreate, ReservationDto.class);
+        }
+
+        ResponseEntity<ReservationDto[]> first =
+                adminRest.getForEntity(baseUrl + "?size=3", ReservationDto[].class);
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getBody()).hasSize(3);
+        String cursor = first.getHeaders().getFirst(ReservationController.NEXT_CURSOR_HEADER);
+        assertThat(cursor).isEqualTo(String.valueOf(first.getBody()[2].getId()));
+
+        ResponseEntity<ReservationDto[]> second =
+                adminRest.getForEntity(baseUrl + "?size=3&afterId=" + cursor, ReservationDto[].class);
+        assertThat(second.getBody()).hasSize(2);
+        assertThat(second.getBody()[0].getId()).isGreaterThan(Long.valueOf(cursor));
+        assertThat(second.getHeaders().getFirst(ReservationController.NEXT_CURSOR_HEADER)).isNull();
+    }
+
+    @Test
+    void streamReservations_shouldReturnOneJsonLinePerRow() {
+        for (int i = 0; i < 3; i++) {
+            ReservationDto toCreate = new ReservationDto();
+            toCreate.setUserId(createMember("member" + i));
+            toCreate.setSessionId(sessionId);
+            adminRest.postForEntity(baseUrl, toCreate, ReservationDto.class);
+        }
+
+        ResponseEntity<String> resp = adminRest.getForEntity(baseUrl + "/stream", String.class);
+        assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(resp.getBody()).isNotNull();
+        assertThat(resp.getBody().lines()).hasSize(3).allMatch(line -> line.contains("\"sessionId\":" + sessionId));
+    }
+
+    @Test
+    void createReservation_twiceForSameSession_shouldReturnConflict() {
+        ReservationDto toCreate = new ReservationDto();
+        toCreate.setUserId(adminId);
+        toCreate.setSessionId(sessionId);
+
+        assertThat(adminRest.postForEntity(baseUrl, toCreate, String.class).getStatusCode())
+                .isEqualTo(HttpStatus.CREATED);
+        assertThat(adminRest.postForEntity(baseUrl, toCreate, String.class).getStatusCode())
+                .isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    private Long createMember(String username) {
+        User member = new User();
+        member.setUsername(username);
+        member.setPassword("pw");
+        return userRepo.save(member).getId();
+    }
 }
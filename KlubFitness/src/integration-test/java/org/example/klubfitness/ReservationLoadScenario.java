@@ -0,0 +1,166 @@
+package org.example.klubfitness;
+
+import org.example.klubfitness.repository.ReservationRepository;
+import org.example.klubfitness.repository.TrainerRepository;
+import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.example.klubfitness.repository.UserRepository;
+import org.example.klubfitness.repository.WaitlistRepository;
+import org.example.klubfitness.security.TokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Wspólny scenariusz obciążeniowy endpointów rezerwacji, uruchamiany w obu trybach wątków
+ * ({@link PlatformThreadsReservationLoadIT}, {@link VirtualThreadsReservationLoadIT}):
+ * {@value #CLIENTS} równoległych klientów rezerwuje miejsca, a potem przegląda rezerwacje użytkowników.
+ * Wypisuje przepustowość i p50/p99; uwierzytelnianie tokenem, żeby mierzyć obsługę żądań, a nie BCrypta.
+ * Uruchomienie: {@code mvn -Pload-test verify}.
+ */
+abstract class ReservationLoadScenario {
+
+    static final int USERS = 2000;
+    static final int SESSIONS = 200;
+    static final int CLIENTS = 400;
+    static final int REQUESTS = 8000;
+
+    @Container
+    static PostgreSQLContainer<?> pg = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("test-db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", pg::getJdbcUrl);
+        registry.add("spring.datasource.username", pg::getUsername);
+        registry.add("spring.datasource.password", pg::getPassword);
+    }
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    TokenService tokenService;
+    @Autowired
+    WaitlistRepository waitlistRepo;
+    @Autowired
+    ReservationRepository reservationRepo;
+    @Autowired
+    TrainingSessionRepository sessionRepo;
+    @Autowired
+    TrainerRepository trainerRepo;
+    @Autowired
+    UserRepository userRepo;
+    @Autowired
+    JdbcTemplate jdbc;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private List<Long> userIds;
+    private List<Long> sessionIds;
+    private String token;
+
+    abstract String mode();
+
+    @BeforeEach
+    void setUp() {
+        waitlistRepo.deleteAll();
+        reservationRepo.deleteAll();
+        sessionRepo.deleteAll();
+        trainerRepo.deleteAll();
+        userRepo.deleteAll();
+
+        jdbc.update("INSERT INTO users (username, password, role) "
+                + "SELECT 'member' || g, 'pw', 'USER' FROM generate_series(1, ?) g", USERS);
+        userIds = jdbc.queryForList("SELECT id FROM users ORDER BY id", Long.class);
+        jdbc.execute("INSERT INTO trainers (name, specialization) VALUES ('Coach', 'Spin')");
+        jdbc.update("INSERT INTO training_sessions (title, start_time, end_time, trainer_id, capacity) "
+                + "SELECT 'Class ' || g, now() + g * INTERVAL '1 day', now() + g * INTERVAL '1 day' + INTERVAL '1 hour', "
+                + "(SELECT MIN(id) FROM trainers), 100 FROM generate_series(1, ?) g", SESSIONS);
+        sessionIds = jdbc.queryForList("SELECT id FROM training_sessions ORDER BY id", Long.class);
+        token = "Bearer " + tokenService.issue("loadtest", List.of("ADMIN")).getAccessToken();
+    }
+
+    /** Wysyła {@code count} żądań, najwyżej {@value #CLIENTS} naraz; zwraca posortowane czasy w µs. */
+    private long[] run(String name, int count, IntFunction<HttpRequest> request, int expectedStatus) throws Exception {
+        Semaphore inFlight = new Semaphore(CLIENTS);
+        List<Future<Long>> futures = new ArrayList<>(count);
+        long t0 = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < count; i++) {
+                HttpRequest req = request.apply(i);
+                inFlight.acquire();
+                futures.add(clients.submit(() -> {
+                    try {
+                        long start = System.nanoTime();
+                        HttpResponse<Void> resp = http.send(req, HttpResponse.BodyHandlers.discarding());
+                        assertThat(resp.statusCode()).isEqualTo(expectedStatus);
+                        return (System.nanoTime() - start) / 1000;
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+            long[] latencies = new long[count];
+            for (int i = 0; i < count; i++) {
+                latencies[i] = futures.get(i).get();
+            }
+            double seconds = (System.nanoTime() - t0) / 1e9;
+            Arrays.sort(latencies);
+            System.out.printf("[%s threads] %-22s n=%d clients=%d %.0f req/s p50=%d us p99=%d us max=%d us%n",
+                    mode(), name, count, CLIENTS, count / seconds,
+                    percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[count - 1]);
+            return latencies;
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private HttpRequest.Builder api(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/reservations" + path))
+                .header("Authorization", token);
+    }
+
+    @Test
+    void bookingRushThenBrowse() throws Exception {
+        // rozgrzanie JIT, puli połączeń i cache
+        run("warm-up (GET)", 500, i -> api("?userId=" + userIds.get(i % USERS)).build(), 200);
+
+        // i-ta rezerwacja: użytkownik i mod USERS, sesja zmienia się co 40 żądań – pary się nie powtarzają
+        run("POST /api/reservations", REQUESTS, i -> api("")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"userId\":" + userIds.get(i % USERS)
+                        + ",\"sessionId\":" + sessionIds.get((i / 40) % SESSIONS) + "}"))
+                .build(), 201);
+        run("GET /api/reservations", REQUESTS, i -> api("?userId=" + userIds.get(i % USERS)).build(), 200);
+
+        assertThat(reservationRepo.count()).isEqualTo(REQUESTS);
+        assertThat(jdbc.queryForObject("SELECT SUM(seats_taken) FROM training_sessions", Long.class))
+                .isEqualTo(REQUESTS);
+    }
+}
@@ -0,0 +1,144 @@
+package org.example.klubfitness;
+
+import org.example.klubfitness.dto.ReservationDto;
+import org.example.klubfitness.exception.SessionFullException;
+import org.example.klubfitness.repository.ReservationRepository;
+import org.example.klubfitness.repository.TrainerRepository;
+import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.example.klubfitness.repository.UserRepository;
+import org.example.klubfitness.repository.WaitlistRepository;
+import org.example.klubfitness.service.ReservationService;
+import org.example.klubfitness.service.ReservationStats;
+import org.example.klubfitness.service.TrainingSessionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Liczniki z {@code session_stats}/{@code user_stats} zgadzają się z {@code COUNT(*)} po rezerwacjach
+ * po tworzeniu (pojedynczym i wsadowym), anulowaniu, odrzuconej rezerwacji i usunięciu sesji; zapis idzie wsadem.
+ */
+@Testcontainers
+@SpringBootTest(properties = "klubfitness.stats.flush-interval=1h")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ReservationStatsIT {
+
+    @Container
+    static PostgreSQLContainer<?> pg = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("test-db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", pg::getJdbcUrl);
+        registry.add("spring.datasource.username", pg::getUsername);
+        registry.add("spring.datasource.password", pg::getPassword);
+    }
+
+    @Autowired
+    ReservationService reservationService;
+    @Autowired
+    ReservationStats stats;
+    @Autowired
+    TrainingSessionService sessionService;
+    @Autowired
+    WaitlistRepository waitlistRepo;
+    @Autowired
+    ReservationRepository reservationRepo;
+    @Autowired
+    TrainingSessionRepository sessionRepo;
+    @Autowired
+    TrainerRepository trainerRepo;
+    @Autowired
+    UserRepository userRepo;
+    @Autowired
+    JdbcTemplate jdbc;
+
+    private List<Long> userIds;
+    private Long sessionId;
+
+    @BeforeEach
+    void setUp() {
+        stats.flush();
+        waitlistRepo.deleteAll();
+        reservationRepo.deleteAll();
+        sessionRepo.deleteAll();
+        trainerRepo.deleteAll();
+        userRepo.deleteAll();
+        jdbc.execute("TRUNCATE session_stats, user_stats");
+
+        jdbc.execute("INSERT INTO users (username, password, role) "
+                + "SELECT 'member' || g, 'pw', 'USER' FROM generate_series(1, 12) g");
+        userIds = jdbc.queryForList("SELECT id FROM users ORDER BY id", Long.class);
+        jdbc.execute("INSERT INTO trainers (name, specialization) VALUES ('Coach', 'Spin')");
+        jdbc.execute("INSERT INTO training_sessions (title, start_time, end_time, trainer_id, capacity) "
+                + "VALUES ('Spin', now() + INTERVAL '1 day', now() + INTERVAL '1 day 1 hour', "
+                + "(SELECT MIN(id) FROM trainers), 10)");
+        sessionId = jdbc.queryForObject("SELECT id FROM training_sessions", Long.class);
+    }
+
+    private long table(String sql, Long id) {
+        List<Long> rows = jdbc.queryForList(sql, Long.class, id);
+        return rows.isEmpty() ? 0 : rows.get(0);
+    }
+
+    @Test
+    void countersMatchReservationsAfterFlush() {
+        for (Long userId : userIds.subList(0, 4)) {
+            reservationService.createReservation(userId, sessionId);
+        }
+        reservationService.createReservations(userIds.subList(4, 10).stream()
+                .map(userId -> new ReservationDto(null, userId, sessionId, null))
+                .toList());
+        Long cancelled = reservationRepo.findBySessionId(sessionId).get(0).getId();
+        reservationService.cancelReservation(cancelled);
+        reservationService.createReservation(userIds.get(10), sessionId);
+        assertThatThrownBy(() -> reservationService.createReservation(userIds.get(11), sessionId))
+                .isInstanceOf(SessionFullException.class);
+
+        // przed flushem: pamięć już aktualna, tabela jeszcze nie
+        assertThat(stats.sessionReservations(sessionId)).isEqualTo(10);
+        assertThat(table("SELECT reservations FROM session_stats WHERE session_id = ?", sessionId)).isZero();
+
+        // jedna sesja + 10 użytkowników; anulujący ma przyrost 0 i nie jest zapisywany
+        assertThat(stats.flush()).isEqualTo(1 + 10);
+
+        assertThat(table("SELECT reservations FROM session_stats WHERE session_id = ?", sessionId))
+                .isEqualTo(reservationRepo.findBySessionId(sessionId).size());
+        long perUser = LongStream.range(0, 12)
+                .map(i -> table("SELECT reservations FROM user_stats WHERE user_id = ?", userIds.get((int) i)))
+                .sum();
+        assertThat(perUser).isEqualTo(10);
+        assertThat(stats.userReservations(userIds.get(11))).isZero();
+    }
+
+    @Test
+    void deletingSession_decrementsUserCounters() {
+        for (Long userId : userIds.subList(0, 3)) {
+            reservationService.createReservation(userId, sessionId);
+        }
+        stats.flush();
+
+        assertThat(sessionService.deleteSession(sessionId)).isTrue();
+
+        assertThat(stats.userReservations(userIds.get(0))).isZero();
+        assertThat(stats.flush()).isEqualTo(1 + 3);
+        for (Long userId : userIds.subList(0, 3)) {
+            assertThat(table("SELECT reservations FROM user_stats WHERE user_id = ?", userId)).isZero();
+        }
+    }
+}
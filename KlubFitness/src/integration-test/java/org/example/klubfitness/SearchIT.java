@@ -0,0 +1,174 @@
+package org.example.klubfitness;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.klubfitness.dto.SessionHitDto;
+import org.example.klubfitness.dto.TrainerHitDto;
+import org.example.klubfitness.security.TokenService;
+import org.example.klubfitness.service.SearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Wyszukiwanie na prawdziwym Postgresie: trafność (tytuł przed opisem, odmiany słów), kolumna generowana
+ * nadążająca za edycją, literówki w nazwiskach i specjalizacjach trenerów, strony przez HTTP oraz plany
+ * na indeksach GIN z V13 przy 50 000 sesji i 5 000 trenerów.
+ */
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SearchIT {
+
+    @Container
+    static PostgreSQLContainer<?> pg = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("test-db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", pg::getJdbcUrl);
+        registry.add("spring.datasource.username", pg::getUsername);
+        registry.add("spring.datasource.password", pg::getPassword);
+    }
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    TokenService tokenService;
+    @Autowired
+    SearchService searchService;
+    @Autowired
+    JdbcTemplate jdbc;
+    @Autowired
+    ObjectMapper json;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void seed() {
+        jdbc.execute("TRUNCATE reservations, waitlist_entries, training_sessions, trainers, users "
+                + "RESTART IDENTITY CASCADE");
+        jdbc.execute("INSERT INTO trainers (name, specialization) VALUES "
+                + "('Anna Kowalska', 'Pilates'), ('Bartek Nowak', 'CrossFit'), ('Celina Wiśniewska', 'Yoga')");
+        // sesje do wyszukania – trener 1, każda innego dnia (bez kolizji w grafiku)
+        session("Evening Yoga for Beginners", "Slow flow", 1);
+        session("Yoga", "Gentle evening class for beginners", 2);
+        session("Beginner evening yoga", null, 3);
+        session("Yoga advanced", "Morning class", 4);
+        session("Evening spin", "For beginners", 5);
+        // tło: 50 000 sesji trenerów 4..5003, które do niczego nie pasują
+        jdbc.execute("INSERT INTO trainers (name, specialization) "
+                + "SELECT 'Trainer ' || md5(g::text), 'Strength' FROM generate_series(1, 5000) g");
+        jdbc.execute("INSERT INTO training_sessions (title, description, start_time, end_time, trainer_id) "
+                + "SELECT 'Circuit ' || g, 'Kettlebells and rowing', "
+                + "TIMESTAMP '2025-01-01 06:00' + (g / 5000) * INTERVAL '2 hours', "
+                + "TIMESTAMP '2025-01-01 07:00' + (g / 5000) * INTERVAL '2 hours', "
+                + "4 + g % 5000 FROM generate_series(0, 49999) g");
+        jdbc.execute("ANALYZE training_sessions");
+        jdbc.execute("ANALYZE trainers");
+    }
+
+    private void session(String title, String description, int day) {
+        jdbc.update("INSERT INTO training_sessions (title, description, start_time, end_time, trainer_id) "
+                        + "VALUES (?, ?, TIMESTAMP '2025-06-01 18:00' + ? * INTERVAL '1 day', "
+                        + "TIMESTAMP '2025-06-01 19:00' + ? * INTERVAL '1 day', ?)",
+                title, description, day, day, 1L);
+    }
+
+    private List<String> titles(String query) {
+        return searchService.searchSessions(query, null, 0, 20).items().stream().map(SessionHitDto::getTitle).toList();
+    }
+
+    @Test
+    void sessions_rankedTitleBeforeDescription_wordFormsMatch() {
+        List<SessionHitDto> hits = searchService.searchSessions("yoga beginners evening", null, 0, 20).items();
+
+        // oba trafienia w tytule (też "Beginner" – ten sam rdzeń) przed trafieniem w opisie
+        assertThat(hits).extracting(SessionHitDto::getTitle).hasSize(3).last().isEqualTo("Yoga");
+        assertThat(hits.subList(0, 2)).extracting(SessionHitDto::getTitle)
+                .containsExactlyInAnyOrder("Evening Yoga for Beginners", "Beginner evening yoga");
+        assertThat(hits.get(1).getRank()).isGreaterThan(hits.get(2).getRank());
+
+        assertThat(titles("yoga -beginners")).containsExactly("Yoga advanced");
+        assertThat(titles("\"evening spin\"")).containsExactly("Evening spin");
+        assertThat(titles("pilates or kettlebells")).hasSize(20);
+        assertThat(titles("the")).isEmpty();   // same słowa pomijane – pusty wynik, nie błąd
+    }
+
+    @Test
+    void sessions_searchVectorFollowsEdits() {
+        jdbc.update("UPDATE training_sessions SET title = 'Aqua aerobics' WHERE title = 'Yoga advanced'");
+
+        assertThat(titles("aqua")).containsExactly("Aqua aerobics");
+        assertThat(titles("advanced")).isEmpty();
+    }
+
+    @Test
+    void trainers_matchTyposAndPartialNames() {
+        List<TrainerHitDto> pilates = searchService.searchTrainers("pilats", 0, 20).items();
+        assertThat(pilates).extracting(TrainerHitDto::getName).containsExactly("Anna Kowalska");
+
+        assertThat(searchService.searchTrainers("Kowalsk", 0, 20).items())
+                .extracting(TrainerHitDto::getName).containsExactly("Anna Kowalska");
+        // brak polskiego znaku to dla trigramów zwykła literówka
+        assertThat(searchService.searchTrainers("wisniewska", 0, 20).items())
+                .extracting(TrainerHitDto::getName).containsExactly("Celina Wiśniewska");
+    }
+
+    @Test
+    void sessions_overHttp_pagesByNumber() throws Exception {
+        String token = "Bearer " + tokenService.issue("member", List.of("USER")).getAccessToken();
+        List<SessionHitDto> all = new ArrayList<>();
+        String page = "0";
+        do {
+            String uri = "http://localhost:" + port + "/api/search?q="
+                    + URLEncoder.encode("yoga", StandardCharsets.UTF_8) + "&size=2&page=" + page;
+            HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(uri))
+                    .header("Authorization", token).build(), HttpResponse.BodyHandlers.ofString());
+            assertThat(response.statusCode()).isEqualTo(200);
+            all.addAll(json.readValue(response.body(), new TypeReference<List<SessionHitDto>>() { }));
+            page = response.headers().firstValue("X-Next-Page").orElse(null);
+        } while (page != null);
+
+        assertThat(all).extracting(SessionHitDto::getTitle).containsExactlyElementsOf(titles("yoga"));
+        assertThat(all).hasSize(4);
+    }
+
+    @Test
+    void plans_useGinIndexes() {
+        assertThat(plan("SELECT id FROM training_sessions s, websearch_to_tsquery('english', 'yoga beginners') q "
+                + "WHERE s.search_vector @@ q ORDER BY ts_rank_cd(s.search_vector, q) DESC LIMIT 21"))
+                .contains("idx_training_sessions_search");
+        assertThat(plan("SELECT id FROM trainers WHERE 'pilats' <% name OR 'pilats' <% specialization"))
+                .contains("idx_trainers_name_trgm", "idx_trainers_specialization_trgm");
+    }
+
+    private String plan(String sql) {
+        String plan = String.join("\n", jdbc.queryForList("EXPLAIN " + sql, String.class));
+        assertThat(plan).doesNotContain("Seq Scan");
+        return plan;
+    }
+}
@@ -0,0 +1,194 @@
+package org.example.klubfitness;
+
+import org.example.klubfitness.repository.ReservationRepository;
+import org.example.klubfitness.repository.TrainerRepository;
+import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.example.klubfitness.repository.UserRepository;
+import org.example.klubfitness.repository.WaitlistRepository;
+import org.example.klubfitness.security.TokenService;
+import org.example.klubfitness.service.ReservationService;
+import org.example.klubfitness.service.SeatFeed;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Strumień wolnych miejsc przez prawdziwe HTTP: stan początkowy, aktualizacja po rezerwacjach zebrana
+ * w jedno zdarzenie i wiele bezczynnych subskrybentów naraz.
+ */
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "klubfitness.seats.push-interval=100ms")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SeatFeedIT {
+
+    static final int IDLE_SUBSCRIBERS = 500;
+
+    @Container
+    static PostgreSQLContainer<?> pg = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("test-db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", pg::getJdbcUrl);
+        registry.add("spring.datasource.username", pg::getUsername);
+        registry.add("spring.datasource.password", pg::getPassword);
+    }
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    TokenService tokenService;
+    @Autowired
+    ReservationService reservationService;
+    @Autowired
+    SeatFeed seatFeed;
+    @Autowired
+    WaitlistRepository waitlistRepo;
+    @Autowired
+    ReservationRepository reservationRepo;
+    @Autowired
+    TrainingSessionRepository sessionRepo;
+    @Autowired
+    TrainerRepository trainerRepo;
+    @Autowired
+    UserRepository userRepo;
+    @Autowired
+    JdbcTemplate jdbc;
+
+    private final HttpClient http = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+    private List<Long> userIds;
+    private Long sessionId;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        waitlistRepo.deleteAll();
+        reservationRepo.deleteAll();
+        sessionRepo.deleteAll();
+        trainerRepo.deleteAll();
+        userRepo.deleteAll();
+
+        jdbc.execute("INSERT INTO users (username, password, role) "
+                + "SELECT 'member' || g, 'pw', 'USER' FROM generate_series(1, 5) g");
+        userIds = jdbc.queryForList("SELECT id FROM users ORDER BY id", Long.class);
+        jdbc.execute("INSERT INTO trainers (name, specialization) VALUES ('Coach', 'Spin')");
+        jdbc.execute("INSERT INTO training_sessions (title, start_time, end_time, trainer_id, capacity) "
+                + "VALUES ('Spin', now() + INTERVAL '1 day', now() + INTERVAL '1 day 1 hour', "
+                + "(SELECT MIN(id) FROM trainers), 20)");
+        sessionId = jdbc.queryForObject("SELECT id FROM training_sessions", Long.class);
+        token = "Bearer " + tokenService.issue("seatwatcher", List.of("ADMIN")).getAccessToken();
+    }
+
+    private CompletableFuture<HttpResponse<Stream<String>>> subscribe(String ids) {
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/sessions/seats/stream?ids=" + ids))
+                .header("Authorization", token)
+                .header("Accept", "text/event-stream")
+                .build();
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofLines());
+    }
+
+    /** Linie {@code data:} strumienia aż do tej, która zawiera {@code fragment}. */
+    private static List<String> dataUntil(HttpResponse<Stream<String>> response, String fragment) {
+        List<String> data = new ArrayList<>();
+        var lines = response.body().iterator();
+        while (lines.hasNext()) {
+            String line = lines.next();
+            if (line.startsWith("data:")) {
+                data.add(line);
+                if (line.contains(fragment)) {
+                    return data;
+                }
+            }
+        }
+        return data;
+    }
+
+    @Test
+    void stream_sendsInitialStateThenCoalescedUpdate() throws Exception {
+        HttpResponse<Stream<String>> response = subscribe(sessionId.toString()).get(10, TimeUnit.SECONDS);
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(
+                type -> assertThat(type).startsWith("text/event-stream"));
+
+        CompletableFuture<List<String>> received =
+                CompletableFuture.supplyAsync(() -> dataUntil(response, "\"seatsTaken\":5"));
+        for (Long userId : userIds) {
+            reservationService.createReservation(userId, sessionId);
+        }
+
+        List<String> data = received.get(10, TimeUnit.SECONDS);
+        assertThat(data.get(0)).contains("\"sessionId\":" + sessionId, "\"seatsTaken\":0", "\"freeSeats\":20");
+        assertThat(data.get(data.size() - 1)).contains("\"freeSeats\":15");
+        // 5 rezerwacji, ale najwyżej jedna aktualizacja na interwał – zwykle 1, nigdy więcej niż rezerwacji
+        assertThat(data.size() - 1).isBetween(1, 5);
+        response.body().close();
+    }
+
+    @Test
+    void stream_unknownSession_isNotFound() throws Exception {
+        assertThat(subscribe("999999").get(10, TimeUnit.SECONDS).statusCode()).isEqualTo(404);
+    }
+
+    @Test
+    void manyIdleSubscribers_allReceiveUpdate() throws Exception {
+        List<HttpResponse<Stream<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < IDLE_SUBSCRIBERS; i++) {
+            responses.add(subscribe(sessionId.toString()).get(10, TimeUnit.SECONDS));
+        }
+        assertThat(seatFeed.subscriberCount()).isGreaterThanOrEqualTo(IDLE_SUBSCRIBERS);
+
+        try (ExecutorService readers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<List<String>>> received = responses.stream()
+                    .map(response -> CompletableFuture.supplyAsync(() -> dataUntil(response, "\"seatsTaken\":1"), readers))
+                    .toList();
+            reservationService.createReservation(userIds.get(0), sessionId);
+
+            CompletableFuture.allOf(received.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+            assertThat(received).allSatisfy(data -> assertThat(data.join()).last().asString().contains("\"freeSeats\":19"));
+        }
+        responses.forEach(response -> response.body().close());
+
+        await(Duration.ofSeconds(30), () -> {
+            seatFeed.heartbeat();   // zamknięte połączenia wychodzą przy pierwszym nieudanym zapisie
+            return seatFeed.subscriberCount() == 0;
+        });
+    }
+
+    private static void await(Duration timeout, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within %s", timeout).isLessThan(deadline);
+            Thread.sleep(200);
+        }
+    }
+}
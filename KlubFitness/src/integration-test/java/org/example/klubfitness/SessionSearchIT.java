@@ -0,0 +1,166 @@
+package org.example.klubfitness;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.klubfitness.dto.TrainingSessionDto;
+import org.example.klubfitness.security.TokenService;
+import org.example.klubfitness.service.TrainingSessionService;
+import org.example.klubfitness.service.TrainingSessionService.SessionPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Wyszukiwanie sesji na 500 000 wierszy: plan tygodnia (z trenerem i bez) idzie po indeksach z V12
+ * bez sortowania, a kolejne strony po tokenach dają dokładnie ten sam ciąg co jedno zapytanie
+ * z ORDER BY – bez pominięć i powtórzeń, także przy wielu sesjach o tym samym czasie startu.
+ */
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SessionSearchIT {
+
+    static final int TRAINERS = 500;
+    static final int SESSIONS = 500_000;
+    static final LocalDateTime WEEK = LocalDateTime.of(2025, 3, 3, 0, 0);
+
+    @Container
+    static PostgreSQLContainer<?> pg = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("test-db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", pg::getJdbcUrl);
+        registry.add("spring.datasource.username", pg::getUsername);
+        registry.add("spring.datasource.password", pg::getPassword);
+    }
+
+    static boolean seeded;
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    TokenService tokenService;
+    @Autowired
+    TrainingSessionService sessionService;
+    @Autowired
+    JdbcTemplate jdbc;
+    @Autowired
+    ObjectMapper json;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        jdbc.execute("TRUNCATE reservations, waitlist_entries, training_sessions, trainers, users "
+                + "RESTART IDENTITY CASCADE");
+        jdbc.execute("INSERT INTO trainers (name, specialization) "
+                + "SELECT 'trainer' || g, 'spec' FROM generate_series(1, " + TRAINERS + ") g");
+        // każdy trener co 2 h (bez kolizji w grafiku), wszyscy o tych samych godzinach – remisy start_time
+        jdbc.execute("INSERT INTO training_sessions (title, start_time, end_time, trainer_id, capacity) "
+                + "SELECT CASE WHEN g % 3 = 0 THEN 'Spin ' ELSE 'Yoga ' END || g, "
+                + "TIMESTAMP '2025-01-01 06:00' + (g / " + TRAINERS + ") * INTERVAL '2 hours', "
+                + "TIMESTAMP '2025-01-01 07:00' + (g / " + TRAINERS + ") * INTERVAL '2 hours', "
+                + "1 + g % " + TRAINERS + ", 20 FROM generate_series(0, " + (SESSIONS - 1) + ") g");
+        jdbc.execute("ANALYZE training_sessions");
+        seeded = true;
+    }
+
+    @Test
+    void weekPage_isIndexRangeWithoutSort() {
+        String week = "FROM training_sessions WHERE start_time >= TIMESTAMP '2025-03-03' "
+                + "AND start_time < TIMESTAMP '2025-03-10'";
+
+        assertThat(plan("SELECT * " + week + " ORDER BY start_time, id LIMIT 51"))
+                .contains("idx_training_sessions_start_id");
+        assertThat(plan("SELECT * " + week + " AND (start_time, id) > (TIMESTAMP '2025-03-05', 1000) "
+                + "ORDER BY start_time, id LIMIT 51"))
+                .contains("idx_training_sessions_start_id");
+        assertThat(plan("SELECT * " + week + " AND trainer_id = 42 ORDER BY start_time DESC, id DESC LIMIT 51"))
+                .contains("idx_training_sessions_trainer_start_id");
+    }
+
+    @Test
+    void tokenWalk_matchesSingleOrderedQuery_bothDirections() {
+        LocalDateTime to = WEEK.plusDays(1);
+        List<Long> expected = jdbc.queryForList("SELECT id FROM training_sessions "
+                + "WHERE start_time >= ? AND start_time < ? ORDER BY start_time, id", Long.class, WEEK, to);
+        assertThat(expected).hasSizeGreaterThan(3 * TRAINERS);
+
+        assertThat(walk(WEEK, to, "startTime,asc", 333)).containsExactlyElementsOf(expected);
+        assertThat(walk(WEEK, to, "startTime,desc", 333)).containsExactlyElementsOf(expected.reversed());
+    }
+
+    @Test
+    void trainerWeek_overHttp_pagesWithContinuationToken() throws Exception {
+        String token = "Bearer " + tokenService.issue("planner", List.of("ADMIN")).getAccessToken();
+        String query = "from=2025-03-03T00:00:00&to=2025-03-10T00:00:00&trainerId=42&title=spin&size=10";
+        List<TrainingSessionDto> all = new ArrayList<>();
+        String page = null;
+        int requests = 0;
+        do {
+            String uri = "http://localhost:" + port + "/api/sessions?" + query
+                    + (page != null ? "&page=" + URLEncoder.encode(page, StandardCharsets.UTF_8) : "");
+            HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(uri))
+                    .header("Authorization", token).build(), HttpResponse.BodyHandlers.ofString());
+            assertThat(response.statusCode()).isEqualTo(200);
+            all.addAll(json.readValue(response.body(), new TypeReference<List<TrainingSessionDto>>() { }));
+            page = response.headers().firstValue("X-Next-Page").orElse(null);
+            requests++;
+        } while (page != null);
+
+        List<Long> expected = jdbc.queryForList("SELECT id FROM training_sessions WHERE trainer_id = 42 "
+                        + "AND start_time >= ? AND start_time < ? AND title ILIKE '%spin%' ORDER BY start_time, id",
+                Long.class, WEEK, WEEK.plusDays(7));
+        assertThat(expected).isNotEmpty();
+        assertThat(all).extracting(TrainingSessionDto::getId).containsExactlyElementsOf(expected);
+        assertThat(all).allSatisfy(s -> assertThat(s.getTrainerId()).isEqualTo(42L));
+        // wiersz ponad stronę: pełna ostatnia strona nie daje tokenu do pustej
+        assertThat(requests).isEqualTo((expected.size() + 9) / 10);
+    }
+
+    private List<Long> walk(LocalDateTime from, LocalDateTime to, String sort, int size) {
+        List<Long> ids = new ArrayList<>();
+        String page = null;
+        do {
+            SessionPage result = sessionService.searchSessions(from, to, null, null, sort, page, size);
+            result.items().forEach(s -> ids.add(s.getId()));
+            page = result.next();
+        } while (page != null);
+        return ids;
+    }
+
+    private String plan(String sql) {
+        String plan = String.join("\n", jdbc.queryForList("EXPLAIN " + sql, String.class));
+        assertThat(plan).containsAnyOf("Index Scan", "Index Only Scan");
+        assertThat(plan).doesNotContain("Seq Scan", "Sort");
+        return plan;
+    }
+}
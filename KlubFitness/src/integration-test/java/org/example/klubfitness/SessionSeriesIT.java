@@ -0,0 +1,204 @@
+package org.example.klubfitness;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.klubfitness.dto.SeriesUpdateDto;
+import org.example.klubfitness.dto.SessionSeriesDto;
+import org.example.klubfitness.exception.ConflictException;
+import org.example.klubfitness.repository.ReservationRepository;
+import org.example.klubfitness.repository.TrainerRepository;
+import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.example.klubfitness.repository.UserRepository;
+import org.example.klubfitness.repository.WaitlistRepository;
+import org.example.klubfitness.service.ReservationService;
+import org.example.klubfitness.service.SessionSeriesService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static java.time.DayOfWeek.MONDAY;
+import static java.time.DayOfWeek.WEDNESDAY;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Serie zajęć: roczna seria to kilka zapytań (wsadowy INSERT), a zmiany "tej i następnych"
+ * to pojedyncze UPDATE/DELETE.
+ */
+@Testcontainers
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SessionSeriesIT {
+
+    @Container
+    static PostgreSQLContainer<?> pg = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("test-db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", pg::getJdbcUrl);
+        registry.add("spring.datasource.username", pg::getUsername);
+        registry.add("spring.datasource.password", pg::getPassword);
+    }
+
+    @Autowired
+    SessionSeriesService seriesService;
+    @Autowired
+    ReservationService reservationService;
+    @Autowired
+    WaitlistRepository waitlistRepo;
+    @Autowired
+    ReservationRepository reservationRepo;
+    @Autowired
+    TrainingSessionRepository sessionRepo;
+    @Autowired
+    TrainerRepository trainerRepo;
+    @Autowired
+    UserRepository userRepo;
+    @Autowired
+    JdbcTemplate jdbc;
+    @Autowired
+    EntityManagerFactory emf;
+
+    private Long trainerId;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        waitlistRepo.deleteAll();
+        reservationRepo.deleteAll();
+        sessionRepo.deleteAll();
+        trainerRepo.deleteAll();
+        userRepo.deleteAll();
+        jdbc.execute("DELETE FROM session_series");
+
+        jdbc.execute("INSERT INTO trainers (name, specialization) VALUES ('Coach', 'Pilates')");
+        trainerId = jdbc.queryForObject("SELECT MIN(id) FROM trainers", Long.class);
+        jdbc.execute("INSERT INTO users (username, password, role) VALUES ('member', 'pw', 'USER')");
+        userId = jdbc.queryForObject("SELECT MIN(id) FROM users", Long.class);
+    }
+
+    private SessionSeriesDto yearOfMondaysAndWednesdays() {
+        SessionSeriesDto dto = new SessionSeriesDto();
+        dto.setTitle("Pilates");
+        dto.setTrainerId(trainerId);
+        dto.setCapacity(12);
+        dto.setDaysOfWeek(List.of(MONDAY, WEDNESDAY));
+        dto.setFirstDate(LocalDate.of(2030, 1, 1));
+        dto.setUntilDate(LocalDate.of(2030, 12, 31));
+        dto.setStartTime(LocalTime.of(18, 0));
+        dto.setDurationMinutes(60);
+        dto.setExcludedDates(List.of(LocalDate.of(2030, 12, 25)));
+        return dto;
+    }
+
+    @Test
+    void createSeries_insertsOccurrencesInBatches() {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        SessionSeriesDto out = seriesService.createSeries(yearOfMondaysAndWednesdays());
+
+        int occurrences = out.getSessionIds().size();
+        assertThat(occurrences).isEqualTo(104 - 1);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM training_sessions WHERE series_id = ?",
+                Integer.class, out.getId())).isEqualTo(occurrences);
+        // INSERT-y po 50 + nextval co 50 wierszy – dużo mniej niż jedno zapytanie na sesję
+        assertThat(stats.getPrepareStatementCount()).isLessThan(15);
+    }
+
+    @Test
+    void updateFollowing_changesOnlyAnchorAndLaterOccurrences() {
+        SessionSeriesDto series = seriesService.createSeries(yearOfMondaysAndWednesdays());
+        Long anchor = series.getSessionIds().get(50);
+
+        int updated = seriesService.updateFollowing(anchor, new SeriesUpdateDto("Pilates (new room)", null, null, 15, 30, 90));
+
+        assertThat(updated).isEqualTo(series.getSessionIds().size() - 50);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM training_sessions WHERE series_id = ? "
+                + "AND title = 'Pilates (new room)' AND capacity = 15", Integer.class, series.getId())).isEqualTo(updated);
+        LocalDateTime start = jdbc.queryForObject("SELECT start_time FROM training_sessions WHERE id = ?",
+                LocalDateTime.class, anchor);
+        LocalDateTime end = jdbc.queryForObject("SELECT end_time FROM training_sessions WHERE id = ?",
+                LocalDateTime.class, anchor);
+        assertThat(start.toLocalTime()).isEqualTo(LocalTime.of(18, 30));
+        assertThat(end).isEqualTo(start.plusMinutes(90));
+        LocalTime earlier = jdbc.queryForObject("SELECT start_time FROM training_sessions WHERE id = ?",
+                LocalDateTime.class, series.getSessionIds().get(49)).toLocalTime();
+        assertThat(earlier).isEqualTo(LocalTime.of(18, 0));
+    }
+
+    @Test
+    void updateFollowing_shiftBackPastPreviousOccurrence_resizesOnlyShiftedSessions() {
+        SessionSeriesDto series = seriesService.createSeries(yearOfMondaysAndWednesdays());
+        Long anchor = series.getSessionIds().get(50);
+        Long previous = series.getSessionIds().get(49);
+        LocalDateTime anchorStart = start(anchor);
+        LocalDateTime previousStart = start(previous);
+        // kotwica ląduje przed poprzednim wystąpieniem (z zapasem na nową długość)
+        int shift = -(int) Duration.between(previousStart, anchorStart).plusHours(2).toMinutes();
+
+        seriesService.updateFollowing(anchor, new SeriesUpdateDto(null, null, null, null, shift, 90));
+
+        assertThat(start(anchor)).isEqualTo(anchorStart.plusMinutes(shift));
+        assertThat(end(anchor)).isEqualTo(start(anchor).plusMinutes(90));
+        assertThat(start(previous)).isEqualTo(previousStart);
+        assertThat(end(previous)).isEqualTo(previousStart.plusMinutes(60));
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM training_sessions WHERE series_id = ? "
+                        + "AND end_time - start_time = INTERVAL '90 minutes'", Integer.class, series.getId()))
+                .isEqualTo(series.getSessionIds().size() - 50);
+    }
+
+    @Test
+    void updateFollowing_capacityBelowSeatsTaken_conflictWithoutChanges() {
+        SessionSeriesDto series = seriesService.createSeries(yearOfMondaysAndWednesdays());
+        Long anchor = series.getSessionIds().get(50);
+        jdbc.update("UPDATE training_sessions SET seats_taken = 10 WHERE id = ?", series.getSessionIds().get(70));
+
+        assertThatThrownBy(() -> seriesService.updateFollowing(anchor,
+                new SeriesUpdateDto("Pilates XS", null, null, 8, null, null)))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("below 10 seats already taken");
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM training_sessions WHERE series_id = ? "
+                + "AND (capacity <> 12 OR title <> 'Pilates')", Integer.class, series.getId())).isZero();
+    }
+
+    private LocalDateTime start(Long sessionId) {
+        return jdbc.queryForObject("SELECT start_time FROM training_sessions WHERE id = ?", LocalDateTime.class, sessionId);
+    }
+
+    private LocalDateTime end(Long sessionId) {
+        return jdbc.queryForObject("SELECT end_time FROM training_sessions WHERE id = ?", LocalDateTime.class, sessionId);
+    }
+
+    @Test
+    void deleteFollowing_removesSessionsWithTheirReservations() {
+        SessionSeriesDto series = seriesService.createSeries(yearOfMondaysAndWednesdays());
+        List<Long> ids = series.getSessionIds();
+        reservationService.createReservation(userId, ids.get(10));
+        reservationService.createReservation(userId, ids.get(80));
+
+        Map<String, Integer> removed = seriesService.deleteFollowing(ids.get(60));
+
+        assertThat(removed).containsEntry("sessions", ids.size() - 60).containsEntry("reservations", 1);
+        assertThat(sessionRepo.count()).isEqualTo(60);
+        assertThat(reservationRepo.count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,133 @@
+package org.example.klubfitness;
+
+import org.example.klubfitness.config.SqlStatsResponseAdvice;
+import org.example.klubfitness.repository.ReservationRepository;
+import org.example.klubfitness.repository.TrainerRepository;
+import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.example.klubfitness.repository.UserRepository;
+import org.example.klubfitness.repository.WaitlistRepository;
+import org.example.klubfitness.security.TokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Liczenie zapytań per żądanie (nagłówki jak w profilu debug): lista rezerwacji wykonuje stałą
+ * liczbę zapytań niezależnie od liczby wierszy – bez N+1 przy zwracaniu wielu rezerwacji.
+ */
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "klubfitness.sql.response-headers=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SqlStatsIT {
+
+    @Container
+    static PostgreSQLContainer<?> pg = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("test-db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", pg::getJdbcUrl);
+        registry.add("spring.datasource.username", pg::getUsername);
+        registry.add("spring.datasource.password", pg::getPassword);
+    }
+
+    @Autowired
+    TestRestTemplate rest;
+    @Autowired
+    TokenService tokenService;
+    @Autowired
+    WaitlistRepository waitlistRepo;
+    @Autowired
+    ReservationRepository reservationRepo;
+    @Autowired
+    TrainingSessionRepository sessionRepo;
+    @Autowired
+    TrainerRepository trainerRepo;
+    @Autowired
+    UserRepository userRepo;
+    @Autowired
+    JdbcTemplate jdbc;
+
+    private HttpHeaders headers;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        waitlistRepo.deleteAll();
+        reservationRepo.deleteAll();
+        sessionRepo.deleteAll();
+        trainerRepo.deleteAll();
+        userRepo.deleteAll();
+
+        jdbc.execute("INSERT INTO users (username, password, role) VALUES ('member', 'pw', 'USER')");
+        userId = jdbc.queryForObject("SELECT id FROM users", Long.class);
+        jdbc.execute("INSERT INTO trainers (name, specialization) VALUES ('Coach', 'Spin')");
+        jdbc.execute("INSERT INTO training_sessions (title, start_time, end_time, trainer_id, capacity) "
+                + "SELECT 'Class ' || g, now() + g * INTERVAL '1 day', now() + g * INTERVAL '1 day' + INTERVAL '1 hour', "
+                + "(SELECT MIN(id) FROM trainers), 10 FROM generate_series(1, 30) g");
+
+        headers = new HttpHeaders();
+        headers.setBearerAuth(tokenService.issue("sql", List.of("ADMIN")).getAccessToken());
+    }
+
+    private void reserve(int sessions) {
+        jdbc.update("INSERT INTO reservations (reservation_time, user_id, session_id) "
+                + "SELECT now(), ?, id FROM training_sessions ORDER BY id LIMIT ?", userId, sessions);
+    }
+
+    private ResponseEntity<String> listReservations() {
+        return rest.exchange("/api/reservations?userId=" + userId, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    private int statements(ResponseEntity<?> response) {
+        return Integer.parseInt(response.getHeaders().getFirst(SqlStatsResponseAdvice.STATEMENTS_HEADER));
+    }
+
+    @Test
+    void reservationList_runsConstantNumberOfStatements() {
+        reserve(2);
+        ResponseEntity<String> few = listReservations();
+        reservationRepo.deleteAll();
+        reserve(30);
+        ResponseEntity<String> many = listReservations();
+
+        assertThat(few.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(statements(few)).isPositive();
+        assertThat(statements(many)).isEqualTo(statements(few));
+        assertThat(many.getHeaders().getFirst(SqlStatsResponseAdvice.MAX_REPEATS_HEADER)).isEqualTo("1");
+    }
+
+    @Test
+    void statementsPerRequest_areExportedAsMetric() {
+        listReservations();
+
+        String scrape = rest.exchange("/actuator/prometheus", HttpMethod.GET, new HttpEntity<>(headers), String.class)
+                .getBody();
+
+        assertThat(scrape)
+                .contains("klubfitness_http_sql_statements_count{")
+                .contains("uri=\"/api/reservations\"")
+                .contains("klubfitness_sql_statements_total{");
+    }
+}
@@ -0,0 +1,154 @@
+package org.example.klubfitness;
+
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.example.klubfitness.dto.ReservationDto;
+import org.example.klubfitness.repository.ReservationRepository;
+import org.example.klubfitness.repository.TrainerRepository;
+import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.example.klubfitness.repository.UserRepository;
+import org.example.klubfitness.repository.WaitlistRepository;
+import org.example.klubfitness.security.TokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Śledzenie end-to-end: jedna rezerwacja daje jeden ślad ze spanem żądania HTTP, spanami kroków
+ * {@code createReservation} i spanami zapytań JDBC. Eksporter w pamięci zamiast kolektora OTLP.
+ */
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "management.tracing.sampling.probability=1.0")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TracingIT {
+
+    @Container
+    static PostgreSQLContainer<?> pg = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("test-db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", pg::getJdbcUrl);
+        registry.add("spring.datasource.username", pg::getUsername);
+        registry.add("spring.datasource.password", pg::getPassword);
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class InMemoryExport {
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+
+    @Autowired
+    TestRestTemplate rest;
+    @Autowired
+    TokenService tokenService;
+    @Autowired
+    InMemorySpanExporter spans;
+    @Autowired
+    SdkTracerProvider tracerProvider;
+    @Autowired
+    WaitlistRepository waitlistRepo;
+    @Autowired
+    ReservationRepository reservationRepo;
+    @Autowired
+    TrainingSessionRepository sessionRepo;
+    @Autowired
+    TrainerRepository trainerRepo;
+    @Autowired
+    UserRepository userRepo;
+    @Autowired
+    JdbcTemplate jdbc;
+
+    private HttpHeaders headers;
+    private Long userId;
+    private Long sessionId;
+
+    @BeforeEach
+    void setUp() {
+        waitlistRepo.deleteAll();
+        reservationRepo.deleteAll();
+        sessionRepo.deleteAll();
+        trainerRepo.deleteAll();
+        userRepo.deleteAll();
+
+        jdbc.execute("INSERT INTO users (username, password, role) VALUES ('member', 'pw', 'USER')");
+        userId = jdbc.queryForObject("SELECT id FROM users", Long.class);
+        jdbc.execute("INSERT INTO trainers (name, specialization) VALUES ('Coach', 'Spin')");
+        jdbc.execute("INSERT INTO training_sessions (title, start_time, end_time, trainer_id, capacity) "
+                + "VALUES ('Spin', now() + INTERVAL '1 day', now() + INTERVAL '1 day 1 hour', "
+                + "(SELECT MIN(id) FROM trainers), 10)");
+        sessionId = jdbc.queryForObject("SELECT id FROM training_sessions", Long.class);
+
+        headers = new HttpHeaders();
+        headers.setBearerAuth(tokenService.issue("tracing", List.of("ADMIN")).getAccessToken());
+        tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+        spans.reset();
+    }
+
+    @Test
+    void createReservation_producesOneTraceWithStepAndJdbcSpans() {
+        ReservationDto dto = new ReservationDto();
+        dto.setUserId(userId);
+        dto.setSessionId(sessionId);
+
+        ResponseEntity<ReservationDto> response =
+                rest.postForEntity("/api/reservations", new HttpEntity<>(dto, headers), ReservationDto.class);
+        tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        List<SpanData> finished = spans.getFinishedSpanItems();
+        SpanData http = finished.stream()
+                .filter(s -> s.getName().equals("http post /api/reservations"))
+                .findFirst().orElseThrow();
+        List<SpanData> trace = finished.stream()
+                .filter(s -> s.getTraceId().equals(http.getTraceId()))
+                .toList();
+
+        assertThat(trace).extracting(SpanData::getName)
+                .contains("reservation create",
+                        "reservation load-user", "reservation load-session",
+                        "reservation admit", "reservation discount", "reservation save")
+                .anyMatch(name -> name.startsWith("jdbc "));
+        assertThat(trace).filteredOn(s -> s.getName().startsWith("jdbc "))
+                .allMatch(s -> s.getAttributes().asMap().keySet().stream()
+                        .anyMatch(key -> key.getKey().equals("db.statement")));
+    }
+
+    @Test
+    void actuatorRequests_areNotTraced() {
+        rest.exchange("/actuator/health", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+        tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+
+        assertThat(spans.getFinishedSpanItems())
+                .noneMatch(s -> s.getName().contains("/actuator"));
+    }
+}
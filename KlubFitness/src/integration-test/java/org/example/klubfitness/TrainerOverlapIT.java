@@ -0,0 +1,177 @@
+package org.example.klubfitness;
+
+import org.example.klubfitness.dto.TimeSlotDto;
+import org.example.klubfitness.entity.Trainer;
+import org.example.klubfitness.entity.TrainingSession;
+import org.example.klubfitness.exception.ConflictException;
+import org.example.klubfitness.repository.ReservationRepository;
+import org.example.klubfitness.repository.TrainerRepository;
+import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.example.klubfitness.repository.TrainingSessionRepository.SessionInterval;
+import org.example.klubfitness.repository.WaitlistRepository;
+import org.example.klubfitness.service.TrainerScheduleIndex;
+import org.example.klubfitness.service.TrainerService;
+import org.example.klubfitness.service.TrainingSessionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Kolizje w grafiku trenera: ograniczenie wykluczające w bazie, sprawdzenie wstępne w indeksie
+ * w pamięci oraz porównanie indeksu z naiwnym przeglądem wszystkich sesji trenera.
+ * Dane: trener z 20 000 godzinnych sesji co 2 godziny.
+ */
+@Testcontainers
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TrainerOverlapIT {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final int SESSIONS = 20_000;
+
+    @Container
+    static PostgreSQLContainer<?> pg = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("test-db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", pg::getJdbcUrl);
+        registry.add("spring.datasource.username", pg::getUsername);
+        registry.add("spring.datasource.password", pg::getPassword);
+    }
+
+    @Autowired
+    TrainingSessionService sessionService;
+    @Autowired
+    TrainerService trainerService;
+    @Autowired
+    TrainerScheduleIndex schedule;
+    @Autowired
+    WaitlistRepository waitlistRepo;
+    @Autowired
+    ReservationRepository reservationRepo;
+    @Autowired
+    TrainingSessionRepository sessionRepo;
+    @Autowired
+    TrainerRepository trainerRepo;
+    @Autowired
+    JdbcTemplate jdbc;
+
+    private Trainer trainer;
+
+    @BeforeEach
+    void setUp() {
+        waitlistRepo.deleteAll();
+        reservationRepo.deleteAll();
+        jdbc.execute("DELETE FROM training_sessions");
+        trainerRepo.deleteAll();
+
+        trainer = new Trainer();
+        trainer.setName("Coach");
+        trainer = trainerRepo.save(trainer);
+        schedule.evict(trainer.getId());
+        // sesje [T0 + 2g h, T0 + 2g h + 1 h) dla g = 0..SESSIONS-1
+        jdbc.update("INSERT INTO training_sessions (title, start_time, end_time, trainer_id) "
+                + "SELECT 'S' || g, ? + g * INTERVAL '2 hours', ? + g * INTERVAL '2 hours' + INTERVAL '1 hour', ? "
+                + "FROM generate_series(0, ?) g", T0, T0, trainer.getId(), SESSIONS - 1);
+    }
+
+    private TrainingSession session(LocalDateTime start, LocalDateTime end) {
+        TrainingSession s = new TrainingSession();
+        s.setTitle("New");
+        s.setStartTime(start);
+        s.setEndTime(end);
+        s.setTrainer(trainer);
+        return s;
+    }
+
+    @Test
+    void exclusionConstraint_rejectsOverlapButAllowsBackToBack() {
+        String insert = "INSERT INTO training_sessions (title, start_time, end_time, trainer_id) VALUES ('X', ?, ?, ?)";
+
+        assertThatThrownBy(() -> jdbc.update(insert, T0.plusMinutes(30), T0.plusMinutes(90), trainer.getId()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(jdbc.update(insert, T0.plusHours(1), T0.plusHours(2), trainer.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void service_rejectsOverlapBeforeHittingDatabase() {
+        assertThatThrownBy(() -> sessionService.createSession(session(T0.plusMinutes(30), T0.plusMinutes(90))))
+                .isInstanceOf(ConflictException.class);
+
+        TrainingSession ok = sessionService.createSession(session(T0.plusHours(1), T0.plusHours(2)));
+        // nowa sesja od razu widoczna w indeksie
+        assertThat(schedule.findOverlap(trainer.getId(), T0.plusHours(1), T0.plusHours(2), null))
+                .hasValueSatisfying(slot -> assertThat(slot.sessionId()).isEqualTo(ok.getId()));
+    }
+
+    @Test
+    void service_movingSessionOntoAnotherIsRejected() {
+        Long first = jdbc.queryForObject("SELECT id FROM training_sessions WHERE start_time = ?", Long.class, T0);
+
+        assertThatThrownBy(() -> sessionService.updateSession(first,
+                session(T0.plusHours(2), T0.plusHours(3)))).isInstanceOf(ConflictException.class);
+        // przesunięcie w obrębie własnego przedziału nie koliduje z samą sobą
+        assertThat(sessionService.updateSession(first, session(T0.plusMinutes(15), T0.plusMinutes(75)))).isNotNull();
+    }
+
+    @Test
+    void freeSlots_areGapsBetweenSessions() {
+        List<TimeSlotDto> free = trainerService.findFreeSlots(trainer.getId(), T0, T0.plusHours(6), 30);
+
+        assertThat(free).containsExactly(
+                new TimeSlotDto(T0.plusHours(1), T0.plusHours(2)),
+                new TimeSlotDto(T0.plusHours(3), T0.plusHours(4)),
+                new TimeSlotDto(T0.plusHours(5), T0.plusHours(6)));
+    }
+
+    @Test
+    void benchmark_indexVersusNaiveScan() {
+        Random rnd = new Random(7);
+        Long trainerId = trainer.getId();
+        int indexChecks = 100_000;
+        int naiveChecks = 200;
+        schedule.sessionsBetween(trainerId, T0, T0.plusHours(1));   // rozgrzanie: wczytanie grafiku
+
+        long t0 = System.nanoTime();
+        int hits = 0;
+        for (int i = 0; i < indexChecks; i++) {
+            LocalDateTime start = T0.plusMinutes(rnd.nextInt(SESSIONS * 120));
+            if (schedule.findOverlap(trainerId, start, start.plusMinutes(45), null).isPresent()) hits++;
+        }
+        double indexRate = indexChecks / ((System.nanoTime() - t0) / 1e9);
+
+        long t1 = System.nanoTime();
+        int naiveHits = 0;
+        for (int i = 0; i < naiveChecks; i++) {
+            LocalDateTime start = T0.plusMinutes(rnd.nextInt(SESSIONS * 120));
+            LocalDateTime end = start.plusMinutes(45);
+            List<SessionInterval> all = sessionRepo.findIntervalsByTrainerId(trainerId);
+            if (all.stream().anyMatch(s -> s.getStartTime().isBefore(end) && s.getEndTime().isAfter(start))) naiveHits++;
+        }
+        double naiveRate = naiveChecks / ((System.nanoTime() - t1) / 1e9);
+
+        System.out.printf("trainer overlap check (%d sessions): index %.0f checks/s, naive scan %.0f checks/s (x%.0f)%n",
+                SESSIONS, indexRate, naiveRate, indexRate / naiveRate);
+        assertThat(hits).isPositive();
+        assertThat(naiveHits).isPositive();
+        assertThat(indexRate).isGreaterThan(naiveRate * 100);
+    }
+}
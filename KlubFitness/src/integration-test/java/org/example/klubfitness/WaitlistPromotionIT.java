@@ -0,0 +1,309 @@
+package org.example.klubfitness;
+
+import org.example.klubfitness.dto.SeriesUpdateDto;
+import org.example.klubfitness.dto.WaitlistEntryDto;
+import org.example.klubfitness.entity.Trainer;
+import org.example.klubfitness.entity.TrainingSession;
+import org.example.klubfitness.exception.ConflictException;
+import org.example.klubfitness.repository.ReservationRepository;
+import org.example.klubfitness.repository.TrainerRepository;
+import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.example.klubfitness.repository.UserRepository;
+import org.example.klubfitness.repository.WaitlistRepository;
+import org.example.klubfitness.service.ReservationService;
+import org.example.klubfitness.service.SessionSeatGate;
+import org.example.klubfitness.service.SessionSeriesService;
+import org.example.klubfitness.service.TrainingSessionService;
+import org.example.klubfitness.service.UserService;
+import org.example.klubfitness.service.WaitlistService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Kolejka oczekujących: anulowanie przekazuje miejsce pierwszej osobie z kolejki,
+ * a równoległe anulowania (SKIP LOCKED) promują różne osoby bez przepełnienia sesji.
+ */
+@Testcontainers
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class WaitlistPromotionIT {
+
+    @Container
+    static PostgreSQLContainer<?> pg = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("test-db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", pg::getJdbcUrl);
+        registry.add("spring.datasource.username", pg::getUsername);
+        registry.add("spring.datasource.password", pg::getPassword);
+    }
+
+    @Autowired
+    ReservationService reservationService;
+    @Autowired
+    WaitlistService waitlistService;
+    @Autowired
+    SessionSeatGate seatGate;
+    @Autowired
+    TrainingSessionService sessionService;
+    @Autowired
+    SessionSeriesService seriesService;
+    @Autowired
+    UserService userService;
+    @Autowired
+    ReservationRepository reservationRepo;
+    @Autowired
+    WaitlistRepository waitlistRepo;
+    @Autowired
+    TrainingSessionRepository sessionRepo;
+    @Autowired
+    TrainerRepository trainerRepo;
+    @Autowired
+    UserRepository userRepo;
+    @Autowired
+    JdbcTemplate jdbc;
+
+    private List<Long> userIds;
+    private Long sessionId;
+
+    @BeforeEach
+    void setUp() {
+        waitlistRepo.deleteAll();
+        reservationRepo.deleteAll();
+        sessionRepo.deleteAll();
+        trainerRepo.deleteAll();
+        userRepo.deleteAll();
+
+        jdbc.execute("INSERT INTO users (username, password, role) "
+                + "SELECT 'member' || g, 'pw', 'USER' FROM generate_series(1, 200) g");
+        userIds = jdbc.queryForList("SELECT id FROM users ORDER BY id", Long.class);
+
+        Trainer trainer = new Trainer();
+        trainer.setName("Coach");
+        trainer = trainerRepo.save(trainer);
+
+        TrainingSession s = new TrainingSession();
+        s.setTitle("Crossfit");
+        s.setStartTime(LocalDateTime.now().plusDays(1));
+        s.setEndTime(LocalDateTime.now().plusDays(1).plusHours(1));
+        s.setCapacity(50);
+        s.setTrainer(trainer);
+        sessionId = sessionRepo.save(s).getId();
+    }
+
+    private List<Long> bookFirst(int n) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            ids.add(reservationService.createReservation(userIds.get(i), sessionId).getId());
+        }
+        return ids;
+    }
+
+    @Test
+    void cancel_promotesHeadOfQueue() {
+        List<Long> reservations = bookFirst(50);
+        WaitlistEntryDto first = waitlistService.join(userIds.get(50), sessionId);
+        WaitlistEntryDto second = waitlistService.join(userIds.get(51), sessionId);
+        assertThat(first.getPosition()).isEqualTo(1);
+        assertThat(second.getPosition()).isEqualTo(2);
+
+        assertThat(reservationService.cancelReservation(reservations.get(0))).isTrue();
+
+        assertThat(reservationRepo.existsByUserIdAndSessionId(userIds.get(50), sessionId)).isTrue();
+        assertThat(waitlistService.getEntry(userIds.get(51), sessionId).getPosition()).isEqualTo(1);
+        assertThat(seatsTaken()).isEqualTo(50);
+        assertThat(reservationRepo.findBySessionId(sessionId)).hasSize(50);
+    }
+
+    @Test
+    void cancel_withEmptyQueue_releasesSeat() {
+        List<Long> reservations = bookFirst(50);
+
+        reservationService.cancelReservation(reservations.get(0));
+
+        assertThat(seatsTaken()).isEqualTo(49);
+    }
+
+    @Test
+    void concurrentCancellations_promoteDistinctUsersInOrder() throws Exception {
+        List<Long> reservations = bookFirst(50);
+        for (int i = 50; i < 200; i++) {
+            waitlistService.join(userIds.get(i), sessionId);
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 30; i++) {
+                Long reservationId = reservations.get(i);
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return reservationService.cancelReservation(reservationId);
+                }));
+            }
+            start.countDown();
+            for (Future<Boolean> f : results) {
+                assertThat(f.get()).isTrue();
+            }
+        }
+
+        assertThat(seatsTaken()).isEqualTo(50);
+        assertThat(reservationRepo.findBySessionId(sessionId)).hasSize(50);
+        assertThat(waitlistRepo.findIdsBySessionId(sessionId)).hasSize(120);
+        // promowani są dokładnie pierwsi z kolejki
+        for (int i = 50; i < 80; i++) {
+            assertThat(reservationRepo.existsByUserIdAndSessionId(userIds.get(i), sessionId)).isTrue();
+        }
+        assertThat(waitlistService.getEntry(userIds.get(80), sessionId).getPosition()).isEqualTo(1);
+    }
+
+    @Test
+    void promoteFreeSeats_afterCapacityIncrease() {
+        bookFirst(50);
+        for (int i = 50; i < 60; i++) {
+            waitlistService.join(userIds.get(i), sessionId);
+        }
+        jdbc.update("UPDATE training_sessions SET capacity = 55 WHERE id = ?", sessionId);
+
+        assertThat(waitlistService.promoteFreeSeats(sessionId)).isEqualTo(5);
+        assertThat(seatsTaken()).isEqualTo(55);
+        assertThat(waitlistRepo.findIdsBySessionId(sessionId)).hasSize(5);
+    }
+
+    @Test
+    void updateSession_raisedCapacity_promotesHeadOfQueue() {
+        bookFirst(50);
+        for (int i = 50; i < 60; i++) {
+            waitlistService.join(userIds.get(i), sessionId);
+        }
+        TrainingSession payload = sessionRepo.findById(sessionId).orElseThrow();
+        payload.setCapacity(53);
+
+        sessionService.updateSession(sessionId, payload);
+
+        assertThat(seatsTaken()).isEqualTo(53);
+        for (int i = 50; i < 53; i++) {
+            assertThat(reservationRepo.existsByUserIdAndSessionId(userIds.get(i), sessionId)).isTrue();
+        }
+        assertThat(waitlistService.getEntry(userIds.get(53), sessionId).getPosition()).isEqualTo(1);
+    }
+
+    @Test
+    void updateFollowing_raisedSeriesCapacity_promotesHeadOfQueue() {
+        jdbc.update("INSERT INTO session_series (title, days_of_week, first_date, until_date, start_time, "
+                + "duration_minutes) VALUES ('Crossfit', 'MONDAY', current_date, current_date + 30, '18:00', 60)");
+        jdbc.update("UPDATE training_sessions SET series_id = (SELECT MAX(id) FROM session_series) WHERE id = ?",
+                sessionId);
+        bookFirst(50);
+        for (int i = 50; i < 60; i++) {
+            waitlistService.join(userIds.get(i), sessionId);
+        }
+
+        assertThat(seriesService.updateFollowing(sessionId, new SeriesUpdateDto(null, null, null, 53, null, null)))
+                .isEqualTo(1);
+
+        assertThat(seatsTaken()).isEqualTo(53);
+        for (int i = 50; i < 53; i++) {
+            assertThat(reservationRepo.existsByUserIdAndSessionId(userIds.get(i), sessionId)).isTrue();
+        }
+        assertThat(waitlistService.getEntry(userIds.get(53), sessionId).getPosition()).isEqualTo(1);
+    }
+
+    @Test
+    void updateSession_capacityBelowSeatsTaken_conflictWithoutChange() {
+        bookFirst(30);
+        TrainingSession payload = sessionRepo.findById(sessionId).orElseThrow();
+        payload.setCapacity(20);
+
+        assertThatThrownBy(() -> sessionService.updateSession(sessionId, payload))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("below 30 seats");
+        assertThat(jdbc.queryForObject("SELECT capacity FROM training_sessions WHERE id = ?", Integer.class, sessionId))
+                .isEqualTo(50);
+    }
+
+    @Test
+    void deleteUser_handsTheirSeatToHeadOfQueue() {
+        bookFirst(50);
+        waitlistService.join(userIds.get(50), sessionId);
+        waitlistService.join(userIds.get(51), sessionId);
+
+        assertThat(userService.deleteUser(userIds.get(0))).isTrue();
+
+        assertThat(reservationRepo.existsByUserIdAndSessionId(userIds.get(50), sessionId)).isTrue();
+        assertThat(waitlistService.getEntry(userIds.get(51), sessionId).getPosition()).isEqualTo(1);
+        assertThat(seatsTaken()).isEqualTo(50);
+        assertThat(reservationRepo.findBySessionId(sessionId)).hasSize(50);
+    }
+
+    @Test
+    void deleteWaitlistedUser_dropsTheirEntry() {
+        bookFirst(50);
+        waitlistService.join(userIds.get(50), sessionId);
+        waitlistService.join(userIds.get(51), sessionId);
+
+        assertThat(userService.deleteUser(userIds.get(50))).isTrue();
+
+        assertThat(waitlistService.getEntry(userIds.get(51), sessionId).getPosition()).isEqualTo(1);
+    }
+
+    @Test
+    void bookWhileWaitlisted_thenCancelSomeoneElse_promotesNextInQueue() {
+        List<Long> reservations = bookFirst(50);
+        waitlistService.join(userIds.get(50), sessionId);
+        waitlistService.join(userIds.get(51), sessionId);
+        // wolne miejsce bez promocji (np. limit podniesiony bezpośrednio w bazie) – pierwszy z kolejki rezerwuje sam
+        jdbc.update("UPDATE training_sessions SET capacity = 51 WHERE id = ?", sessionId);
+        seatGate.release(sessionId);   // bramka odświeżona, jak po DEFAULT_REFRESH
+        reservationService.createReservation(userIds.get(50), sessionId);
+        assertThat(waitlistRepo.findBySessionIdAndUserId(sessionId, userIds.get(50))).isEmpty();
+
+        assertThat(reservationService.cancelReservation(reservations.get(0))).isTrue();
+
+        assertThat(reservationRepo.existsByUserIdAndSessionId(userIds.get(51), sessionId)).isTrue();
+        assertThat(waitlistRepo.findIdsBySessionId(sessionId)).isEmpty();
+        assertThat(seatsTaken()).isEqualTo(51);
+        assertThat(reservationRepo.findBySessionId(sessionId)).hasSize(51);
+    }
+
+    @Test
+    void cancel_skipsQueuedUserWhoAlreadyHoldsReservation() {
+        List<Long> reservations = bookFirst(50);
+        // wpis sprzed usuwania kolejki przy rezerwacji: użytkownik 1 ma miejsce i nadal czeka
+        jdbc.update("INSERT INTO waitlist_entries (session_id, user_id, enqueued_at) VALUES (?, ?, now())",
+                sessionId, userIds.get(1));
+        waitlistService.join(userIds.get(50), sessionId);
+
+        assertThat(reservationService.cancelReservation(reservations.get(0))).isTrue();
+
+        assertThat(reservationRepo.existsByUserIdAndSessionId(userIds.get(50), sessionId)).isTrue();
+        assertThat(seatsTaken()).isEqualTo(50);
+        assertThat(reservationRepo.findBySessionId(sessionId)).hasSize(50);
+    }
+
+    private int seatsTaken() {
+        return jdbc.queryForObject("SELECT seats_taken FROM training_sessions WHERE id = ?", Integer.class, sessionId);
+    }
+}
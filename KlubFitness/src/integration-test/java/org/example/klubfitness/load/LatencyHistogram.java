@@ -0,0 +1,83 @@
+package org.example.klubfitness.load;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Histogram czasów odpowiedzi w µs o stałej pamięci i błędzie względnym ~6%: przedziały potęg dwójki
+ * podzielone liniowo na {@value #SUB_BUCKETS} części (jak HdrHistogram z jedną cyfrą znaczącą).
+ * Zapisy są bezblokadowe, więc wiele wątków klientów może rejestrować pomiary naraz.
+ */
+public final class LatencyHistogram {
+    static final int SUB_BUCKETS = 16;
+    private static final int SUB_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+    private static final int MAGNITUDES = 40;
+
+    private final AtomicLongArray counts = new AtomicLongArray(MAGNITUDES * SUB_BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long micros) {
+        long value = Math.max(0, micros);
+        counts.incrementAndGet(index(value));
+        total.increment();
+        max.accumulate(value);
+    }
+
+    public long count() {
+        return total.sum();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    /** Górna granica przedziału, w którym leży percentyl {@code p} (0–1). */
+    public long percentile(double p) {
+        long n = count();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(p * n));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max());
+            }
+        }
+        return max();
+    }
+
+    /** Niepuste przedziały: {@code [dolna granica, górna granica, liczba]}. */
+    public long[][] buckets() {
+        return IntStream.range(0, counts.length())
+                .filter(i -> counts.get(i) > 0)
+                .mapToObj(i -> new long[]{lowerBound(i), upperBound(i), counts.get(i)})
+                .toArray(long[][]::new);
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS + 1;
+        int sub = (int) (value >>> (magnitude - 1)) - SUB_BUCKETS;
+        return Math.min(magnitude * SUB_BUCKETS + sub, MAGNITUDES * SUB_BUCKETS - 1);
+    }
+
+    static long lowerBound(int index) {
+        int magnitude = index / SUB_BUCKETS;
+        int sub = index % SUB_BUCKETS;
+        if (magnitude == 0) {
+            return sub;
+        }
+        return (long) (SUB_BUCKETS + sub) << (magnitude - 1);
+    }
+
+    static long upperBound(int index) {
+        return lowerBound(index + 1) - 1;
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.klubfitness.load;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Wypełnia bazę danymi o realistycznej skali jednym {@code INSERT ... SELECT generate_series} na tabelę –
+ * miliony wierszy w kilka minut zamiast godzin przez API. Wolumeny nadpisuje się właściwościami systemowymi
+ * {@code load.users}, {@code load.sessions}, {@code load.reservations}.
+ * <p>
+ * Zajęcia każdego trenera są rozłożone co {@value #SLOT_HOURS} h w przyszłości (bez kolizji z ograniczeniem
+ * {@code ex_training_sessions_trainer_overlap}); każde ma {@value #FREE_SEATS} wolnych miejsc ponad
+ * rezerwacje z seeda, więc scenariusz „rush” ma o co walczyć.
+ */
+public final class LoadDataSeeder {
+
+    public static final int TRAINERS = 200;
+    static final int SLOT_HOURS = 2;
+    public static final int FREE_SEATS = 20;
+
+    private final JdbcTemplate jdbc;
+    private final int users;
+    private final int sessions;
+    private final int reservationsPerSession;
+
+    public LoadDataSeeder(JdbcTemplate jdbc) {
+        this(jdbc, Integer.getInteger("load.users", 10_000), Integer.getInteger("load.sessions", 50_000),
+                Long.getLong("load.reservations", 5_000_000L));
+    }
+
+    public LoadDataSeeder(JdbcTemplate jdbc, int users, int sessions, long reservations) {
+        this.jdbc = jdbc;
+        this.users = users;
+        this.sessions = sessions;
+        // każda para (użytkownik, zajęcia) może wystąpić tylko raz
+        this.reservationsPerSession = (int) Math.min(users, reservations / sessions);
+    }
+
+    public int users() {
+        return users;
+    }
+
+    public int sessions() {
+        return sessions;
+    }
+
+    public int reservationsPerSession() {
+        return reservationsPerSession;
+    }
+
+    public void seed() {
+        long t0 = System.nanoTime();
+        jdbc.execute("TRUNCATE waitlist_entries, reservations, training_sessions, session_series, trainers, users "
+                + "RESTART IDENTITY CASCADE");
+
+        jdbc.update("INSERT INTO users (username, password, role) "
+                + "SELECT 'member' || g, 'pw', 'USER' FROM generate_series(1, ?) g", users);
+        jdbc.update("INSERT INTO trainers (name, specialization) "
+                + "SELECT 'Coach ' || g, (ARRAY['Spin','Yoga','Crossfit','Pilates','Boxing'])[g % 5 + 1] "
+                + "FROM generate_series(1, ?) g", TRAINERS);
+
+        // zajęcia n: trener n mod TRAINERS, start co SLOT_HOURS godzin w obrębie trenera
+        jdbc.update("WITH t AS (SELECT array_agg(id ORDER BY id) AS ids FROM trainers) "
+                        + "INSERT INTO training_sessions (title, start_time, end_time, trainer_id, capacity, seats_taken) "
+                        + "SELECT 'Class ' || g, "
+                        + "date_trunc('hour', now()) + INTERVAL '1 day' + (g / ?) * INTERVAL '" + SLOT_HOURS + " hours', "
+                        + "date_trunc('hour', now()) + INTERVAL '1 day' + (g / ?) * INTERVAL '" + SLOT_HOURS + " hours' "
+                        + "+ INTERVAL '1 hour', t.ids[g % ? + 1], ?, ? "
+                        + "FROM generate_series(0, ? - 1) g, t",
+                TRAINERS, TRAINERS, TRAINERS, reservationsPerSession + FREE_SEATS, reservationsPerSession, sessions);
+
+        // k-ta rezerwacja zajęć n należy do użytkownika (37n + k) mod users – kolejne k dają różnych użytkowników
+        jdbc.update("WITH u AS (SELECT array_agg(id ORDER BY id) AS ids FROM users), "
+                        + "s AS (SELECT id, row_number() OVER (ORDER BY id) - 1 AS n FROM training_sessions) "
+                        + "INSERT INTO reservations (reservation_time, user_id, session_id) "
+                        + "SELECT now() - k * INTERVAL '1 minute', u.ids[(s.n * 37 + k) % ? + 1], s.id "
+                        + "FROM s, u, generate_series(0, ? - 1) k",
+                users, reservationsPerSession);
+
+        jdbc.execute("ANALYZE");
+        System.out.printf("seeded %d users, %d trainers, %d sessions, %d reservations in %.1f s%n",
+                users, TRAINERS, sessions, (long) sessions * reservationsPerSession, (System.nanoTime() - t0) / 1e9);
+    }
+
+    public List<Long> ids(String table) {
+        return jdbc.queryForList("SELECT id FROM " + table + " ORDER BY id", Long.class);
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.klubfitness.load;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+/**
+ * Sterownik obciążenia na wątkach wirtualnych: wysyła zadaną liczbę żądań, najwyżej {@code clients}
+ * naraz, losując operację z ważonej mieszanki. Każda operacja ma własny histogram czasów
+ * i licznik kodów odpowiedzi; losowanie z ustalonym ziarnem daje powtarzalny przebieg.
+ */
+public final class LoadDriver {
+
+    /** Tworzy żądanie dla i-tego wywołania; {@code rnd} należy tylko do tego wywołania. */
+    @FunctionalInterface
+    public interface RequestFactory {
+        HttpRequest create(int i, RandomGenerator rnd);
+    }
+
+    public record Operation(String name, int weight, RequestFactory request, Set<Integer> expectedStatuses) {
+        public static Operation of(String name, int weight, RequestFactory request, Integer... expectedStatuses) {
+            return new Operation(name, weight, request, Set.of(expectedStatuses));
+        }
+    }
+
+    private final HttpClient http;
+    private final int clients;
+    private final long seed;
+
+    public LoadDriver(int clients, long seed) {
+        this.http = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.clients = clients;
+        this.seed = seed;
+    }
+
+    public LoadResult run(String scenario, int requests, List<Operation> mix) throws InterruptedException {
+        int totalWeight = mix.stream().mapToInt(Operation::weight).sum();
+        Map<String, LatencyHistogram> histograms = new LinkedHashMap<>();
+        Map<String, Map<Integer, LongAdder>> statuses = new LinkedHashMap<>();
+        for (Operation op : mix) {
+            histograms.put(op.name(), new LatencyHistogram());
+            statuses.put(op.name(), new ConcurrentHashMap<>());
+        }
+        List<String> unexpected = new ArrayList<>();
+        SplittableRandom rnd = new SplittableRandom(seed);
+        Semaphore inFlight = new Semaphore(clients);
+
+        long t0 = System.nanoTime();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                SplittableRandom callRnd = rnd.split();
+                Operation op = pick(mix, totalWeight, callRnd.nextInt(totalWeight));
+                HttpRequest request = op.request().create(i, callRnd);
+                inFlight.acquire();
+                pool.submit(() -> {
+                    try {
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        histograms.get(op.name()).record((System.nanoTime() - start) / 1000);
+                        statuses.get(op.name()).computeIfAbsent(status, s -> new LongAdder()).increment();
+                        if (!op.expectedStatuses().contains(status)) {
+                            synchronized (unexpected) {
+                                if (unexpected.size() < 20) {
+                                    unexpected.add(op.name() + " " + request.uri() + " -> " + status);
+                                }
+                            }
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - t0) / 1e9;
+        return new LoadResult(scenario, clients, seconds, histograms, statuses, unexpected);
+    }
+
+    private static Operation pick(List<Operation> mix, int totalWeight, int draw) {
+        int acc = 0;
+        for (Operation op : mix) {
+            acc += op.weight();
+            if (draw < acc) {
+                return op;
+            }
+        }
+        return mix.get(mix.size() - 1);
+    }
+}
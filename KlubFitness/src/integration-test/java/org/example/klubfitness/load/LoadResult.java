@@ -0,0 +1,83 @@
+package org.example.klubfitness.load;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Wynik przebiegu {@link LoadDriver}: tabela percentyli per operacja, histogram tekstowy
+ * i pliki CSV w {@code target/load-test/} do porównywania przebiegów między zmianami.
+ */
+public record LoadResult(String scenario, int clients, double seconds,
+                         Map<String, LatencyHistogram> histograms,
+                         Map<String, Map<Integer, LongAdder>> statuses,
+                         List<String> unexpected) {
+
+    public static final Path OUTPUT_DIR = Path.of("target", "load-test");
+
+    public long requests() {
+        return histograms.values().stream().mapToLong(LatencyHistogram::count).sum();
+    }
+
+    public double throughput() {
+        return requests() / seconds;
+    }
+
+    public long count(String operation, int status) {
+        LongAdder n = statuses.get(operation).get(status);
+        return n == null ? 0 : n.sum();
+    }
+
+    public LatencyHistogram histogram(String operation) {
+        return histograms.get(operation);
+    }
+
+    public LoadResult print(PrintStream out) {
+        out.printf("%n=== %s: %d requests, %d clients, %.1f s, %.0f req/s ===%n",
+                scenario, requests(), clients, seconds, throughput());
+        out.printf("%-28s %8s %9s %9s %9s %9s %9s  %s%n",
+                "operation", "n", "p50 us", "p90 us", "p99 us", "p99.9 us", "max us", "statuses");
+        histograms.forEach((name, h) -> out.printf("%-28s %8d %9d %9d %9d %9d %9d  %s%n",
+                name, h.count(), h.percentile(0.50), h.percentile(0.90), h.percentile(0.99),
+                h.percentile(0.999), h.max(), new TreeMap<>(statuses.get(name))));
+        histograms.forEach((name, h) -> {
+            out.printf("%n%s%n", name);
+            long peak = 1;
+            for (long[] b : h.buckets()) {
+                peak = Math.max(peak, b[2]);
+            }
+            for (long[] b : h.buckets()) {
+                out.printf("  %9d - %9d us %8d %s%n", b[0], b[1], b[2], "#".repeat((int) (50 * b[2] / peak)));
+            }
+        });
+        if (!unexpected.isEmpty()) {
+            out.println("unexpected responses (first " + unexpected.size() + "): " + unexpected);
+        }
+        return this;
+    }
+
+    /** Zapisuje {@code <scenariusz>.csv}: operacja, dolna i górna granica przedziału (µs), liczba. */
+    public LoadResult writeCsv() {
+        List<String> lines = new ArrayList<>();
+        lines.add("operation,from_us,to_us,count");
+        histograms.forEach((name, h) -> {
+            for (long[] b : h.buckets()) {
+                lines.add(name + "," + b[0] + "," + b[1] + "," + b[2]);
+            }
+        });
+        try {
+            Files.createDirectories(OUTPUT_DIR);
+            Files.write(OUTPUT_DIR.resolve(scenario.replaceAll("[^A-Za-z0-9_-]", "_") + ".csv"), lines);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.klubfitness.controller;
+
+import org.example.klubfitness.dto.ReservationDto;
+import org.example.klubfitness.dto.TrainingSessionDto;
+import org.example.klubfitness.entity.Reservation;
+import org.example.klubfitness.entity.Trainer;
+import org.example.klubfitness.entity.TrainingSession;
+import org.example.klubfitness.entity.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapowanie encji na DTO w kontrolerach (listy sesji i rezerwacji) oraz DTO na encję przy zapisie.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @Param({"100", "1000"})
+    int size;
+
+    private List<TrainingSession> sessions;
+    private List<Reservation> reservations;
+    private TrainingSessionDto sessionDto;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime t0 = LocalDateTime.of(2030, 1, 1, 8, 0);
+        Trainer trainer = new Trainer(1L, "Coach", "Spin");
+        User user = new User();
+        user.setId(1L);
+        sessions = new ArrayList<>(size);
+        reservations = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            TrainingSession s = new TrainingSession();
+            s.setId((long) i);
+            s.setTitle("Class " + i);
+            s.setDescription("Description " + i);
+            s.setStartTime(t0.plusHours(i));
+            s.setEndTime(t0.plusHours(i).plusMinutes(45));
+            s.setTrainer(trainer);
+            sessions.add(s);
+
+            Reservation r = new Reservation();
+            r.setId((long) i);
+            r.setUser(user);
+            r.setSession(s);
+            r.setReservationTime(t0);
+            reservations.add(r);
+        }
+        sessionDto = TrainingSessionController.toDto(sessions.get(0));
+    }
+
+    @Benchmark
+    public List<TrainingSessionDto> sessionsToDto() {
+        return sessions.stream().map(TrainingSessionController::toDto).toList();
+    }
+
+    @Benchmark
+    public List<ReservationDto> reservationsToDto() {
+        return reservations.stream().map(ReservationController::toDto).toList();
+    }
+
+    @Benchmark
+    public TrainingSession sessionFromDto() {
+        return TrainingSessionController.fromDto(sessionDto);
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.klubfitness.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.klubfitness.dto.ReservationDto;
+import org.example.klubfitness.dto.TrainingSessionDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializacja odpowiedzi list ({@code GET /api/sessions}, {@code GET /api/reservations}) i odczyt
+ * wsadu rezerwacji – ObjectMapper skonfigurowany jak w Spring MVC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"100", "1000"})
+    int size;
+
+    private ObjectMapper mapper;
+    private List<TrainingSessionDto> sessions;
+    private List<ReservationDto> reservations;
+    private byte[] reservationsJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime t0 = LocalDateTime.of(2030, 1, 1, 8, 0);
+        sessions = new ArrayList<>(size);
+        reservations = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            sessions.add(new TrainingSessionDto((long) i, "Class " + i, "Description " + i,
+                    t0.plusHours(i), t0.plusHours(i).plusMinutes(45), 1L, 20, i % 20, null));
+            reservations.add(new ReservationDto((long) i, (long) i, (long) (i % 50), t0));
+        }
+        reservationsJson = mapper.writeValueAsBytes(reservations);
+    }
+
+    @Benchmark
+    public byte[] writeSessions() throws IOException {
+        return mapper.writeValueAsBytes(sessions);
+    }
+
+    @Benchmark
+    public byte[] writeReservations() throws IOException {
+        return mapper.writeValueAsBytes(reservations);
+    }
+
+    @Benchmark
+    public List<ReservationDto> readReservationBatch() throws IOException {
+        return mapper.readValue(reservationsJson, new TypeReference<>() {
+        });
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.klubfitness.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Koszt hasła przy każdym żądaniu HTTP Basic: BCrypt z {@link SecurityConfig#passwordEncoder()}
+ * (kodowanie przy zakładaniu konta, porównanie przy logowaniu) wobec klucza cache
+ * zweryfikowanych danych logowania (jeden SHA-256).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordEncodingBenchmark {
+
+    private PasswordEncoder encoder;
+    private String hash;
+    private VerifiedCredentialsCache credentials;
+
+    @Setup
+    public void setUp() {
+        encoder = new SecurityConfig().passwordEncoder();
+        hash = encoder.encode("password");
+        credentials = new VerifiedCredentialsCache();
+    }
+
+    @Benchmark
+    public String bcryptEncode() {
+        return encoder.encode("password");
+    }
+
+    @Benchmark
+    public boolean bcryptMatches() {
+        return encoder.matches("password", hash);
+    }
+
+    @Benchmark
+    public String credentialsCacheKey() {
+        return credentials.key("member", "password");
+    }
+}
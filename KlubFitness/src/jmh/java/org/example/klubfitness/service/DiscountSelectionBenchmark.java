@@ -0,0 +1,58 @@
+package org.example.klubfitness.service;
+
+import org.example.klubfitness.entity.TrainingSession;
+import org.example.klubfitness.entity.User;
+import org.example.klubfitness.security.Role;
+import org.example.klubfitness.util.strategy.DiscountStrategy;
+import org.example.klubfitness.util.strategy.NoDiscountStrategy;
+import org.example.klubfitness.util.strategy.SeasonalDiscountStrategy;
+import org.example.klubfitness.util.strategy.VipDiscountStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wybór strategii rabatu w {@code ReservationService.createReservation} (klucz budowany z roli)
+ * i naliczenie rabatu wybraną strategią.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiscountSelectionBenchmark {
+
+    @Param({"USER", "TRAINER", "ADMIN"})
+    Role role;
+
+    private ReservationService service;
+    private User user;
+    private TrainingSession session;
+
+    @Setup
+    public void setUp() {
+        Map<String, DiscountStrategy> strategies = Map.of(
+                "noDiscount", new NoDiscountStrategy(),
+                "vipDiscount", new VipDiscountStrategy(),
+                "seasonalDiscount", new SeasonalDiscountStrategy());
+        service = new ReservationService(null, null, null, strategies, null, null, null, null, null);
+        user = new User();
+        user.setRole(role);
+        session = new TrainingSession();
+        session.setStartTime(LocalDateTime.of(2030, 12, 1, 10, 0));
+    }
+
+    @Benchmark
+    public DiscountStrategy selectStrategy() {
+        return service.strategyFor(user);
+    }
+
+    @Benchmark
+    public BigDecimal selectAndApply() {
+        return service.strategyFor(user).applyDiscount(session, user);
+    }
+}
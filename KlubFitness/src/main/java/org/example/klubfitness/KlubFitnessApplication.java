@@ -3,9 +3,13 @@ package org.example.klubfitness;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableCaching
+@EnableScheduling
 @EntityScan("org.example.klubfitness.entity")
 @EnableJpaRepositories("org.example.klubfitness.repository")
 public class KlubFitnessApplication {
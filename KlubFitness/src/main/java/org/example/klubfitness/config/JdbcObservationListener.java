@@ -0,0 +1,59 @@
+package org.example.klubfitness.config;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Każde wykonanie instrukcji JDBC jako obserwacja {@value #OBSERVATION} – przy włączonym śledzeniu
+ * span {@code jdbc <typ>} z treścią zapytania w {@code db.statement} (bez wartości parametrów).
+ * Tylko wewnątrz innej obserwacji (żądanie HTTP, zadanie w tle): samotne spany z migracji czy startu
+ * aplikacji nic nie mówią, a kosztują.
+ */
+public class JdbcObservationListener implements QueryExecutionListener {
+    public static final String OBSERVATION = "klubfitness.jdbc";
+
+    private static final String OBSERVATION_KEY = JdbcObservationListener.class.getName();
+
+    private final ObjectProvider<ObservationRegistry> registry;
+
+    public JdbcObservationListener(ObjectProvider<ObservationRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queries) {
+        ObservationRegistry observations = registry.getIfAvailable();
+        if (observations == null || observations.getCurrentObservation() == null || queries.isEmpty()) {
+            return;
+        }
+        String operation = QueryUtils.getQueryType(queries.get(0).getQuery()).name().toLowerCase();
+        Observation observation = Observation.createNotStarted(OBSERVATION, observations)
+                .contextualName("jdbc " + operation)
+                .lowCardinalityKeyValue("db.operation", operation)
+                .lowCardinalityKeyValue("db.batch", String.valueOf(execInfo.isBatch()))
+                .highCardinalityKeyValue("db.statement",
+                        queries.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; ")))
+                .start();
+        execInfo.addCustomValue(OBSERVATION_KEY, observation);
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queries) {
+        Observation observation = execInfo.getCustomValue(OBSERVATION_KEY, Observation.class);
+        if (observation == null) {
+            return;
+        }
+        if (execInfo.getThrowable() != null) {
+            observation.error(execInfo.getThrowable());
+        }
+        observation.stop();
+    }
+}
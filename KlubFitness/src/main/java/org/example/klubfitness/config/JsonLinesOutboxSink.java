@@ -0,0 +1,48 @@
+package org.example.klubfitness.config;
+
+import org.example.klubfitness.service.OutboxMessage;
+import org.example.klubfitness.service.OutboxSink;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Lokalny zamiennik brokera: dopisuje payload każdego zdarzenia z outboxa jako linię JSON
+ * (poprzedzoną id i typem) do pliku {@code klubfitness.outbox.file}.
+ */
+public class JsonLinesOutboxSink implements OutboxSink, AutoCloseable {
+    private final BufferedWriter out;
+
+    public JsonLinesOutboxSink(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> messages) {
+        try {
+            for (OutboxMessage message : messages) {
+                out.write("{\"id\":" + message.id() + ",\"type\":\"" + message.type() + "\",\"payload\":"
+                        + message.payload() + "}");
+                out.newLine();
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+}
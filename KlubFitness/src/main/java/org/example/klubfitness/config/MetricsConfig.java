@@ -0,0 +1,35 @@
+package org.example.klubfitness.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Metryki warstwy danych poza tym, co Spring Boot daje sam: czas i liczbę wywołań metod repozytoriów
+ * mierzy {@code spring.data.repository.invocations}, oczekiwanie na połączenie – {@code hikaricp.connections.*},
+ * a tutaj dochodzi liczba zwróconych wierszy ({@link RepositoryRowsInterceptor}).
+ * Czasy metod serwisów: {@code klubfitness.service} z {@code @Timed} na klasach serwisów.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+    public static final String REPOSITORY_ROWS = "klubfitness.repository.rows";
+
+    @Bean
+    static BeanPostProcessor repositoryRowsMetricsPostProcessor(ObjectProvider<MeterRegistry> registry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                // przed afterPropertiesSet(), bo wtedy fabryka tworzy proxy repozytorium
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxy, info) -> proxy.addAdvice(
+                                    new RepositoryRowsInterceptor(info.getRepositoryInterface(), registry))));
+                }
+                return bean;
+            }
+        };
+    }
+}
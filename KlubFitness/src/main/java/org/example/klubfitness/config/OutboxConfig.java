@@ -0,0 +1,35 @@
+package org.example.klubfitness.config;
+
+import org.example.klubfitness.service.OutboxSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Sink outboxa ({@link org.example.klubfitness.service.OutboxRelay}): plik JSON przy ustawionym
+ * {@code klubfitness.outbox.file}, w przeciwnym razie log. Integracja z brokerem albo usługą
+ * zewnętrzną to własny bean {@link OutboxSink}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class OutboxConfig {
+    private static final Logger log = LoggerFactory.getLogger(OutboxSink.class);
+
+    @Bean
+    @ConditionalOnProperty("klubfitness.outbox.file")
+    JsonLinesOutboxSink jsonLinesOutboxSink(@Value("${klubfitness.outbox.file}") Path file) throws IOException {
+        return new JsonLinesOutboxSink(file);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(OutboxSink.class)
+    OutboxSink loggingOutboxSink() {
+        return messages -> messages.forEach(m -> log.info("outbox {} {} {}", m.id(), m.type(), m.payload()));
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.klubfitness.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Liczy wiersze zwracane przez metody repozytorium ({@value MetricsConfig#REPOSITORY_ROWS},
+ * tagi {@code repository}, {@code method}) – uzupełnienie czasu i liczby wywołań z
+ * {@code spring.data.repository.invocations}. Uwzględnia listy, strony i {@link Optional};
+ * strumienie, liczniki i wyniki UPDATE-ów pomija.
+ */
+class RepositoryRowsInterceptor implements MethodInterceptor {
+
+    private final String repository;
+    private final ObjectProvider<MeterRegistry> registry;
+    private final Map<Method, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    RepositoryRowsInterceptor(Class<?> repositoryInterface, ObjectProvider<MeterRegistry> registry) {
+        this.repository = repositoryInterface.getSimpleName();
+        this.registry = registry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        int rows = rows(result);
+        if (rows >= 0) {
+            DistributionSummary summary = summary(invocation.getMethod());
+            if (summary != null) {
+                summary.record(rows);
+            }
+        }
+        return result;
+    }
+
+    static int rows(Object result) {
+        if (result instanceof Collection<?> c) {
+            return c.size();
+        }
+        if (result instanceof Slice<?> s) {
+            return s.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> o) {
+            return o.isPresent() ? 1 : 0;
+        }
+        return -1;
+    }
+
+    private DistributionSummary summary(Method method) {
+        DistributionSummary summary = summaries.get(method);
+        if (summary == null) {
+            MeterRegistry meters = registry.getIfAvailable();
+            if (meters == null) {
+                return null;
+            }
+            summary = summaries.computeIfAbsent(method, m -> DistributionSummary.builder(MetricsConfig.REPOSITORY_ROWS)
+                    .description("Rows returned by a repository method")
+                    .baseUnit("rows")
+                    .tag("repository", repository)
+                    .tag("method", m.getName())
+                    .register(meters));
+        }
+        return summary;
+    }
+}
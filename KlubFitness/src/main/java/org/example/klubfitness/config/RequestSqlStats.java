@@ -0,0 +1,59 @@
+package org.example.klubfitness.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Zapytania SQL wykonane w ramach jednego żądania HTTP. Przypięte do wątku obsługującego żądanie
+ * (zakłada i sprząta je {@link SqlStatsFilter}), uzupełniane przez {@link SqlStatementListener}.
+ * Ten sam tekst zapytania (z {@code ?} zamiast wartości) powtórzony wiele razy to typowy ślad N+1.
+ */
+public final class RequestSqlStats {
+
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Integer> executions = new HashMap<>();
+    private int statements;
+    private long elapsedMillis;
+
+    static RequestSqlStats start() {
+        RequestSqlStats stats = new RequestSqlStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /** Statystyki bieżącego żądania albo {@code null} poza żądaniem (np. zadania w tle, migracje). */
+    public static RequestSqlStats current() {
+        return CURRENT.get();
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    void record(String sql, long elapsedMillis) {
+        statements++;
+        this.elapsedMillis += elapsedMillis;
+        executions.merge(sql, 1, Integer::sum);
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long elapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /** Najczęściej powtórzone zapytanie i liczba jego wykonań; {@code null}, gdy nie było zapytań. */
+    public Map.Entry<String, Integer> mostRepeated() {
+        return executions.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .orElse(null);
+    }
+
+    public int maxRepeats() {
+        Map.Entry<String, Integer> top = mostRepeated();
+        return top == null ? 0 : top.getValue();
+    }
+}
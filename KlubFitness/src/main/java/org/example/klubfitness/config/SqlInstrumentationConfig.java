@@ -0,0 +1,66 @@
+package org.example.klubfitness.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Instrumentacja SQL przez datasource-proxy: pula połączeń jest owinięta w {@link ProxyDataSource},
+ * który każde wykonanie instrukcji zgłasza do {@link SqlStatementListener} ({@link SqlStatsFilter}
+ * zbiera je per żądanie HTTP) i {@link JdbcObservationListener} (spany JDBC). Proxy jest najbardziej
+ * zewnętrzną warstwą – nad Hikari albo nad {@link ConnectionLimiter} (ten zakładany jest wcześniej,
+ * zob. {@link VirtualThreadsConfig}).
+ * <p>
+ * Ustawienia: {@code klubfitness.sql.slow-query-threshold} (domyślnie 500 ms),
+ * {@code klubfitness.sql.n-plus-one-threshold} (domyślnie 10 powtórzeń tego samego zapytania w żądaniu),
+ * {@code klubfitness.sql.response-headers} ({@link SqlStatsResponseAdvice}, w profilu debug).
+ */
+@Configuration(proxyBeanMethods = false)
+public class SqlInstrumentationConfig {
+
+    @Bean
+    static BeanPostProcessor sqlProxyPostProcessor(ObjectProvider<SqlStatementListener> listener,
+                                                   ObjectProvider<ObservationRegistry> observations) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(listener.getObject())
+                            .listener(new JdbcObservationListener(observations))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    SqlStatementListener sqlStatementListener(
+            @Value("${klubfitness.sql.slow-query-threshold:500ms}") Duration slowQueryThreshold,
+            ObjectProvider<MeterRegistry> registry) {
+        return new SqlStatementListener(slowQueryThreshold, registry);
+    }
+
+    @Bean
+    FilterRegistrationBean<SqlStatsFilter> sqlStatsFilter(
+            @Value("${klubfitness.sql.n-plus-one-threshold:10}") int nPlusOneThreshold,
+            ObjectProvider<MeterRegistry> registry) {
+        FilterRegistrationBean<SqlStatsFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatsFilter(nPlusOneThreshold, registry));
+        // przed Spring Security, żeby liczyć też zapytania uwierzytelniania
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
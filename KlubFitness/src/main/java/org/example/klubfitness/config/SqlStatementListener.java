@@ -0,0 +1,103 @@
+package org.example.klubfitness.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import net.ttddyy.dsproxy.listener.logging.DefaultQueryLogEntryCreator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Obserwuje każde wykonanie instrukcji JDBC (datasource-proxy): dopisuje je do {@link RequestSqlStats}
+ * bieżącego żądania, liczy w {@value #STATEMENTS} (tag {@code type}) i loguje zapytania wolniejsze niż próg
+ * – na WARN, razem z wartościami parametrów. Na poziomie DEBUG loguje wszystkie zapytania (zamiennik
+ * {@code spring.jpa.show-sql}, ale przez logger, więc w produkcji nic nie kosztuje).
+ * Wsad (batch) liczy się jako jedno wykonanie – to jedna podróż do bazy.
+ */
+public class SqlStatementListener implements QueryExecutionListener {
+    public static final String STATEMENTS = "klubfitness.sql.statements";
+    public static final String SLOW = "klubfitness.sql.slow";
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementListener.class);
+
+    private final long slowMillis;
+    private final ObjectProvider<MeterRegistry> registry;
+    private final DefaultQueryLogEntryCreator logEntries = new DefaultQueryLogEntryCreator();
+    private volatile Map<QueryType, Counter> statementCounters;
+    private volatile Counter slowCounter;
+
+    public SqlStatementListener(Duration slowThreshold, ObjectProvider<MeterRegistry> registry) {
+        this.slowMillis = slowThreshold.toMillis();
+        this.registry = registry;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queries) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queries) {
+        if (queries.isEmpty()) {
+            return;
+        }
+        String sql = queries.size() == 1 ? queries.get(0).getQuery()
+                : queries.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+        long elapsed = execInfo.getElapsedTime();
+
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null) {
+            stats.record(sql, elapsed);
+        }
+
+        Map<QueryType, Counter> counters = statementCounters();
+        if (counters != null) {
+            counters.get(QueryUtils.getQueryType(queries.get(0).getQuery())).increment();
+        }
+
+        if (elapsed >= slowMillis) {
+            if (slowCounter != null) {
+                slowCounter.increment();
+            }
+            log.warn("Slow SQL ({} ms >= {} ms): {}", elapsed, slowMillis, describe(execInfo, queries));
+        } else if (log.isDebugEnabled()) {
+            log.debug("{}", describe(execInfo, queries));
+        }
+    }
+
+    private String describe(ExecutionInfo execInfo, List<QueryInfo> queries) {
+        return logEntries.getLogEntry(execInfo, queries, false, false, false);
+    }
+
+    private Map<QueryType, Counter> statementCounters() {
+        Map<QueryType, Counter> counters = statementCounters;
+        if (counters == null) {
+            MeterRegistry meters = registry.getIfAvailable();
+            if (meters == null) {
+                return null;
+            }
+            counters = new EnumMap<>(QueryType.class);
+            for (QueryType type : QueryType.values()) {
+                counters.put(type, Counter.builder(STATEMENTS)
+                        .description("JDBC statement executions (a batch counts once)")
+                        .tag("type", type.name().toLowerCase())
+                        .register(meters));
+            }
+            slowCounter = Counter.builder(SLOW)
+                    .description("JDBC statements slower than klubfitness.sql.slow-query-threshold")
+                    .register(meters);
+            statementCounters = counters;
+        }
+        return counters;
+    }
+}
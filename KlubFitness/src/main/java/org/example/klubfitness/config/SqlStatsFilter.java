@@ -0,0 +1,78 @@
+package org.example.klubfitness.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Zakłada {@link RequestSqlStats} na czas żądania, a po nim zapisuje liczbę zapytań
+ * ({@value #STATEMENTS_PER_REQUEST}, tagi {@code method}, {@code uri} – wzorzec ścieżki, nie sama ścieżka).
+ * Zapytanie powtórzone w jednym żądaniu co najmniej {@code nPlusOneThreshold} razy jest logowane
+ * jako podejrzenie N+1 i liczone w {@value #N_PLUS_ONE}.
+ */
+public class SqlStatsFilter extends OncePerRequestFilter {
+    public static final String STATEMENTS_PER_REQUEST = "klubfitness.http.sql.statements";
+    public static final String N_PLUS_ONE = "klubfitness.sql.n-plus-one";
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatsFilter.class);
+
+    private final int nPlusOneThreshold;
+    private final ObjectProvider<MeterRegistry> registry;
+
+    public SqlStatsFilter(int nPlusOneThreshold, ObjectProvider<MeterRegistry> registry) {
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestSqlStats stats = RequestSqlStats.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestSqlStats.clear();
+            completed(request, stats);
+        }
+    }
+
+    private void completed(HttpServletRequest request, RequestSqlStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNMATCHED";
+        MeterRegistry meters = registry.getIfAvailable();
+        if (meters != null) {
+            DistributionSummary.builder(STATEMENTS_PER_REQUEST)
+                    .description("JDBC statements executed while handling one HTTP request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meters)
+                    .record(stats.statements());
+        }
+
+        Map.Entry<String, Integer> top = stats.mostRepeated();
+        if (top != null && top.getValue() >= nPlusOneThreshold) {
+            log.warn("Possible N+1 in {} {}: statement executed {} times ({} statements in request): {}",
+                    request.getMethod(), uri, top.getValue(), stats.statements(), top.getKey());
+            if (meters != null) {
+                Counter.builder(N_PLUS_ONE)
+                        .description("Requests that repeated one SQL statement at least klubfitness.sql.n-plus-one-threshold times")
+                        .tag("method", request.getMethod())
+                        .tag("uri", uri)
+                        .register(meters)
+                        .increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.klubfitness.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Profil {@code debug} ({@code klubfitness.sql.response-headers=true}): dopisuje do odpowiedzi liczbę
+ * zapytań SQL żądania. Nagłówki trzeba ustawić przed zapisem ciała, więc dzieje się to tuż przed konwersją
+ * odpowiedzi – dotyczy odpowiedzi z ciałem zwracanych przez kontrolery (także z {@code RestExceptionHandler}).
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "klubfitness.sql.response-headers", havingValue = "true")
+public class SqlStatsResponseAdvice implements ResponseBodyAdvice<Object> {
+    public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+    public static final String TIME_HEADER = "X-Sql-Time-Ms";
+    public static final String MAX_REPEATS_HEADER = "X-Sql-Max-Repeats";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                  Class<? extends HttpMessageConverter<?>> converterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null) {
+            response.getHeaders().set(STATEMENTS_HEADER, String.valueOf(stats.statements()));
+            response.getHeaders().set(TIME_HEADER, String.valueOf(stats.elapsedMillis()));
+            response.getHeaders().set(MAX_REPEATS_HEADER, String.valueOf(stats.maxRepeats()));
+        }
+        return body;
+    }
+}
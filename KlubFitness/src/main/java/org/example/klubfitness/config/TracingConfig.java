@@ -0,0 +1,35 @@
+package org.example.klubfitness.config;
+
+import io.micrometer.observation.ObservationPredicate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Śledzenie: Micrometer Tracing z mostkiem OpenTelemetry. Spany żądań MVC i filtrów Spring Security
+ * daje Spring Boot, kroki {@code ReservationService.createReservation} – obserwacje w serwisie, a zapytania
+ * – {@link JdbcObservationListener}. Próbkowanie: {@code management.tracing.sampling.probability}
+ * (domyślnie 10%, niepróbkowane żądania nie tworzą spanów OpenTelemetry). Eksport: OTLP
+ * ({@code management.otlp.tracing.endpoint}) albo plik JSON ({@code klubfitness.tracing.file}).
+ */
+@Configuration(proxyBeanMethods = false)
+public class TracingConfig {
+
+    /** Bez obserwacji (spanów i {@code http.server.requests}) dla scrape'ów i health checków actuatora. */
+    @Bean
+    ObservationPredicate skipActuatorRequests() {
+        return (name, context) -> !(context instanceof ServerRequestObservationContext server
+                && server.getCarrier().getRequestURI().startsWith("/actuator"));
+    }
+
+    @Bean
+    @ConditionalOnProperty("klubfitness.tracing.file")
+    JsonFileSpanExporter jsonFileSpanExporter(@Value("${klubfitness.tracing.file}") Path file) throws IOException {
+        return new JsonFileSpanExporter(file);
+    }
+}
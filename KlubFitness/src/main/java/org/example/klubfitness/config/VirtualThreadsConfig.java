@@ -0,0 +1,77 @@
+package org.example.klubfitness.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Tryb wątków wirtualnych ({@code spring.threads.virtual.enabled=true}): Tomcat i applicationTaskExecutor
+ * (odpowiedzi asynchroniczne MVC, {@code @Async}) przełącza Spring Boot, a tutaj pula Hikari dostaje
+ * przed sobą {@link ConnectionLimiter} o rozmiarze puli – wątków może być dowolnie wiele, połączeń nie.
+ * Na wątkach platformowych limit jest zbędny: ogranicza je już pula wątków Tomcata.
+ * Czekający na semafor nie trafiają do {@code hikaricp.connections.pending}, więc limiter ma własne
+ * metryki {@code klubfitness.db.limiter.*}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class VirtualThreadsConfig {
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    static ConnectionLimiterPostProcessor connectionLimiterPostProcessor() {
+        return new ConnectionLimiterPostProcessor();
+    }
+
+    /** Uporządkowany, więc działa przed nieuporządkowanymi – widzi jeszcze gołe Hikari, nie proxy SQL. */
+    static class ConnectionLimiterPostProcessor implements BeanPostProcessor, Ordered {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof HikariDataSource hikari) {
+                return new ConnectionLimiter(hikari, hikari.getMaximumPoolSize(),
+                        Duration.ofMillis(hikari.getConnectionTimeout()));
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    MeterBinder connectionLimiterMetrics(ObjectProvider<DataSource> dataSource) {
+        return registry -> {
+            ConnectionLimiter limiter = limiterOf(dataSource.getIfAvailable());
+            if (limiter != null) {
+                Gauge.builder("klubfitness.db.limiter.waiting", limiter, ConnectionLimiter::waiting)
+                        .description("Threads waiting for a database connection permit")
+                        .register(registry);
+                Gauge.builder("klubfitness.db.limiter.in-use", limiter, ConnectionLimiter::inUse)
+                        .description("Database connections currently lent out through the limiter")
+                        .register(registry);
+            }
+        };
+    }
+
+    /** Limiter pod warstwami proxy (np. instrumentacją SQL) – przez JDBC {@code unwrap}. */
+    static ConnectionLimiter limiterOf(DataSource dataSource) {
+        try {
+            return dataSource != null && dataSource.isWrapperFor(ConnectionLimiter.class)
+                    ? dataSource.unwrap(ConnectionLimiter.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
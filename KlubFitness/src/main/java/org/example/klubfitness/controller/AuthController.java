@@ -0,0 +1,70 @@
+package org.example.klubfitness.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.klubfitness.dto.LoginRequestDto;
+import org.example.klubfitness.dto.RefreshRequestDto;
+import org.example.klubfitness.dto.TokenResponseDto;
+import org.example.klubfitness.exception.UnauthorizedException;
+import org.example.klubfitness.security.CachingAuthenticationProvider;
+import org.example.klubfitness.security.TokenService;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Collection;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/auth")
+@Tag(name = "Auth", description = "Token login and refresh")
+public class AuthController {
+    private final CachingAuthenticationProvider authProvider;
+    private final UserDetailsService userDetailsService;
+    private final TokenService tokens;
+
+    public AuthController(CachingAuthenticationProvider authProvider, UserDetailsService userDetailsService,
+                          TokenService tokens) {
+        this.authProvider = authProvider;
+        this.userDetailsService = userDetailsService;
+        this.tokens = tokens;
+    }
+
+    @PostMapping("/login")
+    @Operation(summary = "Exchange username and password for an access and refresh token")
+    public TokenResponseDto login(@RequestBody LoginRequestDto dto) {
+        Authentication auth;
+        try {
+            auth = authProvider.authenticate(
+                    UsernamePasswordAuthenticationToken.unauthenticated(dto.getUsername(), dto.getPassword()));
+        } catch (AuthenticationException e) {
+            throw new UnauthorizedException("Invalid username or password");
+        }
+        return tokens.issue(auth.getName(), roles(auth.getAuthorities()));
+    }
+
+    /** Odświeżenie czyta użytkownika z bazy, więc zmieniona rola lub usunięte konto działa od razu. */
+    @PostMapping("/refresh")
+    @Operation(summary = "Exchange a refresh token for a new token pair")
+    public TokenResponseDto refresh(@RequestBody RefreshRequestDto dto) {
+        UserDetails user;
+        try {
+            user = userDetailsService.loadUserByUsername(tokens.verifyRefresh(dto.getRefreshToken()));
+        } catch (JwtException | AuthenticationException e) {
+            throw new UnauthorizedException("Invalid refresh token");
+        }
+        return tokens.issue(user.getUsername(), roles(user.getAuthorities()));
+    }
+
+    private static List<String> roles(Collection<? extends GrantedAuthority> authorities) {
+        return authorities.stream()
+                .map(GrantedAuthority::getAuthority)
+                .map(a -> a.startsWith("ROLE_") ? a.substring("ROLE_".length()) : a)
+                .toList();
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.klubfitness.controller;
+
+import org.example.klubfitness.exception.PreconditionFailedException;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Walidatory odpowiedzi warunkowych. Silny ETag składa się z wersji wiersza (i innych pól,
+ * które zmieniają reprezentację bez podbicia wersji, np. licznika miejsc).
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    /** Np. {@code of(3, 12)} → {@code "3-12"} (w cudzysłowie, jak wymaga nagłówek ETag). */
+    static String of(Object... parts) {
+        return Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining("-", "\"", "\""));
+    }
+
+    /**
+     * Wersja z nagłówka {@code If-Match} – pierwsza część ETag-a z ostatniego odczytu; {@code null} przy braku
+     * nagłówka i dla {@code *}. Słaby albo nieczytelny ETag nie pasuje do żadnej wersji (412).
+     */
+    static Long version(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.split(",")[0].trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new PreconditionFailedException("If-Match must be a strong ETag of the resource: " + tag);
+        }
+        String value = tag.substring(1, tag.length() - 1);
+        int dash = value.indexOf('-');
+        try {
+            return Long.valueOf(dash < 0 ? value : value.substring(0, dash));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match does not match the resource: " + tag);
+        }
+    }
+
+    /** Czas z kolumny TIMESTAMP (strefa JVM, jak przy zapisie) w ms epoki; -1 = brak Last-Modified. */
+    static long lastModified(LocalDateTime time) {
+        return time == null ? -1 : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /** Jak {@link #lastModified}, ale w µs epoki – dwie zmiany w tej samej milisekundzie dają różne ETagi; 0 = brak. */
+    static long micros(LocalDateTime time) {
+        return time == null ? 0 : ChronoUnit.MICROS.between(Instant.EPOCH, time.atZone(ZoneId.systemDefault()));
+    }
+}
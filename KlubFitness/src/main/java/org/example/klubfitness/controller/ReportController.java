@@ -0,0 +1,85 @@
+package org.example.klubfitness.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.klubfitness.dto.RevenueReportDto;
+import org.example.klubfitness.dto.SessionFillDto;
+import org.example.klubfitness.dto.SlotFillDto;
+import org.example.klubfitness.dto.TrainerFillDto;
+import org.example.klubfitness.service.ReportService;
+import org.example.klubfitness.service.ReservationService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Raporty z widoków zmaterializowanych; nagłówek {@code Last-Modified} to czas ostatniego odświeżenia,
+ * czyli moment, z którego pochodzą liczby.
+ */
+@RestController
+@RequestMapping("/api/reports")
+@Tag(name = "Reports", description = "Occupancy and revenue analytics")
+public class ReportController {
+    private static final String RANGE = "Sessions starting from 'from' to 'to' (ISO dates, inclusive), at most "
+            + ReportService.MAX_RANGE_DAYS + " days. Figures are as of the last refresh (Last-Modified).";
+
+    private final ReportService service;
+
+    public ReportController(ReportService service) {
+        this.service = service;
+    }
+
+    @GetMapping("/sessions")
+    @Operation(summary = "Fill rate per session", description = RANGE)
+    public ResponseEntity<List<SessionFillDto>> sessions(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "" + ReservationService.DEFAULT_PAGE_SIZE)
+            @Parameter(description = "Max rows, ordered by start time (max " + ReservationService.MAX_PAGE_SIZE + ")") int size) {
+        return asOfLastRefresh(service.sessionFill(from, to, size));
+    }
+
+    @GetMapping("/trainers")
+    @Operation(summary = "Fill rate per trainer", description = RANGE)
+    public ResponseEntity<List<TrainerFillDto>> trainers(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return asOfLastRefresh(service.trainerFill(from, to));
+    }
+
+    @GetMapping("/slots")
+    @Operation(summary = "Fill rate per weekday and hour", description = RANGE)
+    public ResponseEntity<List<SlotFillDto>> slots(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return asOfLastRefresh(service.slotFill(from, to));
+    }
+
+    @GetMapping("/revenue")
+    @Operation(summary = "Revenue after discounts",
+            description = "Class price times reservations, minus the discount each member's strategy gives. " + RANGE)
+    public ResponseEntity<RevenueReportDto> revenue(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return asOfLastRefresh(service.revenue(from, to));
+    }
+
+    @PostMapping("/refresh")
+    @Operation(summary = "Refresh report data now",
+            description = "Recomputes the report views; refreshed=false if a refresh is already running.")
+    public ResponseEntity<Map<String, Boolean>> refresh() {
+        return asOfLastRefresh(Map.of("refreshed", service.refresh()));
+    }
+
+    private <T> ResponseEntity<T> asOfLastRefresh(T body) {
+        return ResponseEntity.ok()
+                .lastModified(service.refreshedAt().atZone(ZoneId.systemDefault()))
+                .body(body);
+    }
+}
@@ -1,53 +1,113 @@
 package org.example.klubfitness.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.klubfitness.dto.ReservationBatchResultDto;
 import org.example.klubfitness.dto.ReservationDto;
 import org.example.klubfitness.entity.Reservation;
+import org.example.klubfitness.exception.BadRequestException;
 import org.example.klubfitness.service.ReservationService;
+import org.example.klubfitness.service.ReservationStats;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/reservations")
 @Tag(name = "Reservations", description = "Operations related to reservations")
 public class ReservationController {
 
+    /** Nagłówek z kursorem następnej strony (id ostatniej zwróconej rezerwacji). */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-After-Id";
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final ReservationService reservationService;
+    private final ObjectMapper objectMapper;
+    private final ReservationStats stats;
 
-    public ReservationController(ReservationService reservationService) {
+    public ReservationController(ReservationService reservationService, ObjectMapper objectMapper,
+                                 ReservationStats stats) {
         this.reservationService = reservationService;
+        this.objectMapper = objectMapper;
+        this.stats = stats;
     }
 
     @GetMapping
-    @Operation(summary = "List reservations", description = "All or filter by user/session.")
+    @Operation(summary = "List reservations",
+            description = "Keyset-paginated by id, optionally filtered by user/session. "
+                    + "Pass the " + NEXT_CURSOR_HEADER + " response header as afterId to get the next page.")
     public ResponseEntity<List<ReservationDto>> getReservations(
             @RequestParam(required = false) @Parameter(description = "Filter by user ID") Long userId,
-            @RequestParam(required = false) @Parameter(description = "Filter by session ID") Long sessionId) {
-
-        List<Reservation> list;
-        if (userId != null) {
-            list = reservationService.getReservationsByUser(userId);
-        } else if (sessionId != null) {
-            list = reservationService.getReservationsBySession(sessionId);
-        } else {
-            list = reservationService.getAllReservations();
+            @RequestParam(required = false) @Parameter(description = "Filter by session ID") Long sessionId,
+            @RequestParam(required = false) @Parameter(description = "Return reservations with id greater than this") Long afterId,
+            @RequestParam(defaultValue = "" + ReservationService.DEFAULT_PAGE_SIZE)
+            @Parameter(description = "Page size (max " + ReservationService.MAX_PAGE_SIZE + ")") int size) {
+
+        List<ReservationDto> dtos = reservationService.getReservationsPage(userId, sessionId, afterId, size);
+
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (dtos.size() == ReservationService.pageSize(size)) {
+            ok.header(NEXT_CURSOR_HEADER, String.valueOf(dtos.get(dtos.size() - 1).getId()));
         }
+        return ok.body(dtos);
+    }
 
-        List<ReservationDto> dtos = list.stream()
-                .map(r -> new ReservationDto(
-                        r.getId(),
-                        r.getUser().getId(),
-                        r.getSession().getId(),
-                        r.getReservationTime()))
-                .collect(Collectors.toList());
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    @Operation(summary = "Stream all reservations",
+            description = "Writes every reservation as newline-delimited JSON, read from a database cursor.")
+    public ResponseEntity<StreamingResponseBody> streamReservations() {
+        StreamingResponseBody body = out -> {
+            OutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+            try {
+                reservationService.streamReservations(dto -> writeLine(buffered, dto));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            buffered.flush();
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
 
-        return ResponseEntity.ok(dtos);
+    @GetMapping("/count")
+    @Operation(summary = "Count reservations",
+            description = "Number of reservations of a user or of a session, from incrementally maintained counters.")
+    public Map<String, Long> countReservations(
+            @RequestParam(required = false) @Parameter(description = "Count reservations of this user") Long userId,
+            @RequestParam(required = false) @Parameter(description = "Count reservations of this session") Long sessionId) {
+        if ((userId == null) == (sessionId == null)) {
+            throw new BadRequestException("Pass exactly one of userId, sessionId");
+        }
+        long count = userId != null ? stats.userReservations(userId) : stats.sessionReservations(sessionId);
+        return Map.of("count", count);
+    }
+
+    static ReservationDto toDto(Reservation r) {
+        return new ReservationDto(
+                r.getId(),
+                r.getUser().getId(),
+                r.getSession().getId(),
+                r.getReservationTime()
+        );
+    }
+
+    private void writeLine(OutputStream out, ReservationDto dto) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(dto));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     @PostMapping
@@ -61,16 +121,18 @@ public class ReservationController {
                 request.getSessionId()
         );
 
-        ReservationDto response = new ReservationDto(
-                created.getId(),
-                created.getUser().getId(),
-                created.getSession().getId(),
-                created.getReservationTime()
-        );
-
         return ResponseEntity
                 .status(HttpStatus.CREATED)
-                .body(response);
+                .body(toDto(created));
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Create reservations in bulk",
+            description = "Books up to " + ReservationService.MAX_BATCH_SIZE + " seats in one transaction. "
+                    + "Returns a result per item, in request order; failed items do not abort the batch.")
+    public List<ReservationBatchResultDto> createReservations(
+            @RequestBody @Parameter(description = "Reservations to create (userId, sessionId)") List<ReservationDto> requests) {
+        return reservationService.createReservations(requests);
     }
 
     @GetMapping("/{id}")
@@ -83,13 +145,7 @@ public class ReservationController {
             return ResponseEntity.notFound().build();
         }
 
-        ReservationDto dto = new ReservationDto(
-                found.getId(),
-                found.getUser().getId(),
-                found.getSession().getId(),
-                found.getReservationTime()
-        );
-        return ResponseEntity.ok(dto);
+        return ResponseEntity.ok(toDto(found));
     }
 
     @DeleteMapping("/{id}")
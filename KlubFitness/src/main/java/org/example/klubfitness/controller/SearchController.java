@@ -0,0 +1,64 @@
+package org.example.klubfitness.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.klubfitness.dto.SessionHitDto;
+import org.example.klubfitness.dto.TrainerHitDto;
+import org.example.klubfitness.service.SearchService;
+import org.example.klubfitness.service.SearchService.SearchPage;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/** Wyniki od najtrafniejszych; numer następnej strony w nagłówku {@code X-Next-Page}, gdy jest. */
+@RestController
+@RequestMapping("/api/search")
+@Tag(name = "Search", description = "Full-text search over sessions and trainers")
+public class SearchController {
+    private static final String PAGING = "Pages are numbered from 0; " + TrainingSessionController.NEXT_PAGE_HEADER
+            + " holds the next page number when there is one. Only the first " + SearchService.MAX_RESULTS
+            + " results are reachable.";
+
+    private final SearchService service;
+
+    public SearchController(SearchService service) {
+        this.service = service;
+    }
+
+    @GetMapping
+    @Operation(summary = "Search sessions by title and description",
+            description = "Web-search syntax: all words must match, \"quoted phrase\", or, -excluded. "
+                    + "Title matches rank above description matches. " + PAGING)
+    public ResponseEntity<List<SessionHitDto>> sessions(
+            @RequestParam(required = false) @Parameter(description = "Search text, e.g. yoga beginners evening") String q,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            @Parameter(description = "Only sessions starting at or after this time") LocalDateTime from,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + SearchService.DEFAULT_PAGE_SIZE)
+            @Parameter(description = "Page size (max " + SearchService.MAX_PAGE_SIZE + ")") int size) {
+        return withNextPage(service.searchSessions(q, from, page, size), page);
+    }
+
+    @GetMapping("/trainers")
+    @Operation(summary = "Search trainers by name and specialization",
+            description = "Tolerates typos and partial words (trigram similarity). " + PAGING)
+    public ResponseEntity<List<TrainerHitDto>> trainers(
+            @RequestParam(required = false) @Parameter(description = "Name or specialization, e.g. pilates") String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + SearchService.DEFAULT_PAGE_SIZE)
+            @Parameter(description = "Page size (max " + SearchService.MAX_PAGE_SIZE + ")") int size) {
+        return withNextPage(service.searchTrainers(q, page, size), page);
+    }
+
+    private static <T> ResponseEntity<List<T>> withNextPage(SearchPage<T> result, int page) {
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (result.hasNext()) {
+            ok.header(TrainingSessionController.NEXT_PAGE_HEADER, String.valueOf(page + 1));
+        }
+        return ok.body(result.items());
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.klubfitness.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.klubfitness.dto.SeriesUpdateDto;
+import org.example.klubfitness.dto.SessionSeriesDto;
+import org.example.klubfitness.service.SessionSeriesService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/sessions")
+@Tag(name = "Session series", description = "Recurring training sessions")
+public class SessionSeriesController {
+    private final SessionSeriesService service;
+
+    public SessionSeriesController(SessionSeriesService service) {
+        this.service = service;
+    }
+
+    @PostMapping("/series")
+    @Operation(summary = "Create a recurring series",
+            description = "Weekly on the given days from firstDate until untilDate (inclusive), skipping excludedDates. "
+                    + "All occurrences are inserted in one batch.")
+    public ResponseEntity<SessionSeriesDto> create(@RequestBody SessionSeriesDto dto) {
+        SessionSeriesDto out = service.createSeries(dto);
+        URI uri = URI.create("/api/sessions/series/" + out.getId());
+        return ResponseEntity.created(uri).body(out);
+    }
+
+    @PatchMapping("/{id}/following")
+    @Operation(summary = "Update this and following sessions of a series",
+            description = "Null fields are left unchanged.")
+    public Map<String, Integer> updateFollowing(@PathVariable Long id, @RequestBody SeriesUpdateDto change) {
+        return Map.of("updated", service.updateFollowing(id, change));
+    }
+
+    @DeleteMapping("/{id}/following")
+    @Operation(summary = "Delete this and following sessions of a series",
+            description = "Reservations of the deleted sessions are removed as well.")
+    public Map<String, Integer> deleteFollowing(@PathVariable Long id) {
+        return service.deleteFollowing(id);
+    }
+}
@@ -2,14 +2,22 @@ package org.example.klubfitness.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.klubfitness.dto.TimeSlotDto;
 import org.example.klubfitness.dto.TrainerDto;
 import org.example.klubfitness.entity.Trainer;
 import org.example.klubfitness.exception.NotFoundException;
+import org.example.klubfitness.repository.TrainerRepository.TrainerStamp;
+import org.example.klubfitness.service.OptimisticRetry;
 import org.example.klubfitness.service.TrainerService;
+import org.example.klubfitness.service.TrainerService.TrainerDetails;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -42,19 +50,46 @@ public class TrainerController {
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Get trainer by ID")
-    public TrainerDto get(@PathVariable Long id) {
-        Trainer t = service.getTrainerById(id);
+    @Operation(summary = "Get trainer by ID",
+            description = "Sends ETag and Last-Modified; If-None-Match / If-Modified-Since give 304 when unchanged.")
+    public ResponseEntity<TrainerDto> get(@PathVariable Long id, WebRequest request) {
+        TrainerStamp stamp = service.getTrainerStamp(id)
+                .orElseThrow(() -> new NotFoundException("Trainer not found: " + id));
+        if (request.checkNotModified(ETags.of(stamp.getVersion()), ETags.lastModified(stamp.getUpdatedAt()))) {
+            return null;
+        }
+        TrainerDetails t = service.getTrainerDetails(id);
         if (t == null) throw new NotFoundException("Trainer not found: " + id);
-        return toDto(t);
+        return ResponseEntity.ok(new TrainerDto(t.id(), t.name(), t.specialization()));
     }
 
+    @GetMapping("/{id}/free-slots")
+    @Operation(summary = "Find free time slots of a trainer",
+            description = "Gaps between the trainer's sessions in [from, to); defaults to the next 7 days.")
+    public List<TimeSlotDto> freeSlots(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "30") int minMinutes) {
+        LocalDateTime start = from != null ? from : LocalDateTime.now();
+        LocalDateTime end = to != null ? to : start.plusDays(7);
+        return service.findFreeSlots(id, start, end, minMinutes);
+    }
+
+    /** If-Match jak przy sesjach: 412 dla nieaktualnej wersji, bez nagłówka – ostatni zapis wygrywa. */
     @PutMapping("/{id}")
-    @Operation(summary = "Update trainer")
-    public TrainerDto update(@PathVariable Long id, @RequestBody TrainerDto dto) {
-        Trainer updated = service.updateTrainer(id, fromDto(dto));
+    @Operation(summary = "Update trainer",
+            description = "Send the ETag from GET as If-Match to get 412 instead of overwriting a newer version.")
+    public ResponseEntity<TrainerDto> update(@PathVariable Long id, @RequestBody TrainerDto dto,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                             String ifMatch) {
+        Trainer payload = fromDto(dto);
+        payload.setVersion(ETags.version(ifMatch));
+        Trainer updated = payload.getVersion() != null
+                ? service.updateTrainer(id, payload)
+                : OptimisticRetry.run(() -> service.updateTrainer(id, payload));
         if (updated == null) throw new NotFoundException("Trainer not found: " + id);
-        return toDto(updated);
+        return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(toDto(updated));
     }
 
     @DeleteMapping("/{id}")
@@ -1,38 +1,95 @@
 package org.example.klubfitness.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.example.klubfitness.dto.TrainingSessionDto;
 import org.example.klubfitness.entity.TrainingSession;
 import org.example.klubfitness.entity.Trainer;
 import org.example.klubfitness.exception.NotFoundException;
+import org.example.klubfitness.repository.TrainingSessionRepository.ListStamp;
+import org.example.klubfitness.repository.TrainingSessionRepository.SessionStamp;
+import org.example.klubfitness.service.OptimisticRetry;
+import org.example.klubfitness.service.SeatFeed;
 import org.example.klubfitness.service.TrainingSessionService;
+import org.example.klubfitness.service.TrainingSessionService.SessionDetails;
+import org.example.klubfitness.service.TrainingSessionService.SessionPage;
 import org.example.klubfitness.service.TrainerService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/sessions")
 @Tag(name = "Sessions", description = "Operations related to training sessions")
 public class TrainingSessionController {
+    public static final String NEXT_PAGE_HEADER = "X-Next-Page";
+
     private final TrainingSessionService service;
     private final TrainerService trainerService;
+    private final SeatFeed seatFeed;
 
-    public TrainingSessionController(TrainingSessionService service, TrainerService trainerService) {
+    public TrainingSessionController(TrainingSessionService service, TrainerService trainerService,
+                                     SeatFeed seatFeed) {
         this.service = service;
         this.trainerService = trainerService;
+        this.seatFeed = seatFeed;
     }
 
+    /**
+     * Bez parametrów – cała lista jak dotąd. Z dowolnym filtrem, {@code page}, {@code size} albo {@code sort} –
+     * jedna strona wyszukiwania (keyset); token następnej strony w nagłówku {@link #NEXT_PAGE_HEADER}.
+     */
     @GetMapping
-    @Operation(summary = "List all sessions")
-    public List<TrainingSessionDto> list() {
-        return service.getAllSessions().stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+    @Operation(summary = "List or search sessions",
+            description = "Without parameters returns all sessions and supports If-None-Match (304 when no session "
+                    + "was added, changed, deleted or booked). With any filter, page, size or sort returns one page "
+                    + "of sessions starting in [from, to), ordered by start time; pass the " + NEXT_PAGE_HEADER
+                    + " response header as 'page' to get the next one.")
+    public ResponseEntity<List<TrainingSessionDto>> list(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            @Parameter(description = "Sessions starting at or after this time") LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            @Parameter(description = "Sessions starting before this time") LocalDateTime to,
+            @RequestParam(required = false) @Parameter(description = "Filter by trainer ID") Long trainerId,
+            @RequestParam(required = false) @Parameter(description = "Part of the title, case-insensitive") String title,
+            @RequestParam(required = false) @Parameter(description = "Continuation token from " + NEXT_PAGE_HEADER) String page,
+            @RequestParam(required = false)
+            @Parameter(description = "Page size (default " + TrainingSessionService.DEFAULT_PAGE_SIZE + ", max "
+                    + TrainingSessionService.MAX_PAGE_SIZE + ")") Integer size,
+            @RequestParam(required = false) @Parameter(description = "startTime,asc (default) or startTime,desc") String sort,
+            WebRequest request) {
+        if (from == null && to == null && trainerId == null && title == null
+                && page == null && size == null && sort == null) {
+            return listAll(request);
+        }
+        SessionPage result = service.searchSessions(from, to, trainerId, title, sort, page,
+                size != null ? size : TrainingSessionService.DEFAULT_PAGE_SIZE);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (result.next() != null) {
+            ok.header(NEXT_PAGE_HEADER, result.next());
+        }
+        return ok.body(result.items());
+    }
+
+    /**
+     * ETag listy z liczby sesji i ostatniej zmiany (w mikrosekundach, jak kolumna TIMESTAMP); przy
+     * {@code If-None-Match} zgodnym z nim – 304 bez budowania i serializacji listy.
+     */
+    private ResponseEntity<List<TrainingSessionDto>> listAll(WebRequest request) {
+        ListStamp stamp = service.getSessionListStamp();
+        if (request.checkNotModified(ETags.of(stamp.getCount(), ETags.micros(stamp.getLastModified())))) {
+            return null;
+        }
+        return ResponseEntity.ok(service.getAllSessionDtos());
     }
 
     @PostMapping
@@ -52,17 +109,43 @@ public class TrainingSessionController {
         return ResponseEntity.created(uri).body(out);
     }
 
+    @GetMapping(value = "/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream live seat availability of the given sessions (Server-Sent Events)",
+            description = "Sends the current state of each session, then a `seats` event whenever it changes "
+                    + "(at most a few per second per session). Up to " + SeatFeed.MAX_SESSIONS + " sessions per stream.")
+    public SseEmitter streamSeats(@RequestParam List<Long> ids) {
+        return seatFeed.subscribe(ids);
+    }
+
+    /**
+     * Walidatory z projekcji po PK; opis sesji (z cache albo z bazy) tylko, gdy klient nie ma aktualnej wersji.
+     * Zajęte miejsca pochodzą z tej samej projekcji co ETag.
+     */
     @GetMapping("/{id}")
-    @Operation(summary = "Get session by ID")
-    public TrainingSessionDto get(@PathVariable Long id) {
-        TrainingSession s = service.getSessionById(id);
+    @Operation(summary = "Get session by ID",
+            description = "Sends ETag and Last-Modified; If-None-Match / If-Modified-Since give 304 when unchanged.")
+    public ResponseEntity<TrainingSessionDto> get(@PathVariable Long id, WebRequest request) {
+        SessionStamp stamp = service.getSessionStamp(id)
+                .orElseThrow(() -> new NotFoundException("Session not found: " + id));
+        if (request.checkNotModified(ETags.of(stamp.getVersion(), stamp.getSeatsTaken()),
+                ETags.lastModified(stamp.getUpdatedAt()))) {
+            return null;
+        }
+        SessionDetails s = service.getSessionDetails(id);
         if (s == null) throw new NotFoundException("Session not found: " + id);
-        return toDto(s);
+        return ResponseEntity.ok(s.withSeatsTaken(stamp.getSeatsTaken()));
     }
 
+    /**
+     * Z {@code If-Match} zapis przechodzi tylko na wersji, którą klient widział (inaczej 412; równoległy
+     * zapis w tej samej chwili – 409). Bez nagłówka wygrywa ostatni zapis, a konflikt wersji jest ponawiany.
+     */
     @PutMapping("/{id}")
-    @Operation(summary = "Update session")
-    public TrainingSessionDto update(@PathVariable Long id, @RequestBody TrainingSessionDto dto) {
+    @Operation(summary = "Update session",
+            description = "Send the ETag from GET as If-Match to get 412 instead of overwriting a newer version.")
+    public ResponseEntity<TrainingSessionDto> update(@PathVariable Long id, @RequestBody TrainingSessionDto dto,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                     String ifMatch) {
         Trainer trainer = trainerService.getTrainerById(dto.getTrainerId());
         if (trainer == null) {
             throw new NotFoundException("Trainer not found: " + dto.getTrainerId());
@@ -70,10 +153,15 @@ public class TrainingSessionController {
 
         TrainingSession session = fromDto(dto);
         session.setTrainer(trainer);
+        session.setVersion(ETags.version(ifMatch));
 
-        TrainingSession updated = service.updateSession(id, session);
+        TrainingSession updated = session.getVersion() != null
+                ? service.updateSession(id, session)
+                : OptimisticRetry.run(() -> service.updateSession(id, session));
         if (updated == null) throw new NotFoundException("Session not found: " + id);
-        return toDto(updated);
+        return ResponseEntity.ok()
+                .eTag(ETags.of(updated.getVersion(), updated.getSeatsTaken()))
+                .body(toDto(updated));
     }
 
     @DeleteMapping("/{id}")
@@ -83,23 +171,27 @@ public class TrainingSessionController {
         return ResponseEntity.noContent().build();
     }
 
-    private TrainingSessionDto toDto(TrainingSession s) {
+    static TrainingSessionDto toDto(TrainingSession s) {
         return new TrainingSessionDto(
                 s.getId(),
                 s.getTitle(),
                 s.getDescription(),
                 s.getStartTime(),
                 s.getEndTime(),
-                s.getTrainer().getId()
+                s.getTrainer().getId(),
+                s.getCapacity(),
+                s.getSeatsTaken(),
+                s.getSeriesId()
         );
     }
 
-    private TrainingSession fromDto(TrainingSessionDto dto) {
+    static TrainingSession fromDto(TrainingSessionDto dto) {
         TrainingSession s = new TrainingSession();
         s.setTitle(dto.getTitle());
         s.setDescription(dto.getDescription());
         s.setStartTime(dto.getStartTime());
         s.setEndTime(dto.getEndTime());
+        s.setCapacity(dto.getCapacity());   // null: domyślny limit przy tworzeniu, bez zmian przy edycji
         return s;
     }
 }
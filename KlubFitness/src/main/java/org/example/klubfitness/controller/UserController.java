@@ -6,7 +6,9 @@ import org.example.klubfitness.dto.UserDto;
 import org.example.klubfitness.entity.User;
 import org.example.klubfitness.exception.NotFoundException;
 import org.example.klubfitness.security.Role;
+import org.example.klubfitness.service.OptimisticRetry;
 import org.example.klubfitness.service.UserService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -47,20 +49,27 @@ public class UserController {
 
     @GetMapping("/{id}")
     @Operation(summary = "Get user by ID")
-    public UserDto get(@PathVariable Long id) {
+    public ResponseEntity<UserDto> get(@PathVariable Long id) {
         User u = service.getUserById(id);
         if (u == null) throw new NotFoundException("User not found: " + id);
-        return toDto(u);
+        return ResponseEntity.ok().eTag(ETags.of(u.getVersion())).body(toDto(u));
     }
 
+    /** If-Match jak przy sesjach: 412 dla nieaktualnej wersji, bez nagłówka – ostatni zapis wygrywa. */
     @PutMapping("/{id}")
-    @Operation(summary = "Update user")
-    public UserDto update(@PathVariable Long id, @RequestBody UserDto dto) {
+    @Operation(summary = "Update user",
+            description = "Send the ETag from GET as If-Match to get 412 instead of overwriting a newer version.")
+    public ResponseEntity<UserDto> update(@PathVariable Long id, @RequestBody UserDto dto,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                          String ifMatch) {
         User payload = fromDto(dto);
         payload.setRole(Role.valueOf(dto.getRole()));
-        User updated = service.updateUser(id, payload);
+        payload.setVersion(ETags.version(ifMatch));
+        User updated = payload.getVersion() != null
+                ? service.updateUser(id, payload)
+                : OptimisticRetry.run(() -> service.updateUser(id, payload));
         if (updated == null) throw new NotFoundException("User not found: " + id);
-        return toDto(updated);
+        return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(toDto(updated));
     }
 
     @DeleteMapping("/{id}")
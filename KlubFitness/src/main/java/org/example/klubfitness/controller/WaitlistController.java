@@ -0,0 +1,52 @@
+package org.example.klubfitness.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.klubfitness.dto.WaitlistEntryDto;
+import org.example.klubfitness.exception.NotFoundException;
+import org.example.klubfitness.service.WaitlistService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/sessions/{sessionId}/waitlist")
+@Tag(name = "Waitlist", description = "Waitlist for full training sessions")
+public class WaitlistController {
+    private final WaitlistService service;
+
+    public WaitlistController(WaitlistService service) {
+        this.service = service;
+    }
+
+    @PostMapping
+    @Operation(summary = "Join the waitlist of a full session")
+    public ResponseEntity<WaitlistEntryDto> join(@PathVariable Long sessionId, @RequestBody WaitlistEntryDto dto) {
+        WaitlistEntryDto out = service.join(dto.getUserId(), sessionId);
+        URI uri = URI.create("/api/sessions/" + sessionId + "/waitlist/" + out.getUserId());
+        return ResponseEntity.created(uri).body(out);
+    }
+
+    @GetMapping("/{userId}")
+    @Operation(summary = "Get user's waitlist entry with current position")
+    public WaitlistEntryDto get(@PathVariable Long sessionId, @PathVariable Long userId) {
+        return service.getEntry(userId, sessionId);
+    }
+
+    @DeleteMapping("/{userId}")
+    @Operation(summary = "Leave the waitlist")
+    public ResponseEntity<Void> leave(@PathVariable Long sessionId, @PathVariable Long userId) {
+        if (!service.leave(userId, sessionId)) {
+            throw new NotFoundException("User " + userId + " is not on the waitlist of session " + sessionId);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/promote")
+    @Operation(summary = "Promote waiting users into free seats (e.g. after raising capacity)")
+    public Map<String, Integer> promote(@PathVariable Long sessionId) {
+        return Map.of("promoted", service.promoteFreeSeats(sessionId));
+    }
+}
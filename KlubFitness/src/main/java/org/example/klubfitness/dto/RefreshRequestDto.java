@@ -0,0 +1,12 @@
+package org.example.klubfitness.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshRequestDto {
+    private String refreshToken;
+}
@@ -0,0 +1,29 @@
+package org.example.klubfitness.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Wynik jednej pozycji z {@code POST /api/reservations/batch}, w kolejności żądania.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationBatchResultDto {
+    private int index;
+    private Long userId;
+    private Long sessionId;
+    private Status status;
+    /** Id utworzonej rezerwacji; {@code null}, gdy status różny od CREATED. */
+    private Long reservationId;
+
+    public enum Status {
+        CREATED,
+        USER_NOT_FOUND,
+        SESSION_NOT_FOUND,
+        SESSION_FULL,
+        ALREADY_BOOKED,
+        DUPLICATE_IN_BATCH
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.klubfitness.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Przychód z rezerwacji na sesje z okresu {@code from}–{@code to}: cena wejścia × liczba rezerwacji,
+ * pomniejszona o rabaty ze strategii {@code DiscountStrategy}; łącznie i per trener.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueReportDto {
+    private LocalDate from;
+    private LocalDate to;
+    private long reservations;
+    private BigDecimal gross;
+    private BigDecimal discount;
+    private BigDecimal net;
+    private List<TrainerRevenue> trainers;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TrainerRevenue {
+        private Long trainerId;
+        private long reservations;
+        private BigDecimal gross;
+        private BigDecimal discount;
+        private BigDecimal net;
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.klubfitness.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Zmiana "tej i następnych" sesji serii. Pola {@code null} pozostają bez zmian.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeriesUpdateDto {
+    private String title;
+    private String description;
+    private Long trainerId;
+    private Integer capacity;
+    /** Przesunięcie godziny rozpoczęcia (i zakończenia) w minutach. */
+    private Integer shiftMinutes;
+    /** Nowa długość zajęć w minutach. */
+    private Integer durationMinutes;
+}
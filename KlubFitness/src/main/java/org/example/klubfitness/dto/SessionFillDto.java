@@ -0,0 +1,24 @@
+package org.example.klubfitness.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Obłożenie jednej sesji w {@code GET /api/reports/sessions}; {@code fillRate} = zajęte / limit (0–1).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionFillDto {
+    private Long sessionId;
+    private Long trainerId;
+    private String trainerName;
+    private String title;
+    private LocalDateTime startTime;
+    private int capacity;
+    private int seatsTaken;
+    private double fillRate;
+}
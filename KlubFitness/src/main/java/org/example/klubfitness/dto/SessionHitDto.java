@@ -0,0 +1,21 @@
+package org.example.klubfitness.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/** Sesja znaleziona w wyszukiwaniu pełnotekstowym; {@code rank} – trafność (wyższa = lepsza). */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionHitDto {
+    private Long id;
+    private String title;
+    private String description;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private Long trainerId;
+    private double rank;
+}
@@ -0,0 +1,15 @@
+package org.example.klubfitness.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionSeatsDto {
+    private Long sessionId;
+    private Integer capacity;
+    private Integer seatsTaken;
+    private Integer freeSeats;
+}
@@ -0,0 +1,29 @@
+package org.example.klubfitness.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionSeriesDto {
+    private Long id;
+    private String title;
+    private String description;
+    private Long trainerId;
+    private Integer capacity;
+    private List<DayOfWeek> daysOfWeek;
+    private LocalDate firstDate;
+    private LocalDate untilDate;
+    private LocalTime startTime;
+    private Integer durationMinutes;
+    private List<LocalDate> excludedDates;
+    /** Id wygenerowanych sesji (tylko w odpowiedzi). */
+    private List<Long> sessionIds;
+}
@@ -0,0 +1,22 @@
+package org.example.klubfitness.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+
+/**
+ * Obłożenie sesji zaczynających się w danym dniu tygodnia o danej godzinie.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotFillDto {
+    private DayOfWeek weekday;
+    private int hour;
+    private long sessions;
+    private long capacity;
+    private long seatsTaken;
+    private double fillRate;
+}
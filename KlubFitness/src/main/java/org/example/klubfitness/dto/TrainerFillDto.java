@@ -0,0 +1,20 @@
+package org.example.klubfitness.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Obłożenie zajęć trenera w okresie: suma zajętych miejsc / suma limitów jego sesji.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrainerFillDto {
+    private Long trainerId;
+    private String trainerName;
+    private long sessions;
+    private long capacity;
+    private long seatsTaken;
+    private double fillRate;
+}
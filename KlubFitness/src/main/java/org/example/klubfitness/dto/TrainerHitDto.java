@@ -0,0 +1,16 @@
+package org.example.klubfitness.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Trener znaleziony po nazwisku lub specjalizacji; {@code score} – podobieństwo trigramowe 0–1. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrainerHitDto {
+    private Long id;
+    private String name;
+    private String specialization;
+    private double score;
+}
@@ -16,4 +16,12 @@ public class TrainingSessionDto {
     private LocalDateTime startTime;
     private LocalDateTime endTime;
     private Long trainerId;
+    private Integer capacity;
+    private Integer seatsTaken;
+    private Long seriesId;
+
+    public TrainingSessionDto(Long id, String title, String description,
+                              LocalDateTime startTime, LocalDateTime endTime, Long trainerId) {
+        this(id, title, description, startTime, endTime, trainerId, null, null, null);
+    }
 }
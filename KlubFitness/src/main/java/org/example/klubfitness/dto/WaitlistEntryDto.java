@@ -0,0 +1,19 @@
+package org.example.klubfitness.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistEntryDto {
+    private Long id;
+    private Long userId;
+    private Long sessionId;
+    private LocalDateTime enqueuedAt;
+    /** Pozycja w kolejce, liczona od 1. */
+    private Long position;
+}
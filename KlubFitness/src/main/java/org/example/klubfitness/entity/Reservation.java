@@ -8,13 +8,16 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations",
+        uniqueConstraints = @UniqueConstraint(name = "uk_reservations_user_session",
+                columnNames = {"user_id", "session_id"}))
 @Getter
 @Setter
 @NoArgsConstructor
 public class Reservation {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservations_id")
+    @SequenceGenerator(name = "reservations_id", sequenceName = "reservations_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false)
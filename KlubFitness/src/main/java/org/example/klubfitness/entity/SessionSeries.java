@@ -0,0 +1,47 @@
+package org.example.klubfitness.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Reguła cyklicznych zajęć (odpowiednik RRULE: FREQ=WEEKLY;BYDAY=...;UNTIL=... + EXDATE).
+ * Wystąpienia są zwykłymi wierszami training_sessions z ustawionym series_id.
+ */
+@Entity
+@Table(name = "session_series")
+@Getter
+@Setter
+@NoArgsConstructor
+public class SessionSeries {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 255)
+    private String title;
+
+    /** Dni tygodnia rozdzielone przecinkami, np. "MONDAY,WEDNESDAY". */
+    @Column(nullable = false, length = 64)
+    private String daysOfWeek;
+
+    @Column(nullable = false)
+    private LocalDate firstDate;
+
+    @Column(nullable = false)
+    private LocalDate untilDate;
+
+    @Column(nullable = false)
+    private LocalTime startTime;
+
+    @Column(nullable = false)
+    private int durationMinutes;
+
+    /** Pominięte daty (ISO) rozdzielone przecinkami. */
+    @Column(columnDefinition = "TEXT")
+    private String excludedDates;
+}
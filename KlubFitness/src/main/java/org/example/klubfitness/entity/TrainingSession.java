@@ -16,8 +16,11 @@ import java.util.Set;
 @Setter
 @NoArgsConstructor
 public class TrainingSession {
+    public static final int DEFAULT_CAPACITY = 20;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "training_sessions_id")
+    @SequenceGenerator(name = "training_sessions_id", sequenceName = "training_sessions_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 255)
@@ -32,11 +35,43 @@ public class TrainingSession {
     @Column(nullable = false)
     private LocalDateTime endTime;
 
+    @Column(nullable = false)
+    private Integer capacity = DEFAULT_CAPACITY;
+
+    /** Zmieniane wyłącznie atomowymi UPDATE-ami w TrainingSessionRepository – Hibernate go nie zapisuje. */
+    @Column(nullable = false, insertable = false, updatable = false)
+    private int seatsTaken;
+
     @ManyToOne(optional = false)
     @JoinColumn(name = "trainer_id")
     private Trainer trainer;
 
+    /** Seria, z której wygenerowano sesję ({@code null} dla pojedynczych zajęć). */
+    @Column(name = "series_id")
+    private Long seriesId;
+
+    /** Blokowanie optymistyczne i ETag; zmiany licznika miejsc jej nie podbijają. */
+    @Version
+    private Long version;
+
+    /** Ostatnia zmiana sesji lub licznika miejsc (Last-Modified). */
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
     @JsonIgnore
     @OneToMany(mappedBy = "session", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<Reservation> reservations = new HashSet<>();
-}
\ No newline at end of file
+
+    @PrePersist
+    void applyDefaults() {
+        if (capacity == null) {
+            capacity = DEFAULT_CAPACITY;
+        }
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    void touch() {
+        updatedAt = LocalDateTime.now();
+    }
+}
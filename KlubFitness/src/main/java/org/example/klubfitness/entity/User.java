@@ -28,6 +28,9 @@ public class User {
     @Column(nullable = false, length = 20)
     private Role role = Role.USER;  // domyślnie zwykły user
 
+    @Version
+    private Long version;
+
     @JsonIgnore
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<Reservation> reservations = new HashSet<>();
@@ -0,0 +1,7 @@
+package org.example.klubfitness.exception;
+
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
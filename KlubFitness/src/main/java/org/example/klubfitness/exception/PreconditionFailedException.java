@@ -0,0 +1,8 @@
+package org.example.klubfitness.exception;
+
+/** Warunek {@code If-Match} nie jest spełniony – klient edytował nieaktualną wersję (412). */
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.klubfitness.exception;
+
+public class SessionFullException extends ConflictException {
+    public SessionFullException(String message) {
+        super(message);
+    }
+}
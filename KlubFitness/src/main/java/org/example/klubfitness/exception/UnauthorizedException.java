@@ -0,0 +1,7 @@
+package org.example.klubfitness.exception;
+
+public class UnauthorizedException extends RuntimeException {
+    public UnauthorizedException(String message) {
+        super(message);
+    }
+}
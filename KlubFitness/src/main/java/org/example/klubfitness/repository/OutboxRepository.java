@@ -0,0 +1,18 @@
+package org.example.klubfitness.repository;
+
+import org.example.klubfitness.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Zajmuje najstarsze niewysłane zdarzenia do końca transakcji. Wiersze zajęte przez relay
+     * innej instancji są pomijane, więc instancje dzielą się pracą zamiast wysyłać to samo dwa razy.
+     */
+    @Query(value = "SELECT * FROM outbox_events ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+}
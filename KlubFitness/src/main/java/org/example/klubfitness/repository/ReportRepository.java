@@ -0,0 +1,112 @@
+package org.example.klubfitness.repository;
+
+import org.example.klubfitness.dto.SessionFillDto;
+import org.example.klubfitness.dto.SlotFillDto;
+import org.example.klubfitness.dto.TrainerFillDto;
+import org.example.klubfitness.security.Role;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Zapytania raportów na widokach zmaterializowanych z V8 ({@code report_session_fill},
+ * {@code report_session_bookings}). Widoki nie są encjami, więc zwykły JDBC zamiast Spring Data JPA.
+ * Okres to zawsze {@code [from, to)} po {@code start_time} sesji – zakres po indeksie widoku.
+ */
+@Repository
+public class ReportRepository {
+    /** Klucz blokady doradczej: jedno odświeżanie naraz, także przy kilku instancjach aplikacji. */
+    static final long REFRESH_LOCK = 0x4B46_5245_504FL;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public ReportRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public List<SessionFillDto> findSessionFill(LocalDateTime from, LocalDateTime to, int limit) {
+        return jdbc.query("SELECT session_id, trainer_id, trainer_name, title, start_time, capacity, seats_taken "
+                        + "FROM report_session_fill WHERE start_time >= :from AND start_time < :to "
+                        + "ORDER BY start_time, session_id LIMIT :limit",
+                range(from, to).addValue("limit", limit),
+                (rs, i) -> new SessionFillDto(rs.getLong("session_id"), rs.getLong("trainer_id"),
+                        rs.getString("trainer_name"), rs.getString("title"),
+                        rs.getTimestamp("start_time").toLocalDateTime(), rs.getInt("capacity"),
+                        rs.getInt("seats_taken"), fillRate(rs.getInt("seats_taken"), rs.getInt("capacity"))));
+    }
+
+    public List<TrainerFillDto> findTrainerFill(LocalDateTime from, LocalDateTime to) {
+        return jdbc.query("SELECT trainer_id, trainer_name, COUNT(*) AS sessions, "
+                        + "SUM(capacity) AS capacity, SUM(seats_taken) AS seats_taken "
+                        + "FROM report_session_fill WHERE start_time >= :from AND start_time < :to "
+                        + "GROUP BY trainer_id, trainer_name ORDER BY trainer_id",
+                range(from, to),
+                (rs, i) -> new TrainerFillDto(rs.getLong("trainer_id"), rs.getString("trainer_name"),
+                        rs.getLong("sessions"), rs.getLong("capacity"), rs.getLong("seats_taken"),
+                        fillRate(rs.getLong("seats_taken"), rs.getLong("capacity"))));
+    }
+
+    public List<SlotFillDto> findSlotFill(LocalDateTime from, LocalDateTime to) {
+        return jdbc.query("SELECT weekday, hour, COUNT(*) AS sessions, "
+                        + "SUM(capacity) AS capacity, SUM(seats_taken) AS seats_taken "
+                        + "FROM report_session_fill WHERE start_time >= :from AND start_time < :to "
+                        + "GROUP BY weekday, hour ORDER BY weekday, hour",
+                range(from, to),
+                (rs, i) -> new SlotFillDto(DayOfWeek.of(rs.getInt("weekday")), rs.getInt("hour"),
+                        rs.getLong("sessions"), rs.getLong("capacity"), rs.getLong("seats_taken"),
+                        fillRate(rs.getLong("seats_taken"), rs.getLong("capacity"))));
+    }
+
+    /** Grupy rezerwacji (sesja, rola) pod wyliczenie przychodu; kilka wierszy na sesję. */
+    public List<BookingGroup> findBookingGroups(LocalDateTime from, LocalDateTime to) {
+        return jdbc.query("SELECT session_id, trainer_id, start_time, role, reservations "
+                        + "FROM report_session_bookings WHERE start_time >= :from AND start_time < :to",
+                range(from, to), ReportRepository::bookingGroup);
+    }
+
+    public LocalDateTime findRefreshedAt() {
+        return jdbc.queryForObject("SELECT refreshed_at FROM report_refresh WHERE id = 1", Map.of(),
+                LocalDateTime.class);
+    }
+
+    /**
+     * Przelicza oba widoki i zapisuje czas odświeżenia; wymaga transakcji (blokada doradcza trwa
+     * do jej końca). {@code false}, gdy odświeżanie trwa już w innej transakcji – wtedy nic nie robi.
+     */
+    public boolean refresh() {
+        Boolean locked = jdbc.queryForObject("SELECT pg_try_advisory_xact_lock(:key)",
+                Map.of("key", REFRESH_LOCK), Boolean.class);
+        if (!Boolean.TRUE.equals(locked)) {
+            return false;
+        }
+        jdbc.getJdbcTemplate().execute("REFRESH MATERIALIZED VIEW CONCURRENTLY report_session_fill");
+        jdbc.getJdbcTemplate().execute("REFRESH MATERIALIZED VIEW CONCURRENTLY report_session_bookings");
+        jdbc.update("UPDATE report_refresh SET refreshed_at = now() WHERE id = 1", Map.of());
+        return true;
+    }
+
+    private static MapSqlParameterSource range(LocalDateTime from, LocalDateTime to) {
+        return new MapSqlParameterSource("from", from).addValue("to", to);
+    }
+
+    private static double fillRate(long taken, long capacity) {
+        return capacity == 0 ? 0 : (double) taken / capacity;
+    }
+
+    private static BookingGroup bookingGroup(ResultSet rs, int row) throws SQLException {
+        return new BookingGroup(rs.getLong("session_id"), rs.getLong("trainer_id"),
+                rs.getTimestamp("start_time").toLocalDateTime(), Role.valueOf(rs.getString("role")),
+                rs.getLong("reservations"));
+    }
+
+    public record BookingGroup(Long sessionId, Long trainerId, LocalDateTime startTime, Role role,
+                               long reservations) {
+    }
+}
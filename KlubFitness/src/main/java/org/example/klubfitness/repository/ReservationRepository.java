@@ -1,10 +1,78 @@
 package org.example.klubfitness.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.klubfitness.dto.ReservationDto;
 import org.example.klubfitness.entity.Reservation;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
     List<Reservation> findByUserId(Long userId);
     List<Reservation> findBySessionId(Long sessionId);
-}
\ No newline at end of file
+
+    @Query("select r.id from Reservation r where r.user.id = :userId order by r.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+    boolean existsByUserIdAndSessionId(Long userId, Long sessionId);
+
+    // Paginacja keyset po id: "WHERE id > :afterId ORDER BY id LIMIT :n" – stały koszt niezależnie od numeru strony.
+    // Projekcje DTO czytają tylko kolumny FK, więc jedna strona to jedno zapytanie SQL (bez dociągania User/TrainingSession).
+    @Query("select new org.example.klubfitness.dto.ReservationDto(r.id, r.user.id, r.session.id, r.reservationTime) "
+            + "from Reservation r where r.id > :afterId order by r.id")
+    List<ReservationDto> findDtoPage(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("select new org.example.klubfitness.dto.ReservationDto(r.id, r.user.id, r.session.id, r.reservationTime) "
+            + "from Reservation r where r.user.id = :userId and r.id > :afterId order by r.id")
+    List<ReservationDto> findDtoPageByUserId(@Param("userId") Long userId, @Param("afterId") Long afterId, Limit limit);
+
+    @Query("select new org.example.klubfitness.dto.ReservationDto(r.id, r.user.id, r.session.id, r.reservationTime) "
+            + "from Reservation r where r.session.id = :sessionId and r.id > :afterId order by r.id")
+    List<ReservationDto> findDtoPageBySessionId(@Param("sessionId") Long sessionId, @Param("afterId") Long afterId, Limit limit);
+
+    // Kandydaci na duplikaty dla wsadu: iloczyn userIds x sessionIds zawęża się w pamięci do par z żądania
+    @Query("select new org.example.klubfitness.dto.ReservationDto(r.id, r.user.id, r.session.id, r.reservationTime) "
+            + "from Reservation r where r.user.id in :userIds and r.session.id in :sessionIds")
+    List<ReservationDto> findDtosByUserIdsAndSessionIds(@Param("userIds") Collection<Long> userIds,
+                                                        @Param("sessionIds") Collection<Long> sessionIds);
+
+    @Query("select new org.example.klubfitness.dto.ReservationDto(r.id, r.user.id, r.session.id, r.reservationTime) "
+            + "from Reservation r where r.id = :id")
+    Optional<ReservationDto> findDtoById(@Param("id") Long id);
+
+    // Zwraca liczbę usuniętych wierszy – przy równoległym anulowaniu tylko jeden wywołujący dostanie 1
+    @Modifying
+    @Query("delete from Reservation r where r.id = :id")
+    int deleteReservationById(@Param("id") Long id);
+
+    // Rezerwacje usuwanych sesji – czytane przed zbiorczym DELETE, żeby każda dostała zdarzenie anulowania
+    @Query("select new org.example.klubfitness.dto.ReservationDto(r.id, r.user.id, r.session.id, r.reservationTime) "
+            + "from Reservation r where r.session.id in :sessionIds")
+    List<ReservationDto> findDtosBySessionIds(@Param("sessionIds") Collection<Long> sessionIds);
+
+    @Modifying
+    @Query("delete from Reservation r where r.session.id in "
+            + "(select s.id from TrainingSession s where s.seriesId = :seriesId and s.startTime >= :from)")
+    int deleteBySeriesFrom(@Param("seriesId") Long seriesId, @Param("from") LocalDateTime from);
+
+    /**
+     * Strumień DTO czytany kursorem JDBC (fetch size), bez encji w persistence context.
+     * Musi być konsumowany wewnątrz transakcji.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new org.example.klubfitness.dto.ReservationDto(r.id, r.user.id, r.session.id, r.reservationTime) "
+            + "from Reservation r order by r.id")
+    Stream<ReservationDto> streamAllAsDto();
+}
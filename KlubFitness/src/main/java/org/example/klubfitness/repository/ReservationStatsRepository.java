@@ -0,0 +1,57 @@
+package org.example.klubfitness.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tabele liczników {@code session_stats} i {@code user_stats} (V9). Przyrosty zapisywane są
+ * wsadowym upsertem – jeden batch JDBC na wszystkie zmienione klucze, bez SELECT-ów.
+ */
+@Repository
+public class ReservationStatsRepository {
+    private final JdbcTemplate jdbc;
+
+    public ReservationStatsRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public long findSessionCount(Long sessionId) {
+        return count("SELECT reservations FROM session_stats WHERE session_id = ?", sessionId);
+    }
+
+    public long findUserCount(Long userId) {
+        return count("SELECT reservations FROM user_stats WHERE user_id = ?", userId);
+    }
+
+    public void addSessionCounts(Map<Long, Long> deltas) {
+        add("INSERT INTO session_stats (session_id, reservations) VALUES (?, ?) "
+                + "ON CONFLICT (session_id) DO UPDATE SET reservations = session_stats.reservations + EXCLUDED.reservations",
+                deltas);
+    }
+
+    public void addUserCounts(Map<Long, Long> deltas) {
+        add("INSERT INTO user_stats (user_id, reservations) VALUES (?, ?) "
+                + "ON CONFLICT (user_id) DO UPDATE SET reservations = user_stats.reservations + EXCLUDED.reservations",
+                deltas);
+    }
+
+    private long count(String sql, Long id) {
+        List<Long> rows = jdbc.queryForList(sql, Long.class, id);
+        return rows.isEmpty() ? 0 : rows.get(0);
+    }
+
+    private void add(String sql, Map<Long, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        // kolejność kluczy stała, więc równoległe flushe z kilku instancji nie zakleszczają się
+        List<Object[]> rows = deltas.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(e -> new Object[]{e.getKey(), e.getValue()})
+                .toList();
+        jdbc.batchUpdate(sql, rows);
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.klubfitness.repository;
+
+import org.example.klubfitness.dto.SessionHitDto;
+import org.example.klubfitness.dto.TrainerHitDto;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Wyszukiwanie na indeksach z V13: sesje po {@code search_vector} (GIN, tsvector), trenerzy po trigramach
+ * nazwiska i specjalizacji. Wyniki są sortowane trafnością, której nie da się odczytać z indeksu – indeks
+ * wybiera dopasowane wiersze, a ranking liczy się tylko dla nich, więc strony idą przez OFFSET.
+ */
+@Repository
+public class SearchRepository {
+    /** Słownik musi być ten sam co w kolumnie generowanej, inaczej rdzenie słów się nie zgodzą. */
+    static final String TEXT_CONFIG = "english";
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public SearchRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Zapytanie w składni wyszukiwarek ({@code websearch_to_tsquery}): słowa muszą wystąpić wszystkie,
+     * {@code "..."} to fraza, {@code or} – alternatywa, {@code -słowo} – wykluczenie. Błędna składnia nie
+     * rzuca wyjątku. Tytuł waży więcej niż opis; remisy rozstrzyga czas startu.
+     */
+    public List<SessionHitDto> findSessions(String query, LocalDateTime from, int offset, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("query", query)
+                .addValue("offset", offset)
+                .addValue("limit", limit);
+        String since = "";
+        if (from != null) {
+            since = " AND s.start_time >= :from";
+            params.addValue("from", from);
+        }
+        return jdbc.query("SELECT s.id, s.title, s.description, s.start_time, s.end_time, s.trainer_id, "
+                        + "ts_rank_cd(s.search_vector, q) AS rank "
+                        + "FROM training_sessions s, websearch_to_tsquery('" + TEXT_CONFIG + "', :query) q "
+                        + "WHERE s.search_vector @@ q" + since + " "
+                        + "ORDER BY rank DESC, s.start_time, s.id OFFSET :offset LIMIT :limit",
+                params,
+                (rs, i) -> new SessionHitDto(rs.getLong("id"), rs.getString("title"), rs.getString("description"),
+                        rs.getTimestamp("start_time").toLocalDateTime(), rs.getTimestamp("end_time").toLocalDateTime(),
+                        rs.getLong("trainer_id"), rs.getDouble("rank")));
+    }
+
+    /**
+     * Trenerzy, których nazwisko lub specjalizacja zawiera słowo podobne do zapytania
+     * ({@code <%}, próg {@code pg_trgm.word_similarity_threshold}, domyślnie 0.6) – łapie fragmenty i literówki.
+     */
+    public List<TrainerHitDto> findTrainers(String query, int offset, int limit) {
+        return jdbc.query("SELECT id, name, specialization, "
+                        + "greatest(word_similarity(:query, name), "
+                        + "coalesce(word_similarity(:query, specialization), 0)) AS score "
+                        + "FROM trainers WHERE :query <% name OR :query <% specialization "
+                        + "ORDER BY score DESC, id OFFSET :offset LIMIT :limit",
+                new MapSqlParameterSource("query", query).addValue("offset", offset).addValue("limit", limit),
+                (rs, i) -> new TrainerHitDto(rs.getLong("id"), rs.getString("name"),
+                        rs.getString("specialization"), rs.getDouble("score")));
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.klubfitness.repository;
+
+import org.example.klubfitness.dto.TrainingSessionDto;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Strony wyszukiwania sesji (keyset po {@code (start_time, id)}, indeksy z V12). SQL składany z warunków,
+ * które faktycznie podano – bez {@code (:x IS NULL OR ...)}, więc każda kombinacja filtrów ma własny plan
+ * na właściwym indeksie: sam przedział czasu po {@code (start_time, id)}, z trenerem po
+ * {@code (trainer_id, start_time, id)}. Tytuł filtruje wiersze w obrębie tego zakresu.
+ */
+@Repository
+public class SessionSearchRepository {
+    private static final String SELECT = "SELECT id, title, description, start_time, end_time, trainer_id, "
+            + "capacity, seats_taken, series_id FROM training_sessions WHERE true";
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public SessionSearchRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Sesje zaczynające się w {@code [from, to)} (każdy koniec opcjonalny), za pozycją {@code after}
+     * w kolejności strony; najwyżej {@code limit} wierszy.
+     */
+    public List<TrainingSessionDto> findPage(LocalDateTime from, LocalDateTime to, Long trainerId, String title,
+                                             Position after, boolean descending, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+        if (from != null) {
+            sql.append(" AND start_time >= :from");
+            params.addValue("from", from);
+        }
+        if (to != null) {
+            sql.append(" AND start_time < :to");
+            params.addValue("to", to);
+        }
+        if (trainerId != null) {
+            sql.append(" AND trainer_id = :trainerId");
+            params.addValue("trainerId", trainerId);
+        }
+        if (title != null) {
+            sql.append(" AND title ILIKE :title");
+            params.addValue("title", "%" + escapeLike(title) + "%");
+        }
+        if (after != null) {
+            // porównanie wierszy – jeden warunek zakresu na indeksie zamiast "t > :t OR (t = :t AND id > :id)"
+            sql.append(descending ? " AND (start_time, id) < (:afterStart, :afterId)"
+                    : " AND (start_time, id) > (:afterStart, :afterId)");
+            params.addValue("afterStart", after.startTime()).addValue("afterId", after.id());
+        }
+        sql.append(descending ? " ORDER BY start_time DESC, id DESC" : " ORDER BY start_time, id");
+        sql.append(" LIMIT :limit");
+        return jdbc.query(sql.toString(), params, SessionSearchRepository::session);
+    }
+
+    /** {@code %} i {@code _} z tekstu użytkownika to zwykłe znaki, nie wzorce. */
+    static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static TrainingSessionDto session(ResultSet rs, int row) throws SQLException {
+        return new TrainingSessionDto(rs.getLong("id"), rs.getString("title"), rs.getString("description"),
+                rs.getTimestamp("start_time").toLocalDateTime(), rs.getTimestamp("end_time").toLocalDateTime(),
+                rs.getLong("trainer_id"), rs.getInt("capacity"), rs.getInt("seats_taken"),
+                rs.getObject("series_id", Long.class));
+    }
+
+    /** Ostatni wiersz poprzedniej strony. */
+    public record Position(LocalDateTime startTime, long id) {
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.klubfitness.repository;
+
+import org.example.klubfitness.entity.SessionSeries;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SessionSeriesRepository extends JpaRepository<SessionSeries, Long> {
+}
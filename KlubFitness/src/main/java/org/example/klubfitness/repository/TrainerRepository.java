@@ -2,6 +2,24 @@ package org.example.klubfitness.repository;
 
 import org.example.klubfitness.entity.Trainer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
 
 public interface TrainerRepository extends JpaRepository<Trainer, Long> {
+
+    /** Walidatory odpowiedzi warunkowej (ETag, Last-Modified) bez ładowania encji. */
+    @Query("select t.version as version, t.updatedAt as updatedAt from Trainer t where t.id = :id")
+    Optional<TrainerStamp> findStamp(@Param("id") Long id);
+
+    /** Blokuje wiersz usuwanego trenera – nowe sesje (blokada klucza obcego) czekają na usunięcie. */
+    @Query(value = "SELECT id FROM trainers WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long trainerId);
+
+    interface TrainerStamp {
+        Long getVersion();
+        LocalDateTime getUpdatedAt();
+    }
 }
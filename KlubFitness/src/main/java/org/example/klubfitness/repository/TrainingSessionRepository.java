@@ -1,10 +1,166 @@
 package org.example.klubfitness.repository;
 
+import org.example.klubfitness.dto.SessionSeatsDto;
+import org.example.klubfitness.dto.TrainingSessionDto;
+import org.example.klubfitness.entity.Trainer;
 import org.example.klubfitness.entity.TrainingSession;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface TrainingSessionRepository extends JpaRepository<TrainingSession, Long> {
     List<TrainingSession> findByStartTimeBetween(LocalDateTime from, LocalDateTime to);
+
+    // Projekcja DTO: trainerId czytany z kolumny FK, bez ładowania encji Trainer
+    @Query("select new org.example.klubfitness.dto.TrainingSessionDto("
+            + "s.id, s.title, s.description, s.startTime, s.endTime, s.trainer.id, s.capacity, s.seatsTaken, s.seriesId) "
+            + "from TrainingSession s order by s.id")
+    List<TrainingSessionDto> findAllDtos();
+
+    /** Walidatory odpowiedzi warunkowej (ETag, Last-Modified) – jeden wiersz po PK, bez encji i trenera. */
+    @Query("select s.version as version, s.seatsTaken as seatsTaken, s.updatedAt as updatedAt "
+            + "from TrainingSession s where s.id = :id")
+    Optional<SessionStamp> findStamp(@Param("id") Long id);
+
+    /**
+     * Wersja całej listy sesji: liczba wierszy i najpóźniejsze {@code updated_at}. Każdy zapis sesji
+     * (edycja, rezerwacja, przesunięcie serii, nowa sesja) podbija {@code updated_at}, a usunięcie zmienia
+     * liczbę; max czyta jeden wpis z indeksu (V14), count – sam indeks, bez przeliczania wierszy.
+     */
+    @Query("select count(s) as count, max(s.updatedAt) as lastModified from TrainingSession s")
+    ListStamp findListStamp();
+
+    /**
+     * Atomowo zajmuje miejsce: 1 = przyjęto, 0 = sesja pełna (lub nie istnieje).
+     * Blokada wiersza trwa tylko do końca transakcji rezerwacji, bez poziomu SERIALIZABLE.
+     */
+    @Modifying
+    @Query(value = "UPDATE training_sessions SET seats_taken = seats_taken + 1, updated_at = now() "
+            + "WHERE id = :id AND seats_taken < capacity", nativeQuery = true)
+    int tryTakeSeat(@Param("id") Long sessionId);
+
+    /** Zajmuje {@code count} miejsc naraz albo żadnego (promocja z kolejki). */
+    @Modifying
+    @Query(value = "UPDATE training_sessions SET seats_taken = seats_taken + :count, updated_at = now() "
+            + "WHERE id = :id AND seats_taken + :count <= capacity", nativeQuery = true)
+    int tryTakeSeats(@Param("id") Long sessionId, @Param("count") int count);
+
+    @Query("select s.capacity - s.seatsTaken from TrainingSession s where s.id = :id")
+    Optional<Integer> findFreeSeats(@Param("id") Long sessionId);
+
+    /** Stan miejsc wielu sesji jednym zapytaniem, bez blokad (podgląd na żywo). */
+    @Query("select new org.example.klubfitness.dto.SessionSeatsDto("
+            + "s.id, s.capacity, s.seatsTaken, s.capacity - s.seatsTaken) "
+            + "from TrainingSession s where s.id in :ids")
+    List<SessionSeatsDto> findSeats(@Param("ids") Collection<Long> sessionIds);
+
+    /** Stan miejsc wszystkich sesji – wąski odczyt do listy, której opisy są w cache. */
+    @Query("select new org.example.klubfitness.dto.SessionSeatsDto("
+            + "s.id, s.capacity, s.seatsTaken, s.capacity - s.seatsTaken) "
+            + "from TrainingSession s")
+    List<SessionSeatsDto> findAllSeats();
+
+    @Modifying
+    @Query(value = "UPDATE training_sessions SET seats_taken = seats_taken - 1, updated_at = now() "
+            + "WHERE id = :id AND seats_taken > 0", nativeQuery = true)
+    int releaseSeat(@Param("id") Long sessionId);
+
+    /**
+     * Wolne miejsca wielu sesji jednym zapytaniem, z blokadą wierszy do końca transakcji.
+     * Blokady zakładane w kolejności id, więc równoległe wsady nie zakleszczają się.
+     */
+    @Query(value = "SELECT id, capacity - seats_taken AS free FROM training_sessions "
+            + "WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<FreeSeats> lockFreeSeats(@Param("ids") Collection<Long> sessionIds);
+
+    /** Najwięcej zajętych miejsc wśród sesji serii od {@code from} – dolna granica nowego limitu. */
+    @Query("select max(s.seatsTaken) from TrainingSession s where s.seriesId = :seriesId and s.startTime >= :from")
+    Optional<Integer> findMaxSeatsTakenInSeriesFrom(@Param("seriesId") Long seriesId, @Param("from") LocalDateTime from);
+
+    /** Sesje serii od {@code from}, którym nowy limit {@code capacity} zwiększy liczbę miejsc. */
+    @Query("select s.id from TrainingSession s where s.seriesId = :seriesId and s.startTime >= :from "
+            + "and s.capacity < :capacity order by s.id")
+    List<Long> findIdsInSeriesFromBelowCapacity(@Param("seriesId") Long seriesId, @Param("from") LocalDateTime from,
+                                                @Param("capacity") int capacity);
+
+    // Operacje "ta i następne" na serii: jeden UPDATE/DELETE zamiast updateSession per wiersz;
+    // UPDATE-y zbiorcze omijają @Version, więc podbijają wersję (i updated_at) same
+    @Modifying
+    @Query("update TrainingSession s set s.title = coalesce(:title, s.title), "
+            + "s.description = coalesce(:description, s.description), s.capacity = coalesce(:capacity, s.capacity), "
+            + "s.version = s.version + 1, s.updatedAt = local datetime "
+            + "where s.seriesId = :seriesId and s.startTime >= :from")
+    int updateSeriesFrom(@Param("seriesId") Long seriesId, @Param("from") LocalDateTime from,
+                         @Param("title") String title, @Param("description") String description,
+                         @Param("capacity") Integer capacity);
+
+    @Modifying
+    @Query("update TrainingSession s set s.trainer = :trainer, s.version = s.version + 1, "
+            + "s.updatedAt = local datetime where s.seriesId = :seriesId and s.startTime >= :from")
+    int updateSeriesTrainerFrom(@Param("seriesId") Long seriesId, @Param("from") LocalDateTime from,
+                                @Param("trainer") Trainer trainer);
+
+    @Modifying
+    @Query(value = "UPDATE training_sessions SET start_time = start_time + make_interval(mins => :minutes), "
+            + "end_time = end_time + make_interval(mins => :minutes), version = version + 1, updated_at = now() "
+            + "WHERE series_id = :seriesId AND start_time >= :from", nativeQuery = true)
+    int shiftSeriesFrom(@Param("seriesId") Long seriesId, @Param("from") LocalDateTime from,
+                        @Param("minutes") int minutes);
+
+    @Modifying
+    @Query(value = "UPDATE training_sessions SET end_time = start_time + make_interval(mins => :minutes), "
+            + "version = version + 1, updated_at = now() "
+            + "WHERE series_id = :seriesId AND start_time >= :from", nativeQuery = true)
+    int resizeSeriesFrom(@Param("seriesId") Long seriesId, @Param("from") LocalDateTime from,
+                         @Param("minutes") int minutes);
+
+    /**
+     * Blokuje wiersze usuwanych sesji (w kolejności id) przed odczytem ich rezerwacji: rezerwacja w toku
+     * kończy się wcześniej, a późniejsza czeka na usunięcie i już sesji nie znajduje.
+     */
+    @Query(value = "SELECT id FROM training_sessions WHERE series_id = :seriesId AND start_time >= :from "
+            + "ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockSeriesFrom(@Param("seriesId") Long seriesId, @Param("from") LocalDateTime from);
+
+    @Query(value = "SELECT id FROM training_sessions WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long sessionId);
+
+    @Query(value = "SELECT id FROM training_sessions WHERE trainer_id = :trainerId ORDER BY id FOR UPDATE",
+            nativeQuery = true)
+    List<Long> lockByTrainer(@Param("trainerId") Long trainerId);
+
+    @Modifying
+    @Query("delete from TrainingSession s where s.seriesId = :seriesId and s.startTime >= :from")
+    int deleteSeriesFrom(@Param("seriesId") Long seriesId, @Param("from") LocalDateTime from);
+
+    @Query("select s.id as id, s.startTime as startTime, s.endTime as endTime "
+            + "from TrainingSession s where s.trainer.id = :trainerId")
+    List<SessionInterval> findIntervalsByTrainerId(@Param("trainerId") Long trainerId);
+
+    interface SessionInterval {
+        Long getId();
+        LocalDateTime getStartTime();
+        LocalDateTime getEndTime();
+    }
+
+    interface FreeSeats {
+        Long getId();
+        Integer getFree();
+    }
+
+    interface SessionStamp {
+        Long getVersion();
+        Integer getSeatsTaken();
+        LocalDateTime getUpdatedAt();
+    }
+
+    interface ListStamp {
+        Long getCount();
+        LocalDateTime getLastModified();
+    }
 }
@@ -2,9 +2,24 @@ package org.example.klubfitness.repository;
 
 import org.example.klubfitness.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+
+    @Query("select u.id from User u where u.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Blokuje wiersz usuwanego użytkownika przed odczytem jego rezerwacji: rezerwacja w toku kończy się
+     * wcześniej, a późniejsza (blokada klucza obcego) czeka na usunięcie i już użytkownika nie znajduje.
+     */
+    @Query(value = "SELECT username FROM users WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<String> lockUsername(@Param("id") Long id);
 }
 
@@ -0,0 +1,41 @@
+package org.example.klubfitness.repository;
+
+import org.example.klubfitness.entity.WaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+    Optional<WaitlistEntry> findBySessionIdAndUserId(Long sessionId, Long userId);
+
+    @Query("select w.id from WaitlistEntry w where w.sessionId = :sessionId order by w.id")
+    List<Long> findIdsBySessionId(@Param("sessionId") Long sessionId);
+
+    /** Usuwa wpisy użytkowników, którzy właśnie zarezerwowali miejsce w sesji bezpośrednio. */
+    @Modifying
+    @Query("delete from WaitlistEntry w where w.sessionId = :sessionId and w.userId in :userIds")
+    int deleteBySessionIdAndUserIds(@Param("sessionId") Long sessionId, @Param("userIds") Collection<Long> userIds);
+
+    @Query("select distinct w.sessionId from WaitlistEntry w where w.userId = :userId")
+    List<Long> findSessionIdsByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("delete from WaitlistEntry w where w.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    /**
+     * Zajmuje czoło kolejki. Wiersze zablokowane przez inne transakcje są pomijane,
+     * więc równoległe anulowania promują różne osoby zamiast czekać na siebie.
+     * Pomijane są też wpisy osób, które mają już rezerwację tej sesji – druga rezerwacja
+     * naruszyłaby unikalność (user_id, session_id) i wycofała całe anulowanie.
+     */
+    @Query(value = "SELECT * FROM waitlist_entries w WHERE w.session_id = :sessionId "
+            + "AND NOT EXISTS (SELECT 1 FROM reservations r WHERE r.user_id = w.user_id AND r.session_id = w.session_id) "
+            + "ORDER BY w.id LIMIT :limit FOR UPDATE OF w SKIP LOCKED", nativeQuery = true)
+    List<WaitlistEntry> claimHead(@Param("sessionId") Long sessionId, @Param("limit") int limit);
+}
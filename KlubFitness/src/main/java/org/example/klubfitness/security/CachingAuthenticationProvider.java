@@ -0,0 +1,68 @@
+package org.example.klubfitness.security;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Uwierzytelnianie HTTP Basic z cache zweryfikowanych danych logowania. Bez niego każde żądanie
+ * API to zapytanie {@code findByUsername} i celowo wolne porównanie BCrypt.
+ * Jedyny bean {@link AuthenticationProvider} w kontekście zastępuje domyślny DaoAuthenticationProvider;
+ * błędne hasła nie są zapamiętywane, więc zawsze przechodzą pełną weryfikację.
+ */
+@Component
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private final AuthenticationProvider delegate;
+    private final VerifiedCredentialsCache cache;
+
+    public CachingAuthenticationProvider(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder,
+                                         VerifiedCredentialsCache cache) {
+        this(daoProvider(userDetailsService, passwordEncoder), cache);
+    }
+
+    CachingAuthenticationProvider(AuthenticationProvider delegate, VerifiedCredentialsCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    private static DaoAuthenticationProvider daoProvider(UserDetailsService userDetailsService,
+                                                         PasswordEncoder passwordEncoder) {
+        DaoAuthenticationProvider dao = new DaoAuthenticationProvider(passwordEncoder);
+        dao.setUserDetailsService(userDetailsService);
+        return dao;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (authentication.getName() == null || !(authentication.getCredentials() instanceof String password)) {
+            return delegate.authenticate(authentication);
+        }
+        String key = cache.key(authentication.getName(), password);
+        Authentication cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = cache.generation();
+        Authentication result = delegate.authenticate(authentication);
+        if (result != null && result.isAuthenticated()) {
+            // w cache nie zostaje nic poza skrótem – również przy wywołaniu spoza ProviderManagera
+            if (result instanceof CredentialsContainer container) {
+                container.eraseCredentials();
+            }
+            cache.put(key, generation, result);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.klubfitness.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -7,10 +8,20 @@ import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
 
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Clock;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
@@ -35,6 +46,9 @@ public class SecurityConfig {
                         // 2b) Rejestracja / logowanie – dostęp publiczny
                         .requestMatchers("/api/auth/**").permitAll()
 
+                        // 2b') Raporty obłożenia i przychodu – tylko ADMIN (także GET)
+                        .requestMatchers("/api/reports/**").hasRole("ADMIN")
+
                         // 2c) GET na /api/** – każdy zalogowany (USER, TRAINER lub ADMIN)
                         .requestMatchers(HttpMethod.GET, "/api/**")
                         .hasAnyRole("USER", "TRAINER", "ADMIN")
@@ -57,11 +71,54 @@ public class SecurityConfig {
 
                 // 3. Włączamy Basic Auth (z użyciem Customizer.withDefaults())
                 //     zamiast “http.httpBasic()” – tak, by uniknąć deprecjacji.
-                .httpBasic(Customizer.withDefaults());
+                .httpBasic(Customizer.withDefaults())
+
+                // 4. Tokeny z /api/auth/login: "Authorization: Bearer ..." sprawdzane
+                //     samym podpisem i datą ważności, bez bazy i BCrypta
+                .oauth2ResourceServer(oauth -> oauth
+                        .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter())))
+
+                // 5. Bez sesji HTTP – każde żądanie niesie swoje dane logowania lub token
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
 
         return http.build();
     }
 
+    /**
+     * Klucz podpisu tokenów (HMAC-SHA256, co najmniej 32 bajty) z {@code klubfitness.jwt.secret}.
+     * Bez ustawionego sekretu klucz jest losowany przy starcie – tokeny nie przeżyją restartu
+     * i nie zadziałają między instancjami, co wystarcza tylko lokalnie.
+     */
+    @Bean
+    public SecretKey jwtSigningKey(@Value("${klubfitness.jwt.secret:}") String secret) {
+        byte[] bytes;
+        if (secret.isBlank()) {
+            bytes = new byte[32];
+            new SecureRandom().nextBytes(bytes);
+        } else {
+            bytes = secret.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length < 32) {
+                throw new IllegalStateException("klubfitness.jwt.secret must have at least 32 bytes");
+            }
+        }
+        return new SecretKeySpec(bytes, "HmacSHA256");
+    }
+
+    /** Dekoder tokenów dostępu – odrzuca tokeny odświeżające. */
+    @Bean
+    public JwtDecoder jwtDecoder(SecretKey jwtSigningKey) {
+        return TokenService.decoder(jwtSigningKey, TokenService.ACCESS, Clock.systemUTC());
+    }
+
+    private JwtAuthenticationConverter jwtAuthenticationConverter() {
+        JwtGrantedAuthoritiesConverter authorities = new JwtGrantedAuthoritiesConverter();
+        authorities.setAuthoritiesClaimName(TokenService.ROLES_CLAIM);
+        authorities.setAuthorityPrefix("ROLE_");
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(authorities);
+        return converter;
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
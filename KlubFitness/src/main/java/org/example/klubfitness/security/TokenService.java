@@ -0,0 +1,103 @@
+package org.example.klubfitness.security;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import org.example.klubfitness.dto.TokenResponseDto;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Wydawanie i sprawdzanie tokenów JWT podpisanych HMAC-SHA256. Token dostępu niesie nazwę
+ * użytkownika i role, więc filtr resource servera uwierzytelnia żądanie samym sprawdzeniem
+ * podpisu i czasu ważności – bez zapytania do bazy i bez BCrypta. Ceną jest to, że zmiana roli
+ * lub usunięcie użytkownika działa dopiero po wygaśnięciu tokenu dostępu ({@link #ACCESS_TTL});
+ * token odświeżający jest wymieniany z ponownym odczytem użytkownika.
+ */
+@Component
+public class TokenService {
+    static final Duration ACCESS_TTL = Duration.ofMinutes(15);
+    static final Duration REFRESH_TTL = Duration.ofDays(7);
+    static final String TYPE_CLAIM = "typ";
+    static final String ROLES_CLAIM = "roles";
+    static final String ACCESS = "access";
+    static final String REFRESH = "refresh";
+
+    private final JwtEncoder encoder;
+    private final JwtDecoder refreshDecoder;
+    private final Clock clock;
+
+    public TokenService(SecretKey jwtSigningKey) {
+        this(jwtSigningKey, Clock.systemUTC());
+    }
+
+    TokenService(SecretKey jwtSigningKey, Clock clock) {
+        this.encoder = new NimbusJwtEncoder(new ImmutableSecret<>(jwtSigningKey));
+        this.refreshDecoder = decoder(jwtSigningKey, REFRESH, clock);
+        this.clock = clock;
+    }
+
+    /** Dekoder przyjmujący tylko tokeny danego typu – token odświeżający nie zadziała jako token dostępu. */
+    static NimbusJwtDecoder decoder(SecretKey key, String type, Clock clock) {
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withSecretKey(key).macAlgorithm(MacAlgorithm.HS256).build();
+        JwtTimestampValidator timestamps = new JwtTimestampValidator(Duration.ZERO);
+        timestamps.setClock(clock);
+        OAuth2TokenValidator<Jwt> typed = jwt -> type.equals(jwt.getClaimAsString(TYPE_CLAIM))
+                ? OAuth2TokenValidatorResult.success()
+                : OAuth2TokenValidatorResult.failure(new OAuth2Error("invalid_token", "Expected " + type + " token", null));
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(timestamps, typed));
+        return decoder;
+    }
+
+    /** @param roles role bez prefiksu {@code ROLE_} */
+    public TokenResponseDto issue(String username, Collection<String> roles) {
+        Instant now = clock.instant();
+        String access = encode(JwtClaimsSet.builder()
+                .subject(username)
+                .issuedAt(now)
+                .expiresAt(now.plus(ACCESS_TTL))
+                .claim(TYPE_CLAIM, ACCESS)
+                .claim(ROLES_CLAIM, List.copyOf(roles))
+                .build());
+        String refresh = encode(JwtClaimsSet.builder()
+                .subject(username)
+                .issuedAt(now)
+                .expiresAt(now.plus(REFRESH_TTL))
+                .claim(TYPE_CLAIM, REFRESH)
+                .build());
+        return new TokenResponseDto(access, refresh, "Bearer", ACCESS_TTL.toSeconds());
+    }
+
+    /**
+     * Sprawdza token odświeżający i zwraca nazwę użytkownika.
+     *
+     * @throws JwtException gdy token jest nieważny, wygasł albo nie jest tokenem odświeżającym
+     */
+    public String verifyRefresh(String refreshToken) {
+        return refreshDecoder.decode(refreshToken).getSubject();
+    }
+
+    private String encode(JwtClaimsSet claims) {
+        JwsHeader header = JwsHeader.with(MacAlgorithm.HS256).build();
+        return encoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+}
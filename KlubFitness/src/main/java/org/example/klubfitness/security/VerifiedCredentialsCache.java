@@ -0,0 +1,88 @@
+package org.example.klubfitness.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Niedawno zweryfikowane dane logowania HTTP Basic. Kluczem jest SHA-256 z losowej (na proces) soli,
+ * nazwy użytkownika i hasła – w pamięci nie ma jawnych haseł, a sprawdzenie kosztuje jeden skrót
+ * zamiast zapytania o użytkownika i BCrypta. Wpisy żyją krótko i są usuwane przy zmianie lub
+ * usunięciu użytkownika ({@link #evict}).
+ * Licznik {@code generation} chroni przed wyścigiem: wynik uwierzytelnienia rozpoczętego przed
+ * unieważnieniem nie trafi do cache, bo mógł zostać policzony na starych danych.
+ */
+@Component
+public class VerifiedCredentialsCache {
+    static final Duration DEFAULT_TTL = Duration.ofMinutes(2);
+    static final int MAX_ENTRIES = 10_000;
+
+    private final Cache<String, Authentication> cache;
+    private final AtomicLong generation = new AtomicLong();
+    private final byte[] salt = new byte[16];
+
+    public VerifiedCredentialsCache() {
+        this(DEFAULT_TTL);
+    }
+
+    VerifiedCredentialsCache(Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(MAX_ENTRIES)
+                .build();
+        new SecureRandom().nextBytes(salt);
+    }
+
+    /** Skrót (sól, nazwa, hasło); separator 0 odróżnia "ab"+"c" od "a"+"bc". */
+    String key(String username, String password) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(salt);
+            digest.update(username.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(password.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    Authentication get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    /** Stan licznika unieważnień – odczytywany przed weryfikacją w bazie. */
+    long generation() {
+        return generation.get();
+    }
+
+    /** Zapamiętuje wynik, chyba że od {@code seenGeneration} nastąpiło unieważnienie. */
+    void put(String key, long seenGeneration, Authentication result) {
+        cache.put(key, result);
+        if (generation.get() != seenGeneration) {
+            cache.invalidate(key);
+        }
+    }
+
+    /** Usuwa wszystkie wpisy użytkownika (klucz jest skrótem, więc szukamy po wyniku). */
+    public void evict(String username) {
+        if (username == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        cache.asMap().values().removeIf(auth -> username.equals(auth.getName()));
+    }
+
+    long size() {
+        return cache.estimatedSize();
+    }
+}
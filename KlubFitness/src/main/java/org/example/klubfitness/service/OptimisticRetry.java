@@ -0,0 +1,42 @@
+package org.example.klubfitness.service;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Ponawia operację odczyt-zmiana-zapis po konflikcie wersji ({@code @Version}) – dla wywołań wewnętrznych
+ * i zapisów bez {@code If-Match}, gdzie nie ma komu oddać 409. Każda próba musi wczytać encję od nowa,
+ * więc operacja to wywołanie serwisu spoza bieżącej transakcji; w tej samej transakcji konflikt się powtórzy.
+ * Niespełnione {@code If-Match} ({@code PreconditionFailedException}) nie jest ponawiane.
+ */
+public final class OptimisticRetry {
+    public static final int DEFAULT_ATTEMPTS = 3;
+
+    private OptimisticRetry() {
+    }
+
+    public static <T> T run(Supplier<T> action) {
+        return run(DEFAULT_ATTEMPTS, action);
+    }
+
+    public static <T> T run(int attempts, Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= attempts) {
+                    throw e;
+                }
+                // losowa przerwa rosnąca z próbą, żeby równolegli piszący nie trafili znów w to samo okno
+                try {
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(5, 20) * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+}
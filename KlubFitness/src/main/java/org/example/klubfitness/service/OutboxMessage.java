@@ -0,0 +1,17 @@
+package org.example.klubfitness.service;
+
+import org.example.klubfitness.entity.OutboxEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * Zdarzenie z outboxa przekazywane do {@link OutboxSink}. {@code id} jest unikalne i rosnące –
+ * odbiorca może po nim odrzucać duplikaty.
+ */
+public record OutboxMessage(Long id, String type, Long aggregateId, String payload, LocalDateTime createdAt) {
+
+    static OutboxMessage of(OutboxEvent event) {
+        return new OutboxMessage(event.getId(), event.getType(), event.getAggregateId(), event.getPayload(),
+                event.getCreatedAt());
+    }
+}
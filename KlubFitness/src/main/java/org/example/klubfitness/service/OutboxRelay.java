@@ -0,0 +1,71 @@
+package org.example.klubfitness.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.klubfitness.entity.OutboxEvent;
+import org.example.klubfitness.repository.OutboxRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Przekazuje zdarzenia z outboxa do {@link OutboxSink}: co {@code klubfitness.outbox.poll-interval}
+ * zajmuje paczkę najstarszych wierszy ({@code FOR UPDATE SKIP LOCKED}), wysyła ją i usuwa w tej samej
+ * transakcji – i powtarza, dopóki paczki są pełne. Kilka instancji aplikacji zajmuje rozłączne paczki,
+ * więc ten sam wiersz nie jest wysyłany równolegle dwa razy; błąd sinka wycofuje transakcję i paczka
+ * wraca do kolejki. Kolejność jest zachowana w obrębie paczki, między instancjami – nie.
+ */
+@Component
+public class OutboxRelay {
+    public static final String PUBLISHED = "klubfitness.outbox.published";
+
+    private final OutboxRepository repo;
+    private final OutboxSink sink;
+    private final TransactionTemplate tx;
+    private final int batchSize;
+    private final ObjectProvider<MeterRegistry> registry;
+
+    public OutboxRelay(OutboxRepository repo, OutboxSink sink, TransactionTemplate tx,
+                       @Value("${klubfitness.outbox.batch-size:100}") int batchSize,
+                       ObjectProvider<MeterRegistry> registry) {
+        this.repo = repo;
+        this.sink = sink;
+        this.tx = tx;
+        this.batchSize = batchSize;
+        this.registry = registry;
+    }
+
+    /** @return liczba wysłanych zdarzeń */
+    @Scheduled(fixedDelayString = "${klubfitness.outbox.poll-interval:500ms}")
+    public int relay() {
+        int total = 0;
+        int sent;
+        do {
+            sent = tx.execute(status -> relayBatch());
+            countPublished(sent);
+            total += sent;
+        } while (sent == batchSize);
+        return total;
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = repo.lockNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        sink.publish(batch.stream().map(OutboxMessage::of).toList());
+        repo.deleteAllInBatch(batch);
+        return batch.size();
+    }
+
+    private void countPublished(int count) {
+        MeterRegistry meters = registry.getIfAvailable();
+        if (meters != null && count > 0) {
+            Counter.builder(PUBLISHED).description("Outbox events handed to the sink").register(meters).increment(count);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.klubfitness.service;
+
+import java.util.List;
+
+/**
+ * Miejsce docelowe zdarzeń z outboxa (e-mail, rozliczenia, bramki wejściowe – przez kolejkę
+ * albo bezpośrednio). Wyjątek oznacza, że paczka nie została dostarczona: relay wyśle ją ponownie,
+ * więc doręczenie jest co najmniej jednokrotne, a część paczki sprzed błędu może dojść dwa razy.
+ */
+@FunctionalInterface
+public interface OutboxSink {
+    void publish(List<OutboxMessage> messages);
+}
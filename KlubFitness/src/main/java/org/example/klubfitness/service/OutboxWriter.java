@@ -0,0 +1,49 @@
+package org.example.klubfitness.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.klubfitness.entity.OutboxEvent;
+import org.example.klubfitness.repository.OutboxRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Zapisuje każde {@link ReservationEvent} do outboxa synchronicznie, w transakcji, która je opublikowała –
+ * wiersz outboxa powstaje albo znika razem ze zmianą rezerwacji. INSERT idzie do bazy przy flushu,
+ * wsadem razem z rezerwacjami, więc do żądania dochodzi tylko zapis jednego wiersza więcej.
+ */
+@Component
+public class OutboxWriter {
+    private final OutboxRepository repo;
+    private final ObjectMapper json;
+
+    public OutboxWriter(OutboxRepository repo, ObjectMapper json) {
+        this.repo = repo;
+        this.json = json;
+    }
+
+    @EventListener
+    public void on(ReservationEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("type", event.type());
+        payload.put("reservationId", event.reservationId());
+        payload.put("userId", event.userId());
+        payload.put("sessionId", event.sessionId());
+        payload.put("occurredAt", now);
+        repo.save(new OutboxEvent(null, "reservation." + event.type().name().toLowerCase(),
+                event.reservationId(), toJson(payload), now));
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return json.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize outbox payload", e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.klubfitness.service;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+import static org.example.klubfitness.service.TransactionCallbacks.afterCommit;
+
+/**
+ * Nazwy cache'y odczytów i unieważnianie ich po zmianach wykonanych poza adnotacjami
+ * {@code @CacheEvict} – operacje zbiorcze na seriach. Wpisy są usuwane dopiero po commicie,
+ * żeby równoległy odczyt nie wczytał z powrotem starego stanu.
+ * W cache trafiają tylko niezmienne rekordy bez licznika zajętych miejsc: liczba miejsc jest doklejana
+ * przy odczycie prosto z bazy, więc rezerwacje i anulowania niczego tu nie unieważniają.
+ */
+@Component
+public class ReadCaches {
+    /** Opisy pojedynczych sesji po id ({@link TrainingSessionService.SessionDetails}). */
+    public static final String SESSIONS = "sessions";
+    /** Lista opisów wszystkich sesji (klucz {@value #ALL_SESSIONS}). */
+    public static final String SESSION_LISTS = "sessionLists";
+    /** Opisy pojedynczych trenerów po id ({@link TrainerService.TrainerDetails}). */
+    public static final String TRAINERS = "trainers";
+
+    static final String ALL_SESSIONS = "details";
+
+    private final CacheManager cacheManager;
+
+    public ReadCaches(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /** Odczyt przez cache poza adnotacjami – gdy wartość z cache trzeba jeszcze uzupełnić danymi z bazy. */
+    public <T> T get(String name, Object key, Supplier<T> loader) {
+        Cache cache = cacheManager.getCache(name);
+        return cache != null ? cache.get(key, loader::get) : loader.get();
+    }
+
+    /** Zmiana wielu sesji naraz. */
+    public void evictAllSessionsAfterCommit() {
+        afterCommit(() -> {
+            clear(SESSIONS);
+            clear(SESSION_LISTS);
+        });
+    }
+
+    private void clear(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.klubfitness.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Rozwinięcie reguły tygodniowej (FREQ=WEEKLY;BYDAY=...;UNTIL=... z listą EXDATE) na daty wystąpień.
+ */
+final class RecurrenceRule {
+
+    private RecurrenceRule() {
+    }
+
+    /** Daty wystąpień od {@code first} do {@code until} włącznie, rosnąco, bez {@code excluded}. */
+    static List<LocalDate> expand(LocalDate first, LocalDate until,
+                                  Collection<DayOfWeek> days, Set<LocalDate> excluded) {
+        List<LocalDate> dates = new ArrayList<>();
+        for (DayOfWeek day : Set.copyOf(days)) {
+            for (LocalDate d = first.with(TemporalAdjusters.nextOrSame(day)); !d.isAfter(until); d = d.plusWeeks(1)) {
+                if (!excluded.contains(d)) {
+                    dates.add(d);
+                }
+            }
+        }
+        dates.sort(null);
+        return dates;
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.klubfitness.service;
+
+import io.micrometer.core.annotation.Timed;
+import org.example.klubfitness.dto.RevenueReportDto;
+import org.example.klubfitness.dto.RevenueReportDto.TrainerRevenue;
+import org.example.klubfitness.dto.SessionFillDto;
+import org.example.klubfitness.dto.SlotFillDto;
+import org.example.klubfitness.dto.TrainerFillDto;
+import org.example.klubfitness.entity.TrainingSession;
+import org.example.klubfitness.entity.User;
+import org.example.klubfitness.exception.BadRequestException;
+import org.example.klubfitness.repository.ReportRepository;
+import org.example.klubfitness.repository.ReportRepository.BookingGroup;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Raporty obłożenia i przychodu dla kierownictwa, czytane z widoków zmaterializowanych (V8) –
+ * czas odpowiedzi zależy od liczby sesji w okresie, nie od liczby rezerwacji. Dane są tak świeże
+ * jak ostatnie odświeżenie ({@link #refreshedAt()}), wykonywane co
+ * {@code klubfitness.reports.refresh-interval} albo na żądanie.
+ * Okres: daty {@code from}–{@code to} włącznie, po dacie rozpoczęcia sesji, maks. {@value #MAX_RANGE_DAYS} dni.
+ */
+@Service
+@Timed("klubfitness.service")
+public class ReportService {
+    public static final int MAX_RANGE_DAYS = 366;
+
+    private final ReportRepository repo;
+    private final ReservationService reservations;
+    private final BigDecimal classPrice;
+
+    public ReportService(ReportRepository repo, ReservationService reservations,
+                         @Value("${klubfitness.reports.class-price:40.00}") BigDecimal classPrice) {
+        this.repo = repo;
+        this.reservations = reservations;
+        this.classPrice = classPrice;
+    }
+
+    public List<SessionFillDto> sessionFill(LocalDate from, LocalDate to, int size) {
+        return repo.findSessionFill(start(from, to), end(to), ReservationService.pageSize(size));
+    }
+
+    public List<TrainerFillDto> trainerFill(LocalDate from, LocalDate to) {
+        return repo.findTrainerFill(start(from, to), end(to));
+    }
+
+    public List<SlotFillDto> slotFill(LocalDate from, LocalDate to) {
+        return repo.findSlotFill(start(from, to), end(to));
+    }
+
+    /**
+     * Przychód: każda grupa rezerwacji (sesja, rola) dostaje rabat tej samej strategii, którą
+     * {@link ReservationService#createReservation} dobiera przy rezerwacji. Rabat liczony jest według
+     * obecnych reguł – rezerwacje nie zapisują rabatu z chwili zakupu.
+     */
+    public RevenueReportDto revenue(LocalDate from, LocalDate to) {
+        List<BookingGroup> groups = repo.findBookingGroups(start(from, to), end(to));
+
+        Map<Long, TrainerRevenue> byTrainer = new TreeMap<>();
+        for (BookingGroup group : groups) {
+            BigDecimal gross = classPrice.multiply(BigDecimal.valueOf(group.reservations()));
+            BigDecimal discount = gross.multiply(discountRate(group));
+            TrainerRevenue trainer = byTrainer.computeIfAbsent(group.trainerId(),
+                    id -> new TrainerRevenue(id, 0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO));
+            trainer.setReservations(trainer.getReservations() + group.reservations());
+            trainer.setGross(trainer.getGross().add(gross));
+            trainer.setDiscount(trainer.getDiscount().add(discount));
+        }
+
+        RevenueReportDto report = new RevenueReportDto(from, to, 0, BigDecimal.ZERO, BigDecimal.ZERO,
+                BigDecimal.ZERO, List.copyOf(byTrainer.values()));
+        for (TrainerRevenue trainer : report.getTrainers()) {
+            trainer.setGross(money(trainer.getGross()));
+            trainer.setDiscount(money(trainer.getDiscount()));
+            trainer.setNet(trainer.getGross().subtract(trainer.getDiscount()));
+            report.setReservations(report.getReservations() + trainer.getReservations());
+            report.setGross(report.getGross().add(trainer.getGross()));
+            report.setDiscount(report.getDiscount().add(trainer.getDiscount()));
+        }
+        report.setGross(money(report.getGross()));
+        report.setDiscount(money(report.getDiscount()));
+        report.setNet(report.getGross().subtract(report.getDiscount()));
+        return report;
+    }
+
+    private BigDecimal discountRate(BookingGroup group) {
+        TrainingSession session = new TrainingSession();
+        session.setId(group.sessionId());
+        session.setStartTime(group.startTime());
+        User user = new User();
+        user.setRole(group.role());
+        return reservations.strategyFor(user).applyDiscount(session, user);
+    }
+
+    public LocalDateTime refreshedAt() {
+        return repo.findRefreshedAt();
+    }
+
+    /**
+     * Odświeża widoki raportów; {@code false}, gdy robi to właśnie inne wywołanie (albo inna instancja).
+     * Pełny przebieg po rezerwacjach trwa przy milionach wierszy sekundy, ale nie blokuje odczytów raportów.
+     */
+    @Transactional
+    @Scheduled(fixedDelayString = "${klubfitness.reports.refresh-interval:5m}",
+            initialDelayString = "${klubfitness.reports.refresh-interval:5m}")
+    public boolean refresh() {
+        return repo.refresh();
+    }
+
+    private static LocalDateTime start(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new BadRequestException("Report range ends before it starts: " + from + " > " + to);
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new BadRequestException("Report range longer than " + MAX_RANGE_DAYS + " days");
+        }
+        return from.atStartOfDay();
+    }
+
+    private static LocalDateTime end(LocalDate to) {
+        return to.plusDays(1).atStartOfDay();
+    }
+
+    private static BigDecimal money(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP);
+    }
+}
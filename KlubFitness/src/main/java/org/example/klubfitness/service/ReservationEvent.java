@@ -0,0 +1,27 @@
+package org.example.klubfitness.service;
+
+/**
+ * Zdarzenie domenowe: rezerwacja powstała albo została anulowana. Publikowane w transakcji,
+ * która zmienia {@code reservations}: {@link OutboxWriter} zapisuje je w tej samej transakcji,
+ * {@link ReservationStats} dostaje je dopiero po commicie.
+ */
+public record ReservationEvent(Type type, Long reservationId, Long userId, Long sessionId) {
+
+    public enum Type {
+        CREATED,
+        CANCELLED
+    }
+
+    public static ReservationEvent created(Long reservationId, Long userId, Long sessionId) {
+        return new ReservationEvent(Type.CREATED, reservationId, userId, sessionId);
+    }
+
+    public static ReservationEvent cancelled(Long reservationId, Long userId, Long sessionId) {
+        return new ReservationEvent(Type.CANCELLED, reservationId, userId, sessionId);
+    }
+
+    /** Zmiana liczby rezerwacji: +1 albo -1. */
+    public int delta() {
+        return type == Type.CREATED ? 1 : -1;
+    }
+}
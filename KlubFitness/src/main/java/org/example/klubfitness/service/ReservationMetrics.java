@@ -0,0 +1,75 @@
+package org.example.klubfitness.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metryki przyjmowania rezerwacji – pod nie podpina się alert na wolne lub odrzucane zapisy:
+ * <ul>
+ *   <li>{@value #ADMISSION} – czas zajęcia miejsca (bramka w pamięci + warunkowy UPDATE licznika),
+ *       tag {@code outcome} = admitted / rejected, z histogramem dla kwantyli w Prometheusie;</li>
+ *   <li>{@value #REJECTIONS} – odrzucenia z powodu braku miejsc, tag {@code reason}.</li>
+ * </ul>
+ * Mierniki są rejestrowane z góry, więc gorąca ścieżka nie szuka ich w rejestrze.
+ */
+@Component
+public class ReservationMetrics {
+    public static final String ADMISSION = "klubfitness.reservation.admission";
+    public static final String REJECTIONS = "klubfitness.reservation.rejections";
+
+    /** Odrzucone przez licznik w pamięci ({@link SessionSeatGate}), bez zapytania do bazy. */
+    public static final String REASON_SEAT_GATE = "seat_gate";
+    /** Odrzucone przez warunkowy UPDATE w bazie (lub brak miejsc we wsadzie). */
+    public static final String REASON_NO_SEATS = "no_seats";
+
+    private final MeterRegistry registry;
+    private final Timer admitted;
+    private final Timer rejected;
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+
+    public ReservationMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.admitted = admissionTimer("admitted");
+        this.rejected = admissionTimer("rejected");
+        rejection(REASON_SEAT_GATE);
+        rejection(REASON_NO_SEATS);
+    }
+
+    private Timer admissionTimer(String outcome) {
+        return Timer.builder(ADMISSION)
+                .description("Time to admit a booking into a session")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(Duration.ofMillis(10), Duration.ofMillis(50), Duration.ofMillis(250))
+                .register(registry);
+    }
+
+    private Counter rejection(String reason) {
+        return rejections.computeIfAbsent(reason, r -> Counter.builder(REJECTIONS)
+                .description("Bookings rejected because the session had no free seats")
+                .tag("reason", r)
+                .register(registry));
+    }
+
+    /** Miejsce zajęte; {@code startNanos} z {@link System#nanoTime()} na początku przyjmowania. */
+    public void admitted(long startNanos) {
+        admitted.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void rejected(String reason, long startNanos) {
+        rejected.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        rejection(reason).increment();
+    }
+
+    /** Odrzucenia bez pomiaru czasu (pozycje wsadu). */
+    public void rejectedInBatch(String reason, int count) {
+        rejection(reason).increment(count);
+    }
+}
@@ -1,57 +1,251 @@
 package org.example.klubfitness.service;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
+import org.example.klubfitness.dto.ReservationBatchResultDto;
+import org.example.klubfitness.dto.ReservationBatchResultDto.Status;
+import org.example.klubfitness.dto.ReservationDto;
 import org.example.klubfitness.entity.Reservation;
 import org.example.klubfitness.entity.TrainingSession;
 import org.example.klubfitness.entity.User;
+import org.example.klubfitness.exception.BadRequestException;
 import org.example.klubfitness.exception.NotFoundException;
+import org.example.klubfitness.exception.SessionFullException;
 import org.example.klubfitness.repository.ReservationRepository;
 import org.example.klubfitness.repository.TrainingSessionRepository;
 import org.example.klubfitness.repository.UserRepository;
 import org.example.klubfitness.util.strategy.DiscountStrategy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.example.klubfitness.service.TransactionCallbacks.afterCommit;
+import static org.example.klubfitness.service.TransactionCallbacks.afterRollback;
 
 @Service
+@Timed("klubfitness.service")
 @RequiredArgsConstructor
 public class ReservationService {
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_BATCH_SIZE = 1000;
+    /** Kroki {@link #createReservation}: load-user, load-session, admit, discount, save. */
+    public static final String STEP_OBSERVATION = "klubfitness.reservation.step";
+
     private final ReservationRepository repo;
     private final UserRepository userRepo;
     private final TrainingSessionRepository sessionRepo;
     private final Map<String, DiscountStrategy> strategies;
+    private final SessionSeatGate seatGate;
+    private final WaitlistService waitlist;
+    private final ReservationMetrics metrics;
+    private final ObservationRegistry observations;
+    private final ApplicationEventPublisher events;
 
     /**
      * Tworzy rezerwację, dobiera strategię zniżki wg roli:
      *   key = user.getRole().name().toLowerCase() + "Discount"
      * Domyślnie używa bean-a "noDiscount".
+     * Miejsce zajmowane jest warunkowym UPDATE-em licznika sesji w tej samej transakcji,
+     * więc sesja nigdy nie zostanie przepełniona; pełna sesja kończy się SessionFullException.
+     * Po commicie {@link ReservationEvent} aktualizuje liczniki {@link ReservationStats}.
+     * Jeśli użytkownik czekał w kolejce tej sesji, jego wpis jest usuwany w tej samej transakcji.
+     * Kolejne kroki są osobnymi spanami ({@value #STEP_OBSERVATION}); sam INSERT idzie do bazy
+     * przy commicie (wsadowe id z sekwencji), więc jego span JDBC jest już po kroku {@code save}.
      */
+    @Transactional
+    @Observed(name = "klubfitness.reservation.create", contextualName = "reservation create")
     public Reservation createReservation(Long userId, Long sessionId) {
-        User user = userRepo.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User not found: " + userId));
-        TrainingSession session = sessionRepo.findById(sessionId)
-                .orElseThrow(() -> new NotFoundException("Session not found: " + sessionId));
+        User user = step("load-user", () -> userRepo.findById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found: " + userId)));
+        TrainingSession session = step("load-session", () -> sessionRepo.findById(sessionId)
+                .orElseThrow(() -> new NotFoundException("Session not found: " + sessionId)));
 
-        String key = user.getRole().name().toLowerCase() + "Discount";
-        DiscountStrategy strat = strategies.getOrDefault(key, strategies.get("noDiscount"));
+        step("admit", () -> admit(session));
 
-        BigDecimal discount = strat.applyDiscount(session, user);
+        BigDecimal discount = step("discount", () -> strategyFor(user).applyDiscount(session, user));
         // (tu możesz np. ustawić discountedPrice w encji, jeśli takie pole istnieje)
 
         Reservation r = new Reservation();
         r.setUser(user);
         r.setSession(session);
         r.setReservationTime(LocalDateTime.now());
-        return repo.save(r);
+        Reservation saved = step("save", () -> repo.save(r));
+        waitlist.removeBooked(sessionId, List.of(userId));
+        events.publishEvent(ReservationEvent.created(saved.getId(), userId, sessionId));
+        return saved;
+    }
+
+    private <T> T step(String name, Supplier<T> work) {
+        return stepObservation(name).observe(work);
+    }
+
+    private void step(String name, Runnable work) {
+        stepObservation(name).observe(work);
+    }
+
+    private Observation stepObservation(String name) {
+        return Observation.createNotStarted(STEP_OBSERVATION, observations)
+                .contextualName("reservation " + name)
+                .lowCardinalityKeyValue("step", name);
+    }
+
+    /**
+     * Rezerwuje wiele miejsc w jednej transakcji, niezależnie od liczby pozycji stałą liczbą zapytań:
+     * jeden SELECT istniejących użytkowników, jeden SELECT ... FOR UPDATE wolnych miejsc sesji,
+     * jeden SELECT istniejących rezerwacji, UPDATE licznika i DELETE wpisów kolejki per sesja oraz wsadowe INSERT-y.
+     * Pozycje, których nie da się zarezerwować, nie przerywają wsadu – dostają swój status.
+     */
+    @Transactional
+    public List<ReservationBatchResultDto> createReservations(List<ReservationDto> requests) {
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("Batch too large: " + requests.size() + " > " + MAX_BATCH_SIZE);
+        }
+        Set<Long> userIds = distinctIds(requests, ReservationDto::getUserId);
+        Set<Long> sessionIds = distinctIds(requests, ReservationDto::getSessionId);
+
+        Set<Long> existingUsers = new HashSet<>();
+        if (!userIds.isEmpty()) {
+            existingUsers.addAll(userRepo.findExistingIds(userIds));
+        }
+        Map<Long, Integer> freeSeats = new HashMap<>();
+        if (!sessionIds.isEmpty()) {
+            sessionRepo.lockFreeSeats(sessionIds).forEach(f -> freeSeats.put(f.getId(), f.getFree()));
+        }
+        Set<Booking> booked = existingUsers.isEmpty() || freeSeats.isEmpty() ? Set.<Booking>of()
+                : repo.findDtosByUserIdsAndSessionIds(existingUsers, freeSeats.keySet()).stream()
+                        .map(r -> new Booking(r.getUserId(), r.getSessionId()))
+                        .collect(Collectors.toSet());
+
+        List<ReservationBatchResultDto> results = new ArrayList<>(requests.size());
+        List<ReservationBatchResultDto> created = new ArrayList<>();
+        List<Reservation> toInsert = new ArrayList<>();
+        Map<Long, Integer> seatsTaken = new HashMap<>();
+        Map<Long, List<Long>> bookedUsers = new HashMap<>();
+        Set<Booking> seen = new HashSet<>();
+        LocalDateTime now = LocalDateTime.now();
+        int full = 0;
+
+        for (int i = 0; i < requests.size(); i++) {
+            Long userId = requests.get(i).getUserId();
+            Long sessionId = requests.get(i).getSessionId();
+            Booking booking = new Booking(userId, sessionId);
+            Status status;
+            if (!existingUsers.contains(userId)) {
+                status = Status.USER_NOT_FOUND;
+            } else if (!freeSeats.containsKey(sessionId)) {
+                status = Status.SESSION_NOT_FOUND;
+            } else if (booked.contains(booking)) {
+                status = Status.ALREADY_BOOKED;
+            } else if (!seen.add(booking)) {
+                status = Status.DUPLICATE_IN_BATCH;
+            } else if (freeSeats.get(sessionId) <= 0) {
+                status = Status.SESSION_FULL;
+                full++;
+            } else {
+                status = Status.CREATED;
+                freeSeats.merge(sessionId, -1, Integer::sum);
+                seatsTaken.merge(sessionId, 1, Integer::sum);
+                bookedUsers.computeIfAbsent(sessionId, id -> new ArrayList<>()).add(userId);
+                Reservation r = new Reservation();
+                r.setUser(userRepo.getReferenceById(userId));
+                r.setSession(sessionRepo.getReferenceById(sessionId));
+                r.setReservationTime(now);
+                toInsert.add(r);
+            }
+            ReservationBatchResultDto result = new ReservationBatchResultDto(i, userId, sessionId, status, null);
+            results.add(result);
+            if (status == Status.CREATED) {
+                created.add(result);
+            }
+        }
+
+        if (full > 0) {
+            metrics.rejectedInBatch(ReservationMetrics.REASON_NO_SEATS, full);
+        }
+
+        // wiersze sesji są zablokowane, więc warunkowy UPDATE zawsze przechodzi
+        seatsTaken.forEach(sessionRepo::tryTakeSeats);
+        bookedUsers.forEach(waitlist::removeBooked);
+        List<Reservation> saved = repo.saveAll(toInsert);
+        for (int i = 0; i < saved.size(); i++) {
+            ReservationBatchResultDto result = created.get(i);
+            result.setReservationId(saved.get(i).getId());
+            events.publishEvent(ReservationEvent.created(result.getReservationId(), result.getUserId(), result.getSessionId()));
+        }
+        afterCommit(() -> seatsTaken.keySet().stream()
+                .filter(id -> freeSeats.get(id) == 0)
+                .forEach(seatGate::markFull));
+        return results;
+    }
+
+    /** Strategia rabatu dla roli użytkownika (bean "{rola}Discount"), domyślnie "noDiscount". */
+    public DiscountStrategy strategyFor(User user) {
+        String key = user.getRole().name().toLowerCase() + "Discount";
+        return strategies.getOrDefault(key, strategies.get("noDiscount"));
+    }
+
+    private static Set<Long> distinctIds(List<ReservationDto> requests, Function<ReservationDto, Long> id) {
+        return requests.stream().map(id).filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    private record Booking(Long userId, Long sessionId) {
     }
 
     public List<Reservation> getAllReservations() {
         return repo.findAll();
     }
 
+    /**
+     * Strona rezerwacji (keyset po id): zwraca maks. {@code size} wierszy o id > afterId,
+     * opcjonalnie zawężonych do użytkownika albo sesji.
+     */
+    public List<ReservationDto> getReservationsPage(Long userId, Long sessionId, Long afterId, int size) {
+        long cursor = afterId != null ? afterId : 0L;
+        Limit limit = Limit.of(pageSize(size));
+        if (userId != null) {
+            return repo.findDtoPageByUserId(userId, cursor, limit);
+        }
+        if (sessionId != null) {
+            return repo.findDtoPageBySessionId(sessionId, cursor, limit);
+        }
+        return repo.findDtoPage(cursor, limit);
+    }
+
+    /**
+     * Przekazuje wszystkie rezerwacje do {@code sink} w kolejności id, czytając je kursorem –
+     * zużycie pamięci nie zależy od rozmiaru tabeli.
+     */
+    @Transactional(readOnly = true)
+    public void streamReservations(Consumer<ReservationDto> sink) {
+        try (Stream<ReservationDto> rows = repo.streamAllAsDto()) {
+            rows.forEach(sink);
+        }
+    }
+
+    public static int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, MAX_PAGE_SIZE));
+    }
+
     public Reservation getReservationById(Long id) {
         return repo.findById(id).orElse(null);
     }
@@ -64,9 +258,36 @@ public class ReservationService {
         return repo.findBySessionId(sessionId);
     }
 
+    /**
+     * Anuluje rezerwację. Zwolnione miejsce przechodzi od razu na pierwszą osobę z kolejki
+     * oczekujących; dopiero gdy kolejka jest pusta, licznik zajętych miejsc jest zmniejszany.
+     */
+    @Transactional
     public boolean cancelReservation(Long id) {
-        if (!repo.existsById(id)) return false;
-        repo.deleteById(id);
+        ReservationDto reservation = repo.findDtoById(id).orElse(null);
+        if (reservation == null || repo.deleteReservationById(id) == 0) return false;
+        Long sessionId = reservation.getSessionId();
+        events.publishEvent(ReservationEvent.cancelled(id, reservation.getUserId(), sessionId));
+        if (!waitlist.transferSeat(sessionId)) {
+            sessionRepo.releaseSeat(sessionId);
+            afterCommit(() -> seatGate.release(sessionId));
+        }
         return true;
     }
+
+    private void admit(TrainingSession session) {
+        Long sessionId = session.getId();
+        long start = System.nanoTime();
+        if (!seatGate.tryAcquire(session)) {
+            metrics.rejected(ReservationMetrics.REASON_SEAT_GATE, start);
+            throw new SessionFullException("Session is full: " + sessionId);
+        }
+        if (sessionRepo.tryTakeSeat(sessionId) == 0) {
+            seatGate.markFull(sessionId);
+            metrics.rejected(ReservationMetrics.REASON_NO_SEATS, start);
+            throw new SessionFullException("Session is full: " + sessionId);
+        }
+        metrics.admitted(start);
+        afterRollback(() -> seatGate.release(sessionId));
+    }
 }
@@ -0,0 +1,95 @@
+package org.example.klubfitness.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.klubfitness.repository.ReservationStatsRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Liczniki rezerwacji per sesja i per użytkownik, utrzymywane z {@link ReservationEvent} zamiast
+ * {@code COUNT(*)} po {@code reservations}. Odczyt to O(1) z lustra w pamięci; lustro klucza ładuje
+ * się z {@code session_stats}/{@code user_stats} przy pierwszym użyciu.
+ * <p>
+ * Zapis do bazy jest odroczony: zdarzenia sumują się w mapie przyrostów, a {@link #flush()} co
+ * {@code klubfitness.stats.flush-interval} zapisuje je jednym wsadowym upsertem na tabelę – przy
+ * napływie rezerwacji jeden UPDATE na zmienioną sesję na interwał, a nie na rezerwację.
+ * Usunięcie sesji albo serii publikuje anulowanie każdej usuniętej rezerwacji, więc liczniki
+ * użytkowników maleją tą samą drogą. Awaria procesu gubi przyrosty z ostatniego interwału.
+ * Lustro widzi tylko zdarzenia tej instancji; wspólnym stanem dla kilku instancji są tabele.
+ */
+@Component
+public class ReservationStats {
+    private final ReservationStatsRepository repo;
+
+    private final ConcurrentHashMap<Long, LongAdder> sessions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, LongAdder> users = new ConcurrentHashMap<>();
+    // merge/remove są atomowe per klucz, więc przyrost dodany w trakcie flushu trafia do następnego
+    private final ConcurrentHashMap<Long, Long> pendingSessions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> pendingUsers = new ConcurrentHashMap<>();
+
+    public ReservationStats(ReservationStatsRepository repo) {
+        this.repo = repo;
+    }
+
+    /** Po commicie transakcji publikującej (poza transakcją – od razu); rollback nie zmienia liczników. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(ReservationEvent event) {
+        long delta = event.delta();
+        counter(sessions, event.sessionId(), repo::findSessionCount).add(delta);
+        counter(users, event.userId(), repo::findUserCount).add(delta);
+        pendingSessions.merge(event.sessionId(), delta, Long::sum);
+        pendingUsers.merge(event.userId(), delta, Long::sum);
+    }
+
+    public long sessionReservations(Long sessionId) {
+        return counter(sessions, sessionId, repo::findSessionCount).sum();
+    }
+
+    public long userReservations(Long userId) {
+        return counter(users, userId, repo::findUserCount).sum();
+    }
+
+    /**
+     * Zapisuje zebrane przyrosty do bazy; nieudany zapis wraca do kolejki na następny raz.
+     *
+     * @return liczba zapisanych kluczy (sesji i użytkowników)
+     */
+    @Scheduled(fixedDelayString = "${klubfitness.stats.flush-interval:1s}")
+    @PreDestroy
+    public synchronized int flush() {
+        return flush(pendingSessions, repo::addSessionCounts) + flush(pendingUsers, repo::addUserCounts);
+    }
+
+    private static int flush(ConcurrentHashMap<Long, Long> pending, Consumer<Map<Long, Long>> write) {
+        Map<Long, Long> batch = new HashMap<>();
+        for (Long key : pending.keySet()) {
+            Long delta = pending.remove(key);
+            if (delta != null && delta != 0) {
+                batch.put(key, delta);
+            }
+        }
+        try {
+            write.accept(batch);
+        } catch (RuntimeException e) {
+            batch.forEach((key, delta) -> pending.merge(key, delta, Long::sum));
+            throw e;
+        }
+        return batch.size();
+    }
+
+    private static LongAdder counter(ConcurrentHashMap<Long, LongAdder> mirror, Long id, LongUnaryOperator load) {
+        return mirror.computeIfAbsent(id, key -> {
+            LongAdder adder = new LongAdder();
+            adder.add(load.applyAsLong(key));
+            return adder;
+        });
+    }
+}
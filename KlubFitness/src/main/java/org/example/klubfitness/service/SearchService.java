@@ -0,0 +1,72 @@
+package org.example.klubfitness.service;
+
+import io.micrometer.core.annotation.Timed;
+import org.example.klubfitness.dto.SessionHitDto;
+import org.example.klubfitness.dto.TrainerHitDto;
+import org.example.klubfitness.exception.BadRequestException;
+import org.example.klubfitness.repository.SearchRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Wyszukiwanie sesji (pełnotekstowe po tytule i opisie) i trenerów (trigramy) w samym Postgresie.
+ * Strony numerowane od 0; ranking wymaga policzenia trafności wszystkich dopasowań, więc głębokość
+ * wyników jest ograniczona do {@value #MAX_RESULTS} – dalej zapytanie trzeba zawęzić.
+ */
+@Service
+@Timed("klubfitness.service")
+public class SearchService {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_RESULTS = 1000;
+    public static final int MAX_QUERY_LENGTH = 200;
+
+    private final SearchRepository repo;
+
+    public SearchService(SearchRepository repo) {
+        this.repo = repo;
+    }
+
+    /** Sesje pasujące do {@code query}, od najtrafniejszej; {@code from} – tylko zaczynające się od tej chwili. */
+    public SearchPage<SessionHitDto> searchSessions(String query, LocalDateTime from, int page, int size) {
+        String text = requireQuery(query);
+        return page(page, size, (offset, limit) -> repo.findSessions(text, from, offset, limit));
+    }
+
+    /** Trenerzy o nazwisku lub specjalizacji podobnej do {@code query}, od najbardziej podobnego. */
+    public SearchPage<TrainerHitDto> searchTrainers(String query, int page, int size) {
+        String text = requireQuery(query);
+        return page(page, size, (offset, limit) -> repo.findTrainers(text, offset, limit));
+    }
+
+    private static String requireQuery(String query) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be empty");
+        }
+        String text = query.strip();
+        if (text.length() > MAX_QUERY_LENGTH) {
+            throw new BadRequestException("Search query is limited to " + MAX_QUERY_LENGTH + " characters");
+        }
+        return text;
+    }
+
+    private static <T> SearchPage<T> page(int page, int size, BiFunction<Integer, Integer, List<T>> find) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        if (page < 0) {
+            throw new BadRequestException("Page must not be negative");
+        }
+        if ((long) page * limit >= MAX_RESULTS) {
+            throw new BadRequestException("Only the first " + MAX_RESULTS + " results are available, refine the query");
+        }
+        // wiersz ponad stronę mówi, czy jest następna – bez COUNT po wszystkich dopasowaniach
+        List<T> rows = find.apply(page * limit, limit + 1);
+        boolean hasNext = rows.size() > limit && (long) (page + 1) * limit < MAX_RESULTS;
+        return new SearchPage<>(rows.size() > limit ? List.copyOf(rows.subList(0, limit)) : rows, hasNext);
+    }
+
+    public record SearchPage<T>(List<T> items, boolean hasNext) {
+    }
+}
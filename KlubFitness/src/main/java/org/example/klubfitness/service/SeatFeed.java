@@ -0,0 +1,254 @@
+package org.example.klubfitness.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.example.klubfitness.dto.SessionSeatsDto;
+import org.example.klubfitness.exception.BadRequestException;
+import org.example.klubfitness.exception.NotFoundException;
+import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Wolne miejsca sesji na żywo (Server-Sent Events) zamiast odpytywania {@code GET /api/sessions/{id}}
+ * w szczycie zapisów. {@link ReservationEvent} po commicie tylko oznacza sesję jako zmienioną; co
+ * {@code klubfitness.seats.push-interval} jedno zapytanie czyta stan wszystkich zmienionych sesji i rozsyła
+ * go subskrybentom. Niezależnie od liczby rezerwacji sesja dostaje najwyżej jedną aktualizację na interwał
+ * (250 ms = 4/s), a niezmieniony stan nie jest wysyłany ponownie.
+ * <p>
+ * Bezczynny subskrybent nie zajmuje wątku: {@link SseEmitter} to odpowiedź asynchroniczna, a wysyła wątek
+ * wirtualny, tylko gdy jest co wysłać – najwyżej jeden na subskrybenta. Wolny klient dostaje najnowszy stan
+ * każdej sesji zamiast kolejki zaległych zdarzeń. Co {@code klubfitness.seats.heartbeat-interval} idzie
+ * komentarz SSE (wykrywa zerwane połączenia) i ponowny odczyt wszystkich subskrybowanych sesji – łapie
+ * zmiany z innych instancji i edycje limitu miejsc, które nie publikują zdarzeń.
+ */
+@Component
+public class SeatFeed {
+    public static final String SUBSCRIBERS = "klubfitness.seats.subscribers";
+    public static final String PUSHED = "klubfitness.seats.pushed";
+    public static final int MAX_SESSIONS = 50;
+    static final int READ_CHUNK = 1000;
+
+    private final TrainingSessionRepository sessions;
+    private final long timeoutMillis;
+    private final Executor senders;
+    private final Counter pushed;
+
+    private final ConcurrentHashMap<Long, Set<Subscriber>> bySession = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<Long, SessionSeatsDto> lastPushed = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SeatFeed(TrainingSessionRepository sessions,
+                    @Value("${klubfitness.seats.timeout:30m}") Duration timeout,
+                    ObjectProvider<MeterRegistry> registry) {
+        this(sessions, timeout, Executors.newVirtualThreadPerTaskExecutor(), registry.getIfAvailable());
+    }
+
+    SeatFeed(TrainingSessionRepository sessions, Duration timeout, Executor senders, MeterRegistry meters) {
+        this.sessions = sessions;
+        this.timeoutMillis = timeout.toMillis();
+        this.senders = senders;
+        if (meters != null) {
+            Gauge.builder(SUBSCRIBERS, subscribers, Set::size)
+                    .description("Open seat availability streams")
+                    .register(meters);
+            this.pushed = Counter.builder(PUSHED)
+                    .description("Seat availability updates sent to subscribers")
+                    .register(meters);
+        } else {
+            this.pushed = null;
+        }
+    }
+
+    /**
+     * Otwiera strumień dla podanych sesji; pierwsze zdarzenia to ich bieżący stan. Subskrypcja jest
+     * rejestrowana przed odczytem, więc zmiana w międzyczasie trafi do najbliższej aktualizacji.
+     */
+    public SseEmitter subscribe(Collection<Long> sessionIds) {
+        Set<Long> ids = new LinkedHashSet<>(sessionIds);
+        if (ids.isEmpty() || ids.size() > MAX_SESSIONS) {
+            throw new BadRequestException("Subscribe to between 1 and " + MAX_SESSIONS + " sessions");
+        }
+        SseEmitter emitter = newEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, ids);
+        register(subscriber);
+
+        List<SessionSeatsDto> current = sessions.findSeats(ids);
+        if (current.size() < ids.size()) {
+            unregister(subscriber);
+            current.forEach(seats -> ids.remove(seats.getSessionId()));
+            throw new NotFoundException("Session not found: " + ids.iterator().next());
+        }
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onError(e -> unregister(subscriber));
+        for (SessionSeatsDto seats : current) {
+            lastPushed.putIfAbsent(seats.getSessionId(), seats);
+            subscriber.offer(seats);
+        }
+        return emitter;
+    }
+
+    /** Po commicie (poza transakcją – od razu); sesje bez subskrybentów są pomijane bez kosztu. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(ReservationEvent event) {
+        if (bySession.containsKey(event.sessionId())) {
+            dirty.add(event.sessionId());
+        }
+    }
+
+    /** @return liczba sesji, których nowy stan rozesłano */
+    @Scheduled(fixedDelayString = "${klubfitness.seats.push-interval:250ms}")
+    public int push() {
+        List<Long> ids = new ArrayList<>();
+        for (Long id : dirty) {
+            if (dirty.remove(id)) {
+                ids.add(id);
+            }
+        }
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int changed = 0;
+        // heartbeat oznacza wszystkie subskrybowane sesje – zapytania po kawałkach, pod limitem parametrów JDBC
+        for (int from = 0; from < ids.size(); from += READ_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + READ_CHUNK, ids.size()));
+            for (SessionSeatsDto seats : sessions.findSeats(chunk)) {
+                Set<Subscriber> audience = bySession.get(seats.getSessionId());
+                if (audience == null || seats.equals(lastPushed.put(seats.getSessionId(), seats))) {
+                    continue;
+                }
+                audience.forEach(subscriber -> subscriber.offer(seats));
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    @Scheduled(fixedDelayString = "${klubfitness.seats.heartbeat-interval:15s}")
+    public void heartbeat() {
+        dirty.addAll(bySession.keySet());
+        subscribers.forEach(Subscriber::ping);
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        if (senders instanceof ExecutorService executor) {
+            executor.shutdown();
+        }
+    }
+
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void register(Subscriber subscriber) {
+        subscribers.add(subscriber);
+        for (Long id : subscriber.sessionIds) {
+            bySession.compute(id, (key, audience) -> {
+                Set<Subscriber> set = audience != null ? audience : ConcurrentHashMap.newKeySet();
+                set.add(subscriber);
+                return set;
+            });
+        }
+    }
+
+    private void unregister(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        for (Long id : subscriber.sessionIds) {
+            bySession.computeIfPresent(id, (key, audience) -> {
+                audience.remove(subscriber);
+                if (audience.isEmpty()) {
+                    lastPushed.remove(key);
+                    return null;
+                }
+                return audience;
+            });
+        }
+    }
+
+    /**
+     * Jeden strumień. {@code pending} trzyma tylko najnowszy stan każdej sesji, a {@code draining}
+     * pilnuje, by wysyłał najwyżej jeden wątek naraz – kolejność zdarzeń w strumieniu jest zachowana.
+     */
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final Set<Long> sessionIds;
+        private final ConcurrentHashMap<Long, SessionSeatsDto> pending = new ConcurrentHashMap<>();
+        private final AtomicBoolean ping = new AtomicBoolean();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, Set<Long> sessionIds) {
+            this.emitter = emitter;
+            this.sessionIds = Set.copyOf(sessionIds);
+        }
+
+        void offer(SessionSeatsDto seats) {
+            pending.put(seats.getSessionId(), seats);
+            schedule();
+        }
+
+        void ping() {
+            ping.set(true);
+            schedule();
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                try {
+                    for (Long id : pending.keySet()) {
+                        SessionSeatsDto seats = pending.remove(id);
+                        if (seats != null) {
+                            emitter.send(SseEmitter.event().name("seats").data(seats, MediaType.APPLICATION_JSON));
+                            if (pushed != null) {
+                                pushed.increment();
+                            }
+                        }
+                    }
+                    if (ping.getAndSet(false)) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    }
+                } catch (Exception e) {
+                    // zerwane połączenie albo strumień już zamknięty (timeout) – kontener sam kończy odpowiedź
+                    unregister(this);
+                    return;
+                }
+                draining.set(false);
+            } while ((!pending.isEmpty() || ping.get()) && draining.compareAndSet(false, true));
+        }
+    }
+}
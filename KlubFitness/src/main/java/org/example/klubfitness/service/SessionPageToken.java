@@ -0,0 +1,46 @@
+package org.example.klubfitness.service;
+
+import org.example.klubfitness.exception.BadRequestException;
+import org.example.klubfitness.repository.SessionSearchRepository.Position;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Token kontynuacji wyszukiwania sesji: pozycja ostatniego wiersza strony i kierunek sortowania,
+ * zakodowane Base64url. Dla klienta nieprzezroczysty – podaje go tylko z powrotem jako {@code page}.
+ */
+final class SessionPageToken {
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private SessionPageToken() {
+    }
+
+    static String encode(Position position, boolean descending) {
+        String raw = (descending ? "d" : "a") + "|" + position.startTime() + "|" + position.id();
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** {@code null} – pierwsza strona; token z innym kierunkiem sortowania albo uszkodzony – 400. */
+    static Position decode(String token, boolean descending) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String[] parts;
+        try {
+            parts = new String(DECODER.decode(token), StandardCharsets.UTF_8).split("\\|");
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid page token");
+        }
+        if (parts.length != 3 || !parts[0].equals(descending ? "d" : "a")) {
+            throw new BadRequestException("Page token does not match this sort order");
+        }
+        try {
+            return new Position(LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid page token");
+        }
+    }
+}
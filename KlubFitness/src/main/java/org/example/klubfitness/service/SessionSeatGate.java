@@ -0,0 +1,85 @@
+package org.example.klubfitness.service;
+
+import org.example.klubfitness.entity.TrainingSession;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Licznik wolnych miejsc per sesja trzymany w pamięci – szybka ścieżka odrzucenia.
+ * Gdy licznik spadnie do zera, kolejne żądania są odrzucane bez zapytania do bazy,
+ * a do bazy (warunkowy UPDATE, jedyne źródło prawdy) trafia co najwyżej tylu
+ * chętnych, ile zostało miejsc. Wpisy wygasają po {@code refresh}, więc zmiany
+ * z innych instancji aplikacji (anulowania, zmiana limitu) są widoczne z opóźnieniem.
+ */
+@Component
+public class SessionSeatGate {
+    static final Duration DEFAULT_REFRESH = Duration.ofSeconds(2);
+
+    private final ConcurrentHashMap<Long, Seats> seats = new ConcurrentHashMap<>();
+    private final long refreshNanos;
+
+    public SessionSeatGate() {
+        this(DEFAULT_REFRESH);
+    }
+
+    SessionSeatGate(Duration refresh) {
+        this.refreshNanos = refresh.toNanos();
+    }
+
+    /**
+     * Zajmuje miejsce w liczniku. {@code false} oznacza, że sesja jest pełna
+     * według ostatniej wiedzy tej instancji.
+     */
+    public boolean tryAcquire(TrainingSession session) {
+        long now = System.nanoTime();
+        Seats s = seats.get(session.getId());
+        if (s == null || now - s.loadedAt > refreshNanos) {
+            int remaining = session.getCapacity() - session.getSeatsTaken();
+            s = seats.compute(session.getId(), (id, cur) ->
+                    cur == null || now - cur.loadedAt > refreshNanos ? new Seats(remaining, now) : cur);
+        }
+        return s.tryDecrement();
+    }
+
+    /** Oddaje miejsce (anulowanie albo wycofana transakcja). */
+    public void release(Long sessionId) {
+        Seats s = seats.get(sessionId);
+        if (s != null) {
+            s.remaining.incrementAndGet();
+        }
+    }
+
+    /** Baza odrzuciła rezerwację – zapamiętujemy, że sesja jest pełna. */
+    public void markFull(Long sessionId) {
+        seats.put(sessionId, new Seats(0, System.nanoTime()));
+    }
+
+    int remaining(Long sessionId) {
+        Seats s = seats.get(sessionId);
+        return s == null ? -1 : s.remaining.get();
+    }
+
+    private static final class Seats {
+        final AtomicInteger remaining;
+        final long loadedAt;
+
+        Seats(int remaining, long loadedAt) {
+            this.remaining = new AtomicInteger(remaining);
+            this.loadedAt = loadedAt;
+        }
+
+        boolean tryDecrement() {
+            int cur;
+            do {
+                cur = remaining.get();
+                if (cur <= 0) {
+                    return false;
+                }
+            } while (!remaining.compareAndSet(cur, cur - 1));
+            return true;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package org.example.klubfitness.service;
+
+import org.example.klubfitness.dto.ReservationDto;
+import org.example.klubfitness.dto.SeriesUpdateDto;
+import org.example.klubfitness.dto.SessionSeriesDto;
+import org.example.klubfitness.entity.SessionSeries;
+import org.example.klubfitness.entity.Trainer;
+import org.example.klubfitness.entity.TrainingSession;
+import org.example.klubfitness.exception.BadRequestException;
+import org.example.klubfitness.exception.ConflictException;
+import org.example.klubfitness.exception.NotFoundException;
+import org.example.klubfitness.repository.ReservationRepository;
+import org.example.klubfitness.repository.SessionSeriesRepository;
+import org.example.klubfitness.repository.TrainerRepository;
+import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.example.klubfitness.service.TransactionCallbacks.afterCommit;
+
+/**
+ * Serie cyklicznych zajęć: rozwinięcie reguły w sesje jednym wsadowym INSERT-em
+ * oraz zbiorcza zmiana/usunięcie "tej i następnych" sesji serii.
+ */
+@Service
+public class SessionSeriesService {
+    public static final int MAX_OCCURRENCES = 1000;
+
+    private final SessionSeriesRepository seriesRepo;
+    private final TrainingSessionRepository sessionRepo;
+    private final TrainerRepository trainerRepo;
+    private final ReservationRepository reservationRepo;
+    private final TrainerScheduleIndex schedule;
+    private final WaitlistService waitlist;
+    private final ReadCaches caches;
+    private final ApplicationEventPublisher events;
+
+    public SessionSeriesService(SessionSeriesRepository seriesRepo, TrainingSessionRepository sessionRepo,
+                                TrainerRepository trainerRepo, ReservationRepository reservationRepo,
+                                TrainerScheduleIndex schedule, WaitlistService waitlist, ReadCaches caches,
+                                ApplicationEventPublisher events) {
+        this.seriesRepo = seriesRepo;
+        this.sessionRepo = sessionRepo;
+        this.trainerRepo = trainerRepo;
+        this.reservationRepo = reservationRepo;
+        this.schedule = schedule;
+        this.waitlist = waitlist;
+        this.caches = caches;
+        this.events = events;
+    }
+
+    @Transactional
+    public SessionSeriesDto createSeries(SessionSeriesDto dto) {
+        validate(dto);
+        if (!trainerRepo.existsById(dto.getTrainerId())) {
+            throw new NotFoundException("Trainer not found: " + dto.getTrainerId());
+        }
+        Set<LocalDate> excluded = dto.getExcludedDates() == null ? Set.of() : new HashSet<>(dto.getExcludedDates());
+        List<LocalDate> dates = RecurrenceRule.expand(dto.getFirstDate(), dto.getUntilDate(), dto.getDaysOfWeek(), excluded);
+        if (dates.isEmpty()) {
+            throw new BadRequestException("Series has no occurrences");
+        }
+        if (dates.size() > MAX_OCCURRENCES) {
+            throw new BadRequestException("Series too long: " + dates.size() + " > " + MAX_OCCURRENCES + " occurrences");
+        }
+        requireTrainerFree(dto, dates);
+
+        SessionSeries series = new SessionSeries();
+        series.setTitle(dto.getTitle());
+        series.setDaysOfWeek(dto.getDaysOfWeek().stream().distinct().sorted()
+                .map(DayOfWeek::name).collect(Collectors.joining(",")));
+        series.setFirstDate(dto.getFirstDate());
+        series.setUntilDate(dto.getUntilDate());
+        series.setStartTime(dto.getStartTime());
+        series.setDurationMinutes(dto.getDurationMinutes());
+        series.setExcludedDates(excluded.isEmpty() ? null : excluded.stream().sorted()
+                .map(LocalDate::toString).collect(Collectors.joining(",")));
+        series = seriesRepo.save(series);
+
+        Trainer trainer = trainerRepo.getReferenceById(dto.getTrainerId());
+        Long seriesId = series.getId();
+        List<TrainingSession> sessions = dates.stream()
+                .map(date -> {
+                    TrainingSession s = new TrainingSession();
+                    s.setTitle(dto.getTitle());
+                    s.setDescription(dto.getDescription());
+                    s.setStartTime(date.atTime(dto.getStartTime()));
+                    s.setEndTime(s.getStartTime().plusMinutes(dto.getDurationMinutes()));
+                    s.setCapacity(dto.getCapacity());
+                    s.setTrainer(trainer);
+                    s.setSeriesId(seriesId);
+                    return s;
+                })
+                .toList();
+        List<Long> ids = sessionRepo.saveAll(sessions).stream().map(TrainingSession::getId).toList();
+        afterCommit(() -> sessions.forEach(s ->
+                schedule.put(dto.getTrainerId(), s.getId(), s.getStartTime(), s.getEndTime())));
+        caches.evictAllSessionsAfterCommit();
+
+        SessionSeriesDto out = new SessionSeriesDto();
+        out.setId(seriesId);
+        out.setTitle(dto.getTitle());
+        out.setDescription(dto.getDescription());
+        out.setTrainerId(dto.getTrainerId());
+        out.setCapacity(sessions.get(0).getCapacity());
+        out.setDaysOfWeek(dto.getDaysOfWeek().stream().distinct().sorted().toList());
+        out.setFirstDate(dto.getFirstDate());
+        out.setUntilDate(dto.getUntilDate());
+        out.setStartTime(dto.getStartTime());
+        out.setDurationMinutes(dto.getDurationMinutes());
+        out.setExcludedDates(excluded.stream().sorted().toList());
+        out.setSessionIds(ids);
+        return out;
+    }
+
+    /**
+     * Zmienia sesję {@code sessionId} i wszystkie późniejsze sesje jej serii. Limit miejsc nie może
+     * spaść poniżej liczby zajętych miejsc w żadnej z tych sesji (409 z opisem zamiast naruszenia CHECK).
+     * Sesje są blokowane przed sprawdzeniem, żeby równoległa rezerwacja nie przekroczyła nowego limitu;
+     * sesje, którym limit wzrósł, od razu przyjmują oczekujących z kolejki.
+     *
+     * @return liczba zmienionych sesji
+     */
+    @Transactional
+    public int updateFollowing(Long sessionId, SeriesUpdateDto change) {
+        if (change.getDurationMinutes() != null && change.getDurationMinutes() <= 0) {
+            throw new BadRequestException("durationMinutes must be positive");
+        }
+        if (change.getCapacity() != null && change.getCapacity() <= 0) {
+            throw new BadRequestException("capacity must be positive");
+        }
+        TrainingSession anchor = seriesAnchor(sessionId);
+        Long seriesId = anchor.getSeriesId();
+        LocalDateTime from = anchor.getStartTime();
+        sessionRepo.lockSeriesFrom(seriesId, from);
+        List<Long> raised = List.of();
+        if (change.getCapacity() != null) {
+            int taken = sessionRepo.findMaxSeatsTakenInSeriesFrom(seriesId, from).orElse(0);
+            if (change.getCapacity() < taken) {
+                throw new ConflictException("Capacity " + change.getCapacity() + " is below " + taken
+                        + " seats already taken in a session of series " + seriesId + " from " + from);
+            }
+            raised = sessionRepo.findIdsInSeriesFromBelowCapacity(seriesId, from, change.getCapacity());
+        }
+
+        int updated = sessionRepo.updateSeriesFrom(seriesId, from,
+                change.getTitle(), change.getDescription(), change.getCapacity());
+        if (change.getTrainerId() != null) {
+            if (!trainerRepo.existsById(change.getTrainerId())) {
+                throw new NotFoundException("Trainer not found: " + change.getTrainerId());
+            }
+            sessionRepo.updateSeriesTrainerFrom(seriesId, from, trainerRepo.getReferenceById(change.getTrainerId()));
+        }
+        // długość przed przesunięciem: oba UPDATE-y wybierają sesje po starym czasie startu, więc przesunięcie
+        // wstecz nie wciąga do zmiany wcześniejszych wystąpień serii
+        if (change.getDurationMinutes() != null) {
+            sessionRepo.resizeSeriesFrom(seriesId, from, change.getDurationMinutes());
+        }
+        if (change.getShiftMinutes() != null && change.getShiftMinutes() != 0) {
+            sessionRepo.shiftSeriesFrom(seriesId, from, change.getShiftMinutes());
+        }
+        raised.forEach(waitlist::promoteFreeSeats);
+        Long trainerId = anchor.getTrainer().getId();
+        afterCommit(() -> {
+            schedule.evict(trainerId);
+            if (change.getTrainerId() != null) {
+                schedule.evict(change.getTrainerId());
+            }
+        });
+        caches.evictAllSessionsAfterCommit();
+        return updated;
+    }
+
+    /**
+     * Usuwa sesję {@code sessionId} i wszystkie późniejsze sesje jej serii razem z ich rezerwacjami
+     * (kolejki oczekujących usuwa kaskada w bazie). Każda usunięta rezerwacja dostaje
+     * {@link ReservationEvent} anulowania – outbox i liczniki widzą je jak zwykłe anulowania.
+     */
+    @Transactional
+    public Map<String, Integer> deleteFollowing(Long sessionId) {
+        TrainingSession anchor = seriesAnchor(sessionId);
+        List<Long> sessionIds = sessionRepo.lockSeriesFrom(anchor.getSeriesId(), anchor.getStartTime());
+        List<ReservationDto> cancelled = reservationRepo.findDtosBySessionIds(sessionIds);
+        int reservations = reservationRepo.deleteBySeriesFrom(anchor.getSeriesId(), anchor.getStartTime());
+        int sessions = sessionRepo.deleteSeriesFrom(anchor.getSeriesId(), anchor.getStartTime());
+        cancelled.forEach(r -> events.publishEvent(ReservationEvent.cancelled(r.getId(), r.getUserId(), r.getSessionId())));
+        Long trainerId = anchor.getTrainer().getId();
+        afterCommit(() -> schedule.evict(trainerId));
+        caches.evictAllSessionsAfterCommit();
+        return Map.of("sessions", sessions, "reservations", reservations);
+    }
+
+    /**
+     * Sprawdza wszystkie wystąpienia w grafiku trenera (O(k log n)); trafienia są potwierdzane
+     * na świeżo wczytanym grafiku, żeby nieaktualny indeks nie blokował serii.
+     */
+    private void requireTrainerFree(SessionSeriesDto dto, List<LocalDate> dates) {
+        Long trainerId = dto.getTrainerId();
+        List<LocalDate> busy = busyDates(dto, dates);
+        if (busy.isEmpty()) {
+            return;
+        }
+        schedule.evict(trainerId);
+        busy = busyDates(dto, busy);
+        if (!busy.isEmpty()) {
+            throw new ConflictException("Trainer " + trainerId + " already has sessions overlapping the series on "
+                    + busy.stream().limit(10).map(LocalDate::toString).collect(Collectors.joining(", "))
+                    + (busy.size() > 10 ? " and " + (busy.size() - 10) + " more" : ""));
+        }
+    }
+
+    private List<LocalDate> busyDates(SessionSeriesDto dto, List<LocalDate> dates) {
+        return dates.stream()
+                .filter(date -> {
+                    LocalDateTime start = date.atTime(dto.getStartTime());
+                    return schedule.findOverlap(dto.getTrainerId(), start,
+                            start.plusMinutes(dto.getDurationMinutes()), null).isPresent();
+                })
+                .toList();
+    }
+
+    private TrainingSession seriesAnchor(Long sessionId) {
+        TrainingSession anchor = sessionRepo.findById(sessionId)
+                .orElseThrow(() -> new NotFoundException("Session not found: " + sessionId));
+        if (anchor.getSeriesId() == null) {
+            throw new BadRequestException("Session " + sessionId + " is not part of a series");
+        }
+        return anchor;
+    }
+
+    private static void validate(SessionSeriesDto dto) {
+        if (dto.getTitle() == null || dto.getTrainerId() == null || dto.getFirstDate() == null
+                || dto.getUntilDate() == null || dto.getStartTime() == null || dto.getDurationMinutes() == null) {
+            throw new BadRequestException(
+                    "title, trainerId, firstDate, untilDate, startTime and durationMinutes are required");
+        }
+        if (dto.getDaysOfWeek() == null || dto.getDaysOfWeek().isEmpty()) {
+            throw new BadRequestException("daysOfWeek must not be empty");
+        }
+        if (dto.getUntilDate().isBefore(dto.getFirstDate())) {
+            throw new BadRequestException("untilDate is before firstDate");
+        }
+        if (dto.getDurationMinutes() <= 0) {
+            throw new BadRequestException("durationMinutes must be positive");
+        }
+    }
+}
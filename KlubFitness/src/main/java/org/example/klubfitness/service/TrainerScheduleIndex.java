@@ -0,0 +1,150 @@
+package org.example.klubfitness.service;
+
+import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Grafik trenerów w pamięci – szybkie sprawdzenie kolizji i wyszukiwanie wolnych okien.
+ * Sesje jednego trenera są rozłączne (gwarantuje to ograniczenie ex_training_sessions_trainer_overlap),
+ * więc drzewo uporządkowane po początku jest drzewem przedziałów: przy rozłącznych przedziałach
+ * końce rosną razem z początkami i kolizję z [start, end) wykrywa jedno zejście od poprzednika
+ * {@code end} – O(log n) zamiast przeglądania wszystkich sesji trenera.
+ * Baza pozostaje źródłem prawdy: wykryta kolizja jest potwierdzana na świeżo wczytanym grafiku,
+ * a kolizje, których indeks nie zna (np. zmiany z innej instancji), odrzuci ograniczenie w bazie.
+ */
+@Component
+public class TrainerScheduleIndex {
+    static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+
+    private final TrainingSessionRepository repo;
+    private final ConcurrentHashMap<Long, Schedule> schedules = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+
+    public TrainerScheduleIndex(TrainingSessionRepository repo) {
+        this(repo, DEFAULT_TTL);
+    }
+
+    TrainerScheduleIndex(TrainingSessionRepository repo, Duration ttl) {
+        this.repo = repo;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public record Slot(Long sessionId, LocalDateTime start, LocalDateTime end) {
+    }
+
+    /** Sesja trenera nachodząca na [start, end), z pominięciem {@code ignoredSessionId}. */
+    public Optional<Slot> findOverlap(Long trainerId, LocalDateTime start, LocalDateTime end, Long ignoredSessionId) {
+        return Optional.ofNullable(schedule(trainerId).findOverlap(start, end, ignoredSessionId));
+    }
+
+    /**
+     * Jak {@link #findOverlap}, ale trafienie jest sprawdzane ponownie na grafiku wczytanym z bazy,
+     * więc nieaktualny indeks nie odrzuci poprawnej sesji.
+     */
+    public Optional<Slot> findConfirmedOverlap(Long trainerId, LocalDateTime start, LocalDateTime end,
+                                               Long ignoredSessionId) {
+        Optional<Slot> clash = findOverlap(trainerId, start, end, ignoredSessionId);
+        if (clash.isEmpty()) {
+            return clash;
+        }
+        evict(trainerId);
+        return findOverlap(trainerId, start, end, ignoredSessionId);
+    }
+
+    /** Sesje trenera nachodzące na okno [from, to), rosnąco po początku. */
+    public List<Slot> sessionsBetween(Long trainerId, LocalDateTime from, LocalDateTime to) {
+        return schedule(trainerId).between(from, to);
+    }
+
+    public void put(Long trainerId, Long sessionId, LocalDateTime start, LocalDateTime end) {
+        Schedule s = schedules.get(trainerId);
+        if (s != null) {
+            s.put(new Slot(sessionId, start, end));
+        }
+    }
+
+    public void remove(Long trainerId, Long sessionId) {
+        Schedule s = schedules.get(trainerId);
+        if (s != null) {
+            s.remove(sessionId);
+        }
+    }
+
+    /** Usuwa sesję z grafiku, gdy trener nie jest znany (przegląda wczytane grafiki). */
+    public void removeSession(Long sessionId) {
+        schedules.values().forEach(s -> s.remove(sessionId));
+    }
+
+    public void evict(Long trainerId) {
+        schedules.remove(trainerId);
+    }
+
+    private Schedule schedule(Long trainerId) {
+        long now = System.nanoTime();
+        Schedule s = schedules.get(trainerId);
+        if (s == null || now - s.loadedAt > ttlNanos) {
+            s = new Schedule(now);
+            for (TrainingSessionRepository.SessionInterval i : repo.findIntervalsByTrainerId(trainerId)) {
+                s.put(new Slot(i.getId(), i.getStartTime(), i.getEndTime()));
+            }
+            schedules.put(trainerId, s);
+        }
+        return s;
+    }
+
+    static final class Schedule {
+        private final long loadedAt;
+        private final TreeMap<LocalDateTime, Slot> byStart = new TreeMap<>();
+        private final Map<Long, Slot> byId = new HashMap<>();
+
+        Schedule(long loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+
+        synchronized Slot findOverlap(LocalDateTime start, LocalDateTime end, Long ignoredSessionId) {
+            // od ostatniej sesji zaczynającej się przed końcem, wstecz dopóki jej koniec jest po starcie
+            for (Slot slot : byStart.headMap(end, false).descendingMap().values()) {
+                if (!slot.end().isAfter(start)) {
+                    return null;
+                }
+                if (!slot.sessionId().equals(ignoredSessionId)) {
+                    return slot;
+                }
+            }
+            return null;
+        }
+
+        synchronized List<Slot> between(LocalDateTime from, LocalDateTime to) {
+            List<Slot> result = new ArrayList<>();
+            Map.Entry<LocalDateTime, Slot> before = byStart.lowerEntry(from);
+            if (before != null && before.getValue().end().isAfter(from)) {
+                result.add(before.getValue());
+            }
+            result.addAll(byStart.subMap(from, true, to, false).values());
+            return result;
+        }
+
+        synchronized void put(Slot slot) {
+            remove(slot.sessionId());
+            byStart.put(slot.start(), slot);
+            byId.put(slot.sessionId(), slot);
+        }
+
+        synchronized void remove(Long sessionId) {
+            Slot old = byId.remove(sessionId);
+            if (old != null) {
+                byStart.remove(old.start(), old);
+            }
+        }
+    }
+}
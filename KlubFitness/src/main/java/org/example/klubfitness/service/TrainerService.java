@@ -1,17 +1,48 @@
 package org.example.klubfitness.service;
 
+import io.micrometer.core.annotation.Timed;
+import org.example.klubfitness.dto.ReservationDto;
+import org.example.klubfitness.dto.TimeSlotDto;
 import org.example.klubfitness.entity.Trainer;
+import org.example.klubfitness.exception.BadRequestException;
+import org.example.klubfitness.exception.NotFoundException;
+import org.example.klubfitness.repository.ReservationRepository;
 import org.example.klubfitness.repository.TrainerRepository;
+import org.example.klubfitness.repository.TrainerRepository.TrainerStamp;
+import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static org.example.klubfitness.service.ReadCaches.SESSIONS;
+import static org.example.klubfitness.service.ReadCaches.SESSION_LISTS;
+import static org.example.klubfitness.service.ReadCaches.TRAINERS;
+import static org.example.klubfitness.service.TransactionCallbacks.afterCommit;
+
 @Service
+@Timed("klubfitness.service")
 public class TrainerService {
     private final TrainerRepository repo;
-    public TrainerService(TrainerRepository repo) {
+    private final TrainerScheduleIndex schedule;
+    private final TrainingSessionRepository sessionRepo;
+    private final ReservationRepository reservationRepo;
+    private final ApplicationEventPublisher events;
+    public TrainerService(TrainerRepository repo, TrainerScheduleIndex schedule, TrainingSessionRepository sessionRepo,
+                          ReservationRepository reservationRepo, ApplicationEventPublisher events) {
         this.repo = repo;
+        this.schedule = schedule;
+        this.sessionRepo = sessionRepo;
+        this.reservationRepo = reservationRepo;
+        this.events = events;
     }
 
     public List<Trainer> getAllTrainers() {
@@ -26,9 +57,26 @@ public class TrainerService {
         return repo.findById(id).orElse(null);
     }
 
+    /** Opis trenera z cache – niezmienny rekord, nie encja. */
+    @Cacheable(cacheNames = TRAINERS, key = "#id", condition = "#id != null", unless = "#result == null")
+    public TrainerDetails getTrainerDetails(Long id) {
+        return repo.findById(id)
+                .map(t -> new TrainerDetails(t.getId(), t.getName(), t.getSpecialization()))
+                .orElse(null);
+    }
+
+    /** Wersja i czas zmiany trenera prosto z bazy, z pominięciem cache – dla ETag / 304. */
+    public Optional<TrainerStamp> getTrainerStamp(Long id) {
+        return repo.findStamp(id);
+    }
+
+    // opisy sesji w cache mają tylko id trenera, więc edycja trenera ich nie dotyczy;
+    // wersja w payload (If-Match) – jak w TrainingSessionService.updateSession
+    @CacheEvict(cacheNames = TRAINERS, key = "#id")
     public Trainer updateTrainer(Long id, Trainer payload) {
         return repo.findById(id)
                 .map(existing -> {
+                    Versions.require("Trainer", id, existing.getVersion(), payload.getVersion());
                     existing.setName(payload.getName());
                     existing.setSpecialization(payload.getSpecialization());
                     return repo.save(existing);
@@ -36,11 +84,61 @@ public class TrainerService {
                 .orElse(null);
     }
 
+    /**
+     * Usuwa trenera razem z jego sesjami i ich rezerwacjami (kaskada) – jak
+     * {@link TrainingSessionService#deleteSession}: trener i jego sesje są blokowane przed odczytem rezerwacji,
+     * a każda usunięta rezerwacja dostaje {@link ReservationEvent} anulowania.
+     */
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = TRAINERS, key = "#id"),
+            @CacheEvict(cacheNames = {SESSIONS, SESSION_LISTS}, allEntries = true)
+    })
     public boolean deleteTrainer(Long id) {
-        if (repo.existsById(id)) {
-            repo.deleteById(id);
-            return true;
+        if (repo.lockById(id).isEmpty()) {
+            return false;
         }
-        return false;
+        List<Long> sessionIds = sessionRepo.lockByTrainer(id);
+        List<ReservationDto> cancelled = sessionIds.isEmpty()
+                ? List.of()
+                : reservationRepo.findDtosBySessionIds(sessionIds);
+        repo.deleteById(id);
+        cancelled.forEach(r -> events.publishEvent(ReservationEvent.cancelled(r.getId(), r.getUserId(), r.getSessionId())));
+        afterCommit(() -> schedule.evict(id));
+        return true;
+    }
+
+    /**
+     * Wolne okna trenera w [from, to) dłuższe niż {@code minMinutes} – luki między sesjami
+     * z grafiku w pamięci, bez zapytania o każdą sesję.
+     */
+    public List<TimeSlotDto> findFreeSlots(Long trainerId, LocalDateTime from, LocalDateTime to, int minMinutes) {
+        if (!repo.existsById(trainerId)) {
+            throw new NotFoundException("Trainer not found: " + trainerId);
+        }
+        if (!to.isAfter(from)) {
+            throw new BadRequestException("'to' must be after 'from'");
+        }
+        Duration min = Duration.ofMinutes(Math.max(1, minMinutes));
+        List<TimeSlotDto> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (TrainerScheduleIndex.Slot busy : schedule.sessionsBetween(trainerId, from, to)) {
+            addIfLongEnough(free, cursor, busy.start(), min);
+            if (busy.end().isAfter(cursor)) {
+                cursor = busy.end();
+            }
+        }
+        addIfLongEnough(free, cursor, to, min);
+        return free;
+    }
+
+    private static void addIfLongEnough(List<TimeSlotDto> free, LocalDateTime start, LocalDateTime end, Duration min) {
+        if (Duration.between(start, end).compareTo(min) >= 0) {
+            free.add(new TimeSlotDto(start, end));
+        }
+    }
+
+    /** Niezmienny opis trenera w cache. */
+    public record TrainerDetails(Long id, String name, String specialization) {
     }
-}
\ No newline at end of file
+}
@@ -1,54 +1,278 @@
 package org.example.klubfitness.service;
 
+import io.micrometer.core.annotation.Timed;
+import org.example.klubfitness.dto.ReservationDto;
+import org.example.klubfitness.dto.SessionSeatsDto;
+import org.example.klubfitness.dto.TrainingSessionDto;
 import org.example.klubfitness.entity.TrainingSession;
+import org.example.klubfitness.exception.BadRequestException;
+import org.example.klubfitness.exception.ConflictException;
+import org.example.klubfitness.repository.ReservationRepository;
+import org.example.klubfitness.repository.SessionSearchRepository;
+import org.example.klubfitness.repository.SessionSearchRepository.Position;
 import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.example.klubfitness.repository.TrainingSessionRepository.ListStamp;
+import org.example.klubfitness.repository.TrainingSessionRepository.SessionStamp;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
+import static org.example.klubfitness.service.ReadCaches.SESSIONS;
+import static org.example.klubfitness.service.ReadCaches.SESSION_LISTS;
+import static org.example.klubfitness.service.TransactionCallbacks.afterCommit;
+
+/**
+ * Opisy sesji idą przez cache (Caffeine, limit rozmiaru + TTL) jako niezmienne {@link SessionDetails};
+ * każda zmiana sesji usuwa jej wpis i listę. Licznika zajętych miejsc nie ma w cache – doklejany jest
+ * przy odczycie z bazy, więc rezerwacje nie unieważniają cache. Operacje na seriach – przez {@link ReadCaches}.
+ */
 @Service
+@Timed("klubfitness.service")
 public class TrainingSessionService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
     private final TrainingSessionRepository repo;
-    public TrainingSessionService(TrainingSessionRepository repo) {
+    private final TrainerScheduleIndex schedule;
+    private final SessionSearchRepository search;
+    private final ReservationRepository reservationRepo;
+    private final WaitlistService waitlist;
+    private final ReadCaches caches;
+    private final ApplicationEventPublisher events;
+
+    public TrainingSessionService(TrainingSessionRepository repo, TrainerScheduleIndex schedule,
+                                  SessionSearchRepository search, ReservationRepository reservationRepo,
+                                  WaitlistService waitlist, ReadCaches caches, ApplicationEventPublisher events) {
         this.repo = repo;
+        this.schedule = schedule;
+        this.search = search;
+        this.reservationRepo = reservationRepo;
+        this.waitlist = waitlist;
+        this.caches = caches;
+        this.events = events;
     }
 
     public List<TrainingSession> getAllSessions() {
         return repo.findAll();
     }
 
+    /**
+     * Opisy z cache, zajęte miejsca z jednego wąskiego zapytania. Sesja usunięta między odczytami
+     * (brak jej w stanie miejsc) jest pomijana.
+     */
+    public List<TrainingSessionDto> getAllSessionDtos() {
+        List<SessionDetails> details = caches.get(SESSION_LISTS, ReadCaches.ALL_SESSIONS,
+                () -> repo.findAllDtos().stream().map(SessionDetails::of).toList());
+        Map<Long, Integer> seatsTaken = repo.findAllSeats().stream()
+                .collect(Collectors.toMap(SessionSeatsDto::getSessionId, SessionSeatsDto::getSeatsTaken));
+        return details.stream()
+                .filter(d -> seatsTaken.containsKey(d.id()))
+                .map(d -> d.withSeatsTaken(seatsTaken.get(d.id())))
+                .toList();
+    }
+
+    @CacheEvict(cacheNames = SESSION_LISTS, allEntries = true)
     public TrainingSession createSession(TrainingSession session) {
-        return repo.save(session);
+        requireTrainerFree(session, null);
+        TrainingSession saved = repo.save(session);
+        afterCommit(() -> indexSession(saved));
+        return saved;
     }
 
     public TrainingSession getSessionById(Long id) {
         return repo.findById(id).orElse(null);
     }
 
+    /** Opis sesji z cache; zajęte miejsca trzeba dokleić ({@link SessionDetails#withSeatsTaken}). */
+    @Cacheable(cacheNames = SESSIONS, key = "#id", condition = "#id != null", unless = "#result == null")
+    public SessionDetails getSessionDetails(Long id) {
+        return repo.findById(id).map(SessionDetails::of).orElse(null);
+    }
+
+    /** Wersja, licznik miejsc i czas zmiany sesji prosto z bazy, z pominięciem cache – dla ETag / 304. */
+    public Optional<SessionStamp> getSessionStamp(Long id) {
+        return repo.findStamp(id);
+    }
+
+    /** Odcisk listy sesji (liczba + skróty wierszy) dla ETag listy. */
+    public ListStamp getSessionListStamp() {
+        return repo.findListStamp();
+    }
+
     public List<TrainingSession> getSessionsBetween(LocalDateTime from, LocalDateTime to) {
         return repo.findByStartTimeBetween(from, to);
     }
 
+    /**
+     * Strona sesji zaczynających się w {@code [from, to)}, opcjonalnie jednego trenera i z fragmentem tytułu,
+     * po czasie startu ({@code startTime,asc} – domyślnie – albo {@code startTime,desc}). {@code page} to token
+     * z {@link SessionPage#next()} poprzedniej strony; koszt strony nie zależy od tego, jak daleko jest.
+     * Bez cache – kombinacji filtrów jest za dużo, a strona to jedno zapytanie po indeksie.
+     */
+    public SessionPage searchSessions(LocalDateTime from, LocalDateTime to, Long trainerId, String title,
+                                      String sort, String page, int size) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new BadRequestException("'to' must not be before 'from'");
+        }
+        boolean descending = descending(sort);
+        Position after = SessionPageToken.decode(page, descending);
+        int limit = pageSize(size);
+        String text = title == null || title.isBlank() ? null : title.strip();
+
+        // wiersz ponad stronę mówi, czy jest następna – bez osobnego COUNT
+        List<TrainingSessionDto> rows = search.findPage(from, to, trainerId, text, after, descending, limit + 1);
+        if (rows.size() <= limit) {
+            return new SessionPage(rows, null);
+        }
+        List<TrainingSessionDto> items = List.copyOf(rows.subList(0, limit));
+        TrainingSessionDto last = items.get(limit - 1);
+        return new SessionPage(items,
+                SessionPageToken.encode(new Position(last.getStartTime(), last.getId()), descending));
+    }
+
+    public static int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, MAX_PAGE_SIZE));
+    }
+
+    /** Tylko kolejności, które obsługują indeksy z V12. */
+    static boolean descending(String sort) {
+        if (sort == null || sort.isBlank() || sort.equals("startTime") || sort.equalsIgnoreCase("startTime,asc")) {
+            return false;
+        }
+        if (sort.equalsIgnoreCase("startTime,desc")) {
+            return true;
+        }
+        throw new BadRequestException("Unsupported sort: " + sort + " (use startTime,asc or startTime,desc)");
+    }
+
+    /**
+     * Wersja w {@code payload} (z {@code If-Match}) musi być bieżącą wersją sesji, inaczej
+     * {@link org.example.klubfitness.exception.PreconditionFailedException}; {@code null} – bez warunku.
+     * Limit miejsc nie może spaść poniżej zajętych miejsc (409); po zwiększeniu limitu nowe miejsca
+     * dostają od razu osoby z kolejki oczekujących – w tej samej transakcji co zapis limitu.
+     */
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = SESSIONS, key = "#id"),
+            @CacheEvict(cacheNames = SESSION_LISTS, allEntries = true)
+    })
     public TrainingSession updateSession(Long id, TrainingSession payload) {
         return repo.findById(id)
                 .map(existing -> {
+                    Versions.require("Session", id, existing.getVersion(), payload.getVersion());
                     existing.setTitle(payload.getTitle());
                     existing.setDescription(payload.getDescription());
                     existing.setStartTime(payload.getStartTime());
                     existing.setEndTime(payload.getEndTime());
                     existing.setTrainer(payload.getTrainer());
-                    return repo.save(existing);
+                    int previousCapacity = existing.getCapacity();
+                    if (payload.getCapacity() != null) {
+                        requireCapacityFits(existing, payload.getCapacity());
+                        existing.setCapacity(payload.getCapacity());
+                    }
+                    requireTrainerFree(existing, id);
+                    TrainingSession saved = repo.save(existing);
+                    afterCommit(() -> {
+                        schedule.removeSession(id);
+                        indexSession(saved);
+                    });
+                    if (saved.getCapacity() > previousCapacity) {
+                        waitlist.promoteFreeSeats(id);
+                    }
+                    return saved;
                 })
                 .orElse(null);
     }
 
+    /**
+     * Usuwa sesję razem z rezerwacjami (kaskada JPA) i kolejką (kaskada w bazie). Wiersz sesji jest
+     * blokowany przed odczytem rezerwacji, więc każda usunięta rezerwacja dostaje {@link ReservationEvent}
+     * anulowania – także ta, którą właśnie kończy równoległa transakcja.
+     */
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = SESSIONS, key = "#id"),
+            @CacheEvict(cacheNames = SESSION_LISTS, allEntries = true)
+    })
     public boolean deleteSession(Long id) {
-        if (repo.existsById(id)) {
-            repo.deleteById(id);
-            return true;
+        if (repo.lockById(id).isEmpty()) {
+            return false;
+        }
+        List<ReservationDto> cancelled = reservationRepo.findDtosBySessionIds(List.of(id));
+        repo.deleteById(id);
+        cancelled.forEach(r -> events.publishEvent(ReservationEvent.cancelled(r.getId(), r.getUserId(), r.getSessionId())));
+        afterCommit(() -> schedule.removeSession(id));
+        return true;
+    }
+
+    /** Czytelny błąd zamiast naruszenia {@code chk_training_sessions_seats}. */
+    private static void requireCapacityFits(TrainingSession s, int capacity) {
+        if (capacity <= 0) {
+            throw new BadRequestException("capacity must be positive");
+        }
+        if (capacity < s.getSeatsTaken()) {
+            throw new ConflictException("Capacity " + capacity + " is below " + s.getSeatsTaken()
+                    + " seats already taken in session " + s.getId());
+        }
+    }
+
+    /**
+     * Szybkie sprawdzenie w grafiku trenera, zanim sesja trafi do bazy – czytelny 409 zamiast
+     * naruszenia ograniczenia. Ostatecznie kolizje blokuje ograniczenie wykluczające w bazie.
+     */
+    private void requireTrainerFree(TrainingSession s, Long sessionId) {
+        if (s.getStartTime() != null && s.getEndTime() != null && !s.getEndTime().isAfter(s.getStartTime())) {
+            throw new BadRequestException("endTime must be after startTime");
+        }
+        if (s.getTrainer() == null || s.getTrainer().getId() == null
+                || s.getStartTime() == null || s.getEndTime() == null) {
+            return;
+        }
+        Long trainerId = s.getTrainer().getId();
+        schedule.findConfirmedOverlap(trainerId, s.getStartTime(), s.getEndTime(), sessionId)
+                .ifPresent(clash -> {
+                    throw new ConflictException("Trainer " + trainerId + " already runs session " + clash.sessionId()
+                            + " from " + clash.start() + " to " + clash.end());
+                });
+    }
+
+    private void indexSession(TrainingSession s) {
+        if (s.getTrainer() != null && s.getTrainer().getId() != null) {
+            schedule.put(s.getTrainer().getId(), s.getId(), s.getStartTime(), s.getEndTime());
+        }
+    }
+
+    /** Niezmienny opis sesji w cache – bez licznika zajętych miejsc, który zmienia każda rezerwacja. */
+    public record SessionDetails(Long id, String title, String description, LocalDateTime startTime,
+                                 LocalDateTime endTime, Long trainerId, Integer capacity, Long seriesId) {
+
+        static SessionDetails of(TrainingSession s) {
+            return new SessionDetails(s.getId(), s.getTitle(), s.getDescription(), s.getStartTime(), s.getEndTime(),
+                    s.getTrainer() != null ? s.getTrainer().getId() : null, s.getCapacity(), s.getSeriesId());
         }
-        return false;
+
+        static SessionDetails of(TrainingSessionDto dto) {
+            return new SessionDetails(dto.getId(), dto.getTitle(), dto.getDescription(), dto.getStartTime(),
+                    dto.getEndTime(), dto.getTrainerId(), dto.getCapacity(), dto.getSeriesId());
+        }
+
+        /** Nowe DTO przy każdym odczycie – wpis w cache zostaje nietknięty. */
+        public TrainingSessionDto withSeatsTaken(Integer seatsTaken) {
+            return new TrainingSessionDto(id, title, description, startTime, endTime, trainerId, capacity,
+                    seatsTaken, seriesId);
+        }
+    }
+
+    /** Strona wyników; {@code next == null} – to ostatnia. */
+    public record SessionPage(List<TrainingSessionDto> items, String next) {
     }
-}
\ No newline at end of file
+}
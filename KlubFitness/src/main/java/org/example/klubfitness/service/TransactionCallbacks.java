@@ -0,0 +1,37 @@
+package org.example.klubfitness.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Odkłada aktualizacje stanu w pamięci (liczniki, indeksy) do zakończenia transakcji,
+ * żeby nie rozjechały się z bazą po rollbacku. Poza transakcją "commit" wykonuje się od razu.
+ */
+final class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+    }
+
+    static void afterCommit(Runnable action) {
+        onCompletion(action, true);
+    }
+
+    static void afterRollback(Runnable action) {
+        onCompletion(action, false);
+    }
+
+    private static void onCompletion(Runnable action, boolean committed) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (committed) action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if ((status == STATUS_COMMITTED) == committed) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
@@ -1,17 +1,34 @@
 package org.example.klubfitness.service;
 
+import io.micrometer.core.annotation.Timed;
 import org.example.klubfitness.entity.User;
 import org.example.klubfitness.repository.UserRepository;
+import org.example.klubfitness.security.VerifiedCredentialsCache;
+import org.example.klubfitness.repository.ReservationRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 
+import static org.example.klubfitness.service.TransactionCallbacks.afterCommit;
+
 @Service
+@Timed("klubfitness.service")
 public class UserService {
     private final UserRepository repo;
-    public UserService(UserRepository repo) {
+    private final VerifiedCredentialsCache credentials;
+    private final ReservationRepository reservationRepo;
+    private final ReservationService reservations;
+    private final WaitlistService waitlist;
+    public UserService(UserRepository repo, VerifiedCredentialsCache credentials,
+                       ReservationRepository reservationRepo, ReservationService reservations,
+                       WaitlistService waitlist) {
         this.repo = repo;
+        this.credentials = credentials;
+        this.reservationRepo = reservationRepo;
+        this.reservations = reservations;
+        this.waitlist = waitlist;
     }
 
     public List<User> getAllUsers() {
@@ -26,22 +43,40 @@ public class UserService {
         return repo.findById(id).orElse(null);
     }
 
+    /** Wersja w {@code payload} (z {@code If-Match}) musi być bieżącą wersją; {@code null} – bez warunku. */
     public User updateUser(Long id, User payload) {
         return repo.findById(id)
                 .map(existing -> {
+                    Versions.require("User", id, existing.getVersion(), payload.getVersion());
+                    String oldUsername = existing.getUsername();
                     existing.setUsername(payload.getUsername());
                     existing.setPassword(payload.getPassword());
                     existing.setRole(payload.getRole());
-                    return repo.save(existing);
+                    User saved = repo.save(existing);
+                    // stare hasło/rola nie mogą dalej działać z cache uwierzytelnień
+                    credentials.evict(oldUsername);
+                    credentials.evict(saved.getUsername());
+                    return saved;
                 })
                 .orElse(null);
     }
 
+    /**
+     * Rezerwacje użytkownika są anulowane zwykłą ścieżką ({@link ReservationService#cancelReservation}):
+     * miejsce przechodzi na kolejkę albo wraca do puli, a każda dostaje {@link ReservationEvent} anulowania.
+     * Wiersz użytkownika jest blokowany przed odczytem rezerwacji, więc żadna nie znika po cichu z kaskadą.
+     */
+    @Transactional
     public boolean deleteUser(Long id) {
-        if (repo.existsById(id)) {
-            repo.deleteById(id);
-            return true;
+        Optional<String> username = repo.lockUsername(id);
+        if (username.isEmpty()) {
+            return false;
         }
-        return false;
+        // najpierw kolejka – zwalniane niżej miejsca nie mogą trafić z powrotem do usuwanego użytkownika
+        waitlist.removeUser(id);
+        reservationRepo.findIdsByUserId(id).forEach(reservations::cancelReservation);
+        repo.deleteById(id);
+        afterCommit(() -> credentials.evict(username.get()));
+        return true;
     }
 }
\ No newline at end of file
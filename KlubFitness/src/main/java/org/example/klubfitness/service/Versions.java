@@ -0,0 +1,21 @@
+package org.example.klubfitness.service;
+
+import org.example.klubfitness.exception.PreconditionFailedException;
+
+/**
+ * Warunek {@code If-Match} przy edycji: wersja z żądania musi być wersją wczytanej encji. Wyścig między
+ * tym sprawdzeniem a zapisem łapie już {@code @Version} w UPDATE (→ 409).
+ */
+final class Versions {
+
+    private Versions() {
+    }
+
+    /** {@code expected == null} – zapis bez warunku. */
+    static void require(String resource, Long id, Long current, Long expected) {
+        if (expected != null && !expected.equals(current)) {
+            throw new PreconditionFailedException(
+                    resource + " " + id + " is at version " + current + ", not " + expected);
+        }
+    }
+}
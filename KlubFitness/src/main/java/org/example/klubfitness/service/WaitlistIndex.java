@@ -0,0 +1,180 @@
+package org.example.klubfitness.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Indeks pozycji w kolejkach oczekujących, trzymany w pamięci per sesja.
+ * Posortowane id wpisów + drzewo Fenwicka po flagach "wciąż w kolejce" dają pozycję
+ * w O(log n) bez liczenia wierszy w bazie. Baza pozostaje źródłem prawdy: brak sesji,
+ * brak wpisu albo przeterminowany indeks oznaczają, że trzeba go wczytać ponownie.
+ */
+@Component
+public class WaitlistIndex {
+    static final Duration DEFAULT_TTL = Duration.ofSeconds(30);
+
+    private final ConcurrentHashMap<Long, Queue> queues = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+
+    public WaitlistIndex() {
+        this(DEFAULT_TTL);
+    }
+
+    WaitlistIndex(Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /** Pozycja (od 1) albo -1, gdy indeks trzeba przeładować. */
+    public long position(Long sessionId, Long entryId) {
+        Queue q = queues.get(sessionId);
+        if (q == null || System.nanoTime() - q.loadedAt > ttlNanos) {
+            return -1;
+        }
+        return q.position(entryId);
+    }
+
+    /**
+     * Pozycja, którą wpis zajmie po {@link #append} (dla wpisu już w indeksie – jego pozycja),
+     * albo -1, gdy indeks trzeba przeładować.
+     */
+    public long positionOnAppend(Long sessionId, Long entryId) {
+        Queue q = queues.get(sessionId);
+        if (q == null || System.nanoTime() - q.loadedAt > ttlNanos) {
+            return -1;
+        }
+        return q.positionOnAppend(entryId);
+    }
+
+    /** Zastępuje indeks sesji listą id posortowaną rosnąco (kolejność kolejki). */
+    public void load(Long sessionId, List<Long> orderedIds) {
+        queues.put(sessionId, new Queue(orderedIds.stream().mapToLong(Long::longValue).toArray()));
+    }
+
+    public void append(Long sessionId, Long entryId) {
+        Queue q = queues.get(sessionId);
+        if (q != null) {
+            q.append(entryId);
+        }
+    }
+
+    public void remove(Long sessionId, Long entryId) {
+        Queue q = queues.get(sessionId);
+        if (q != null) {
+            q.remove(entryId);
+        }
+    }
+
+    public void evict(Long sessionId) {
+        queues.remove(sessionId);
+    }
+
+    static final class Queue {
+        private static final int MIN_COMPACT_SIZE = 64;
+
+        private final long loadedAt = System.nanoTime();
+        private long[] ids;
+        private boolean[] alive;
+        private int[] tree;     // drzewo Fenwicka, indeksy 1..capacity
+        private int count;
+        private int aliveCount;
+
+        Queue(long[] sortedIds) {
+            rebuild(sortedIds, sortedIds.length);
+        }
+
+        synchronized long position(long id) {
+            int idx = Arrays.binarySearch(ids, 0, count, id);
+            if (idx < 0 || !alive[idx]) {
+                return -1;
+            }
+            return prefixSum(idx + 1);
+        }
+
+        synchronized long positionOnAppend(long id) {
+            int idx = Arrays.binarySearch(ids, 0, count, id);
+            if (idx >= 0) {
+                return alive[idx] ? prefixSum(idx + 1) : -1;
+            }
+            return prefixSum(-idx - 1) + 1;
+        }
+
+        synchronized void append(long id) {
+            if (count > 0 && id <= ids[count - 1]) {
+                // commit w innej kolejności niż przydział id – rzadkie, wstawiamy z przebudową
+                if (Arrays.binarySearch(ids, 0, count, id) >= 0) {
+                    return;
+                }
+                long[] merged = Arrays.copyOf(liveIds(), aliveCount + 1);
+                merged[aliveCount] = id;
+                Arrays.sort(merged);
+                rebuild(merged, merged.length);
+                return;
+            }
+            if (count == ids.length) {
+                rebuild(liveIds(), Math.max(16, aliveCount * 2));
+            }
+            ids[count] = id;
+            alive[count] = true;
+            add(count + 1, 1);
+            count++;
+            aliveCount++;
+        }
+
+        synchronized void remove(long id) {
+            int idx = Arrays.binarySearch(ids, 0, count, id);
+            if (idx < 0 || !alive[idx]) {
+                return;
+            }
+            alive[idx] = false;
+            add(idx + 1, -1);
+            aliveCount--;
+            if (count >= MIN_COMPACT_SIZE && aliveCount < count / 2) {
+                rebuild(liveIds(), aliveCount);
+            }
+        }
+
+        private long[] liveIds() {
+            long[] live = new long[aliveCount];
+            int j = 0;
+            for (int i = 0; i < count; i++) {
+                if (alive[i]) live[j++] = ids[i];
+            }
+            return live;
+        }
+
+        private void rebuild(long[] sortedLiveIds, int capacity) {
+            int n = sortedLiveIds.length;
+            int cap = Math.max(capacity, n);
+            ids = Arrays.copyOf(sortedLiveIds, cap);
+            alive = new boolean[cap];
+            tree = new int[cap + 1];
+            Arrays.fill(alive, 0, n, true);
+            // budowa w O(n): każdy węzeł przekazuje sumę rodzicowi
+            for (int i = 1; i <= cap; i++) {
+                if (i <= n) tree[i] += 1;
+                int parent = i + (i & -i);
+                if (parent <= cap) tree[parent] += tree[i];
+            }
+            count = n;
+            aliveCount = n;
+        }
+
+        private void add(int i, int delta) {
+            for (; i < tree.length; i += i & -i) {
+                tree[i] += delta;
+            }
+        }
+
+        private long prefixSum(int i) {
+            long sum = 0;
+            for (; i > 0; i -= i & -i) {
+                sum += tree[i];
+            }
+            return sum;
+        }
+    }
+}
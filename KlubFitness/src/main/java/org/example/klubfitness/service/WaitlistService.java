@@ -0,0 +1,185 @@
+package org.example.klubfitness.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.klubfitness.dto.WaitlistEntryDto;
+import org.example.klubfitness.entity.Reservation;
+import org.example.klubfitness.entity.TrainingSession;
+import org.example.klubfitness.entity.WaitlistEntry;
+import org.example.klubfitness.exception.ConflictException;
+import org.example.klubfitness.exception.NotFoundException;
+import org.example.klubfitness.repository.ReservationRepository;
+import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.example.klubfitness.repository.UserRepository;
+import org.example.klubfitness.repository.WaitlistRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.example.klubfitness.service.TransactionCallbacks.afterCommit;
+import static org.example.klubfitness.service.TransactionCallbacks.afterRollback;
+
+/**
+ * Kolejka oczekujących do pełnych sesji z automatyczną promocją po zwolnieniu miejsca.
+ */
+@Service
+@RequiredArgsConstructor
+public class WaitlistService {
+    private final WaitlistRepository repo;
+    private final ReservationRepository reservationRepo;
+    private final TrainingSessionRepository sessionRepo;
+    private final UserRepository userRepo;
+    private final WaitlistIndex index;
+    private final ApplicationEventPublisher events;
+
+    /**
+     * Dopisuje użytkownika na koniec kolejki. Do kolejki można dołączyć tylko do pełnej sesji
+     * i tylko bez istniejącej rezerwacji. Przy wczytanym indeksie pozycja to O(log n) w pamięci,
+     * a wpis trafia do indeksu po commicie.
+     */
+    @Transactional
+    public WaitlistEntryDto join(Long userId, Long sessionId) {
+        TrainingSession session = sessionRepo.findById(sessionId)
+                .orElseThrow(() -> new NotFoundException("Session not found: " + sessionId));
+        if (!userRepo.existsById(userId)) {
+            throw new NotFoundException("User not found: " + userId);
+        }
+        if (session.getSeatsTaken() < session.getCapacity()) {
+            throw new ConflictException("Session has free seats, book it directly: " + sessionId);
+        }
+        if (reservationRepo.existsByUserIdAndSessionId(userId, sessionId)) {
+            throw new ConflictException("User " + userId + " already has a reservation for session " + sessionId);
+        }
+
+        WaitlistEntry entry = repo.save(new WaitlistEntry(null, sessionId, userId, LocalDateTime.now()));
+        Long entryId = entry.getId();
+        long position = index.positionOnAppend(sessionId, entryId);
+        if (position < 0) {
+            // zimny indeks: wczytany w tej transakcji, więc zawiera już nowy wpis
+            position = reload(sessionId, entryId);
+            afterRollback(() -> index.remove(sessionId, entryId));
+        }
+        afterCommit(() -> index.append(sessionId, entryId));
+        return toDto(entry, position);
+    }
+
+    /** Pozycja użytkownika w kolejce – jedno wyszukiwanie po indeksie + O(log n) w pamięci. */
+    @Transactional(readOnly = true)
+    public WaitlistEntryDto getEntry(Long userId, Long sessionId) {
+        WaitlistEntry entry = repo.findBySessionIdAndUserId(sessionId, userId)
+                .orElseThrow(() -> new NotFoundException(
+                        "User " + userId + " is not on the waitlist of session " + sessionId));
+        return toDto(entry, positionOf(sessionId, entry.getId()));
+    }
+
+    @Transactional
+    public boolean leave(Long userId, Long sessionId) {
+        return repo.findBySessionIdAndUserId(sessionId, userId)
+                .map(entry -> {
+                    repo.delete(entry);
+                    afterCommit(() -> index.remove(sessionId, entry.getId()));
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    /**
+     * Usuwa z kolejki sesji użytkowników, którzy zarezerwowali w niej miejsce bezpośrednio
+     * (np. po zwiększeniu limitu), żeby kolejne zwolnione miejsce nie trafiło do nich drugi raz.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeBooked(Long sessionId, Collection<Long> userIds) {
+        if (userIds.isEmpty() || repo.deleteBySessionIdAndUserIds(sessionId, userIds) == 0) {
+            return;
+        }
+        afterCommit(() -> index.evict(sessionId));
+    }
+
+    /** Usuwa wszystkie wpisy usuwanego użytkownika, zanim zwolnione przez niego miejsca trafią do kolejki. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeUser(Long userId) {
+        List<Long> sessionIds = repo.findSessionIdsByUserId(userId);
+        if (sessionIds.isEmpty()) {
+            return;
+        }
+        repo.deleteByUserId(userId);
+        afterCommit(() -> sessionIds.forEach(index::evict));
+    }
+
+    /**
+     * Przekazuje miejsce zwolnione w bieżącej transakcji pierwszej osobie z kolejki.
+     * Licznik zajętych miejsc sesji się nie zmienia, więc wiersz sesji nie jest blokowany.
+     *
+     * @return {@code false}, gdy nikt nie czeka (albo wszyscy są właśnie promowani przez inne transakcje)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean transferSeat(Long sessionId) {
+        List<WaitlistEntry> claimed = repo.claimHead(sessionId, 1);
+        if (claimed.isEmpty()) {
+            return false;
+        }
+        admit(sessionId, claimed);
+        return true;
+    }
+
+    /**
+     * Promuje naraz tylu oczekujących, ilu mieści się w wolnych miejscach
+     * (np. po zwiększeniu limitu sesji): jeden SELECT ... SKIP LOCKED, jeden UPDATE licznika,
+     * wsadowy INSERT rezerwacji i jeden DELETE wpisów.
+     */
+    @Transactional
+    public int promoteFreeSeats(Long sessionId) {
+        int free = sessionRepo.findFreeSeats(sessionId).orElse(0);
+        if (free <= 0) {
+            return 0;
+        }
+        List<WaitlistEntry> claimed = repo.claimHead(sessionId, free);
+        if (claimed.isEmpty() || sessionRepo.tryTakeSeats(sessionId, claimed.size()) == 0) {
+            return 0;
+        }
+        admit(sessionId, claimed);
+        return claimed.size();
+    }
+
+    private void admit(Long sessionId, List<WaitlistEntry> claimed) {
+        TrainingSession sessionRef = sessionRepo.getReferenceById(sessionId);
+        LocalDateTime now = LocalDateTime.now();
+        List<Reservation> reservations = claimed.stream()
+                .map(entry -> {
+                    Reservation r = new Reservation();
+                    r.setUser(userRepo.getReferenceById(entry.getUserId()));
+                    r.setSession(sessionRef);
+                    r.setReservationTime(now);
+                    return r;
+                })
+                .toList();
+        reservationRepo.saveAll(reservations);
+        // persist nadaje id tym samym obiektom
+        for (int i = 0; i < claimed.size(); i++) {
+            events.publishEvent(ReservationEvent.created(reservations.get(i).getId(), claimed.get(i).getUserId(), sessionId));
+        }
+
+        List<Long> entryIds = claimed.stream().map(WaitlistEntry::getId).toList();
+        repo.deleteAllByIdInBatch(entryIds);
+        afterCommit(() -> entryIds.forEach(id -> index.remove(sessionId, id)));
+    }
+
+    private long positionOf(Long sessionId, Long entryId) {
+        long position = index.position(sessionId, entryId);
+        return position >= 0 ? position : reload(sessionId, entryId);
+    }
+
+    /** Zimny albo przeterminowany indeks – jedyne miejsce, które czyta całą kolejkę z bazy. */
+    private long reload(Long sessionId, Long entryId) {
+        index.load(sessionId, repo.findIdsBySessionId(sessionId));
+        return index.position(sessionId, entryId);
+    }
+
+    private WaitlistEntryDto toDto(WaitlistEntry e, long position) {
+        return new WaitlistEntryDto(e.getId(), e.getUserId(), e.getSessionId(), e.getEnqueuedAt(), position);
+    }
+}
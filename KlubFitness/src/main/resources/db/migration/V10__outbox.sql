@@ -0,0 +1,12 @@
+-- Outbox zdarzeń rezerwacji: wiersz zapisywany w tej samej transakcji co INSERT/DELETE rezerwacji,
+-- wysyłany dalej przez OutboxRelay (SELECT ... FOR UPDATE SKIP LOCKED, paczkami) i usuwany po wysłaniu.
+-- Id z sekwencji z krokiem 50 (jak reservations, V5), żeby INSERT-y szły wsadem razem z rezerwacjami.
+CREATE TABLE outbox_events (
+    id           BIGSERIAL PRIMARY KEY,
+    event_type   VARCHAR(50)  NOT NULL,
+    aggregate_id BIGINT       NOT NULL,
+    payload      TEXT         NOT NULL,
+    created_at   TIMESTAMP    NOT NULL
+);
+
+ALTER SEQUENCE outbox_events_id_seq INCREMENT BY 50;
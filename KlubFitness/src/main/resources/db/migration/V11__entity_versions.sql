@@ -0,0 +1,13 @@
+-- Wersje wierszy (@Version, blokowanie optymistyczne) i czas ostatniej zmiany dla ETag / Last-Modified.
+-- Licznik seats_taken nie podbija wersji (rezerwacje nie kolidują z edycją sesji), ale zmienia updated_at;
+-- ETag sesji składa się z wersji i seats_taken.
+ALTER TABLE training_sessions
+    ADD COLUMN version    BIGINT    NOT NULL DEFAULT 0,
+    ADD COLUMN updated_at TIMESTAMP NOT NULL DEFAULT now();
+
+ALTER TABLE trainers
+    ADD COLUMN version    BIGINT    NOT NULL DEFAULT 0,
+    ADD COLUMN updated_at TIMESTAMP NOT NULL DEFAULT now();
+
+ALTER TABLE users
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,11 @@
+-- Wyszukiwanie sesji stronami keyset: ORDER BY start_time, id i warunek (start_time, id) > (:t, :id).
+-- Indeksy z id na końcu dają gotową kolejność strony (także wstecz przy sortowaniu malejącym) bez sortowania
+-- i zastępują jednokolumnowe indeksy z V2 – ich zapytania korzystają z prefiksu nowych.
+CREATE INDEX idx_training_sessions_start_id
+    ON training_sessions (start_time, id);
+DROP INDEX idx_training_sessions_start_time;
+
+-- Plan tygodnia jednego trenera; prefiks (trainer_id) nadal obsługuje FK przy usuwaniu trenera
+CREATE INDEX idx_training_sessions_trainer_start_id
+    ON training_sessions (trainer_id, start_time, id);
+DROP INDEX idx_training_sessions_trainer;
@@ -0,0 +1,22 @@
+-- Wyszukiwanie pełnotekstowe bez zewnętrznej usługi.
+-- Sesje: tsvector z tytułu (waga A) i opisu (waga B) jako kolumna generowana – baza przelicza ją przy każdym
+-- INSERT/UPDATE, aplikacja jej nie zapisuje (encja jej nie mapuje). Słownik 'english': Postgres nie ma
+-- wbudowanego polskiego, a ten sam stemmer po obu stronach i tak dopasowuje całe polskie słowa.
+ALTER TABLE training_sessions
+    ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A')
+            || setweight(to_tsvector('english', coalesce(description, '')), 'B')
+        ) STORED;
+
+CREATE INDEX idx_training_sessions_search
+    ON training_sessions USING gin (search_vector);
+
+-- Trenerzy: nazwiska i specjalizacje z literówkami i fragmentami ("Anna Kow", "pilats") – trigramy,
+-- operator <% (podobieństwo do słowa) korzysta z indeksów GIN
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_trainers_name_trgm
+    ON trainers USING gin (name gin_trgm_ops);
+
+CREATE INDEX idx_trainers_specialization_trgm
+    ON trainers USING gin (specialization gin_trgm_ops);
@@ -0,0 +1,4 @@
+-- Wersja listy sesji (ETag GET /api/sessions) = count(*) + max(updated_at). Indeks daje max z jednego wpisu,
+-- a count – skan samego indeksu zamiast wcześniejszego haszowania każdego wiersza tabeli.
+CREATE INDEX idx_training_sessions_updated_at
+    ON training_sessions (updated_at);
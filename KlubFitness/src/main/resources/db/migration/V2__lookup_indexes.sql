@@ -0,0 +1,45 @@
+-- Indeksy pod najczęstsze zapytania:
+--   findByUserId                              -> reservations(user_id, session_id) – unikalny, niżej
+--   findDtoPageByUserId (user_id = ? AND id > ? ORDER BY id)       -> reservations(user_id, id)
+--   findBySessionId / findDtoPageBySessionId (session_id = ? AND id > ? ORDER BY id)
+--                                             -> reservations(session_id, id)
+--   findByStartTimeBetween                    -> training_sessions(start_time)
+
+-- Jedna rezerwacja użytkownika na sesję. Migracja nie usuwa rezerwacji: jeśli w bazie są duplikaty,
+-- zatrzymuje się z listą przykładowych par – ich porządkowanie to osobna, przejrzana migracja danych.
+DO $$
+DECLARE
+    duplicates TEXT;
+BEGIN
+    SELECT string_agg(format('(user_id=%s, session_id=%s) x%s', user_id, session_id, n), ', ')
+    INTO duplicates
+    FROM (SELECT user_id, session_id, COUNT(*) AS n
+          FROM reservations
+          GROUP BY user_id, session_id
+          HAVING COUNT(*) > 1
+          ORDER BY user_id, session_id
+          LIMIT 20) d;
+    IF duplicates IS NOT NULL THEN
+        RAISE EXCEPTION 'reservations contain duplicate (user_id, session_id) pairs: %', duplicates
+            USING HINT = 'Resolve the duplicate bookings in a separate data migration before V2.';
+    END IF;
+END
+$$;
+
+-- Unikalny indeks (user_id, session_id) obsługuje też wyszukiwanie po samym user_id
+ALTER TABLE reservations
+    ADD CONSTRAINT uk_reservations_user_session UNIQUE (user_id, session_id);
+
+-- Strony keyset: równość na pierwszej kolumnie + zakres i kolejność po id prosto z indeksu
+CREATE INDEX idx_reservations_session_id
+    ON reservations (session_id, id);
+
+CREATE INDEX idx_reservations_user_id
+    ON reservations (user_id, id);
+
+CREATE INDEX idx_training_sessions_start_time
+    ON training_sessions (start_time);
+
+-- FK bez indeksu = pełny skan przy usuwaniu trenera i przy filtrowaniu po trenerze
+CREATE INDEX idx_training_sessions_trainer
+    ON training_sessions (trainer_id);
@@ -0,0 +1,15 @@
+-- Limit miejsc na sesji + licznik zajętych miejsc utrzymywany warunkowym UPDATE-em
+-- (UPDATE ... SET seats_taken = seats_taken + 1 WHERE seats_taken < capacity)
+ALTER TABLE training_sessions
+    ADD COLUMN capacity INT NOT NULL DEFAULT 20,
+    ADD COLUMN seats_taken INT NOT NULL DEFAULT 0;
+
+UPDATE training_sessions s
+SET seats_taken = c.cnt,
+    capacity    = GREATEST(s.capacity, c.cnt)
+FROM (SELECT session_id, COUNT(*) AS cnt FROM reservations GROUP BY session_id) c
+WHERE c.session_id = s.id;
+
+ALTER TABLE training_sessions
+    ADD CONSTRAINT chk_training_sessions_seats
+        CHECK (capacity > 0 AND seats_taken >= 0 AND seats_taken <= capacity);
@@ -0,0 +1,13 @@
+-- Kolejka oczekujących na miejsce w pełnej sesji. Kolejność = id (BIGSERIAL rośnie monotonicznie).
+CREATE TABLE waitlist_entries (
+                                  id BIGSERIAL PRIMARY KEY,
+                                  session_id BIGINT NOT NULL
+                                      REFERENCES training_sessions(id) ON DELETE CASCADE,
+                                  user_id BIGINT NOT NULL
+                                      REFERENCES users(id) ON DELETE CASCADE,
+                                  enqueued_at TIMESTAMP NOT NULL,
+                                  CONSTRAINT uk_waitlist_session_user UNIQUE (session_id, user_id)
+);
+
+-- Pobieranie czoła kolejki: ORDER BY id LIMIT n FOR UPDATE SKIP LOCKED
+CREATE INDEX idx_waitlist_session_id ON waitlist_entries (session_id, id);
@@ -0,0 +1,7 @@
+-- Id rezerwacji z sekwencji z krokiem 50 (optymalizator "pooled" Hibernate): jedno nextval
+-- na 50 wierszy zamiast IDENTITY, które wyłącza wsadowe INSERT-y.
+-- Domyślna wartość kolumny (nextval) zostaje dla INSERT-ów spoza Hibernate – przy kroku 50
+-- nie koliduje z pulami przydzielonymi aplikacji.
+ALTER SEQUENCE reservations_id_seq INCREMENT BY 50;
+
+SELECT setval('reservations_id_seq', COALESCE((SELECT MAX(id) FROM reservations), 0) + 50, false);
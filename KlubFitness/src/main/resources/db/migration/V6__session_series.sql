@@ -0,0 +1,22 @@
+-- Cykliczne zajęcia: reguła serii + wystąpienia jako zwykłe wiersze training_sessions.
+CREATE TABLE session_series (
+                                id BIGSERIAL PRIMARY KEY,
+                                title VARCHAR(255) NOT NULL,
+                                days_of_week VARCHAR(64) NOT NULL,
+                                first_date DATE NOT NULL,
+                                until_date DATE NOT NULL,
+                                start_time TIME NOT NULL,
+                                duration_minutes INT NOT NULL,
+                                excluded_dates TEXT
+);
+
+ALTER TABLE training_sessions
+    ADD COLUMN series_id BIGINT REFERENCES session_series(id) ON DELETE SET NULL;
+
+-- "to i następne": WHERE series_id = ? AND start_time >= ?
+CREATE INDEX idx_training_sessions_series_start ON training_sessions (series_id, start_time);
+
+-- Id sesji z puli 50 (jak rezerwacje w V5), żeby wystąpienia serii szły wsadowymi INSERT-ami
+ALTER SEQUENCE training_sessions_id_seq INCREMENT BY 50;
+
+SELECT setval('training_sessions_id_seq', COALESCE((SELECT MAX(id) FROM training_sessions), 0) + 50, false);
@@ -0,0 +1,14 @@
+-- Trener nie może prowadzić dwóch nakładających się sesji.
+-- Ograniczenie wykluczające na (trainer_id, [start_time, end_time)) – indeks GiST odpowiada
+-- na pytanie "czy przedział nachodzi na inny przedział tego trenera" w O(log n).
+-- Sesje stykające się końcami (10:00-11:00 i 11:00-12:00) są dozwolone.
+-- Migracja nie przejdzie, jeśli w bazie są już kolizje – trzeba je wcześniej usunąć ręcznie.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE training_sessions
+    ADD CONSTRAINT chk_training_sessions_time CHECK (end_time > start_time);
+
+ALTER TABLE training_sessions
+    ADD CONSTRAINT ex_training_sessions_trainer_overlap
+        EXCLUDE USING gist (trainer_id WITH =, tsrange(start_time, end_time) WITH &&);
+
@@ -0,0 +1,46 @@
+-- Raporty (/api/reports) z widoków zmaterializowanych zamiast agregacji na żywo po reservations.
+-- Widoki odświeża ReportService (REFRESH ... CONCURRENTLY – odczyty raportów nie są blokowane),
+-- czas ostatniego odświeżenia trzyma report_refresh.
+
+-- Obłożenie per sesja: seats_taken jest licznikiem utrzymywanym przy rezerwacji (V3),
+-- więc ten widok nie czyta reservations wcale; dzień tygodnia (1 = poniedziałek) i godzina
+-- policzone raz, pod raport per slot.
+CREATE MATERIALIZED VIEW report_session_fill AS
+SELECT s.id                                  AS session_id,
+       s.trainer_id,
+       t.name                                AS trainer_name,
+       s.title,
+       s.start_time,
+       EXTRACT(ISODOW FROM s.start_time)::INT AS weekday,
+       EXTRACT(HOUR FROM s.start_time)::INT   AS hour,
+       s.capacity,
+       s.seats_taken
+FROM training_sessions s
+         JOIN trainers t ON t.id = s.trainer_id;
+
+CREATE UNIQUE INDEX ux_report_session_fill ON report_session_fill (session_id);
+CREATE INDEX idx_report_session_fill_start ON report_session_fill (start_time);
+
+-- Rezerwacje per (sesja, rola użytkownika): jedyny pełny skan reservations, wykonywany przy
+-- odświeżeniu. Rabat zależy od roli i sesji (DiscountStrategy), więc przychód liczy aplikacja
+-- z tych grup – kilka wierszy na sesję zamiast wiersza na rezerwację.
+CREATE MATERIALIZED VIEW report_session_bookings AS
+SELECT r.session_id,
+       s.trainer_id,
+       s.start_time,
+       u.role,
+       COUNT(*) AS reservations
+FROM reservations r
+         JOIN training_sessions s ON s.id = r.session_id
+         JOIN users u ON u.id = r.user_id
+GROUP BY r.session_id, s.trainer_id, s.start_time, u.role;
+
+CREATE UNIQUE INDEX ux_report_session_bookings ON report_session_bookings (session_id, role);
+CREATE INDEX idx_report_session_bookings_start ON report_session_bookings (start_time);
+
+CREATE TABLE report_refresh (
+    id           INT PRIMARY KEY CHECK (id = 1),
+    refreshed_at TIMESTAMP NOT NULL
+);
+
+INSERT INTO report_refresh (id, refreshed_at) VALUES (1, now());
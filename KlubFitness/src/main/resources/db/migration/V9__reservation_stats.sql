@@ -0,0 +1,19 @@
+-- Liczniki rezerwacji per sesja i per użytkownik, utrzymywane przyrostowo przez ReservationStats
+-- (zdarzenia utworzenia/anulowania rezerwacji, zapis wsadowy co klubfitness.stats.flush-interval)
+-- zamiast COUNT(*) po reservations. Bez kluczy obcych: to statystyka, nie źródło prawdy –
+-- wiersz usuniętej sesji nikomu nie szkodzi, a zapis wsadu nie może się wywrócić na FK.
+CREATE TABLE session_stats (
+    session_id   BIGINT PRIMARY KEY,
+    reservations BIGINT NOT NULL
+);
+
+CREATE TABLE user_stats (
+    user_id      BIGINT PRIMARY KEY,
+    reservations BIGINT NOT NULL
+);
+
+INSERT INTO session_stats (session_id, reservations)
+SELECT session_id, COUNT(*) FROM reservations GROUP BY session_id;
+
+INSERT INTO user_stats (user_id, reservations)
+SELECT user_id, COUNT(*) FROM reservations GROUP BY user_id;
@@ -0,0 +1,74 @@
+package org.example.klubfitness.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionLimiterTest {
+
+    @Mock
+    private DataSource target;
+
+    private ConnectionLimiter limiter;
+
+    @BeforeEach
+    void init() {
+        limiter = new ConnectionLimiter(target, 2, Duration.ofMillis(50));
+    }
+
+    @Test
+    void beyondLimit_waitsThenFailsFast() throws Exception {
+        when(target.getConnection()).thenAnswer(inv -> mock(Connection.class));
+        limiter.getConnection();
+        limiter.getConnection();
+
+        assertThatThrownBy(() -> limiter.getConnection()).isInstanceOf(SQLTransientConnectionException.class);
+        assertThat(limiter.inUse()).isEqualTo(2);
+        verify(target, times(2)).getConnection();
+    }
+
+    @Test
+    void close_releasesPermitOnce() throws Exception {
+        Connection raw = mock(Connection.class);
+        when(target.getConnection()).thenReturn(raw);
+
+        Connection c = limiter.getConnection();
+        c.close();
+        c.close();
+
+        verify(raw, times(2)).close();
+        assertThat(limiter.inUse()).isZero();
+        limiter.getConnection();
+        limiter.getConnection();
+        assertThat(limiter.inUse()).isEqualTo(2);
+    }
+
+    @Test
+    void failedCheckout_releasesPermit() throws Exception {
+        when(target.getConnection()).thenThrow(new SQLException("db down"));
+
+        assertThatThrownBy(() -> limiter.getConnection()).hasMessage("db down");
+        assertThat(limiter.inUse()).isZero();
+    }
+
+    @Test
+    void otherCalls_passThroughToConnection() throws Exception {
+        Connection raw = mock(Connection.class);
+        when(raw.getAutoCommit()).thenReturn(false);
+        when(target.getConnection()).thenReturn(raw);
+
+        assertThat(limiter.getConnection().getAutoCommit()).isFalse();
+    }
+}
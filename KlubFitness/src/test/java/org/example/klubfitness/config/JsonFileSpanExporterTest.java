@@ -0,0 +1,79 @@
+package org.example.klubfitness.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.sdk.testing.trace.TestSpanData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.data.StatusData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class JsonFileSpanExporterTest {
+
+    private static final String TRACE_ID = "0af7651916cd43dd8448eb211c80319c";
+
+    @TempDir
+    Path dir;
+
+    private static SpanData span(String spanId, String parentId, String name, long startNanos, long endNanos) {
+        return TestSpanData.builder()
+                .setSpanContext(SpanContext.create(TRACE_ID, spanId, TraceFlags.getSampled(), TraceState.getDefault()))
+                .setParentSpanContext(parentId == null ? SpanContext.getInvalid()
+                        : SpanContext.create(TRACE_ID, parentId, TraceFlags.getSampled(), TraceState.getDefault()))
+                .setName(name)
+                .setKind(SpanKind.INTERNAL)
+                .setStartEpochNanos(startNanos)
+                .setEndEpochNanos(endNanos)
+                .setHasEnded(true)
+                .setStatus(StatusData.ok())
+                .setAttributes(Attributes.builder().put("step", "admit").build())
+                .build();
+    }
+
+    @Test
+    void writesOneJsonLinePerSpan() throws Exception {
+        Path file = dir.resolve("traces/spans.jsonl");
+        JsonFileSpanExporter exporter = new JsonFileSpanExporter(file);
+
+        assertThat(exporter.export(List.of(
+                span("b7ad6b7169203331", null, "http post /api/reservations", 1_000_000, 9_000_000),
+                span("00f067aa0ba902b7", "b7ad6b7169203331", "reservation admit", 2_000_000, 2_500_000)))
+                .isSuccess()).isTrue();
+        exporter.shutdown();
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(2);
+        ObjectMapper json = new ObjectMapper();
+        JsonNode root = json.readTree(lines.get(0));
+        JsonNode child = json.readTree(lines.get(1));
+        assertThat(root.get("parentSpanId").isNull()).isTrue();
+        assertThat(root.get("durationMicros").asLong()).isEqualTo(8000);
+        assertThat(child.get("traceId").asText()).isEqualTo(TRACE_ID);
+        assertThat(child.get("parentSpanId").asText()).isEqualTo("b7ad6b7169203331");
+        assertThat(child.get("name").asText()).isEqualTo("reservation admit");
+        assertThat(child.get("attributes").get("step").asText()).isEqualTo("admit");
+    }
+
+    @Test
+    void appendsAcrossRestarts() throws Exception {
+        Path file = dir.resolve("spans.jsonl");
+        for (int i = 0; i < 2; i++) {
+            JsonFileSpanExporter exporter = new JsonFileSpanExporter(file);
+            exporter.export(List.of(span("b7ad6b7169203331", null, "run " + i, 0, 1000)));
+            exporter.shutdown();
+        }
+
+        assertThat(Files.readAllLines(file)).hasSize(2);
+    }
+}
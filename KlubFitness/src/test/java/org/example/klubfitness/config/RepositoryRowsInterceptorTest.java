@@ -0,0 +1,106 @@
+package org.example.klubfitness.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RepositoryRowsInterceptorTest {
+
+    interface SampleRepository {
+        List<String> findAll();
+
+        Optional<String> findById(long id);
+
+        Slice<String> findPage();
+
+        int deleteAll();
+    }
+
+    static class InMemorySampleRepository implements SampleRepository {
+        @Override
+        public List<String> findAll() {
+            return List.of("a", "b", "c");
+        }
+
+        @Override
+        public Optional<String> findById(long id) {
+            return id == 1 ? Optional.of("a") : Optional.empty();
+        }
+
+        @Override
+        public Slice<String> findPage() {
+            return new PageImpl<>(List.of("a", "b"), PageRequest.of(0, 2), 10);
+        }
+
+        @Override
+        public int deleteAll() {
+            return 3;
+        }
+    }
+
+    private SimpleMeterRegistry registry;
+    private SampleRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("registry", registry);
+
+        ProxyFactory proxy = new ProxyFactory(new InMemorySampleRepository());
+        proxy.addInterface(SampleRepository.class);
+        proxy.addAdvice(new RepositoryRowsInterceptor(SampleRepository.class, beans.getBeanProvider(MeterRegistry.class)));
+        repository = (SampleRepository) proxy.getProxy();
+    }
+
+    private DistributionSummary rows(String method) {
+        return registry.get(MetricsConfig.REPOSITORY_ROWS)
+                .tag("repository", "SampleRepository")
+                .tag("method", method)
+                .summary();
+    }
+
+    @Test
+    void recordsRowsPerMethod() {
+        repository.findAll();
+        repository.findAll();
+        repository.findById(1);
+        repository.findById(2);
+        repository.findPage();
+
+        assertThat(rows("findAll").count()).isEqualTo(2);
+        assertThat(rows("findAll").totalAmount()).isEqualTo(6);
+        assertThat(rows("findById").count()).isEqualTo(2);
+        assertThat(rows("findById").totalAmount()).isEqualTo(1);
+        assertThat(rows("findPage").totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    void ignoresNonRowResults() {
+        assertThat(repository.deleteAll()).isEqualTo(3);
+
+        assertThat(registry.find(MetricsConfig.REPOSITORY_ROWS).meters()).isEmpty();
+    }
+
+    @Test
+    void withoutRegistry_passesResultThrough() {
+        ProxyFactory proxy = new ProxyFactory(new InMemorySampleRepository());
+        proxy.addInterface(SampleRepository.class);
+        proxy.addAdvice(new RepositoryRowsInterceptor(SampleRepository.class,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class)));
+
+        assertThat(((SampleRepository) proxy.getProxy()).findAll()).containsExactly("a", "b", "c");
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.klubfitness.config;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SqlInstrumentationConfigTest {
+
+    // jak w aplikacji: konwersja "500ms" -> Duration dla @Value
+    private final ApplicationContextRunner ctx = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withUserConfiguration(SqlInstrumentationConfig.class, VirtualThreadsConfig.class)
+            .withBean(DataSource.class, () -> {
+                HikariDataSource hikari = new HikariDataSource();
+                hikari.setMaximumPoolSize(7);
+                return hikari;
+            });
+
+    @Test
+    void dataSourceIsWrappedInSqlProxy() {
+        ctx.run(context -> {
+            DataSource ds = context.getBean(DataSource.class);
+            assertThat(ds).isInstanceOf(ProxyDataSource.class);
+            // tak szuka puli DataSourcePoolMetricsAutoConfiguration (metryki hikaricp.*)
+            assertThat(DataSourceUnwrapper.unwrap(ds, HikariConfigMXBean.class, HikariDataSource.class)).isNotNull();
+        });
+    }
+
+    @Test
+    void virtualThreads_sqlProxySitsOnTopOfConnectionLimiter() {
+        ctx.withPropertyValues("spring.threads.virtual.enabled=true").run(context -> {
+            DataSource ds = context.getBean(DataSource.class);
+            assertThat(ds).isInstanceOf(ProxyDataSource.class);
+            assertThat(((ProxyDataSource) ds).getDataSource()).isInstanceOf(ConnectionLimiter.class);
+            assertThat(VirtualThreadsConfig.limiterOf(ds)).isNotNull();
+        });
+    }
+
+    @Test
+    void responseHeadersAdvice_isOffByDefault() {
+        ctx.withUserConfiguration(SqlStatsResponseAdvice.class)
+                .run(context -> assertThat(context).doesNotHaveBean(SqlStatsResponseAdvice.class));
+        ctx.withUserConfiguration(SqlStatsResponseAdvice.class)
+                .withPropertyValues("klubfitness.sql.response-headers=true")
+                .run(context -> assertThat(context).hasSingleBean(SqlStatsResponseAdvice.class));
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.klubfitness.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SqlStatsFilterTest {
+
+    private SimpleMeterRegistry registry;
+    private SqlStatementListener listener;
+    private SqlStatsFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("registry", registry);
+        ObjectProvider<MeterRegistry> meters = beans.getBeanProvider(MeterRegistry.class);
+        listener = new SqlStatementListener(Duration.ofMillis(100), meters);
+        filter = new SqlStatsFilter(3, meters);
+    }
+
+    private void execute(String sql, long elapsedMillis) {
+        ExecutionInfo exec = new ExecutionInfo();
+        exec.setElapsedTime(elapsedMillis);
+        exec.setSuccess(true);
+        listener.afterQuery(exec, List.of(new QueryInfo(sql)));
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reservations/7");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/reservations/{id}");
+        return request;
+    }
+
+    private void handle(FilterChain handler) throws Exception {
+        filter.doFilter(request(), new MockHttpServletResponse(), handler);
+    }
+
+    @Test
+    void countsStatementsPerRequestAndClearsAfterwards() throws Exception {
+        AtomicReference<RequestSqlStats> seen = new AtomicReference<>();
+        handle((req, res) -> {
+            execute("select * from reservations where id=?", 2);
+            execute("select * from users where id=?", 3);
+            seen.set(RequestSqlStats.current());
+        });
+
+        assertThat(seen.get().statements()).isEqualTo(2);
+        assertThat(seen.get().elapsedMillis()).isEqualTo(5);
+        assertThat(RequestSqlStats.current()).isNull();
+        assertThat(registry.get(SqlStatsFilter.STATEMENTS_PER_REQUEST)
+                .tag("uri", "/api/reservations/{id}").summary().totalAmount()).isEqualTo(2);
+        assertThat(registry.get(SqlStatementListener.STATEMENTS).tag("type", "select").counter().count())
+                .isEqualTo(2);
+        assertThat(registry.find(SqlStatsFilter.N_PLUS_ONE).counter()).isNull();
+    }
+
+    @Test
+    void repeatedStatement_isFlaggedAsNPlusOne() throws Exception {
+        handle((req, res) -> {
+            execute("select * from reservations where user_id=?", 1);
+            for (int i = 0; i < 3; i++) {
+                execute("select * from training_sessions where id=?", 1);
+            }
+        });
+
+        assertThat(registry.get(SqlStatsFilter.N_PLUS_ONE).tag("uri", "/api/reservations/{id}").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void slowStatement_isCountedOutsideRequestsToo() {
+        execute("update training_sessions set seats_taken=seats_taken+1 where id=?", 150);
+        execute("select 1", 5);
+
+        assertThat(registry.get(SqlStatementListener.SLOW).counter().count()).isEqualTo(1);
+        assertThat(registry.get(SqlStatementListener.STATEMENTS).tag("type", "update").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void mostRepeated_reportsTopStatement() {
+        RequestSqlStats stats = RequestSqlStats.start();
+        try {
+            assertThat(stats.mostRepeated()).isNull();
+            execute("a", 0);
+            execute("b", 0);
+            execute("b", 0);
+            assertThat(stats.mostRepeated().getKey()).isEqualTo("b");
+            assertThat(stats.maxRepeats()).isEqualTo(2);
+        } finally {
+            RequestSqlStats.clear();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.klubfitness.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.*;
+
+class VirtualThreadsConfigTest {
+
+    private final ApplicationContextRunner ctx = new ApplicationContextRunner()
+            .withUserConfiguration(VirtualThreadsConfig.class)
+            .withBean(DataSource.class, () -> {
+                HikariDataSource hikari = new HikariDataSource();
+                hikari.setMaximumPoolSize(7);
+                return hikari;
+            });
+
+    @Test
+    void virtualThreads_wrapPoolInLimiterOfPoolSize() {
+        ctx.withPropertyValues("spring.threads.virtual.enabled=true").run(context -> {
+            DataSource ds = context.getBean(DataSource.class);
+            assertThat(ds).isInstanceOf(ConnectionLimiter.class);
+            assertThat(ds.unwrap(HikariDataSource.class).getMaximumPoolSize()).isEqualTo(7);
+        });
+    }
+
+    @Test
+    void platformThreads_leavePoolAsIs() {
+        ctx.run(context -> {
+            assertThat(context.getBean(DataSource.class)).isInstanceOf(HikariDataSource.class);
+            assertThat(context).doesNotHaveBean(MeterBinder.class);
+        });
+    }
+
+    @Test
+    void virtualThreads_exposeLimiterGauges() {
+        ctx.withPropertyValues("spring.threads.virtual.enabled=true").run(context -> {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            context.getBean(MeterBinder.class).bindTo(registry);
+
+            assertThat(registry.get("klubfitness.db.limiter.waiting").gauge().value()).isZero();
+            assertThat(registry.get("klubfitness.db.limiter.in-use").gauge().value()).isZero();
+        });
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.klubfitness.controller;
+
+import org.example.klubfitness.dto.TokenResponseDto;
+import org.example.klubfitness.exception.RestExceptionHandler;
+import org.example.klubfitness.security.CachingAuthenticationProvider;
+import org.example.klubfitness.security.TokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthControllerTest {
+
+    private MockMvc mvc;
+
+    @Mock
+    private CachingAuthenticationProvider authProvider;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private TokenService tokens;
+
+    @InjectMocks
+    private AuthController controller;
+
+    @BeforeEach
+    void setup() {
+        mvc = MockMvcBuilders
+                .standaloneSetup(controller)
+                .setControllerAdvice(new RestExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void login_validCredentials_returnsTokens() throws Exception {
+        given(authProvider.authenticate(any())).willReturn(UsernamePasswordAuthenticationToken.authenticated(
+                "alice", null, AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+        given(tokens.issue("alice", List.of("ADMIN")))
+                .willReturn(new TokenResponseDto("acc", "ref", "Bearer", 900));
+
+        mvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"alice\",\"password\":\"secret\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken", is("acc")))
+                .andExpect(jsonPath("$.refreshToken", is("ref")))
+                .andExpect(jsonPath("$.expiresIn", is(900)));
+    }
+
+    @Test
+    void login_badCredentials_unauthorized() throws Exception {
+        given(authProvider.authenticate(any())).willThrow(new BadCredentialsException("bad"));
+
+        mvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"alice\",\"password\":\"guess\"}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void refresh_readsCurrentRoleFromDatabase() throws Exception {
+        given(tokens.verifyRefresh("ref")).willReturn("alice");
+        given(userDetailsService.loadUserByUsername("alice"))
+                .willReturn(User.withUsername("alice").password("x").roles("USER").build());
+        given(tokens.issue("alice", List.of("USER")))
+                .willReturn(new TokenResponseDto("acc2", "ref2", "Bearer", 900));
+
+        mvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"ref\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken", is("acc2")));
+    }
+
+    @Test
+    void refresh_invalidTokenOrDeletedUser_unauthorized() throws Exception {
+        given(tokens.verifyRefresh("bad")).willThrow(new BadJwtException("bad"));
+        given(tokens.verifyRefresh("ref")).willReturn("ghost");
+        given(userDetailsService.loadUserByUsername("ghost")).willThrow(new UsernameNotFoundException("ghost"));
+
+        mvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"bad\"}"))
+                .andExpect(status().isUnauthorized());
+        mvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"ref\"}"))
+                .andExpect(status().isUnauthorized());
+    }
+}
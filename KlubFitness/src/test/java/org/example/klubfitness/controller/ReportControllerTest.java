@@ -0,0 +1,91 @@
+package org.example.klubfitness.controller;
+
+import org.example.klubfitness.dto.SlotFillDto;
+import org.example.klubfitness.dto.TrainerFillDto;
+import org.example.klubfitness.exception.BadRequestException;
+import org.example.klubfitness.exception.RestExceptionHandler;
+import org.example.klubfitness.service.ReportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportControllerTest {
+
+    private MockMvc mvc;
+
+    @Mock
+    private ReportService service;
+
+    @InjectMocks
+    private ReportController controller;
+
+    @BeforeEach
+    void setup() {
+        mvc = MockMvcBuilders
+                .standaloneSetup(controller)
+                .setControllerAdvice(new RestExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void trainers_returnsFillRatesWithLastModified() throws Exception {
+        given(service.trainerFill(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31)))
+                .willReturn(List.of(new TrainerFillDto(7L, "Anna", 4, 80, 60, 0.75)));
+        given(service.refreshedAt()).willReturn(LocalDateTime.of(2025, 3, 31, 12, 0));
+
+        mvc.perform(get("/api/reports/trainers").param("from", "2025-03-01").param("to", "2025-03-31"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].trainerName", is("Anna")))
+                .andExpect(jsonPath("$[0].fillRate", is(0.75)));
+    }
+
+    @Test
+    void slots_weekdayAsName() throws Exception {
+        given(service.slotFill(any(), any()))
+                .willReturn(List.of(new SlotFillDto(DayOfWeek.MONDAY, 18, 10, 200, 190, 0.95)));
+        given(service.refreshedAt()).willReturn(LocalDateTime.of(2025, 3, 31, 12, 0));
+
+        mvc.perform(get("/api/reports/slots").param("from", "2025-03-01").param("to", "2025-03-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].weekday", is("MONDAY")))
+                .andExpect(jsonPath("$[0].hour", is(18)));
+    }
+
+    @Test
+    void invalidRange_badRequest() throws Exception {
+        given(service.revenue(any(), any())).willThrow(new BadRequestException("Report range ends before it starts"));
+
+        mvc.perform(get("/api/reports/revenue").param("from", "2025-03-31").param("to", "2025-03-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void refresh_reportsOutcome() throws Exception {
+        given(service.refresh()).willReturn(true);
+        given(service.refreshedAt()).willReturn(LocalDateTime.of(2025, 3, 31, 12, 0));
+
+        mvc.perform(post("/api/reports/refresh"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.refreshed", is(true)));
+    }
+}
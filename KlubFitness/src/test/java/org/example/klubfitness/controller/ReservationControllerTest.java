@@ -3,31 +3,39 @@ package org.example.klubfitness.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.example.klubfitness.dto.ReservationBatchResultDto;
 import org.example.klubfitness.dto.ReservationDto;
 import org.example.klubfitness.entity.Reservation;
 import org.example.klubfitness.entity.TrainingSession;
 import org.example.klubfitness.entity.User;
+import org.example.klubfitness.exception.BadRequestException;
 import org.example.klubfitness.exception.RestExceptionHandler;
 import org.example.klubfitness.service.ReservationService;
+import org.example.klubfitness.service.ReservationStats;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -41,7 +49,9 @@ class ReservationControllerTest {
     @Mock
     private ReservationService service;
 
-    @InjectMocks
+    @Mock
+    private ReservationStats stats;
+
     private ReservationController controller;
 
     private final ObjectMapper mapper = new ObjectMapper()
@@ -50,6 +60,7 @@ class ReservationControllerTest {
 
     @BeforeEach
     void setup() {
+        controller = new ReservationController(service, mapper, stats);
         mvc = MockMvcBuilders
                 .standaloneSetup(controller)
                 .setControllerAdvice(new RestExceptionHandler())
@@ -74,28 +85,69 @@ class ReservationControllerTest {
     }
 
     @Test
-    @DisplayName("GET /api/reservations → all")
+    @DisplayName("GET /api/reservations → first page")
     void listAll() throws Exception {
         var now = LocalDateTime.now();
-        List<Reservation> list = Arrays.asList(
-                makeReservation(1L, 10L, 100L, now),
-                makeReservation(2L, 20L, 200L, now.plusHours(1))
+        List<ReservationDto> list = Arrays.asList(
+                makeDto(1L, 10L, 100L, now),
+                makeDto(2L, 20L, 200L, now.plusHours(1))
         );
-        given(service.getAllReservations()).willReturn(list);
+        given(service.getReservationsPage(null, null, null, 100)).willReturn(list);
 
         mvc.perform(get("/api/reservations"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ReservationController.NEXT_CURSOR_HEADER))
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].userId", is(10)))
                 .andExpect(jsonPath("$[1].sessionId", is(200)));
     }
 
+    @Test
+    @DisplayName("GET /api/reservations?afterId=&size= → full page carries next cursor")
+    void listPageWithCursor() throws Exception {
+        var now = LocalDateTime.now();
+        List<ReservationDto> page = Arrays.asList(
+                makeDto(11L, 10L, 100L, now),
+                makeDto(12L, 20L, 200L, now)
+        );
+        given(service.getReservationsPage(isNull(), isNull(), eq(10L), eq(2))).willReturn(page);
+
+        mvc.perform(get("/api/reservations").param("afterId", "10").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ReservationController.NEXT_CURSOR_HEADER, "12"))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(11)));
+    }
+
+    @Test
+    @DisplayName("GET /api/reservations/stream → NDJSON")
+    void streamAll() throws Exception {
+        var time = LocalDateTime.of(2025, 6, 1, 10, 0);
+        willAnswer(inv -> {
+            Consumer<ReservationDto> sink = inv.getArgument(0);
+            sink.accept(makeDto(1L, 10L, 100L, time));
+            sink.accept(makeDto(2L, 20L, 200L, time));
+            return null;
+        }).given(service).streamReservations(any());
+
+        MvcResult started = mvc.perform(get("/api/reservations/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ReservationController.NDJSON))
+                .andExpect(content().string(
+                        mapper.writeValueAsString(makeDto(1L, 10L, 100L, time)) + "\n"
+                                + mapper.writeValueAsString(makeDto(2L, 20L, 200L, time)) + "\n"));
+    }
+
     @Test
     @DisplayName("GET /api/reservations?userId= → filtered by user")
     void listByUser() throws Exception {
         var now = LocalDateTime.now();
-        var r = makeReservation(3L, 30L, 300L, now);
-        given(service.getReservationsByUser(30L)).willReturn(List.of(r));
+        var r = makeDto(3L, 30L, 300L, now);
+        given(service.getReservationsPage(30L, null, null, 100)).willReturn(List.of(r));
 
         mvc.perform(get("/api/reservations").param("userId", "30"))
                 .andExpect(status().isOk())
@@ -107,8 +159,8 @@ class ReservationControllerTest {
     @DisplayName("GET /api/reservations?sessionId= → filtered by session")
     void listBySession() throws Exception {
         var now = LocalDateTime.now();
-        var r = makeReservation(4L, 40L, 400L, now);
-        given(service.getReservationsBySession(400L)).willReturn(List.of(r));
+        var r = makeDto(4L, 40L, 400L, now);
+        given(service.getReservationsPage(null, 400L, null, 100)).willReturn(List.of(r));
 
         mvc.perform(get("/api/reservations").param("sessionId", "400"))
                 .andExpect(status().isOk())
@@ -133,6 +185,35 @@ class ReservationControllerTest {
                 .andExpect(jsonPath("$.sessionId", is(500)));
     }
 
+    @Test
+    @DisplayName("POST /api/reservations/batch → per-item results")
+    void createBatch() throws Exception {
+        var items = List.of(makeDto(null, 50L, 500L, null), makeDto(null, 51L, 500L, null));
+        given(service.createReservations(any())).willReturn(List.of(
+                new ReservationBatchResultDto(0, 50L, 500L, ReservationBatchResultDto.Status.CREATED, 9L),
+                new ReservationBatchResultDto(1, 51L, 500L, ReservationBatchResultDto.Status.SESSION_FULL, null)));
+
+        mvc.perform(post("/api/reservations/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(items)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status", is("CREATED")))
+                .andExpect(jsonPath("$[0].reservationId", is(9)))
+                .andExpect(jsonPath("$[1].status", is("SESSION_FULL")));
+    }
+
+    @Test
+    @DisplayName("POST /api/reservations/batch → 400 when too large")
+    void createBatchTooLarge() throws Exception {
+        given(service.createReservations(any())).willThrow(new BadRequestException("Batch too large"));
+
+        mvc.perform(post("/api/reservations/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("GET /api/reservations/{id} → 200 or 404")
     void getById() throws Exception {
@@ -161,4 +242,20 @@ class ReservationControllerTest {
         mvc.perform(delete("/api/reservations/8"))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    @DisplayName("GET /api/reservations/count → user or session counter")
+    void countReservations() throws Exception {
+        given(stats.userReservations(10L)).willReturn(4L);
+        given(stats.sessionReservations(20L)).willReturn(15L);
+
+        mvc.perform(get("/api/reservations/count").param("userId", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(4));
+        mvc.perform(get("/api/reservations/count").param("sessionId", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(15));
+        mvc.perform(get("/api/reservations/count"))
+                .andExpect(status().isBadRequest());
+    }
 }
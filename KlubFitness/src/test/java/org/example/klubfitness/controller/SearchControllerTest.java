@@ -0,0 +1,85 @@
+package org.example.klubfitness.controller;
+
+import org.example.klubfitness.dto.SessionHitDto;
+import org.example.klubfitness.dto.TrainerHitDto;
+import org.example.klubfitness.exception.BadRequestException;
+import org.example.klubfitness.exception.RestExceptionHandler;
+import org.example.klubfitness.service.SearchService;
+import org.example.klubfitness.service.SearchService.SearchPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchControllerTest {
+
+    private MockMvc mvc;
+
+    @Mock
+    private SearchService service;
+
+    @InjectMocks
+    private SearchController controller;
+
+    @BeforeEach
+    void setup() {
+        mvc = MockMvcBuilders
+                .standaloneSetup(controller)
+                .setControllerAdvice(new RestExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void sessions_returnsRankedPageWithNextPageNumber() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2025, 6, 2, 18, 0);
+        LocalDateTime from = LocalDateTime.of(2025, 6, 1, 0, 0);
+        given(service.searchSessions("yoga beginners evening", from, 1, 20)).willReturn(new SearchPage<>(
+                List.of(new SessionHitDto(3L, "Evening yoga", "For beginners", start, start.plusHours(1), 7L, 0.4)),
+                true));
+
+        mvc.perform(get("/api/search")
+                        .param("q", "yoga beginners evening")
+                        .param("from", "2025-06-01T00:00:00")
+                        .param("page", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(TrainingSessionController.NEXT_PAGE_HEADER, "2"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].title", is("Evening yoga")))
+                .andExpect(jsonPath("$[0].rank", is(0.4)));
+    }
+
+    @Test
+    void trainers_lastPage_noNextHeader() throws Exception {
+        given(service.searchTrainers("pilats", 0, 20)).willReturn(new SearchPage<>(
+                List.of(new TrainerHitDto(4L, "Anna", "Pilates", 0.71)), false));
+
+        mvc.perform(get("/api/search/trainers").param("q", "pilats"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(TrainingSessionController.NEXT_PAGE_HEADER))
+                .andExpect(jsonPath("$[0].specialization", is("Pilates")));
+    }
+
+    @Test
+    void missingQuery_isBadRequest() throws Exception {
+        given(service.searchSessions(null, null, 0, 20))
+                .willThrow(new BadRequestException("Search query must not be empty"));
+
+        mvc.perform(get("/api/search"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Search query must not be empty"));
+    }
+}
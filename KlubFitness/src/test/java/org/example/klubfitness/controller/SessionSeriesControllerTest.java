@@ -0,0 +1,94 @@
+package org.example.klubfitness.controller;
+
+import org.example.klubfitness.dto.SeriesUpdateDto;
+import org.example.klubfitness.dto.SessionSeriesDto;
+import org.example.klubfitness.exception.BadRequestException;
+import org.example.klubfitness.exception.RestExceptionHandler;
+import org.example.klubfitness.service.SessionSeriesService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class SessionSeriesControllerTest {
+
+    private MockMvc mvc;
+
+    @Mock
+    private SessionSeriesService service;
+
+    @InjectMocks
+    private SessionSeriesController controller;
+
+    @BeforeEach
+    void setup() {
+        mvc = MockMvcBuilders
+                .standaloneSetup(controller)
+                .setControllerAdvice(new RestExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void create_returnsCreatedWithSessionIds() throws Exception {
+        SessionSeriesDto out = new SessionSeriesDto();
+        out.setId(3L);
+        out.setSessionIds(List.of(10L, 11L));
+        given(service.createSeries(any())).willReturn(out);
+
+        mvc.perform(post("/api/sessions/series")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Pilates\",\"trainerId\":7,\"daysOfWeek\":[\"MONDAY\"],"
+                                + "\"durationMinutes\":60}"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "/api/sessions/series/3"))
+                .andExpect(jsonPath("$.sessionIds", hasSize(2)));
+    }
+
+    @Test
+    void create_invalidRule_badRequest() throws Exception {
+        given(service.createSeries(any())).willThrow(new BadRequestException("daysOfWeek must not be empty"));
+
+        mvc.perform(post("/api/sessions/series")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void updateFollowing_returnsCount() throws Exception {
+        given(service.updateFollowing(eq(5L), any(SeriesUpdateDto.class))).willReturn(12);
+
+        mvc.perform(patch("/api/sessions/5/following")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Yoga\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated", is(12)));
+    }
+
+    @Test
+    void deleteFollowing_returnsCounts() throws Exception {
+        given(service.deleteFollowing(5L)).willReturn(Map.of("sessions", 10, "reservations", 40));
+
+        mvc.perform(delete("/api/sessions/5/following"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sessions", is(10)))
+                .andExpect(jsonPath("$.reservations", is(40)));
+    }
+}
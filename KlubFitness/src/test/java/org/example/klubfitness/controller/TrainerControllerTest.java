@@ -1,10 +1,13 @@
 package org.example.klubfitness.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.klubfitness.dto.TimeSlotDto;
 import org.example.klubfitness.dto.TrainerDto;
 import org.example.klubfitness.entity.Trainer;
 import org.example.klubfitness.exception.RestExceptionHandler;
+import org.example.klubfitness.repository.TrainerRepository.TrainerStamp;
 import org.example.klubfitness.service.TrainerService;
+import org.example.klubfitness.service.TrainerService.TrainerDetails;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -16,7 +19,9 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import static java.util.Arrays.asList;
 import static org.hamcrest.Matchers.hasSize;
@@ -24,6 +29,8 @@ import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -91,24 +98,43 @@ class TrainerControllerTest {
                 .andExpect(jsonPath("$.specialization", is("CrossFit")));
     }
 
+    private static TrainerStamp stamp(long version, LocalDateTime updatedAt) {
+        return new TrainerStamp() {
+            public Long getVersion() { return version; }
+            public LocalDateTime getUpdatedAt() { return updatedAt; }
+        };
+    }
+
     @Test
     @DisplayName("GET /api/trainers/{id} → 200 or 404")
     void getById() throws Exception {
         // found
-        Trainer t = trainerEntity(3L, "Dana", "Salsa");
-        given(service.getTrainerById(3L)).willReturn(t);
+        given(service.getTrainerStamp(3L)).willReturn(Optional.of(stamp(2, LocalDateTime.now())));
+        given(service.getTrainerDetails(3L)).willReturn(new TrainerDetails(3L, "Dana", "Salsa"));
 
         mvc.perform(get("/api/trainers/3"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2\""))
                 .andExpect(jsonPath("$.name", is("Dana")));
 
         // not found
-        given(service.getTrainerById(42L)).willReturn(null);
+        given(service.getTrainerStamp(42L)).willReturn(Optional.empty());
 
         mvc.perform(get("/api/trainers/42"))
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("GET /api/trainers/{id} with current If-None-Match → 304 without loading the trainer")
+    void getByIdNotModified() throws Exception {
+        given(service.getTrainerStamp(3L)).willReturn(Optional.of(stamp(2, LocalDateTime.now())));
+
+        mvc.perform(get("/api/trainers/3").header("If-None-Match", "\"2\""))
+                .andExpect(status().isNotModified());
+
+        verify(service, never()).getTrainerDetails(3L);
+    }
+
     @Test
     @DisplayName("PUT /api/trainers/{id} → 200 or 404")
     void updateTrainer() throws Exception {
@@ -143,4 +169,21 @@ class TrainerControllerTest {
         mvc.perform(delete("/api/trainers/8"))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    @DisplayName("GET /api/trainers/{id}/free-slots → gaps in the requested window")
+    void freeSlots() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2025, 6, 2, 8, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 6, 2, 20, 0);
+        given(service.findFreeSlots(7L, from, to, 45)).willReturn(List.of(
+                new TimeSlotDto(from, from.plusHours(2)),
+                new TimeSlotDto(from.plusHours(5), to)));
+
+        mvc.perform(get("/api/trainers/7/free-slots")
+                        .param("from", "2025-06-02T08:00:00")
+                        .param("to", "2025-06-02T20:00:00")
+                        .param("minMinutes", "45"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
 }
@@ -6,27 +6,48 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.example.klubfitness.dto.TrainingSessionDto;
 import org.example.klubfitness.entity.TrainingSession;
 import org.example.klubfitness.entity.Trainer;
+import org.example.klubfitness.exception.PreconditionFailedException;
 import org.example.klubfitness.exception.RestExceptionHandler;
+import org.example.klubfitness.repository.TrainingSessionRepository.ListStamp;
+import org.example.klubfitness.repository.TrainingSessionRepository.SessionStamp;
+import org.example.klubfitness.exception.BadRequestException;
+import org.example.klubfitness.service.SeatFeed;
 import org.example.klubfitness.service.TrainingSessionService;
+import org.example.klubfitness.service.TrainingSessionService.SessionDetails;
+import org.example.klubfitness.service.TrainingSessionService.SessionPage;
 import org.example.klubfitness.service.TrainerService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
 
 import static java.util.Arrays.asList;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -41,6 +62,9 @@ class TrainingSessionControllerTest {
     @Mock
     private TrainerService trainerService;
 
+    @Mock
+    private SeatFeed seatFeed;
+
     @InjectMocks
     private TrainingSessionController controller;
 
@@ -56,6 +80,10 @@ class TrainingSessionControllerTest {
                 .build();
     }
 
+    private static SessionDetails details(Long id, LocalDateTime start) {
+        return new SessionDetails(id, "T", "D", start, start.plusHours(1), 7L, 20, null);
+    }
+
     private TrainingSession sessionEntity(Long id, String title, String desc,
                                           LocalDateTime start, LocalDateTime end, Long trainerId) {
         TrainingSession s = new TrainingSession();
@@ -75,21 +103,91 @@ class TrainingSessionControllerTest {
         return new TrainingSessionDto(id, title, desc, start, end, trainerId);
     }
 
+    private static SessionStamp stamp(long version, int seatsTaken, LocalDateTime updatedAt) {
+        return new SessionStamp() {
+            public Long getVersion() { return version; }
+            public Integer getSeatsTaken() { return seatsTaken; }
+            public LocalDateTime getUpdatedAt() { return updatedAt; }
+        };
+    }
+
+    /** 2023-11-14T22:13:20.123456Z w strefie JVM – ETag listy niesie ten czas w µs epoki. */
+    private static final LocalDateTime LIST_MODIFIED =
+            LocalDateTime.ofInstant(Instant.ofEpochSecond(1_700_000_000L, 123_456_000), ZoneId.systemDefault());
+
+    private static ListStamp listStamp(long count, LocalDateTime lastModified) {
+        return new ListStamp() {
+            public Long getCount() { return count; }
+            public LocalDateTime getLastModified() { return lastModified; }
+        };
+    }
+
     @Test
     @DisplayName("GET /api/sessions → 200 + list")
     void listAll() throws Exception {
         LocalDateTime now = LocalDateTime.now();
-        var s1 = sessionEntity(1L, "A", "D1", now, now.plusHours(1), 11L);
-        var s2 = sessionEntity(2L, "B", "D2", now, now.plusHours(2), 22L);
-        given(service.getAllSessions()).willReturn(asList(s1, s2));
+        var s1 = sessionDto(1L, "A", "D1", now, now.plusHours(1), 11L);
+        var s2 = sessionDto(2L, "B", "D2", now, now.plusHours(2), 22L);
+        given(service.getSessionListStamp()).willReturn(listStamp(2, LIST_MODIFIED));
+        given(service.getAllSessionDtos()).willReturn(asList(s1, s2));
 
         mvc.perform(get("/api/sessions"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2-1700000000123456\""))
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].title", is("A")))
                 .andExpect(jsonPath("$[1].trainerId", is(22)));
     }
 
+    @Test
+    @DisplayName("GET /api/sessions with current If-None-Match → 304 without loading the list")
+    void listAllNotModified() throws Exception {
+        given(service.getSessionListStamp()).willReturn(listStamp(2, LIST_MODIFIED));
+
+        mvc.perform(get("/api/sessions").header("If-None-Match", "\"2-1700000000123456\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(service, never()).getAllSessionDtos();
+    }
+
+    @Test
+    @DisplayName("GET /api/sessions?from&to&trainerId → one page + next page token")
+    void searchSessions() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2025, 6, 2, 0, 0);
+        var s1 = sessionDto(1L, "Spin", null, from.plusHours(8), from.plusHours(9), 7L);
+        given(service.searchSessions(from, from.plusDays(7), 7L, null, null, null, 1))
+                .willReturn(new SessionPage(List.of(s1), "token-2"));
+
+        mvc.perform(get("/api/sessions")
+                        .param("from", "2025-06-02T00:00:00")
+                        .param("to", "2025-06-09T00:00:00")
+                        .param("trainerId", "7")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(TrainingSessionController.NEXT_PAGE_HEADER, "token-2"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1)));
+
+        given(service.searchSessions(null, null, null, null, "startTime,desc", "token-2",
+                TrainingSessionService.DEFAULT_PAGE_SIZE)).willReturn(new SessionPage(List.of(), null));
+        mvc.perform(get("/api/sessions").param("sort", "startTime,desc").param("page", "token-2"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(TrainingSessionController.NEXT_PAGE_HEADER))
+                .andExpect(jsonPath("$", hasSize(0)));
+        verify(service, never()).getSessionListStamp();
+    }
+
+    @Test
+    @DisplayName("GET /api/sessions with unsupported sort → 400")
+    void searchSessionsBadSort() throws Exception {
+        given(service.searchSessions(any(), any(), any(), any(), eq("title"), any(), anyInt()))
+                .willThrow(new BadRequestException("Unsupported sort: title"));
+
+        mvc.perform(get("/api/sessions").param("sort", "title"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("POST /api/sessions → 201 + Location")
     void createSession() throws Exception {
@@ -127,18 +225,50 @@ class TrainingSessionControllerTest {
     @DisplayName("GET /api/sessions/{id} → 200 or 404")
     void getById() throws Exception {
         LocalDateTime now = LocalDateTime.now();
-        var s = sessionEntity(3L, "T", "D", now, now.plusHours(1), 7L);
-        given(service.getSessionById(3L)).willReturn(s);
+        given(service.getSessionStamp(3L)).willReturn(Optional.of(stamp(4, 12, now)));
+        given(service.getSessionDetails(3L)).willReturn(details(3L, now));
 
         mvc.perform(get("/api/sessions/3"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.title", is("T")));
+                .andExpect(header().string("ETag", "\"4-12\""))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(jsonPath("$.title", is("T")))
+                .andExpect(jsonPath("$.seatsTaken", is(12)));
 
-        given(service.getSessionById(42L)).willReturn(null);
+        given(service.getSessionStamp(42L)).willReturn(Optional.empty());
         mvc.perform(get("/api/sessions/42"))
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("GET /api/sessions/{id} with If-None-Match / If-Modified-Since → 304 without loading the session")
+    void getByIdNotModified() throws Exception {
+        LocalDateTime changed = LocalDateTime.now().minusHours(1);
+        given(service.getSessionStamp(3L)).willReturn(Optional.of(stamp(4, 12, changed)));
+
+        mvc.perform(get("/api/sessions/3").header("If-None-Match", "\"4-12\""))
+                .andExpect(status().isNotModified());
+        String later = DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                ZonedDateTime.of(changed.plusMinutes(1), ZoneId.systemDefault()));
+        mvc.perform(get("/api/sessions/3").header("If-Modified-Since", later))
+                .andExpect(status().isNotModified());
+
+        verify(service, never()).getSessionDetails(3L);
+    }
+
+    @Test
+    @DisplayName("GET /api/sessions/{id} with stale If-None-Match → 200 (booking changed seatsTaken)")
+    void getByIdSeatsChanged() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        given(service.getSessionStamp(3L)).willReturn(Optional.of(stamp(4, 13, now)));
+        given(service.getSessionDetails(3L)).willReturn(details(3L, now));
+
+        mvc.perform(get("/api/sessions/3").header("If-None-Match", "\"4-12\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4-13\""))
+                .andExpect(jsonPath("$.seatsTaken", is(13)));
+    }
+
     @Test
     @DisplayName("PUT /api/sessions/{id} → 200 or 404")
     void updateSession() throws Exception {
@@ -163,6 +293,63 @@ class TrainingSessionControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("PUT /api/sessions/{id} + If-Match → version passed on, new ETag returned")
+    void updateSession_ifMatch() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        var in = sessionDto(null, "Up", null, now, now.plusHours(1), 8L);
+        var t = new Trainer(); t.setId(8L);
+        given(trainerService.getTrainerById(8L)).willReturn(t);
+        var upd = sessionEntity(5L, "Up", null, now, now.plusHours(1), 8L);
+        upd.setVersion(4L);
+        upd.setSeatsTaken(7);
+        given(service.updateSession(eq(5L), any())).willReturn(upd);
+
+        mvc.perform(put("/api/sessions/5")
+                        .header("If-Match", "\"3-7\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(in)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4-7\""));
+
+        ArgumentCaptor<TrainingSession> payload = ArgumentCaptor.forClass(TrainingSession.class);
+        verify(service).updateSession(eq(5L), payload.capture());
+        assertEquals(3L, payload.getValue().getVersion());
+    }
+
+    @Test
+    @DisplayName("PUT /api/sessions/{id} → 412 for weak or stale If-Match, 409 for concurrent write")
+    void updateSession_conflicts() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        var in = sessionDto(null, "Up", null, now, now.plusHours(1), 8L);
+        var t = new Trainer(); t.setId(8L);
+        given(trainerService.getTrainerById(8L)).willReturn(t);
+
+        mvc.perform(put("/api/sessions/5")
+                        .header("If-Match", "W/\"3-7\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(in)))
+                .andExpect(status().isPreconditionFailed());
+        verify(service, never()).updateSession(any(), any());
+
+        given(service.updateSession(eq(5L), any()))
+                .willThrow(new PreconditionFailedException("Session 5 is at version 4, not 3"))
+                .willThrow(new ObjectOptimisticLockingFailureException(TrainingSession.class, 5L));
+        mvc.perform(put("/api/sessions/5")
+                        .header("If-Match", "\"3-7\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(in)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(content().string("Session 5 is at version 4, not 3"));
+        // z If-Match konflikt wraca do klienta bez ponawiania
+        mvc.perform(put("/api/sessions/5")
+                        .header("If-Match", "\"3-7\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(in)))
+                .andExpect(status().isConflict());
+        verify(service, times(2)).updateSession(eq(5L), any());
+    }
+
     @Test
     @DisplayName("DELETE /api/sessions/{id} → 204 or 404")
     void deleteSession() throws Exception {
@@ -174,4 +361,18 @@ class TrainingSessionControllerTest {
         mvc.perform(delete("/api/sessions/8"))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    @DisplayName("GET /api/sessions/seats/stream → SSE stream or 400")
+    void streamSeats() throws Exception {
+        given(seatFeed.subscribe(List.of(1L, 2L))).willReturn(new SseEmitter());
+        mvc.perform(get("/api/sessions/seats/stream").param("ids", "1,2")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        given(seatFeed.subscribe(List.of())).willThrow(new BadRequestException("Subscribe to between 1 and 50 sessions"));
+        mvc.perform(get("/api/sessions/seats/stream").param("ids", "")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isBadRequest());
+    }
 }
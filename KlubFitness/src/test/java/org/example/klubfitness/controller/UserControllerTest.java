@@ -3,6 +3,7 @@ package org.example.klubfitness.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.klubfitness.dto.UserDto;
 import org.example.klubfitness.entity.User;
+import org.example.klubfitness.exception.PreconditionFailedException;
 import org.example.klubfitness.exception.RestExceptionHandler;
 import org.example.klubfitness.security.Role;
 import org.example.klubfitness.service.UserService;
@@ -23,6 +24,7 @@ import static java.util.Arrays.asList;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -98,11 +100,13 @@ class UserControllerTest {
     void getById() throws Exception {
         // found
         User u = userEntity(3L, "sue", "pw", Role.USER);
+        u.setVersion(6L);
         given(service.getUserById(3L)).willReturn(u);
 
         mvc.perform(get("/api/users/3"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.username", is("sue")));
+                .andExpect(jsonPath("$.username", is("sue")))
+                .andExpect(header().string("ETag", "\"6\""));
 
         // not found
         given(service.getUserById(42L)).willReturn(null);
@@ -135,6 +139,31 @@ class UserControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("PUT /api/users/{id} + If-Match → 200 with new ETag or 412")
+    void updateUser_ifMatch() throws Exception {
+        UserDto in  = userDto(null, "x", "x", "USER");
+        User    upd = userEntity(5L, "x", "x", Role.USER);
+        upd.setVersion(2L);
+        given(service.updateUser(eq(5L), argThat(u -> u != null && Long.valueOf(1L).equals(u.getVersion()))))
+                .willReturn(upd);
+        given(service.updateUser(eq(5L), argThat(u -> u != null && Long.valueOf(0L).equals(u.getVersion()))))
+                .willThrow(new PreconditionFailedException("User 5 is at version 1, not 0"));
+
+        mvc.perform(put("/api/users/5")
+                        .header("If-Match", "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(in)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2\""));
+
+        mvc.perform(put("/api/users/5")
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(in)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     @DisplayName("DELETE /api/users/{id} → 204 or 404")
     void deleteUser() throws Exception {
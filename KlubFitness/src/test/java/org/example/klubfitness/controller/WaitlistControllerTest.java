@@ -0,0 +1,91 @@
+package org.example.klubfitness.controller;
+
+import org.example.klubfitness.dto.WaitlistEntryDto;
+import org.example.klubfitness.exception.ConflictException;
+import org.example.klubfitness.exception.NotFoundException;
+import org.example.klubfitness.exception.RestExceptionHandler;
+import org.example.klubfitness.service.WaitlistService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistControllerTest {
+
+    private MockMvc mvc;
+
+    @Mock
+    private WaitlistService service;
+
+    @InjectMocks
+    private WaitlistController controller;
+
+    @BeforeEach
+    void setup() {
+        mvc = MockMvcBuilders
+                .standaloneSetup(controller)
+                .setControllerAdvice(new RestExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void join_returnsCreatedWithPosition() throws Exception {
+        given(service.join(10L, 20L)).willReturn(new WaitlistEntryDto(7L, 10L, 20L, null, 3L));
+
+        mvc.perform(post("/api/sessions/20/waitlist")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\":10}"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "/api/sessions/20/waitlist/10"))
+                .andExpect(jsonPath("$.position", is(3)));
+    }
+
+    @Test
+    void join_sessionNotFull_conflict() throws Exception {
+        given(service.join(10L, 20L)).willThrow(new ConflictException("Session has free seats"));
+
+        mvc.perform(post("/api/sessions/20/waitlist")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\":10}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void get_unknownEntry_notFound() throws Exception {
+        given(service.getEntry(10L, 20L)).willThrow(new NotFoundException("not on waitlist"));
+
+        mvc.perform(get("/api/sessions/20/waitlist/10"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void leave_existingAndMissing() throws Exception {
+        given(service.leave(10L, 20L)).willReturn(true);
+        given(service.leave(11L, 20L)).willReturn(false);
+
+        mvc.perform(delete("/api/sessions/20/waitlist/10"))
+                .andExpect(status().isNoContent());
+        mvc.perform(delete("/api/sessions/20/waitlist/11"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void promote_returnsCount() throws Exception {
+        given(service.promoteFreeSeats(20L)).willReturn(2);
+
+        mvc.perform(post("/api/sessions/20/waitlist/promote"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.promoted", is(2)));
+    }
+}
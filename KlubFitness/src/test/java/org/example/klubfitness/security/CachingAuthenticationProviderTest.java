@@ -0,0 +1,108 @@
+package org.example.klubfitness.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingAuthenticationProviderTest {
+
+    @Mock
+    private AuthenticationProvider delegate;
+
+    private VerifiedCredentialsCache cache;
+    private CachingAuthenticationProvider provider;
+
+    @BeforeEach
+    void init() {
+        cache = new VerifiedCredentialsCache(Duration.ofMinutes(1));
+        provider = new CachingAuthenticationProvider(delegate, cache);
+    }
+
+    private static Authentication login(String username, String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(username, password);
+    }
+
+    private static Authentication verified(String username) {
+        return UsernamePasswordAuthenticationToken.authenticated(username, null,
+                AuthorityUtils.createAuthorityList("ROLE_USER"));
+    }
+
+    @Test
+    void secondLoginWithSameCredentials_skipsDelegate() {
+        Authentication ok = verified("alice");
+        when(delegate.authenticate(any())).thenReturn(ok);
+
+        assertThat(provider.authenticate(login("alice", "secret"))).isSameAs(ok);
+        assertThat(provider.authenticate(login("alice", "secret"))).isSameAs(ok);
+
+        verify(delegate, times(1)).authenticate(any());
+    }
+
+    @Test
+    void wrongPassword_isNeverCached() {
+        when(delegate.authenticate(any())).thenReturn(verified("alice"));
+        provider.authenticate(login("alice", "secret"));
+        when(delegate.authenticate(any())).thenThrow(new BadCredentialsException("bad"));
+
+        assertThatThrownBy(() -> provider.authenticate(login("alice", "guess")))
+                .isInstanceOf(BadCredentialsException.class);
+        assertThatThrownBy(() -> provider.authenticate(login("alice", "guess")))
+                .isInstanceOf(BadCredentialsException.class);
+
+        verify(delegate, times(3)).authenticate(any());
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void evict_forcesFullVerificationOnlyForThatUser() {
+        when(delegate.authenticate(any())).thenAnswer(inv -> verified(((Authentication) inv.getArgument(0)).getName()));
+        provider.authenticate(login("alice", "secret"));
+        provider.authenticate(login("bob", "secret"));
+
+        cache.evict("alice");
+        provider.authenticate(login("alice", "secret"));
+        provider.authenticate(login("bob", "secret"));
+
+        verify(delegate, times(3)).authenticate(any());
+    }
+
+    @Test
+    void evictDuringVerification_dropsPossiblyStaleResult() {
+        when(delegate.authenticate(any())).thenAnswer(inv -> {
+            // zmiana użytkownika w trakcie weryfikacji w bazie
+            cache.evict("alice");
+            return verified("alice");
+        });
+
+        provider.authenticate(login("alice", "secret"));
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void key_separatesUsernameFromPassword() {
+        assertThat(cache.key("ab", "c")).isNotEqualTo(cache.key("a", "bc"));
+        assertThat(cache.key("alice", "secret")).isEqualTo(cache.key("alice", "secret"))
+                .doesNotContain("secret");
+    }
+
+    @Test
+    void supportsOnlyUsernamePassword() {
+        assertThat(provider.supports(UsernamePasswordAuthenticationToken.class)).isTrue();
+        assertThat(provider.supports(Authentication.class)).isFalse();
+    }
+}
@@ -7,6 +7,9 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import javax.crypto.SecretKey;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -24,6 +27,20 @@ class SecurityConfigTest {
         });
     }
 
+    @Test
+    void jwtDecoderBeanIsCreatedWithoutConfiguredSecret() {
+        ctx.run(context -> {
+            assertThat(context).hasSingleBean(JwtDecoder.class);
+            assertThat(context).hasSingleBean(SecretKey.class);
+        });
+    }
+
+    @Test
+    void shortJwtSecretIsRejected() {
+        ctx.withPropertyValues("klubfitness.jwt.secret=too-short")
+                .run(context -> assertThat(context).hasFailed());
+    }
+
     @Test
     void passwordEncoderBeanIsBCrypt() {
         ctx.run(context -> {
@@ -0,0 +1,79 @@
+package org.example.klubfitness.security;
+
+import org.example.klubfitness.dto.TokenResponseDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TokenServiceTest {
+
+    private static final Instant NOW = Instant.parse("2030-01-01T10:00:00Z");
+    private final SecretKey key = new SecretKeySpec(
+            "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+
+    private TokenService tokens;
+    private JwtDecoder accessDecoder;
+
+    @BeforeEach
+    void init() {
+        Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+        tokens = new TokenService(key, clock);
+        accessDecoder = TokenService.decoder(key, TokenService.ACCESS, clock);
+    }
+
+    @Test
+    void accessToken_carriesSubjectAndRoles() {
+        TokenResponseDto pair = tokens.issue("alice", List.of("ADMIN"));
+
+        Jwt jwt = accessDecoder.decode(pair.getAccessToken());
+
+        assertThat(jwt.getSubject()).isEqualTo("alice");
+        assertThat(jwt.getClaimAsStringList(TokenService.ROLES_CLAIM)).containsExactly("ADMIN");
+        assertThat(jwt.getExpiresAt()).isEqualTo(NOW.plus(TokenService.ACCESS_TTL));
+        assertThat(pair.getTokenType()).isEqualTo("Bearer");
+        assertThat(pair.getExpiresIn()).isEqualTo(TokenService.ACCESS_TTL.toSeconds());
+    }
+
+    @Test
+    void tokenTypes_cannotBeSwapped() {
+        TokenResponseDto pair = tokens.issue("alice", List.of("USER"));
+
+        assertThat(tokens.verifyRefresh(pair.getRefreshToken())).isEqualTo("alice");
+        assertThatThrownBy(() -> accessDecoder.decode(pair.getRefreshToken())).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> tokens.verifyRefresh(pair.getAccessToken())).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void tamperedOrForeignToken_isRejected() {
+        String token = tokens.issue("alice", List.of("USER")).getAccessToken();
+        SecretKey other = new SecretKeySpec(
+                "fedcba9876543210fedcba9876543210".getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        String foreign = new TokenService(other, Clock.fixed(NOW, ZoneOffset.UTC))
+                .issue("alice", List.of("ADMIN")).getAccessToken();
+
+        assertThatThrownBy(() -> accessDecoder.decode(token.substring(0, token.length() - 2)))
+                .isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> accessDecoder.decode(foreign)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void expiredAccessToken_isRejected() {
+        String token = tokens.issue("alice", List.of("USER")).getAccessToken();
+        Clock later = Clock.fixed(NOW.plus(TokenService.ACCESS_TTL).plusSeconds(1), ZoneOffset.UTC);
+
+        assertThatThrownBy(() -> TokenService.decoder(key, TokenService.ACCESS, later).decode(token))
+                .isInstanceOf(JwtException.class);
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.klubfitness.service;
+
+import org.example.klubfitness.exception.PreconditionFailedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimisticRetryTest {
+
+    private static ObjectOptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException("TrainingSession", 1L);
+    }
+
+    @Test
+    void run_retriesVersionConflictUntilSuccess() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = OptimisticRetry.run(() -> {
+            if (calls.incrementAndGet() < 3) {
+                throw conflict();
+            }
+            return "saved";
+        });
+
+        assertEquals("saved", result);
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void run_givesUpAfterLastAttempt() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> OptimisticRetry.run(2, () -> {
+            calls.incrementAndGet();
+            throw conflict();
+        }));
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void run_doesNotRetryFailedPrecondition() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(PreconditionFailedException.class, () -> OptimisticRetry.run(() -> {
+            calls.incrementAndGet();
+            throw new PreconditionFailedException("stale");
+        }));
+
+        assertEquals(1, calls.get());
+    }
+}
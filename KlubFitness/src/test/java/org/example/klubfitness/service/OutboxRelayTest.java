@@ -0,0 +1,91 @@
+package org.example.klubfitness.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.klubfitness.entity.OutboxEvent;
+import org.example.klubfitness.repository.OutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxRepository repo;
+
+    @Mock
+    private PlatformTransactionManager transactions;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> registry;
+
+    private final List<OutboxMessage> delivered = new ArrayList<>();
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void init() {
+        lenient().when(registry.getIfAvailable()).thenReturn(meters);
+        relay = new OutboxRelay(repo, delivered::addAll, new TransactionTemplate(transactions), 3, registry);
+    }
+
+    private static List<OutboxEvent> events(long fromId, long toId) {
+        return LongStream.rangeClosed(fromId, toId)
+                .mapToObj(id -> new OutboxEvent(id, "reservation.created", 100 + id, "{}", LocalDateTime.now()))
+                .toList();
+    }
+
+    @Test
+    void relay_drainsFullBatchesUntilShortOne() {
+        when(repo.lockNextBatch(3))
+                .thenReturn(events(1, 3))
+                .thenReturn(events(4, 6))
+                .thenReturn(events(7, 7));
+
+        assertEquals(7, relay.relay());
+
+        assertEquals(LongStream.rangeClosed(1, 7).boxed().toList(), delivered.stream().map(OutboxMessage::id).toList());
+        verify(repo, times(3)).deleteAllInBatch(any());
+        verify(transactions, times(3)).commit(any());
+        assertEquals(7, meters.counter(OutboxRelay.PUBLISHED).count());
+    }
+
+    @Test
+    void relay_emptyOutbox_doesNothing() {
+        when(repo.lockNextBatch(3)).thenReturn(List.of());
+
+        assertEquals(0, relay.relay());
+
+        assertTrue(delivered.isEmpty());
+        verify(repo, never()).deleteAllInBatch(any());
+    }
+
+    @Test
+    void relay_sinkFailure_rollsBackWithoutDeleting() {
+        when(repo.lockNextBatch(3)).thenReturn(events(1, 3));
+        relay = new OutboxRelay(repo, messages -> {
+            throw new IllegalStateException("broker down");
+        }, new TransactionTemplate(transactions), 3, registry);
+
+        assertThrows(IllegalStateException.class, relay::relay);
+
+        verify(repo, never()).deleteAllInBatch(any());
+        verify(transactions).rollback(any());
+        verify(transactions, never()).commit(any());
+    }
+}
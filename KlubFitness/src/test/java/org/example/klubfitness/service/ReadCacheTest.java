@@ -0,0 +1,259 @@
+package org.example.klubfitness.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.example.klubfitness.dto.SessionSeatsDto;
+import org.example.klubfitness.dto.TrainingSessionDto;
+import org.example.klubfitness.entity.Trainer;
+import org.example.klubfitness.entity.TrainingSession;
+import org.example.klubfitness.repository.ReservationRepository;
+import org.example.klubfitness.repository.SessionSearchRepository;
+import org.example.klubfitness.repository.TrainerRepository;
+import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Cache odczytów na prawdziwych proxy Spring Cache: trafienia nie pytają repozytorium,
+ * a każda zmiana usuwa wpisy, więc kolejny odczyt nie zwraca starych danych. Zajęte miejsca
+ * nie są w cache, więc rezerwacje widać od razu bez unieważniania.
+ */
+@SpringJUnitConfig(ReadCacheTest.Config.class)
+class ReadCacheTest {
+
+    @Configuration
+    @EnableCaching
+    static class Config {
+        @Bean
+        CacheManager cacheManager() {
+            CaffeineCacheManager manager = new CaffeineCacheManager(
+                    ReadCaches.SESSIONS, ReadCaches.SESSION_LISTS, ReadCaches.TRAINERS);
+            manager.setCaffeine(Caffeine.newBuilder().maximumSize(100).recordStats());
+            return manager;
+        }
+
+        @Bean
+        TrainingSessionRepository sessionRepo() {
+            return mock(TrainingSessionRepository.class);
+        }
+
+        @Bean
+        TrainerRepository trainerRepo() {
+            return mock(TrainerRepository.class);
+        }
+
+        @Bean
+        TrainerScheduleIndex schedule() {
+            return mock(TrainerScheduleIndex.class);
+        }
+
+        @Bean
+        ReadCaches readCaches(CacheManager cacheManager) {
+            return new ReadCaches(cacheManager);
+        }
+
+        @Bean
+        TrainingSessionService sessionService(TrainingSessionRepository repo, TrainerScheduleIndex schedule,
+                                              ReadCaches caches) {
+            return new TrainingSessionService(repo, schedule, mock(SessionSearchRepository.class),
+                    mock(ReservationRepository.class), mock(WaitlistService.class), caches,
+                    mock(ApplicationEventPublisher.class));
+        }
+
+        @Bean
+        TrainerService trainerService(TrainerRepository repo, TrainerScheduleIndex schedule) {
+            return new TrainerService(repo, schedule, mock(TrainingSessionRepository.class),
+                    mock(ReservationRepository.class), mock(ApplicationEventPublisher.class));
+        }
+    }
+
+    @Autowired
+    private TrainingSessionService sessionService;
+    @Autowired
+    private TrainerService trainerService;
+    @Autowired
+    private ReadCaches caches;
+    @Autowired
+    private TrainingSessionRepository sessionRepo;
+    @Autowired
+    private TrainerRepository trainerRepo;
+    @Autowired
+    private CacheManager cacheManager;
+
+    private TrainingSession stored;
+    private Trainer trainer;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        reset(sessionRepo);
+        reset(trainerRepo);
+
+        trainer = new Trainer(7L, "Anna", "Yoga");
+        stored = session("Yoga");
+        stored.setTrainer(trainer);
+        when(sessionRepo.findById(1L)).thenAnswer(inv -> Optional.of(copy(stored)));
+        when(trainerRepo.findById(7L)).thenAnswer(inv -> Optional.of(new Trainer(7L, trainer.getName(), "Yoga")));
+    }
+
+    private TrainingSession session(String title) {
+        TrainingSession s = new TrainingSession();
+        s.setId(1L);
+        s.setTitle(title);
+        s.setStartTime(LocalDateTime.of(2030, 1, 1, 10, 0));
+        s.setEndTime(LocalDateTime.of(2030, 1, 1, 11, 0));
+        return s;
+    }
+
+    private TrainingSession copy(TrainingSession s) {
+        TrainingSession c = session(s.getTitle());
+        c.setSeatsTaken(s.getSeatsTaken());
+        c.setTrainer(s.getTrainer());
+        return c;
+    }
+
+    private TrainingSessionDto dto(String title, int seatsTaken) {
+        return new TrainingSessionDto(1L, title, null, null, null, 7L, 20, seatsTaken, null);
+    }
+
+    private CacheStats stats(String name) {
+        return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache().stats();
+    }
+
+    @Test
+    void getSessionDetails_secondReadIsServedFromCache() {
+        CacheStats before = stats(ReadCaches.SESSIONS);
+        assertEquals("Yoga", sessionService.getSessionDetails(1L).title());
+        assertEquals("Yoga", sessionService.getSessionDetails(1L).title());
+
+        verify(sessionRepo, times(1)).findById(1L);
+        // statystyki są narastające dla całego kontekstu – liczymy przyrost
+        CacheStats delta = stats(ReadCaches.SESSIONS).minus(before);
+        assertEquals(1, delta.hitCount());
+        assertEquals(1, delta.missCount());
+    }
+
+    @Test
+    void getSessionDetails_missingSessionIsNotCached() {
+        when(sessionRepo.findById(2L)).thenReturn(Optional.empty());
+
+        assertNull(sessionService.getSessionDetails(2L));
+        assertNull(sessionService.getSessionDetails(2L));
+
+        verify(sessionRepo, times(2)).findById(2L);
+    }
+
+    @Test
+    void cachedEntriesAreRecordsNotEntities() {
+        sessionService.getSessionDetails(1L);
+        trainerService.getTrainerDetails(7L);
+
+        assertInstanceOf(TrainingSessionService.SessionDetails.class,
+                cacheManager.getCache(ReadCaches.SESSIONS).get(1L).get());
+        assertInstanceOf(TrainerService.TrainerDetails.class,
+                cacheManager.getCache(ReadCaches.TRAINERS).get(7L).get());
+    }
+
+    @Test
+    void updateSession_evictsSoNextReadIsFresh() {
+        sessionService.getSessionDetails(1L);
+        when(sessionRepo.save(any(TrainingSession.class))).thenAnswer(inv -> {
+            stored = copy(inv.getArgument(0));
+            return inv.getArgument(0);
+        });
+
+        TrainingSession change = session("Power Yoga");
+        change.setTrainer(trainer);
+        sessionService.updateSession(1L, change);
+
+        assertEquals("Power Yoga", sessionService.getSessionDetails(1L).title());
+    }
+
+    @Test
+    void deleteSession_evictsSoNextReadSeesItGone() {
+        sessionService.getSessionDetails(1L);
+        when(sessionRepo.lockById(1L)).thenReturn(Optional.of(1L));
+        when(sessionRepo.findById(1L)).thenReturn(Optional.empty());
+
+        assertTrue(sessionService.deleteSession(1L));
+
+        assertNull(sessionService.getSessionDetails(1L));
+    }
+
+    @Test
+    void sessionLists_areClearedByCreate() {
+        when(sessionRepo.findAllDtos())
+                .thenReturn(List.of(dto("Yoga", 0)))
+                .thenReturn(List.of(dto("Yoga", 0), new TrainingSessionDto(2L, "Pilates", null, null, null, 7L)));
+        when(sessionRepo.findAllSeats())
+                .thenReturn(List.of(new SessionSeatsDto(1L, 20, 0, 20)))
+                .thenReturn(List.of(new SessionSeatsDto(1L, 20, 0, 20)))
+                .thenReturn(List.of(new SessionSeatsDto(1L, 20, 0, 20), new SessionSeatsDto(2L, 20, 0, 20)));
+        when(sessionRepo.save(any(TrainingSession.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        assertEquals(1, sessionService.getAllSessionDtos().size());
+        assertEquals(1, sessionService.getAllSessionDtos().size());
+        sessionService.createSession(session("Pilates"));
+
+        assertEquals(2, sessionService.getAllSessionDtos().size());
+        verify(sessionRepo, times(2)).findAllDtos();
+    }
+
+    @Test
+    void seatCounterChange_isVisibleWithoutEvictingLists() {
+        when(sessionRepo.findAllDtos()).thenReturn(List.of(dto("Yoga", 0)));
+        when(sessionRepo.findAllSeats())
+                .thenReturn(List.of(new SessionSeatsDto(1L, 20, 0, 20)))
+                .thenReturn(List.of(new SessionSeatsDto(1L, 20, 5, 15)));
+
+        assertEquals(0, sessionService.getAllSessionDtos().get(0).getSeatsTaken());
+        assertEquals(5, sessionService.getAllSessionDtos().get(0).getSeatsTaken());
+
+        verify(sessionRepo, times(1)).findAllDtos();
+    }
+
+    @Test
+    void seriesChange_clearsSessionCachesOutsideAnnotations() {
+        sessionService.getSessionDetails(1L);
+        stored.setTitle("Yoga (moved)");
+
+        // bez aktywnej transakcji unieważnienie wykonuje się od razu
+        caches.evictAllSessionsAfterCommit();
+
+        assertEquals("Yoga (moved)", sessionService.getSessionDetails(1L).title());
+    }
+
+    @Test
+    void updateTrainer_evictsTrainerButNotSessionDetails() {
+        sessionService.getSessionDetails(1L);
+        assertEquals("Anna", trainerService.getTrainerDetails(7L).name());
+        assertEquals("Anna", trainerService.getTrainerDetails(7L).name());
+
+        when(trainerRepo.save(any(Trainer.class))).thenAnswer(inv -> {
+            trainer = inv.getArgument(0);
+            return trainer;
+        });
+        trainerService.updateTrainer(7L, new Trainer(null, "Anna Nowak", "Yoga"));
+
+        assertEquals("Anna Nowak", trainerService.getTrainerDetails(7L).name());
+        // opis sesji ma tylko id trenera – zostaje w cache
+        assertEquals(7L, sessionService.getSessionDetails(1L).trainerId());
+        verify(sessionRepo, times(1)).findById(1L);
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.klubfitness.service;
+
+import org.example.klubfitness.dto.RevenueReportDto;
+import org.example.klubfitness.entity.User;
+import org.example.klubfitness.exception.BadRequestException;
+import org.example.klubfitness.repository.ReportRepository;
+import org.example.klubfitness.repository.ReportRepository.BookingGroup;
+import org.example.klubfitness.security.Role;
+import org.example.klubfitness.util.strategy.NoDiscountStrategy;
+import org.example.klubfitness.util.strategy.SeasonalDiscountStrategy;
+import org.example.klubfitness.util.strategy.VipDiscountStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 12, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 12, 31);
+
+    @Mock
+    private ReportRepository repo;
+
+    @Mock
+    private ReservationService reservations;
+
+    private ReportService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ReportService(repo, reservations, new BigDecimal("40.00"));
+    }
+
+    private void discountsByRole() {
+        when(reservations.strategyFor(any(User.class))).thenAnswer(inv -> switch (inv.<User>getArgument(0).getRole()) {
+            case ADMIN -> new VipDiscountStrategy();
+            case USER -> new SeasonalDiscountStrategy();
+            case TRAINER -> new NoDiscountStrategy();
+        });
+    }
+
+    @Test
+    void revenue_appliesStrategyPerRoleGroupAndSumsPerTrainer() {
+        discountsByRole();
+        when(repo.findBookingGroups(FROM.atStartOfDay(), TO.plusDays(1).atStartOfDay())).thenReturn(List.of(
+                new BookingGroup(10L, 2L, LocalDateTime.of(2025, 12, 5, 18, 0), Role.USER, 10),
+                new BookingGroup(10L, 2L, LocalDateTime.of(2025, 12, 5, 18, 0), Role.ADMIN, 1),
+                new BookingGroup(11L, 1L, LocalDateTime.of(2025, 12, 6, 9, 0), Role.TRAINER, 3)));
+
+        RevenueReportDto report = service.revenue(FROM, TO);
+
+        assertEquals(14, report.getReservations());
+        assertEquals(new BigDecimal("560.00"), report.getGross());
+        // USER: 15% z 400, ADMIN: 20% z 40, TRAINER: bez rabatu
+        assertEquals(new BigDecimal("68.00"), report.getDiscount());
+        assertEquals(new BigDecimal("492.00"), report.getNet());
+        assertEquals(List.of(1L, 2L), report.getTrainers().stream().map(RevenueReportDto.TrainerRevenue::getTrainerId).toList());
+        RevenueReportDto.TrainerRevenue trainer2 = report.getTrainers().get(1);
+        assertEquals(11, trainer2.getReservations());
+        assertEquals(new BigDecimal("372.00"), trainer2.getNet());
+    }
+
+    @Test
+    void revenue_emptyRangeIsZero() {
+        when(repo.findBookingGroups(any(), any())).thenReturn(List.of());
+
+        RevenueReportDto report = service.revenue(FROM, TO);
+
+        assertEquals(0, report.getReservations());
+        assertEquals(new BigDecimal("0.00"), report.getNet());
+        assertTrue(report.getTrainers().isEmpty());
+        verifyNoInteractions(reservations);
+    }
+
+    @Test
+    void range_isInclusiveAndBounded() {
+        service.trainerFill(FROM, FROM);
+        verify(repo).findTrainerFill(FROM.atStartOfDay(), FROM.plusDays(1).atStartOfDay());
+
+        assertThrows(BadRequestException.class, () -> service.slotFill(TO, FROM));
+        assertThrows(BadRequestException.class,
+                () -> service.slotFill(FROM, FROM.plusDays(ReportService.MAX_RANGE_DAYS)));
+        verifyNoMoreInteractions(repo);
+    }
+
+    @Test
+    void sessionFill_capsPageSize() {
+        service.sessionFill(FROM, TO, 1_000_000);
+
+        verify(repo).findSessionFill(any(), any(), eq(ReservationService.MAX_PAGE_SIZE));
+    }
+}
@@ -1,9 +1,18 @@
 package org.example.klubfitness.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.example.klubfitness.dto.ReservationBatchResultDto;
+import org.example.klubfitness.dto.ReservationBatchResultDto.Status;
+import org.example.klubfitness.dto.ReservationDto;
 import org.example.klubfitness.entity.Reservation;
 import org.example.klubfitness.entity.TrainingSession;
 import org.example.klubfitness.entity.User;
+import org.example.klubfitness.exception.BadRequestException;
 import org.example.klubfitness.exception.NotFoundException;
+import org.example.klubfitness.exception.SessionFullException;
 import org.example.klubfitness.repository.ReservationRepository;
 import org.example.klubfitness.repository.TrainingSessionRepository;
 import org.example.klubfitness.repository.UserRepository;
@@ -13,13 +22,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -36,6 +49,12 @@ class ReservationServiceTest {
     @Mock
     private TrainingSessionRepository sessionRepo;
 
+    @Mock
+    private WaitlistService waitlist;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
     @Mock
     private DiscountStrategy noDiscount;
 
@@ -43,6 +62,10 @@ class ReservationServiceTest {
     private DiscountStrategy customDiscount;
 
     private Map<String, DiscountStrategy> strategies;
+    private SessionSeatGate seatGate;
+    private SimpleMeterRegistry meters;
+    private ObservationRegistry observations;
+    private final List<String> stoppedSteps = new ArrayList<>();
     private ReservationService service;
 
     private User user;
@@ -51,7 +74,22 @@ class ReservationServiceTest {
     @BeforeEach
     void init() {
         strategies = new HashMap<>();
-        service = new ReservationService(repo, userRepo, sessionRepo, strategies);
+        seatGate = new SessionSeatGate();
+        meters = new SimpleMeterRegistry();
+        observations = ObservationRegistry.create();
+        observations.observationConfig().observationHandler(new ObservationHandler<>() {
+            @Override
+            public void onStop(Observation.Context context) {
+                stoppedSteps.add(context.getContextualName());
+            }
+
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return ReservationService.STEP_OBSERVATION.equals(context.getName());
+            }
+        });
+        service = new ReservationService(repo, userRepo, sessionRepo, strategies, seatGate, waitlist,
+                new ReservationMetrics(meters), observations, events);
 
         user = new User();
         user.setId(10L);
@@ -92,6 +130,7 @@ class ReservationServiceTest {
         user.setRole(org.example.klubfitness.security.Role.USER);
         when(userRepo.findById(10L)).thenReturn(Optional.of(user));
         when(sessionRepo.findById(20L)).thenReturn(Optional.of(session));
+        when(sessionRepo.tryTakeSeat(20L)).thenReturn(1);
         strategies.put("userDiscount", customDiscount);
         when(customDiscount.applyDiscount(session, user)).thenReturn(BigDecimal.valueOf(0.30));
         when(repo.save(any())).thenAnswer(inv -> inv.getArgument(0));
@@ -103,6 +142,12 @@ class ReservationServiceTest {
         assertSame(session, result.getSession());
         verify(customDiscount).applyDiscount(session, user);
         verify(repo).save(any());
+        verify(waitlist).removeBooked(20L, List.of(10L));
+        verify(events).publishEvent(ReservationEvent.created(null, 10L, 20L));
+        assertEquals(1, admissions("admitted"));
+        assertEquals(0, admissions("rejected"));
+        assertEquals(List.of("reservation load-user", "reservation load-session", "reservation admit",
+                "reservation discount", "reservation save"), stoppedSteps);
     }
 
     @Test
@@ -111,6 +156,7 @@ class ReservationServiceTest {
         user.setRole(org.example.klubfitness.security.Role.ADMIN);
         when(userRepo.findById(10L)).thenReturn(Optional.of(user));
         when(sessionRepo.findById(20L)).thenReturn(Optional.of(session));
+        when(sessionRepo.tryTakeSeat(20L)).thenReturn(1);
         strategies.put("noDiscount", noDiscount);
         when(noDiscount.applyDiscount(session, user)).thenReturn(BigDecimal.ZERO);
         when(repo.save(any())).thenAnswer(inv -> inv.getArgument(0));
@@ -122,6 +168,45 @@ class ReservationServiceTest {
         verify(repo).save(any());
     }
 
+    @Test
+    void createReservation_databaseRejects_throwsAndLaterRejectsWithoutDatabase() {
+        when(userRepo.findById(10L)).thenReturn(Optional.of(user));
+        when(sessionRepo.findById(20L)).thenReturn(Optional.of(session));
+        when(sessionRepo.tryTakeSeat(20L)).thenReturn(0);
+
+        assertThrows(SessionFullException.class, () -> service.createReservation(10L, 20L));
+        assertThrows(SessionFullException.class, () -> service.createReservation(10L, 20L));
+
+        // druga próba odrzucona przez licznik w pamięci, bez UPDATE-u w bazie
+        verify(sessionRepo, times(1)).tryTakeSeat(20L);
+        verify(repo, never()).save(any());
+        assertEquals(2, admissions("rejected"));
+        assertEquals(1.0, rejections(ReservationMetrics.REASON_NO_SEATS));
+        assertEquals(1.0, rejections(ReservationMetrics.REASON_SEAT_GATE));
+    }
+
+    private long admissions(String outcome) {
+        return meters.get(ReservationMetrics.ADMISSION).tag("outcome", outcome).timer().count();
+    }
+
+    private double rejections(String reason) {
+        return meters.get(ReservationMetrics.REJECTIONS).tag("reason", reason).counter().count();
+    }
+
+    @Test
+    void createReservation_fullSession_rejectedBeforeDatabase() {
+        session.setCapacity(1);
+        session.setSeatsTaken(1);
+        when(userRepo.findById(10L)).thenReturn(Optional.of(user));
+        when(sessionRepo.findById(20L)).thenReturn(Optional.of(session));
+
+        SessionFullException ex = assertThrows(SessionFullException.class, () ->
+                service.createReservation(10L, 20L));
+        assertTrue(ex.getMessage().contains("Session is full: 20"));
+        verify(sessionRepo, never()).tryTakeSeat(anyLong());
+        verifyNoInteractions(repo);
+    }
+
     @Test
     void getAllReservations_delegatesToRepo() {
         List<Reservation> list = List.of(new Reservation(), new Reservation());
@@ -156,14 +241,147 @@ class ReservationServiceTest {
         verify(repo).findBySessionId(20L);
     }
 
+    @Test
+    void getReservationsPage_usesKeysetProjectionQueries() {
+        List<ReservationDto> page = List.of(new ReservationDto(6L, 10L, 20L, LocalDateTime.now()));
+        when(repo.findDtoPage(0L, Limit.of(100))).thenReturn(page);
+        when(repo.findDtoPageByUserId(10L, 5L, Limit.of(20))).thenReturn(page);
+        when(repo.findDtoPageBySessionId(20L, 5L, Limit.of(20))).thenReturn(page);
+
+        assertEquals(page, service.getReservationsPage(null, null, null, 100));
+        assertEquals(page, service.getReservationsPage(10L, null, 5L, 20));
+        assertEquals(page, service.getReservationsPage(null, 20L, 5L, 20));
+    }
+
+    @Test
+    void getReservationsPage_clampsPageSize() {
+        when(repo.findDtoPage(eq(0L), any())).thenReturn(List.of());
+
+        service.getReservationsPage(null, null, null, 1_000_000);
+        service.getReservationsPage(null, null, null, 0);
+
+        verify(repo).findDtoPage(0L, Limit.of(ReservationService.MAX_PAGE_SIZE));
+        verify(repo).findDtoPage(0L, Limit.of(1));
+    }
+
+    @Test
+    void streamReservations_passesEveryRowToSinkAndClosesStream() {
+        ReservationDto a = new ReservationDto(1L, 10L, 20L, LocalDateTime.now());
+        ReservationDto b = new ReservationDto(2L, 10L, 20L, LocalDateTime.now());
+        boolean[] closed = {false};
+        when(repo.streamAllAsDto()).thenReturn(Stream.of(a, b).onClose(() -> closed[0] = true));
+
+        List<ReservationDto> seen = new ArrayList<>();
+        service.streamReservations(seen::add);
+
+        assertEquals(List.of(a, b), seen);
+        assertTrue(closed[0]);
+    }
+
     @Test
     void cancelReservation_existingAndNonExisting() {
-        when(repo.existsById(7L)).thenReturn(true);
-        when(repo.existsById(8L)).thenReturn(false);
+        when(repo.findDtoById(7L)).thenReturn(Optional.of(new ReservationDto(7L, 10L, 20L, null)));
+        when(repo.deleteReservationById(7L)).thenReturn(1);
+        when(repo.findDtoById(8L)).thenReturn(Optional.empty());
 
         assertTrue(service.cancelReservation(7L));
         assertFalse(service.cancelReservation(8L));
-        verify(repo).deleteById(7L);
-        verify(repo, never()).deleteById(8L);
+        verify(repo).deleteReservationById(7L);
+        verify(repo, never()).deleteReservationById(8L);
+        verify(sessionRepo).releaseSeat(20L);
+        verify(events).publishEvent(ReservationEvent.cancelled(7L, 10L, 20L));
+    }
+
+    @Test
+    void cancelReservation_concurrentlyDeleted_doesNotReleaseSeat() {
+        when(repo.findDtoById(7L)).thenReturn(Optional.of(new ReservationDto(7L, 10L, 20L, null)));
+        when(repo.deleteReservationById(7L)).thenReturn(0);
+
+        assertFalse(service.cancelReservation(7L));
+        verify(sessionRepo, never()).releaseSeat(anyLong());
+        verifyNoInteractions(events);
+    }
+
+    @Test
+    void cancelReservation_withWaitlist_transfersSeatInsteadOfReleasing() {
+        when(repo.findDtoById(7L)).thenReturn(Optional.of(new ReservationDto(7L, 10L, 20L, null)));
+        when(repo.deleteReservationById(7L)).thenReturn(1);
+        when(waitlist.transferSeat(20L)).thenReturn(true);
+
+        assertTrue(service.cancelReservation(7L));
+        verify(sessionRepo, never()).releaseSeat(anyLong());
+    }
+
+    private static TrainingSessionRepository.FreeSeats freeSeats(long id, int free) {
+        return new TrainingSessionRepository.FreeSeats() {
+            public Long getId() { return id; }
+            public Integer getFree() { return free; }
+        };
+    }
+
+    @Test
+    void createReservations_reportsPerItemStatusAndBatchesInsert() {
+        when(userRepo.findExistingIds(any())).thenReturn(List.of(1L, 2L, 3L));
+        when(sessionRepo.lockFreeSeats(any())).thenReturn(List.of(freeSeats(20L, 2)));
+        when(repo.findDtosByUserIdsAndSessionIds(any(), any()))
+                .thenReturn(List.of(new ReservationDto(99L, 3L, 20L, LocalDateTime.now())));
+        when(userRepo.getReferenceById(anyLong())).thenAnswer(inv -> new User());
+        when(sessionRepo.getReferenceById(20L)).thenReturn(session);
+        when(repo.saveAll(anyList())).thenAnswer(inv -> {
+            List<Reservation> rs = inv.getArgument(0);
+            long id = 100;
+            for (Reservation r : rs) r.setId(id++);
+            return rs;
+        });
+
+        List<ReservationBatchResultDto> results = service.createReservations(List.of(
+                new ReservationDto(null, 1L, 20L, null),
+                new ReservationDto(null, 9L, 20L, null),
+                new ReservationDto(null, 1L, 77L, null),
+                new ReservationDto(null, 3L, 20L, null),
+                new ReservationDto(null, 1L, 20L, null),
+                new ReservationDto(null, 2L, 20L, null),
+                new ReservationDto(null, null, 20L, null)));
+
+        assertEquals(List.of(Status.CREATED, Status.USER_NOT_FOUND, Status.SESSION_NOT_FOUND,
+                        Status.ALREADY_BOOKED, Status.DUPLICATE_IN_BATCH, Status.CREATED, Status.USER_NOT_FOUND),
+                results.stream().map(ReservationBatchResultDto::getStatus).toList());
+        assertEquals(100L, results.get(0).getReservationId());
+        assertEquals(101L, results.get(5).getReservationId());
+        assertNull(results.get(1).getReservationId());
+        verify(sessionRepo).tryTakeSeats(20L, 2);
+        verify(waitlist).removeBooked(20L, List.of(1L, 2L));
+        verify(repo, times(1)).saveAll(anyList());
+        verify(userRepo, times(1)).findExistingIds(any());
+    }
+
+    @Test
+    void createReservations_stopsAtFreeSeats() {
+        when(userRepo.findExistingIds(any())).thenReturn(List.of(1L, 2L, 3L));
+        when(sessionRepo.lockFreeSeats(any())).thenReturn(List.of(freeSeats(20L, 1)));
+        when(repo.findDtosByUserIdsAndSessionIds(any(), any())).thenReturn(List.of());
+        when(sessionRepo.getReferenceById(20L)).thenReturn(session);
+        when(repo.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        List<ReservationBatchResultDto> results = service.createReservations(List.of(
+                new ReservationDto(null, 1L, 20L, null),
+                new ReservationDto(null, 2L, 20L, null),
+                new ReservationDto(null, 3L, 20L, null)));
+
+        assertEquals(List.of(Status.CREATED, Status.SESSION_FULL, Status.SESSION_FULL),
+                results.stream().map(ReservationBatchResultDto::getStatus).toList());
+        verify(sessionRepo).tryTakeSeats(20L, 1);
+        assertEquals(2.0, rejections(ReservationMetrics.REASON_NO_SEATS));
+    }
+
+    @Test
+    void createReservations_tooLarge_rejected() {
+        List<ReservationDto> items = new ArrayList<>();
+        for (int i = 0; i <= ReservationService.MAX_BATCH_SIZE; i++) {
+            items.add(new ReservationDto(null, 1L, 20L, null));
+        }
+
+        assertThrows(BadRequestException.class, () -> service.createReservations(items));
+        verifyNoInteractions(userRepo, sessionRepo, repo);
     }
 }
@@ -0,0 +1,111 @@
+package org.example.klubfitness.service;
+
+import org.example.klubfitness.repository.ReservationStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationStatsTest {
+
+    @Mock
+    private ReservationStatsRepository repo;
+
+    private ReservationStats stats;
+
+    @BeforeEach
+    void init() {
+        stats = new ReservationStats(repo);
+    }
+
+    @Test
+    void counters_startFromTableAndFollowEvents() {
+        when(repo.findSessionCount(20L)).thenReturn(5L);
+        when(repo.findUserCount(10L)).thenReturn(2L);
+
+        stats.on(ReservationEvent.created(null, 10L, 20L));
+        stats.on(ReservationEvent.created(null, 10L, 20L));
+        stats.on(ReservationEvent.cancelled(null, 10L, 20L));
+
+        assertEquals(6, stats.sessionReservations(20L));
+        assertEquals(3, stats.userReservations(10L));
+        // stan z tabeli czytany raz na klucz, potem tylko z pamięci
+        verify(repo, times(1)).findSessionCount(20L);
+        verify(repo, times(1)).findUserCount(10L);
+    }
+
+    @Test
+    void flush_writesSummedDeltasOncePerKey() {
+        for (int i = 0; i < 100; i++) {
+            stats.on(ReservationEvent.created(null, (long) i % 10, 20L));
+        }
+        stats.on(ReservationEvent.created(null, 1L, 21L));
+        stats.on(ReservationEvent.cancelled(null, 1L, 21L));
+
+        assertEquals(11, stats.flush());
+
+        verify(repo).addSessionCounts(Map.of(20L, 100L));
+        verify(repo).addUserCounts(argThat(deltas -> deltas.size() == 10 && deltas.get(1L) == 10L));
+        assertEquals(0, stats.flush());
+    }
+
+    @Test
+    void flush_failedWriteIsRetried() {
+        stats.on(ReservationEvent.created(null, 10L, 20L));
+        doThrow(new IllegalStateException("db down")).doNothing().when(repo).addSessionCounts(anyMap());
+
+        assertThrows(IllegalStateException.class, stats::flush);
+        stats.on(ReservationEvent.created(null, 11L, 20L));
+        stats.flush();
+
+        verify(repo).addSessionCounts(Map.of(20L, 1L));
+        verify(repo).addSessionCounts(Map.of(20L, 2L));
+    }
+
+    @Test
+    void concurrentEventsAndFlushes_loseNothing() throws Exception {
+        List<Map<Long, Long>> written = new ArrayList<>();
+        doAnswer(inv -> {
+            synchronized (written) {
+                written.add(Map.copyOf(inv.getArgument(0)));
+            }
+            return null;
+        }).when(repo).addSessionCounts(anyMap());
+
+        int threads = 8, perThread = 5_000;
+        CountDownLatch done = new CountDownLatch(threads);
+        try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                long user = t;
+                pool.execute(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        stats.on(ReservationEvent.created(null, user, 20L + i % 3));
+                    }
+                    done.countDown();
+                });
+            }
+            while (done.getCount() > 0) {
+                stats.flush();
+            }
+        }
+        stats.flush();
+
+        long total = written.stream().flatMap(m -> m.values().stream()).mapToLong(Long::longValue).sum();
+        assertEquals((long) threads * perThread, total);
+        assertEquals(threads * perThread,
+                stats.sessionReservations(20L) + stats.sessionReservations(21L) + stats.sessionReservations(22L));
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.klubfitness.service;
+
+import org.example.klubfitness.dto.SessionHitDto;
+import org.example.klubfitness.dto.TrainerHitDto;
+import org.example.klubfitness.exception.BadRequestException;
+import org.example.klubfitness.repository.SearchRepository;
+import org.example.klubfitness.service.SearchService.SearchPage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchServiceTest {
+
+    @Mock
+    private SearchRepository repo;
+
+    @InjectMocks
+    private SearchService service;
+
+    private static SessionHitDto hit(long id, double rank) {
+        LocalDateTime start = LocalDateTime.of(2025, 6, 2, 18, 0);
+        return new SessionHitDto(id, "Yoga", null, start, start.plusHours(1), 7L, rank);
+    }
+
+    @Test
+    void searchSessions_extraRowMeansNextPage() {
+        LocalDateTime from = LocalDateTime.of(2025, 6, 1, 0, 0);
+        when(repo.findSessions("yoga beginners", from, 4, 3)).thenReturn(List.of(hit(1, .9), hit(2, .5), hit(3, .1)));
+
+        SearchPage<SessionHitDto> page = service.searchSessions("  yoga beginners ", from, 2, 2);
+
+        assertEquals(List.of(hit(1, .9), hit(2, .5)), page.items());
+        assertTrue(page.hasNext());
+    }
+
+    @Test
+    void searchTrainers_lastPage_hasNoNext() {
+        List<TrainerHitDto> hits = List.of(new TrainerHitDto(4L, "Anna Kowalska", "Pilates", 0.8));
+        when(repo.findTrainers("pilats", 0, SearchService.MAX_PAGE_SIZE + 1)).thenReturn(hits);
+
+        SearchPage<TrainerHitDto> page = service.searchTrainers("pilats", 0, 10_000);
+
+        assertEquals(hits, page.items());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    void resultWindow_isLimited() {
+        int size = 100;
+        int lastPage = SearchService.MAX_RESULTS / size - 1;
+        when(repo.findSessions("yoga", null, lastPage * size, size + 1))
+                .thenReturn(Collections.nCopies(size + 1, hit(1, .1)));
+
+        // ostatnia dostępna strona nie wskazuje na następną, a dalsze są odrzucane
+        assertFalse(service.searchSessions("yoga", null, lastPage, size).hasNext());
+        assertThrows(BadRequestException.class, () -> service.searchSessions("yoga", null, lastPage + 1, size));
+    }
+
+    @Test
+    void invalidQueryOrPage_badRequestWithoutQuery() {
+        assertThrows(BadRequestException.class, () -> service.searchSessions(null, null, 0, 20));
+        assertThrows(BadRequestException.class, () -> service.searchSessions("   ", null, 0, 20));
+        assertThrows(BadRequestException.class, () -> service.searchTrainers("x".repeat(201), 0, 20));
+        assertThrows(BadRequestException.class, () -> service.searchTrainers("anna", -1, 20));
+        verifyNoInteractions(repo);
+    }
+}
@@ -0,0 +1,167 @@
+package org.example.klubfitness.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.klubfitness.dto.SessionSeatsDto;
+import org.example.klubfitness.exception.BadRequestException;
+import org.example.klubfitness.exception.NotFoundException;
+import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatFeedTest {
+
+    @Mock
+    private TrainingSessionRepository sessions;
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+    private SeatFeed feed;
+
+    /** Zapisuje wysłane zdarzenia zamiast pisać do odpowiedzi HTTP. */
+    static class RecordingEmitter extends SseEmitter {
+        final List<SessionSeatsDto> seats = new ArrayList<>();
+        int pings;
+        boolean broken;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (broken) {
+                throw new IOException("Broken pipe");
+            }
+            for (var part : builder.build()) {
+                if (part.getData() instanceof SessionSeatsDto dto) {
+                    seats.add(dto);
+                } else if (part.getData().toString().contains(":ping")) {
+                    pings++;
+                }
+            }
+        }
+    }
+
+    @BeforeEach
+    void init() {
+        // wysyłka w wątku wywołującym – test widzi zdarzenia od razu
+        feed = new SeatFeed(sessions, Duration.ofMinutes(30), Runnable::run, meters) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    private static SessionSeatsDto seats(long sessionId, int taken) {
+        return new SessionSeatsDto(sessionId, 20, taken, 20 - taken);
+    }
+
+    @Test
+    void subscribe_sendsCurrentStateOfEachSession() {
+        when(sessions.findSeats(any())).thenReturn(List.of(seats(1, 5), seats(2, 20)));
+
+        feed.subscribe(List.of(1L, 2L, 1L));
+
+        assertEquals(List.of(seats(1, 5), seats(2, 20)), emitters.get(0).seats);
+        assertEquals(1, feed.subscriberCount());
+        assertEquals(1, meters.get(SeatFeed.SUBSCRIBERS).gauge().value());
+    }
+
+    @Test
+    void subscribe_unknownSession_isRejectedAndNotRegistered() {
+        when(sessions.findSeats(any())).thenReturn(List.of(seats(1, 5)));
+
+        NotFoundException ex = assertThrows(NotFoundException.class, () -> feed.subscribe(List.of(1L, 99L)));
+
+        assertEquals("Session not found: 99", ex.getMessage());
+        assertEquals(0, feed.subscriberCount());
+    }
+
+    @Test
+    void subscribe_tooManyOrNoSessions_isBadRequest() {
+        List<Long> tooMany = LongStream.rangeClosed(1, SeatFeed.MAX_SESSIONS + 1).boxed().toList();
+
+        assertThrows(BadRequestException.class, () -> feed.subscribe(tooMany));
+        assertThrows(BadRequestException.class, () -> feed.subscribe(List.of()));
+        verifyNoInteractions(sessions);
+    }
+
+    @Test
+    void push_coalescesEventsIntoOneReadAndOneUpdate() {
+        when(sessions.findSeats(any())).thenReturn(List.of(seats(1, 5)));
+        feed.subscribe(List.of(1L));
+        when(sessions.findSeats(List.of(1L))).thenReturn(List.of(seats(1, 8)));
+
+        for (long reservationId = 1; reservationId <= 3; reservationId++) {
+            feed.on(ReservationEvent.created(reservationId, 10L + reservationId, 1L));
+        }
+
+        assertEquals(1, feed.push());
+        assertEquals(0, feed.push());   // nic nowego – bez zapytania
+        assertEquals(List.of(seats(1, 5), seats(1, 8)), emitters.get(0).seats);
+        verify(sessions, times(2)).findSeats(any());
+        assertEquals(2, meters.counter(SeatFeed.PUSHED).count());
+    }
+
+    @Test
+    void push_unchangedStateIsNotResent() {
+        when(sessions.findSeats(any())).thenReturn(List.of(seats(1, 5)));
+        feed.subscribe(List.of(1L));
+
+        // rezerwacja i anulowanie w jednym interwale – stan jak w chwili subskrypcji
+        feed.on(ReservationEvent.created(1L, 10L, 1L));
+        feed.on(ReservationEvent.cancelled(1L, 10L, 1L));
+
+        assertEquals(0, feed.push());
+        assertEquals(List.of(seats(1, 5)), emitters.get(0).seats);
+    }
+
+    @Test
+    void on_sessionWithoutSubscribers_isIgnored() {
+        feed.on(ReservationEvent.created(1L, 10L, 1L));
+
+        assertEquals(0, feed.push());
+        verifyNoInteractions(sessions);
+    }
+
+    @Test
+    void heartbeat_pingsAndRereadsSubscribedSessions() {
+        when(sessions.findSeats(any())).thenReturn(List.of(seats(1, 5)));
+        feed.subscribe(List.of(1L));
+        when(sessions.findSeats(List.of(1L))).thenReturn(List.of(seats(1, 6)));
+
+        feed.heartbeat();
+        feed.push();
+
+        RecordingEmitter emitter = emitters.get(0);
+        assertEquals(1, emitter.pings);
+        assertEquals(seats(1, 6), emitter.seats.get(emitter.seats.size() - 1));
+    }
+
+    @Test
+    void brokenConnection_unsubscribes() {
+        when(sessions.findSeats(any())).thenReturn(List.of(seats(1, 5)));
+        feed.subscribe(List.of(1L));
+        emitters.get(0).broken = true;
+
+        feed.heartbeat();
+
+        assertEquals(0, feed.subscriberCount());
+        feed.on(ReservationEvent.created(1L, 10L, 1L));
+        assertEquals(0, feed.push());
+    }
+}
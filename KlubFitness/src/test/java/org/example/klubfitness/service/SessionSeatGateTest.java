@@ -0,0 +1,81 @@
+package org.example.klubfitness.service;
+
+import org.example.klubfitness.entity.TrainingSession;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionSeatGateTest {
+
+    private TrainingSession session(long id, int capacity, int taken) {
+        TrainingSession s = new TrainingSession();
+        s.setId(id);
+        s.setCapacity(capacity);
+        s.setSeatsTaken(taken);
+        return s;
+    }
+
+    @Test
+    void tryAcquire_admitsOnlyRemainingSeats() {
+        SessionSeatGate gate = new SessionSeatGate();
+        TrainingSession s = session(1L, 3, 1);
+
+        assertTrue(gate.tryAcquire(s));
+        assertTrue(gate.tryAcquire(s));
+        assertFalse(gate.tryAcquire(s));
+        assertEquals(0, gate.remaining(1L));
+    }
+
+    @Test
+    void release_returnsSeat() {
+        SessionSeatGate gate = new SessionSeatGate();
+        TrainingSession s = session(1L, 1, 0);
+
+        assertTrue(gate.tryAcquire(s));
+        assertFalse(gate.tryAcquire(s));
+        gate.release(1L);
+        assertTrue(gate.tryAcquire(s));
+    }
+
+    @Test
+    void markFull_rejectsUntilRefresh() throws InterruptedException {
+        SessionSeatGate gate = new SessionSeatGate(Duration.ofMillis(50));
+        TrainingSession s = session(1L, 10, 0);
+
+        gate.markFull(1L);
+        assertFalse(gate.tryAcquire(s));
+
+        Thread.sleep(80);
+        assertTrue(gate.tryAcquire(s));   // po odświeżeniu liczy z danych sesji
+    }
+
+    @Test
+    void tryAcquire_underContention_neverOveradmits() throws InterruptedException {
+        SessionSeatGate gate = new SessionSeatGate(Duration.ofMinutes(1));
+        TrainingSession s = session(1L, 50, 0);
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < 5_000; i++) {
+                pool.submit(() -> {
+                    start.await();
+                    if (gate.tryAcquire(s)) admitted.incrementAndGet();
+                    return null;
+                });
+            }
+            start.countDown();
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        assertEquals(50, admitted.get());
+    }
+}
@@ -0,0 +1,264 @@
+package org.example.klubfitness.service;
+
+import org.example.klubfitness.dto.ReservationDto;
+import org.example.klubfitness.dto.SeriesUpdateDto;
+import org.example.klubfitness.dto.SessionSeriesDto;
+import org.example.klubfitness.entity.SessionSeries;
+import org.example.klubfitness.entity.Trainer;
+import org.example.klubfitness.entity.TrainingSession;
+import org.example.klubfitness.exception.BadRequestException;
+import org.example.klubfitness.exception.ConflictException;
+import org.example.klubfitness.exception.NotFoundException;
+import org.example.klubfitness.repository.ReservationRepository;
+import org.example.klubfitness.repository.SessionSeriesRepository;
+import org.example.klubfitness.repository.TrainerRepository;
+import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.time.DayOfWeek.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SessionSeriesServiceTest {
+
+    @Mock
+    private SessionSeriesRepository seriesRepo;
+
+    @Mock
+    private TrainingSessionRepository sessionRepo;
+
+    @Mock
+    private TrainerRepository trainerRepo;
+
+    @Mock
+    private ReservationRepository reservationRepo;
+
+    @Mock
+    private TrainerScheduleIndex schedule;
+
+    @Mock
+    private WaitlistService waitlist;
+
+    @Mock
+    private ReadCaches caches;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    private SessionSeriesService service;
+
+    @BeforeEach
+    void init() {
+        service = new SessionSeriesService(seriesRepo, sessionRepo, trainerRepo, reservationRepo, schedule, waitlist,
+                caches, events);
+    }
+
+    private SessionSeriesDto weekly(List<DayOfWeek> days, LocalDate first, LocalDate until, List<LocalDate> excluded) {
+        SessionSeriesDto dto = new SessionSeriesDto();
+        dto.setTitle("Pilates");
+        dto.setTrainerId(7L);
+        dto.setDaysOfWeek(days);
+        dto.setFirstDate(first);
+        dto.setUntilDate(until);
+        dto.setStartTime(LocalTime.of(18, 30));
+        dto.setDurationMinutes(60);
+        dto.setExcludedDates(excluded);
+        return dto;
+    }
+
+    private TrainingSession seriesSession(Long seriesId) {
+        TrainingSession s = new TrainingSession();
+        s.setId(5L);
+        s.setSeriesId(seriesId);
+        Trainer trainer = new Trainer();
+        trainer.setId(7L);
+        s.setTrainer(trainer);
+        s.setStartTime(LocalDateTime.of(2025, 3, 3, 18, 30));
+        return s;
+    }
+
+    @Test
+    void expand_weeklyOnGivenDaysUntilDateWithoutExceptions() {
+        // 2025-03-03 to poniedziałek
+        List<LocalDate> dates = RecurrenceRule.expand(LocalDate.of(2025, 3, 3), LocalDate.of(2025, 3, 17),
+                List.of(WEDNESDAY, MONDAY), Set.of(LocalDate.of(2025, 3, 10)));
+
+        assertEquals(List.of(LocalDate.of(2025, 3, 3), LocalDate.of(2025, 3, 5),
+                LocalDate.of(2025, 3, 12), LocalDate.of(2025, 3, 17)), dates);
+    }
+
+    @Test
+    void createSeries_insertsAllOccurrencesInOneSaveAll() {
+        when(trainerRepo.existsById(7L)).thenReturn(true);
+        when(trainerRepo.getReferenceById(7L)).thenReturn(new Trainer());
+        when(seriesRepo.save(any(SessionSeries.class))).thenAnswer(inv -> {
+            SessionSeries s = inv.getArgument(0);
+            s.setId(3L);
+            return s;
+        });
+        when(sessionRepo.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        // cały 2025 rok, pon + śr, bez 2 dat
+        SessionSeriesDto out = service.createSeries(weekly(List.of(MONDAY, WEDNESDAY),
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31),
+                List.of(LocalDate.of(2025, 1, 6), LocalDate.of(2025, 12, 24))));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TrainingSession>> saved = ArgumentCaptor.forClass(List.class);
+        verify(sessionRepo, times(1)).saveAll(saved.capture());
+        List<TrainingSession> sessions = saved.getValue();
+        assertEquals(52 + 53 - 2, sessions.size());   // 52 poniedziałki, 53 środy
+        assertEquals(LocalDateTime.of(2025, 1, 1, 18, 30), sessions.get(0).getStartTime());
+        assertEquals(LocalDateTime.of(2025, 1, 1, 19, 30), sessions.get(0).getEndTime());
+        assertTrue(sessions.stream().allMatch(s -> s.getSeriesId() == 3L));
+        assertEquals(3L, out.getId());
+        assertEquals(sessions.size(), out.getSessionIds().size());
+    }
+
+    @Test
+    void createSeries_trainerBusyOnSomeDates_conflict() {
+        when(trainerRepo.existsById(7L)).thenReturn(true);
+        LocalDateTime busy = LocalDateTime.of(2025, 1, 13, 18, 0);
+        when(schedule.findOverlap(eq(7L), any(), any(), isNull())).thenAnswer(inv -> {
+            LocalDateTime start = inv.getArgument(1);
+            LocalDateTime end = inv.getArgument(2);
+            return start.isBefore(busy.plusHours(1)) && end.isAfter(busy)
+                    ? Optional.of(new TrainerScheduleIndex.Slot(99L, busy, busy.plusHours(1)))
+                    : Optional.empty();
+        });
+
+        ConflictException ex = assertThrows(ConflictException.class, () -> service.createSeries(weekly(
+                List.of(MONDAY), LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 1), null)));
+        assertTrue(ex.getMessage().contains("2025-01-13"));
+        verify(schedule).evict(7L);
+        verify(sessionRepo, never()).saveAll(anyList());
+    }
+
+    @Test
+    void createSeries_invalidRule_badRequest() {
+        assertThrows(BadRequestException.class, () -> service.createSeries(
+                weekly(List.of(), LocalDate.of(2025, 1, 1), LocalDate.of(2025, 2, 1), null)));
+        assertThrows(BadRequestException.class, () -> service.createSeries(
+                weekly(List.of(MONDAY), LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1), null)));
+        verifyNoInteractions(sessionRepo);
+    }
+
+    @Test
+    void createSeries_tooManyOccurrences_badRequest() {
+        when(trainerRepo.existsById(7L)).thenReturn(true);
+
+        assertThrows(BadRequestException.class, () -> service.createSeries(
+                weekly(List.of(DayOfWeek.values()), LocalDate.of(2025, 1, 1), LocalDate.of(2030, 1, 1), null)));
+        verify(sessionRepo, never()).saveAll(anyList());
+    }
+
+    @Test
+    void createSeries_unknownTrainer_notFound() {
+        when(trainerRepo.existsById(7L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> service.createSeries(
+                weekly(List.of(MONDAY), LocalDate.of(2025, 1, 1), LocalDate.of(2025, 2, 1), null)));
+    }
+
+    @Test
+    void updateFollowing_runsBulkStatementsFromAnchor() {
+        TrainingSession anchor = seriesSession(3L);
+        when(sessionRepo.findById(5L)).thenReturn(Optional.of(anchor));
+        when(sessionRepo.updateSeriesFrom(3L, anchor.getStartTime(), "Yoga", null, null)).thenReturn(12);
+
+        int updated = service.updateFollowing(5L, new SeriesUpdateDto("Yoga", null, null, null, 30, 45));
+
+        assertEquals(12, updated);
+        // obie zmiany wybierają sesje po starym czasie startu – długość przed przesunięciem
+        var order = inOrder(sessionRepo);
+        order.verify(sessionRepo).resizeSeriesFrom(3L, anchor.getStartTime(), 45);
+        order.verify(sessionRepo).shiftSeriesFrom(3L, anchor.getStartTime(), 30);
+        verify(sessionRepo, never()).updateSeriesTrainerFrom(anyLong(), any(), any());
+        verify(sessionRepo, never()).save(any());
+        verifyNoInteractions(waitlist);
+    }
+
+    @Test
+    void updateFollowing_raisedCapacity_locksThenPromotesWaitlistOfEnlargedSessions() {
+        TrainingSession anchor = seriesSession(3L);
+        when(sessionRepo.findById(5L)).thenReturn(Optional.of(anchor));
+        when(sessionRepo.findMaxSeatsTakenInSeriesFrom(3L, anchor.getStartTime())).thenReturn(Optional.of(10));
+        when(sessionRepo.findIdsInSeriesFromBelowCapacity(3L, anchor.getStartTime(), 12)).thenReturn(List.of(5L, 7L));
+        when(sessionRepo.updateSeriesFrom(3L, anchor.getStartTime(), null, null, 12)).thenReturn(3);
+
+        assertEquals(3, service.updateFollowing(5L, new SeriesUpdateDto(null, null, null, 12, null, null)));
+
+        var order = inOrder(sessionRepo, waitlist);
+        order.verify(sessionRepo).lockSeriesFrom(3L, anchor.getStartTime());
+        order.verify(sessionRepo).findMaxSeatsTakenInSeriesFrom(3L, anchor.getStartTime());
+        order.verify(sessionRepo).updateSeriesFrom(3L, anchor.getStartTime(), null, null, 12);
+        order.verify(waitlist).promoteFreeSeats(5L);
+        order.verify(waitlist).promoteFreeSeats(7L);
+        verifyNoMoreInteractions(waitlist);
+    }
+
+    @Test
+    void updateFollowing_capacityBelowSeatsTaken_conflictBeforeAnyUpdate() {
+        TrainingSession anchor = seriesSession(3L);
+        when(sessionRepo.findById(5L)).thenReturn(Optional.of(anchor));
+        when(sessionRepo.findMaxSeatsTakenInSeriesFrom(3L, anchor.getStartTime())).thenReturn(Optional.of(8));
+
+        ConflictException ex = assertThrows(ConflictException.class,
+                () -> service.updateFollowing(5L, new SeriesUpdateDto(null, null, null, 5, null, null)));
+
+        assertTrue(ex.getMessage().contains("below 8 seats already taken"));
+        verify(sessionRepo, never()).updateSeriesFrom(anyLong(), any(), any(), any(), any());
+    }
+
+    @Test
+    void updateFollowing_nonPositiveCapacity_badRequest() {
+        assertThrows(BadRequestException.class,
+                () -> service.updateFollowing(5L, new SeriesUpdateDto(null, null, null, 0, null, null)));
+        verifyNoInteractions(sessionRepo);
+    }
+
+    @Test
+    void updateFollowing_sessionOutsideSeries_badRequest() {
+        when(sessionRepo.findById(5L)).thenReturn(Optional.of(seriesSession(null)));
+
+        assertThrows(BadRequestException.class,
+                () -> service.updateFollowing(5L, new SeriesUpdateDto("Yoga", null, null, null, null, null)));
+    }
+
+    @Test
+    void deleteFollowing_removesReservationsThenSessions() {
+        TrainingSession anchor = seriesSession(3L);
+        when(sessionRepo.findById(5L)).thenReturn(Optional.of(anchor));
+        when(sessionRepo.lockSeriesFrom(3L, anchor.getStartTime())).thenReturn(List.of(5L, 6L));
+        when(reservationRepo.findDtosBySessionIds(List.of(5L, 6L))).thenReturn(List.of(
+                new ReservationDto(100L, 11L, 5L, null), new ReservationDto(101L, 12L, 6L, null)));
+        when(reservationRepo.deleteBySeriesFrom(3L, anchor.getStartTime())).thenReturn(40);
+        when(sessionRepo.deleteSeriesFrom(3L, anchor.getStartTime())).thenReturn(10);
+
+        assertEquals(Map.of("sessions", 10, "reservations", 40), service.deleteFollowing(5L));
+        var order = inOrder(reservationRepo, sessionRepo);
+        order.verify(sessionRepo).lockSeriesFrom(3L, anchor.getStartTime());
+        order.verify(reservationRepo).findDtosBySessionIds(List.of(5L, 6L));
+        order.verify(reservationRepo).deleteBySeriesFrom(3L, anchor.getStartTime());
+        order.verify(sessionRepo).deleteSeriesFrom(3L, anchor.getStartTime());
+        verify(events).publishEvent(ReservationEvent.cancelled(100L, 11L, 5L));
+        verify(events).publishEvent(ReservationEvent.cancelled(101L, 12L, 6L));
+    }
+}
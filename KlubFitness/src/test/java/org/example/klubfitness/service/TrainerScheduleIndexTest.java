@@ -0,0 +1,110 @@
+package org.example.klubfitness.service;
+
+import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.example.klubfitness.repository.TrainingSessionRepository.SessionInterval;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrainerScheduleIndexTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 6, 2, 0, 0);
+
+    @Mock
+    private TrainingSessionRepository repo;
+
+    private static SessionInterval interval(long id, int startMin, int endMin) {
+        return new SessionInterval() {
+            public Long getId() { return id; }
+            public LocalDateTime getStartTime() { return T0.plusMinutes(startMin); }
+            public LocalDateTime getEndTime() { return T0.plusMinutes(endMin); }
+        };
+    }
+
+    private static LocalDateTime at(int minutes) {
+        return T0.plusMinutes(minutes);
+    }
+
+    @Test
+    void findOverlap_detectsOverlapButAllowsBackToBack() {
+        when(repo.findIntervalsByTrainerId(1L)).thenReturn(List.of(interval(10, 60, 120), interval(11, 180, 240)));
+        TrainerScheduleIndex index = new TrainerScheduleIndex(repo);
+
+        assertEquals(10L, index.findOverlap(1L, at(90), at(150), null).orElseThrow().sessionId());
+        assertEquals(11L, index.findOverlap(1L, at(150), at(200), null).orElseThrow().sessionId());
+        assertEquals(10L, index.findOverlap(1L, at(0), at(300), 11L).orElseThrow().sessionId());
+        assertTrue(index.findOverlap(1L, at(120), at(180), null).isEmpty());
+        assertTrue(index.findOverlap(1L, at(60), at(120), 10L).isEmpty());
+        verify(repo, times(1)).findIntervalsByTrainerId(1L);
+    }
+
+    @Test
+    void findConfirmedOverlap_staleHitIsReloaded() {
+        when(repo.findIntervalsByTrainerId(1L))
+                .thenReturn(List.of(interval(10, 60, 120)))
+                .thenReturn(List.of());
+        TrainerScheduleIndex index = new TrainerScheduleIndex(repo);
+
+        assertTrue(index.findConfirmedOverlap(1L, at(60), at(120), null).isEmpty());
+        verify(repo, times(2)).findIntervalsByTrainerId(1L);
+    }
+
+    @Test
+    void putAndRemove_updateLoadedSchedule() {
+        when(repo.findIntervalsByTrainerId(1L)).thenReturn(List.of(interval(10, 60, 120)));
+        TrainerScheduleIndex index = new TrainerScheduleIndex(repo);
+        index.sessionsBetween(1L, at(0), at(1));
+
+        index.put(1L, 12L, at(300), at(360));
+        index.put(1L, 10L, at(400), at(460));   // przeniesiona sesja
+        index.removeSession(12L);
+
+        assertEquals(List.of(new TrainerScheduleIndex.Slot(10L, at(400), at(460))),
+                index.sessionsBetween(1L, at(0), at(1000)));
+    }
+
+    @Test
+    void sessionsBetween_includesSessionStartedBeforeWindow() {
+        when(repo.findIntervalsByTrainerId(1L)).thenReturn(List.of(
+                interval(10, 0, 90), interval(11, 100, 150), interval(12, 500, 560)));
+        TrainerScheduleIndex index = new TrainerScheduleIndex(repo);
+
+        assertEquals(List.of(10L, 11L), index.sessionsBetween(1L, at(60), at(500)).stream()
+                .map(TrainerScheduleIndex.Slot::sessionId).toList());
+    }
+
+    @Test
+    void findOverlap_matchesNaiveScanOnRandomSchedule() {
+        Random rnd = new Random(42);
+        List<SessionInterval> sessions = new ArrayList<>();
+        int t = 0;
+        for (long id = 1; id <= 2000; id++) {
+            t += rnd.nextInt(120);
+            int len = 30 + rnd.nextInt(90);
+            sessions.add(interval(id, t, t + len));
+            t += len;
+        }
+        when(repo.findIntervalsByTrainerId(1L)).thenReturn(sessions);
+        TrainerScheduleIndex index = new TrainerScheduleIndex(repo);
+
+        for (int i = 0; i < 5000; i++) {
+            int s = rnd.nextInt(t);
+            int e = s + 1 + rnd.nextInt(180);
+            Optional<TrainerScheduleIndex.Slot> hit = index.findOverlap(1L, at(s), at(e), null);
+            boolean naive = sessions.stream().anyMatch(x ->
+                    x.getStartTime().isBefore(at(e)) && x.getEndTime().isAfter(at(s)));
+            assertEquals(naive, hit.isPresent(), "window " + s + "-" + e);
+        }
+    }
+}
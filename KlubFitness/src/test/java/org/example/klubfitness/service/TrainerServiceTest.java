@@ -1,7 +1,13 @@
 package org.example.klubfitness.service;
 
+import org.example.klubfitness.dto.TimeSlotDto;
 import org.example.klubfitness.entity.Trainer;
+import org.example.klubfitness.exception.NotFoundException;
+import org.example.klubfitness.exception.PreconditionFailedException;
+import org.example.klubfitness.dto.ReservationDto;
+import org.example.klubfitness.repository.ReservationRepository;
 import org.example.klubfitness.repository.TrainerRepository;
+import org.example.klubfitness.repository.TrainingSessionRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,7 +15,9 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -23,6 +31,18 @@ class TrainerServiceTest {
     @Mock
     private TrainerRepository repo;
 
+    @Mock
+    private TrainerScheduleIndex schedule;
+
+    @Mock
+    private TrainingSessionRepository sessionRepo;
+
+    @Mock
+    private ReservationRepository reservationRepo;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
     @InjectMocks
     private TrainerService service;
 
@@ -105,6 +125,18 @@ class TrainerServiceTest {
         assertEquals("Pilates", saved.getSpecialization());
     }
 
+    @Test
+    void updateTrainer_staleVersion_preconditionFailedWithoutSave() {
+        t1.setVersion(4L);
+        updatePayload.setVersion(3L);
+        when(repo.findById(1L)).thenReturn(Optional.of(t1));
+
+        assertThrows(PreconditionFailedException.class, () -> service.updateTrainer(1L, updatePayload));
+
+        assertEquals("Anna", t1.getName());
+        verify(repo, never()).save(any());
+    }
+
     @Test
     void updateTrainer_nonExisting_returnsNull() {
         when(repo.findById(5L)).thenReturn(Optional.empty());
@@ -116,22 +148,63 @@ class TrainerServiceTest {
     }
 
     @Test
-    void deleteTrainer_existing_deletesAndReturnsTrue() {
-        when(repo.existsById(1L)).thenReturn(true);
+    void deleteTrainer_existing_publishesCancellationPerReservationAndDeletes() {
+        when(repo.lockById(1L)).thenReturn(Optional.of(1L));
+        when(sessionRepo.lockByTrainer(1L)).thenReturn(List.of(20L, 21L));
+        when(reservationRepo.findDtosBySessionIds(List.of(20L, 21L))).thenReturn(List.of(
+                new ReservationDto(5L, 10L, 20L, null), new ReservationDto(6L, 11L, 21L, null)));
 
         boolean result = service.deleteTrainer(1L);
 
         assertTrue(result);
         verify(repo).deleteById(1L);
+        verify(events).publishEvent(ReservationEvent.cancelled(5L, 10L, 20L));
+        verify(events).publishEvent(ReservationEvent.cancelled(6L, 11L, 21L));
+        verify(schedule).evict(1L);
+    }
+
+    @Test
+    void deleteTrainer_withoutSessions_skipsReservationLookup() {
+        when(repo.lockById(1L)).thenReturn(Optional.of(1L));
+        when(sessionRepo.lockByTrainer(1L)).thenReturn(List.of());
+
+        assertTrue(service.deleteTrainer(1L));
+
+        verify(reservationRepo, never()).findDtosBySessionIds(any());
+        verifyNoInteractions(events);
     }
 
     @Test
     void deleteTrainer_nonExisting_returnsFalse() {
-        when(repo.existsById(42L)).thenReturn(false);
+        when(repo.lockById(42L)).thenReturn(Optional.empty());
 
         boolean result = service.deleteTrainer(42L);
 
         assertFalse(result);
         verify(repo, never()).deleteById(anyLong());
     }
+
+    @Test
+    void findFreeSlots_returnsGapsLongerThanMinimum() {
+        LocalDateTime mon = LocalDateTime.of(2025, 6, 2, 8, 0);
+        when(repo.existsById(1L)).thenReturn(true);
+        when(schedule.sessionsBetween(1L, mon, mon.plusHours(10))).thenReturn(List.of(
+                new TrainerScheduleIndex.Slot(10L, mon.minusMinutes(30), mon.plusHours(1)),       // 7:30-9:00
+                new TrainerScheduleIndex.Slot(11L, mon.plusHours(1).plusMinutes(20), mon.plusHours(2)), // 9:20-10:00
+                new TrainerScheduleIndex.Slot(12L, mon.plusHours(4), mon.plusHours(5))));        // 12:00-13:00
+
+        List<TimeSlotDto> free = service.findFreeSlots(1L, mon, mon.plusHours(10), 30);
+
+        assertEquals(List.of(
+                new TimeSlotDto(mon.plusHours(2), mon.plusHours(4)),
+                new TimeSlotDto(mon.plusHours(5), mon.plusHours(10))), free);
+    }
+
+    @Test
+    void findFreeSlots_unknownTrainer_notFound() {
+        when(repo.existsById(9L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class,
+                () -> service.findFreeSlots(9L, LocalDateTime.now(), LocalDateTime.now().plusDays(1), 30));
+    }
 }
@@ -1,15 +1,28 @@
 package org.example.klubfitness.service;
 
+import org.example.klubfitness.dto.ReservationDto;
+import org.example.klubfitness.dto.SessionSeatsDto;
+import org.example.klubfitness.dto.TrainingSessionDto;
 import org.example.klubfitness.entity.TrainingSession;
 import org.example.klubfitness.entity.Trainer;
+import org.example.klubfitness.exception.BadRequestException;
+import org.example.klubfitness.exception.ConflictException;
+import org.example.klubfitness.exception.PreconditionFailedException;
+import org.example.klubfitness.repository.ReservationRepository;
+import org.example.klubfitness.repository.SessionSearchRepository;
+import org.example.klubfitness.repository.SessionSearchRepository.Position;
 import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.example.klubfitness.service.TrainingSessionService.SessionPage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -25,6 +38,24 @@ class TrainingSessionServiceTest {
     @Mock
     private TrainingSessionRepository repo;
 
+    @Mock
+    private TrainerScheduleIndex schedule;
+
+    @Mock
+    private SessionSearchRepository search;
+
+    @Mock
+    private ReservationRepository reservationRepo;
+
+    @Mock
+    private WaitlistService waitlist;
+
+    @Spy
+    private ReadCaches caches = new ReadCaches(new ConcurrentMapCacheManager());
+
+    @Mock
+    private ApplicationEventPublisher events;
+
     @InjectMocks
     private TrainingSessionService service;
 
@@ -67,6 +98,34 @@ class TrainingSessionServiceTest {
         verify(repo).findAll();
     }
 
+    @Test
+    void getAllSessionDtos_returnsProjectionWithLiveSeats() {
+        when(repo.findAllDtos()).thenReturn(List.of(
+                new TrainingSessionDto(1L, "Yoga", null, now, now.plusHours(1), 7L, 20, 3, null)));
+        when(repo.findAllSeats()).thenReturn(List.of(new SessionSeatsDto(1L, 20, 5, 15)));
+
+        assertEquals(List.of(new TrainingSessionDto(1L, "Yoga", null, now, now.plusHours(1), 7L, 20, 5, null)),
+                service.getAllSessionDtos());
+    }
+
+    @Test
+    void getAllSessionDtos_secondCallReusesDetails_seatsStayLive() {
+        when(repo.findAllDtos()).thenReturn(List.of(
+                new TrainingSessionDto(1L, "Yoga", null, now, now.plusHours(1), 7L, 20, 3, null),
+                new TrainingSessionDto(2L, "Pilates", null, now, now.plusHours(1), 8L, 20, 0, null)));
+        when(repo.findAllSeats())
+                .thenReturn(List.of(new SessionSeatsDto(1L, 20, 3, 17), new SessionSeatsDto(2L, 20, 0, 20)))
+                .thenReturn(List.of(new SessionSeatsDto(1L, 20, 4, 16)));
+
+        service.getAllSessionDtos();
+        List<TrainingSessionDto> second = service.getAllSessionDtos();
+
+        // sesja 2 usunięta po wczytaniu opisów – znika z listy, zanim cache zostanie wyczyszczony
+        assertEquals(1, second.size());
+        assertEquals(4, second.get(0).getSeatsTaken());
+        verify(repo, times(1)).findAllDtos();
+    }
+
     @Test
     void createSession_savesAndReturns() {
         when(repo.save(s1)).thenReturn(s1);
@@ -77,6 +136,52 @@ class TrainingSessionServiceTest {
         verify(repo).save(s1);
     }
 
+    @Test
+    void createSession_trainerBusy_conflict() {
+        Trainer trainer = new Trainer();
+        trainer.setId(7L);
+        s1.setTrainer(trainer);
+        when(schedule.findConfirmedOverlap(7L, s1.getStartTime(), s1.getEndTime(), null))
+                .thenReturn(Optional.of(new TrainerScheduleIndex.Slot(3L, now.minusMinutes(30), now.plusMinutes(30))));
+
+        assertThrows(ConflictException.class, () -> service.createSession(s1));
+        verify(repo, never()).save(any());
+    }
+
+    @Test
+    void createSession_trainerFree_savesAndIndexes() {
+        Trainer trainer = new Trainer();
+        trainer.setId(7L);
+        s1.setTrainer(trainer);
+        when(schedule.findConfirmedOverlap(7L, s1.getStartTime(), s1.getEndTime(), null)).thenReturn(Optional.empty());
+        when(repo.save(s1)).thenReturn(s1);
+
+        service.createSession(s1);
+
+        verify(schedule).put(7L, 1L, s1.getStartTime(), s1.getEndTime());
+    }
+
+    @Test
+    void createSession_endNotAfterStart_badRequest() {
+        s1.setEndTime(s1.getStartTime());
+
+        assertThrows(BadRequestException.class, () -> service.createSession(s1));
+        verify(repo, never()).save(any());
+    }
+
+    @Test
+    void updateSession_ignoresItselfWhenCheckingTrainer() {
+        Trainer trainer = new Trainer();
+        trainer.setId(7L);
+        updatePayload.setTrainer(trainer);
+        when(repo.findById(1L)).thenReturn(Optional.of(s1));
+        when(repo.save(any(TrainingSession.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        service.updateSession(1L, updatePayload);
+
+        verify(schedule).findConfirmedOverlap(7L, updatePayload.getStartTime(), updatePayload.getEndTime(), 1L);
+    }
+
     @Test
     void getSessionById_existing_returnsSession() {
         when(repo.findById(1L)).thenReturn(Optional.of(s1));
@@ -133,6 +238,78 @@ class TrainingSessionServiceTest {
         assertEquals("Intensive", saved.getDescription());
     }
 
+    @Test
+    void updateSession_matchingVersion_saves() {
+        s1.setVersion(3L);
+        updatePayload.setVersion(3L);
+        when(repo.findById(1L)).thenReturn(Optional.of(s1));
+        when(repo.save(any(TrainingSession.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        assertEquals("Advanced Yoga", service.updateSession(1L, updatePayload).getTitle());
+    }
+
+    @Test
+    void updateSession_staleVersion_preconditionFailedWithoutSave() {
+        s1.setVersion(3L);
+        updatePayload.setVersion(2L);
+        when(repo.findById(1L)).thenReturn(Optional.of(s1));
+
+        PreconditionFailedException ex = assertThrows(PreconditionFailedException.class,
+                () -> service.updateSession(1L, updatePayload));
+
+        assertEquals("Session 1 is at version 3, not 2", ex.getMessage());
+        assertEquals("Yoga", s1.getTitle());
+        verify(repo, never()).save(any());
+    }
+
+    @Test
+    void updateSession_capacityBelowSeatsTaken_conflictWithoutSave() {
+        s1.setCapacity(20);
+        s1.setSeatsTaken(12);
+        updatePayload.setCapacity(10);
+        when(repo.findById(1L)).thenReturn(Optional.of(s1));
+
+        ConflictException ex = assertThrows(ConflictException.class,
+                () -> service.updateSession(1L, updatePayload));
+
+        assertEquals("Capacity 10 is below 12 seats already taken in session 1", ex.getMessage());
+        verify(repo, never()).save(any());
+    }
+
+    @Test
+    void updateSession_nonPositiveCapacity_badRequest() {
+        updatePayload.setCapacity(0);
+        when(repo.findById(1L)).thenReturn(Optional.of(s1));
+
+        assertThrows(BadRequestException.class, () -> service.updateSession(1L, updatePayload));
+        verify(repo, never()).save(any());
+    }
+
+    @Test
+    void updateSession_raisedCapacity_promotesWaitlist() {
+        s1.setCapacity(20);
+        s1.setSeatsTaken(20);
+        updatePayload.setCapacity(25);
+        when(repo.findById(1L)).thenReturn(Optional.of(s1));
+        when(repo.save(any(TrainingSession.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        service.updateSession(1L, updatePayload);
+
+        verify(waitlist).promoteFreeSeats(1L);
+    }
+
+    @Test
+    void updateSession_loweredCapacity_noPromotion() {
+        s1.setCapacity(20);
+        s1.setSeatsTaken(5);
+        updatePayload.setCapacity(15);
+        when(repo.findById(1L)).thenReturn(Optional.of(s1));
+        when(repo.save(any(TrainingSession.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        assertEquals(15, service.updateSession(1L, updatePayload).getCapacity());
+        verify(waitlist, never()).promoteFreeSeats(anyLong());
+    }
+
     @Test
     void updateSession_nonExisting_returnsNull() {
         when(repo.findById(5L)).thenReturn(Optional.empty());
@@ -144,22 +321,78 @@ class TrainingSessionServiceTest {
     }
 
     @Test
-    void deleteSession_existing_deletesAndReturnsTrue() {
-        when(repo.existsById(1L)).thenReturn(true);
+    void deleteSession_existing_deletesAndPublishesCancellations() {
+        when(repo.lockById(1L)).thenReturn(Optional.of(1L));
+        when(reservationRepo.findDtosBySessionIds(List.of(1L))).thenReturn(List.of(
+                new ReservationDto(100L, 11L, 1L, now), new ReservationDto(101L, 12L, 1L, now)));
 
         boolean deleted = service.deleteSession(1L);
 
         assertTrue(deleted);
         verify(repo).deleteById(1L);
+        verify(events).publishEvent(ReservationEvent.cancelled(100L, 11L, 1L));
+        verify(events).publishEvent(ReservationEvent.cancelled(101L, 12L, 1L));
     }
 
     @Test
     void deleteSession_nonExisting_returnsFalse() {
-        when(repo.existsById(42L)).thenReturn(false);
+        when(repo.lockById(42L)).thenReturn(Optional.empty());
 
         boolean deleted = service.deleteSession(42L);
 
         assertFalse(deleted);
         verify(repo, never()).deleteById(anyLong());
     }
+
+    private TrainingSessionDto dto(long id, LocalDateTime start) {
+        return new TrainingSessionDto(id, "Spin", null, start, start.plusHours(1), 7L);
+    }
+
+    @Test
+    void searchSessions_fullPage_returnsTokenOfLastRow() {
+        LocalDateTime to = now.plusDays(7);
+        when(search.findPage(now, to, 7L, "spin", null, false, 3))
+                .thenReturn(List.of(dto(1, now), dto(2, now), dto(3, now.plusHours(1))));
+
+        SessionPage page = service.searchSessions(now, to, 7L, "  spin ", null, null, 2);
+
+        assertEquals(List.of(1L, 2L), page.items().stream().map(TrainingSessionDto::getId).toList());
+        assertNotNull(page.next());
+
+        // token wskazuje ostatni zwrócony wiersz, nie ten dodatkowy
+        when(search.findPage(now, to, 7L, "spin", new Position(now, 2L), false, 3))
+                .thenReturn(List.of(dto(3, now.plusHours(1))));
+        SessionPage second = service.searchSessions(now, to, 7L, "spin", "startTime,asc", page.next(), 2);
+
+        assertEquals(List.of(3L), second.items().stream().map(TrainingSessionDto::getId).toList());
+        assertNull(second.next());
+    }
+
+    @Test
+    void searchSessions_descendingAndPageSizeClamped() {
+        when(search.findPage(null, null, null, null, null, true, TrainingSessionService.MAX_PAGE_SIZE + 1))
+                .thenReturn(List.of());
+
+        SessionPage page = service.searchSessions(null, null, null, " ", "startTime,desc", null, 100_000);
+
+        assertTrue(page.items().isEmpty());
+        assertNull(page.next());
+    }
+
+    @Test
+    void searchSessions_invalidInput_badRequest() {
+        String ascToken = SessionPageToken.encode(new Position(now, 5L), false);
+
+        assertThrows(BadRequestException.class,
+                () -> service.searchSessions(now, now.minusDays(1), null, null, null, null, 10));
+        assertThrows(BadRequestException.class,
+                () -> service.searchSessions(null, null, null, null, "title", null, 10));
+        assertThrows(BadRequestException.class,
+                () -> service.searchSessions(null, null, null, null, "startTime,desc", ascToken, 10));
+        assertThrows(BadRequestException.class,
+                () -> service.searchSessions(null, null, null, null, null, "not a token!", 10));
+        assertThrows(BadRequestException.class,
+                () -> service.searchSessions(null, null, null, null, null, "YXxub3Q", 10));
+        verifyNoInteractions(search);
+    }
 }
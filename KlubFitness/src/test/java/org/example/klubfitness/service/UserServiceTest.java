@@ -1,11 +1,15 @@
 package org.example.klubfitness.service;
 
 import org.example.klubfitness.entity.User;
+import org.example.klubfitness.exception.PreconditionFailedException;
+import org.example.klubfitness.repository.ReservationRepository;
 import org.example.klubfitness.repository.UserRepository;
+import org.example.klubfitness.security.VerifiedCredentialsCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -23,6 +27,18 @@ class UserServiceTest {
     @Mock
     private UserRepository repo;
 
+    @Mock
+    private VerifiedCredentialsCache credentials;
+
+    @Mock
+    private ReservationRepository reservationRepo;
+
+    @Mock
+    private ReservationService reservations;
+
+    @Mock
+    private WaitlistService waitlist;
+
     @InjectMocks
     private UserService service;
 
@@ -104,6 +120,21 @@ class UserServiceTest {
         User saved = captor.getValue();
         assertEquals("alice2", saved.getUsername());
         assertEquals("newpass", saved.getPassword());
+        // zbuforowane uwierzytelnienia starej i nowej nazwy przestają obowiązywać
+        verify(credentials).evict("alice");
+        verify(credentials).evict("alice2");
+    }
+
+    @Test
+    void updateUser_staleVersion_preconditionFailedWithoutSave() {
+        u1.setVersion(2L);
+        updatedPayload.setVersion(1L);
+        when(repo.findById(1L)).thenReturn(Optional.of(u1));
+
+        assertThrows(PreconditionFailedException.class, () -> service.updateUser(1L, updatedPayload));
+
+        verify(repo, never()).save(any());
+        verifyNoInteractions(credentials);
     }
 
     @Test
@@ -117,22 +148,31 @@ class UserServiceTest {
     }
 
     @Test
-    void deleteUser_existingId_deletesAndReturnsTrue() {
-        when(repo.existsById(1L)).thenReturn(true);
+    void deleteUser_existingId_cancelsReservationsThenDeletes() {
+        when(repo.lockUsername(1L)).thenReturn(Optional.of("alice"));
+        when(reservationRepo.findIdsByUserId(1L)).thenReturn(List.of(10L, 11L));
 
         boolean result = service.deleteUser(1L);
 
         assertTrue(result);
-        verify(repo).deleteById(1L);
+        InOrder order = inOrder(repo, waitlist, reservations);
+        order.verify(repo).lockUsername(1L);
+        order.verify(waitlist).removeUser(1L);
+        order.verify(reservations).cancelReservation(10L);
+        order.verify(reservations).cancelReservation(11L);
+        order.verify(repo).deleteById(1L);
+        // poza transakcją "po commicie" wykonuje się od razu
+        verify(credentials).evict("alice");
     }
 
     @Test
     void deleteUser_nonExisting_returnsFalse() {
-        when(repo.existsById(42L)).thenReturn(false);
+        when(repo.lockUsername(42L)).thenReturn(Optional.empty());
 
         boolean result = service.deleteUser(42L);
 
         assertFalse(result);
         verify(repo, never()).deleteById(anyLong());
+        verifyNoInteractions(credentials, reservations);
     }
 }
@@ -0,0 +1,101 @@
+package org.example.klubfitness.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WaitlistIndexTest {
+
+    @Test
+    void position_unknownSession_requiresReload() {
+        WaitlistIndex index = new WaitlistIndex();
+
+        assertEquals(-1, index.position(1L, 10L));
+    }
+
+    @Test
+    void position_followsQueueOrderAndRemovals() {
+        WaitlistIndex index = new WaitlistIndex();
+        index.load(1L, List.of(10L, 20L, 30L, 40L));
+
+        assertEquals(1, index.position(1L, 10L));
+        assertEquals(3, index.position(1L, 30L));
+
+        index.remove(1L, 10L);
+        index.remove(1L, 30L);
+
+        assertEquals(-1, index.position(1L, 10L));
+        assertEquals(1, index.position(1L, 20L));
+        assertEquals(2, index.position(1L, 40L));
+    }
+
+    @Test
+    void append_addsAtTheEndAndToleratesOutOfOrderIds() {
+        WaitlistIndex index = new WaitlistIndex();
+        index.load(1L, List.of(10L, 20L));
+
+        index.append(1L, 30L);
+        index.append(1L, 15L);
+        index.append(1L, 20L);
+
+        assertEquals(2, index.position(1L, 15L));
+        assertEquals(3, index.position(1L, 20L));
+        assertEquals(4, index.position(1L, 30L));
+    }
+
+    @Test
+    void positionOnAppend_countsLiveEntriesBeforeNewId() {
+        WaitlistIndex index = new WaitlistIndex();
+        assertEquals(-1, index.positionOnAppend(1L, 50L));
+        index.load(1L, List.of(10L, 20L, 30L));
+        index.remove(1L, 20L);
+
+        assertEquals(3, index.positionOnAppend(1L, 50L));
+        assertEquals(2, index.positionOnAppend(1L, 25L));
+        assertEquals(2, index.positionOnAppend(1L, 30L));
+        assertEquals(-1, index.positionOnAppend(1L, 20L));
+
+        index.append(1L, 50L);
+        assertEquals(3, index.position(1L, 50L));
+    }
+
+    @Test
+    void manyOperations_matchNaiveCount() {
+        WaitlistIndex index = new WaitlistIndex();
+        index.load(1L, List.of());
+        List<Long> expected = new ArrayList<>();
+        LongStream.rangeClosed(1, 1000).forEach(id -> {
+            index.append(1L, id);
+            expected.add(id);
+        });
+        // usuwamy 3 z każdych 4 – wymusza kilka kompaktowań
+        for (long id = 1; id <= 1000; id++) {
+            if (id % 4 != 0) {
+                index.remove(1L, id);
+                expected.remove(id);
+            }
+        }
+        LongStream.rangeClosed(1001, 1100).forEach(id -> {
+            index.append(1L, id);
+            expected.add(id);
+        });
+
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(i + 1, index.position(1L, expected.get(i)));
+        }
+    }
+
+    @Test
+    void expiredIndex_requiresReload() throws InterruptedException {
+        WaitlistIndex index = new WaitlistIndex(Duration.ofMillis(1));
+        index.load(1L, List.of(10L));
+        Thread.sleep(5);
+
+        assertEquals(-1, index.position(1L, 10L));
+    }
+}
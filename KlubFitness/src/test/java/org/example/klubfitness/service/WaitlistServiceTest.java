@@ -0,0 +1,203 @@
+package org.example.klubfitness.service;
+
+import org.example.klubfitness.dto.WaitlistEntryDto;
+import org.example.klubfitness.entity.Reservation;
+import org.example.klubfitness.entity.TrainingSession;
+import org.example.klubfitness.entity.User;
+import org.example.klubfitness.entity.WaitlistEntry;
+import org.example.klubfitness.exception.ConflictException;
+import org.example.klubfitness.exception.NotFoundException;
+import org.example.klubfitness.repository.ReservationRepository;
+import org.example.klubfitness.repository.TrainingSessionRepository;
+import org.example.klubfitness.repository.UserRepository;
+import org.example.klubfitness.repository.WaitlistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistServiceTest {
+
+    @Mock
+    private WaitlistRepository repo;
+
+    @Mock
+    private ReservationRepository reservationRepo;
+
+    @Mock
+    private TrainingSessionRepository sessionRepo;
+
+    @Mock
+    private UserRepository userRepo;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    private WaitlistIndex index;
+    private WaitlistService service;
+    private TrainingSession session;
+
+    @BeforeEach
+    void init() {
+        index = new WaitlistIndex();
+        service = new WaitlistService(repo, reservationRepo, sessionRepo, userRepo, index, events);
+
+        session = new TrainingSession();
+        session.setId(20L);
+        session.setCapacity(2);
+        session.setSeatsTaken(2);
+    }
+
+    private WaitlistEntry entry(long id, long userId) {
+        return new WaitlistEntry(id, 20L, userId, LocalDateTime.now());
+    }
+
+    @Test
+    void join_fullSession_returnsPosition() {
+        when(sessionRepo.findById(20L)).thenReturn(Optional.of(session));
+        when(userRepo.existsById(10L)).thenReturn(true);
+        when(repo.save(any(WaitlistEntry.class))).thenAnswer(inv -> {
+            WaitlistEntry e = inv.getArgument(0);
+            e.setId(7L);
+            return e;
+        });
+        when(repo.findIdsBySessionId(20L)).thenReturn(List.of(3L, 5L, 7L));
+
+        WaitlistEntryDto dto = service.join(10L, 20L);
+
+        assertEquals(7L, dto.getId());
+        assertEquals(3L, dto.getPosition());
+    }
+
+    @Test
+    void join_warmIndex_positionWithoutReloadingQueue() {
+        index.load(20L, List.of(3L, 5L));
+        when(sessionRepo.findById(20L)).thenReturn(Optional.of(session));
+        when(userRepo.existsById(10L)).thenReturn(true);
+        when(repo.save(any(WaitlistEntry.class))).thenAnswer(inv -> {
+            WaitlistEntry e = inv.getArgument(0);
+            e.setId(7L);
+            return e;
+        });
+
+        assertEquals(3L, service.join(10L, 20L).getPosition());
+
+        verify(repo, never()).findIdsBySessionId(anyLong());
+        // poza transakcją "po commicie" wykonuje się od razu – wpis jest już w indeksie
+        assertEquals(3L, index.position(20L, 7L));
+    }
+
+    @Test
+    void join_sessionWithFreeSeats_conflict() {
+        session.setSeatsTaken(1);
+        when(sessionRepo.findById(20L)).thenReturn(Optional.of(session));
+        when(userRepo.existsById(10L)).thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> service.join(10L, 20L));
+        verify(repo, never()).save(any());
+    }
+
+    @Test
+    void join_alreadyBooked_conflict() {
+        when(sessionRepo.findById(20L)).thenReturn(Optional.of(session));
+        when(userRepo.existsById(10L)).thenReturn(true);
+        when(reservationRepo.existsByUserIdAndSessionId(10L, 20L)).thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> service.join(10L, 20L));
+    }
+
+    @Test
+    void join_missingUser_notFound() {
+        when(sessionRepo.findById(20L)).thenReturn(Optional.of(session));
+        when(userRepo.existsById(10L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> service.join(10L, 20L));
+    }
+
+    @Test
+    void getEntry_usesLoadedIndexWithoutRequery() {
+        index.load(20L, List.of(3L, 5L));
+        when(repo.findBySessionIdAndUserId(20L, 11L)).thenReturn(Optional.of(entry(5L, 11L)));
+
+        assertEquals(2L, service.getEntry(11L, 20L).getPosition());
+        verify(repo, never()).findIdsBySessionId(anyLong());
+    }
+
+    @Test
+    void transferSeat_createsReservationForHeadAndRemovesEntry() {
+        when(repo.claimHead(20L, 1)).thenReturn(List.of(entry(3L, 11L)));
+        User user = new User();
+        user.setId(11L);
+        when(userRepo.getReferenceById(11L)).thenReturn(user);
+        when(sessionRepo.getReferenceById(20L)).thenReturn(session);
+
+        assertTrue(service.transferSeat(20L));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Reservation>> saved = ArgumentCaptor.forClass(List.class);
+        verify(reservationRepo).saveAll(saved.capture());
+        assertEquals(1, saved.getValue().size());
+        assertSame(user, saved.getValue().get(0).getUser());
+        verify(repo).deleteAllByIdInBatch(List.of(3L));
+        verify(events).publishEvent(ReservationEvent.created(null, 11L, 20L));
+        verify(sessionRepo, never()).tryTakeSeats(anyLong(), anyInt());
+    }
+
+    @Test
+    void removeBooked_deletesEntriesAndDropsStaleIndex() {
+        index.load(20L, List.of(3L, 5L));
+        when(repo.deleteBySessionIdAndUserIds(20L, List.of(11L))).thenReturn(1);
+
+        service.removeBooked(20L, List.of(11L));
+
+        // poza transakcją afterCommit działa od razu – indeks wczyta się na nowo przy następnym odczycie
+        assertEquals(-1L, index.position(20L, 3L));
+    }
+
+    @Test
+    void removeBooked_noBookedUsers_skipsDelete() {
+        service.removeBooked(20L, List.of());
+
+        verify(repo, never()).deleteBySessionIdAndUserIds(anyLong(), any());
+    }
+
+    @Test
+    void transferSeat_emptyQueue_returnsFalse() {
+        when(repo.claimHead(20L, 1)).thenReturn(List.of());
+
+        assertFalse(service.transferSeat(20L));
+        verify(reservationRepo, never()).saveAll(any());
+    }
+
+    @Test
+    void promoteFreeSeats_claimsOnlyFreeSeats() {
+        when(sessionRepo.findFreeSeats(20L)).thenReturn(Optional.of(3));
+        when(repo.claimHead(20L, 3)).thenReturn(List.of(entry(3L, 11L), entry(4L, 12L)));
+        when(sessionRepo.tryTakeSeats(20L, 2)).thenReturn(1);
+        when(sessionRepo.getReferenceById(20L)).thenReturn(session);
+        when(userRepo.getReferenceById(anyLong())).thenAnswer(inv -> new User());
+
+        assertEquals(2, service.promoteFreeSeats(20L));
+        verify(repo).deleteAllByIdInBatch(List.of(3L, 4L));
+    }
+
+    @Test
+    void promoteFreeSeats_noFreeSeats_doesNothing() {
+        when(sessionRepo.findFreeSeats(20L)).thenReturn(Optional.of(0));
+
+        assertEquals(0, service.promoteFreeSeats(20L));
+        verify(repo, never()).claimHead(anyLong(), anyInt());
+    }
+}